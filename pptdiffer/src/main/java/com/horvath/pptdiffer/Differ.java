@@ -24,51 +24,417 @@
 
 package com.horvath.pptdiffer;
 
+import java.io.Closeable;
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Level;
 
 import org.apache.poi.xslf.usermodel.XMLSlideShow;
-import org.apache.poi.xslf.usermodel.XSLFPictureData;
 
+import com.horvath.pptdiffer.application.Debugger;
+import com.horvath.pptdiffer.command.PpdCommand;
+import com.horvath.pptdiffer.command.compare.AlignSlidesCmd;
+import com.horvath.pptdiffer.command.compare.DiffSlideShapesCmd;
+import com.horvath.pptdiffer.command.compare.DiffSlideTextCmd;
 import com.horvath.pptdiffer.command.compare.GenerateReportTextCmd;
 import com.horvath.pptdiffer.command.compare.GetSlideNameForCompareCmd;
 import com.horvath.pptdiffer.command.compare.GetSlideTextForCompareCmd;
 import com.horvath.pptdiffer.command.io.LoadPptxCmd;
+import com.horvath.pptdiffer.command.io.PreDiffPackagesCmd;
+import com.horvath.pptdiffer.command.io.ReadMetadataCmd;
 import com.horvath.pptdiffer.command.parse.ExtractWholeFileTextCmd;
+import com.horvath.pptdiffer.command.parse.HashMediaPartsCmd;
 import com.horvath.pptdiffer.command.parse.ParsePptxCmd;
+import com.horvath.pptdiffer.command.parse.ReadTemplatesCmd;
+import com.horvath.pptdiffer.engine.PptxSession;
+import com.horvath.pptdiffer.engine.diff.DiffHunk;
+import com.horvath.pptdiffer.engine.diff.ImageChange;
+import com.horvath.pptdiffer.engine.diff.ImageDiff;
+import com.horvath.pptdiffer.engine.diff.MetadataChange;
+import com.horvath.pptdiffer.engine.diff.MetadataDiff;
+import com.horvath.pptdiffer.engine.diff.ShapeChange;
+import com.horvath.pptdiffer.engine.diff.SlideMatch;
+import com.horvath.pptdiffer.engine.diff.SlideSketch;
+import com.horvath.pptdiffer.engine.diff.TableDiff;
+import com.horvath.pptdiffer.engine.diff.TemplateDiff;
+import com.horvath.pptdiffer.engine.diff.UnifiedDiff;
+import com.horvath.pptdiffer.engine.model.MediaPart;
+import com.horvath.pptdiffer.engine.model.PackagePartDiff;
+import com.horvath.pptdiffer.engine.model.PptxMetadata;
+import com.horvath.pptdiffer.engine.model.PptxSlide;
 import com.horvath.pptdiffer.engine.model.PptxSlideShow;
+import com.horvath.pptdiffer.engine.model.PptxTemplate;
 import com.horvath.pptdiffer.exception.PpdException;
+import com.horvath.pptdiffer.exception.PpdTimeoutException;
+import com.horvath.pptdiffer.io.ExactFileComparer;
+import com.horvath.pptdiffer.io.FileDigestCache;
+import com.horvath.pptdiffer.utility.ListenerList;
+import com.horvath.pptdiffer.utility.ParallelPair;
+import com.horvath.pptdiffer.utility.PpdEvent;
+import com.horvath.pptdiffer.utility.PpdEventType;
+import com.horvath.pptdiffer.utility.PpdListener;
 
 /**
  * Performs PPTX diff-ing operations and makes result data available. 
+ * When slides are parsed lazily, the files stay open until the Differ is closed, 
+ * and the whole file text and the media parts are also read the first time they are used.
  * @author jhorvath 
  */
-public final class Differ {
+public final class Differ implements Closeable {
+	
+	public static final String ERROR_CLOSED = "The files of the comparison have been closed.";
+	
+	public static final String ERROR_DEFERRED_READ = "Unable to read from the files of the comparison.";
 
 	private File rawFileA;
 	private File rawFileB;
 	
+	// each file is opened and parsed once, and shared by every stage
+	private PptxSession sessionA;
+	private PptxSession sessionB;
+	
 	private XMLSlideShow poiXmlFileA;
 	private XMLSlideShow poiXmlFileB;
 	
 	private PptxSlideShow ppdFileA;
 	private PptxSlideShow ppdFileB;
+	
+	// media parts, hashed while the files are open
+	private List<MediaPart> mediaPartsA;
+	private List<MediaPart> mediaPartsB;
+	
+	// with lazy slides, the text and media are read on first use
+	private boolean textRead;
+	private boolean mediaRead;
+	
+	// set once the files kept open for lazy slides are closed
+	private boolean closed;
 
 	/**
 	 * Tracks if both files are the same exact file, including meta data. 
 	 */
 	boolean sameFile;
 	
+	/**
+	 * Offset of the first byte that differs in the two files, if known.
+	 */
+	private long mismatchOffset;
+	
+	// false when cached digests showed the files differ, and the offset is found on first use
+	private boolean mismatchOffsetKnown;
+	
+	private long fileSizeA;
+	private long fileSizeB;
+	
+	/**
+	 * Parts that differ between the two packages, found from the zip central directories.
+	 */
+	private PackagePartDiff partDiff;
+	
+	/**
+	 * Document properties, read straight from the property parts of each package.
+	 */
+	private PptxMetadata metadataA;
+	private PptxMetadata metadataB;
+	
+	/**
+	 * Document properties that differ, computed on first use.
+	 */
+	private List<MetadataChange> metadataChanges;
+	
+	/**
+	 * Slide alignment of File A with File B, computed on first use.
+	 */
+	private List<SlideMatch> slideMatches;
+	
+	/**
+	 * Line diff of the whole file text, computed on first use.
+	 */
+	private UnifiedDiff wholeTextDiff;
+	
+	/**
+	 * Images of File A matched with the images of File B, computed on first use.
+	 */
+	private List<ImageChange> imageChanges;
+	
+	/**
+	 * Diffs of layout and master pairs, keyed by the two part names. Many slides share 
+	 * a few layouts, so each distinct pair is compared once and shared by every slide using it.
+	 */
+	private final Map<String, TemplateDiff> templateDiffs = new ConcurrentHashMap<>();
+	
+	private DifferOptions options;
+	
+	// copied from the options, so listeners added to one Differ are not told of another's events
+	private final ListenerList listeners;
+	
 	/**
 	 * Constructor. 
 	 * @param fileA File
 	 * @param fileB File 
 	 */
 	public Differ(File fileA, File fileB) throws PpdException {
+		this(fileA, fileB, new DifferOptions());
+	}
+	
+	/**
+	 * Constructor. 
+	 * @param fileA File
+	 * @param fileB File 
+	 * @param options DifferOptions
+	 */
+	public Differ(File fileA, File fileB, DifferOptions options) throws PpdException {
+		this(options == null ? new DifferOptions() : options, fileA, fileB);
+		
+		boolean keepOpen = false;
+		try {
+			preDiffFiles();
+			loadFiles();
+			parseFiles();
+			
+			// lazy slides are read from the open files when they are accessed
+			keepOpen = this.options.isLazySlides();
+			
+		} catch (PpdTimeoutException ex) {
+			addPartialFiles(ex);
+			throw ex;
+			
+		} finally {
+			if (!keepOpen) {
+				// everything needed has been read, do not hold the files open
+				releaseFiles();
+			}
+		}
+	}
+	
+	/**
+	 * Constructor for compareAsync, which runs the stages itself. 
+	 * @param options DifferOptions
+	 * @param fileA File
+	 * @param fileB File 
+	 */
+	private Differ(DifferOptions options, File fileA, File fileB) {
 		this.rawFileA = fileA;
 		this.rawFileB = fileB;
-		loadFiles();
-		parseFiles();
+		this.options = options;
+		this.listeners = new ListenerList(options.getListeners());
+	}
+	
+	/**
+	 * Prepares a comparison of two files on the given executor, the same way as the constructor. 
+	 * Each stage runs as a future of its own. The packages are compared, and the files compared 
+	 * byte by byte, straight from the files. Each file is loaded, parsed, and has its text, 
+	 * media and templates read by a chain of futures of its own, so File A is parsed while 
+	 * File B is still loading. The two chains never share POI objects, as each file has a 
+	 * session of its own, and the comparison is complete when every future has finished. 
+	 * Stage events are told once for each file, with the name of the file as their detail. 
+	 * The future fails with a CompletionException caused by the PpdException of the stage that failed. 
+	 * 
+	 * @param fileA File
+	 * @param fileB File
+	 * @param options DifferOptions, may be null
+	 * @param executor Executor, the common fork-join pool when null
+	 * @return CompletableFuture<Differ>
+	 */
+	public static CompletableFuture<Differ> compareAsync(File fileA, File fileB, DifferOptions options, 
+			Executor executor) {
+		final Differ differ = new Differ(options == null ? new DifferOptions() : options, fileA, fileB);
+		final Executor stageExecutor = executor == null ? ForkJoinPool.commonPool() : executor;
+		
+		// the package parts, properties and bytes are read straight from the files, so they do not wait for the load
+		final CompletableFuture<Void> packages = stageAsync(differ::preDiffFiles, stageExecutor);
+		final CompletableFuture<Void> bytes = stageAsync(differ::compareFiles, stageExecutor);
+		final CompletableFuture<Void> stagesA = differ.fileStagesAsync(true, stageExecutor);
+		final CompletableFuture<Void> stagesB = differ.fileStagesAsync(false, stageExecutor);
+		// the text and media of the comparison are read only once both files have been
+		final CompletableFuture<Void> both = stagesA.thenCombine(stagesB, (doneA, doneB) -> {
+			differ.filesRead();
+			return null;
+		});
+		
+		// every stage has stopped by the time this runs, so the files can be closed
+		return CompletableFuture.allOf(packages, bytes, stagesA, stagesB, both).handle((done, failure) -> {
+			if (failure == null && differ.options.isLazySlides()) {
+				// lazy slides are read from the open files when they are accessed
+				return differ;
+			}
+			differ.releaseFiles();
+			
+			if (failure != null) {
+				if (failure.getCause() instanceof PpdTimeoutException) {
+					differ.addPartialFiles((PpdTimeoutException) failure.getCause());
+				}
+				throw failure instanceof CompletionException ? (CompletionException) failure : new CompletionException(failure);
+			}
+			return differ;
+		});
+	}
+	
+	/**
+	 * Chains the stages of compareAsync for one file, each on the executor: load, parse, 
+	 * text, media and templates. 
+	 * 
+	 * @param fileA boolean, true for File A, false for File B
+	 * @param executor Executor
+	 * @return CompletableFuture<Void>
+	 */
+	private CompletableFuture<Void> fileStagesAsync(boolean fileA, Executor executor) {
+		return stageAsync(() -> loadFile(fileA), executor)
+				.thenCompose(done -> stageAsync(() -> parseSlides(fileA), executor))
+				.thenCompose(done -> stageAsync(() -> extractText(fileA), executor))
+				.thenCompose(done -> stageAsync(() -> hashMedia(fileA), executor))
+				.thenCompose(done -> stageAsync(() -> readTemplates(fileA), executor));
+	}
+	
+	/**
+	 * Runs one stage of compareAsync on the executor. 
+	 * 
+	 * @param stage ParallelPair.Task
+	 * @param executor Executor
+	 * @return CompletableFuture<Void>
+	 */
+	private static CompletableFuture<Void> stageAsync(ParallelPair.Task stage, Executor executor) {
+		return CompletableFuture.runAsync(() -> {
+			try {
+				stage.run();
+				
+			} catch (PpdException ex) {
+				throw new CompletionException(ex);
+			}
+		}, executor);
+	}
+	
+	/**
+	 * Hands the slides parsed in full to a timeout thrown by a later stage. 
+	 * 
+	 * @param ex PpdTimeoutException
+	 */
+	private void addPartialFiles(PpdTimeoutException ex) {
+		if (ex.getPartialFileA() == null) {
+			ex.setPartialFileA(this.ppdFileA);
+		}
+		if (ex.getPartialFileB() == null) {
+			ex.setPartialFileB(this.ppdFileB);
+		}
+	}
+	
+	/**
+	 * Hands a timeout thrown by a command working on File B alone, which hands back 
+	 * its partial results as those of File A, the results of File B. 
+	 * 
+	 * @param ex PpdTimeoutException
+	 */
+	private static void partialAsFileB(PpdTimeoutException ex) {
+		ex.setPartialFileB(ex.getPartialFileA());
+		ex.setPartialFileA(null);
+		ex.setPartialTextB(ex.getPartialTextA());
+		ex.setPartialTextA(null);
+	}
+	
+	/**
+	 * Tells the listeners that a stage has started, then stops the comparison 
+	 * when it was cancelled or its deadline has passed. 
+	 * 
+	 * @param stage String
+	 * @throws PpdException
+	 */
+	private void startStage(String stage) throws PpdException {
+		startStage(stage, null);
+	}
+	
+	/**
+	 * Tells the listeners that a stage has started for one file, then stops the comparison 
+	 * when it was cancelled or its deadline has passed. 
+	 * 
+	 * @param stage String
+	 * @param detail String, the name of the file, null when the stage works on both
+	 * @throws PpdException
+	 */
+	private void startStage(String stage, String detail) throws PpdException {
+		this.listeners.fire(new PpdEvent(PpdEventType.STAGE_STARTED, stage, 0, 0, detail));
+		if (options.getCancellationToken() != null) {
+			options.getCancellationToken().check();
+		}
+	}
+	
+	/**
+	 * Tells the listeners that a stage has finished. 
+	 * 
+	 * @param stage String
+	 */
+	private void finishStage(String stage) {
+		finishStage(stage, null);
+	}
+	
+	/**
+	 * Tells the listeners that a stage has finished for one file. 
+	 * 
+	 * @param stage String
+	 * @param detail String, the name of the file, null when the stage works on both
+	 */
+	private void finishStage(String stage, String detail) {
+		this.listeners.fire(new PpdEvent(PpdEventType.STAGE_FINISHED, stage, 0, 0, detail));
+	}
+	
+	/**
+	 * Adds a listener told of the events of this comparison from now on, such as the 
+	 * slides compared for the report. Listeners told of the parsing of the files are 
+	 * added to the options before the comparison. The options are not changed, so other 
+	 * comparisons made with them do not tell this listener. 
+	 * 
+	 * @param listener PpdListener
+	 */
+	public void addListener(PpdListener listener) {
+		this.listeners.add(listener);
+	}
+	
+	/**
+	 * Removes a listener added before. 
+	 * 
+	 * @param listener PpdListener
+	 */
+	public void removeListener(PpdListener listener) {
+		this.listeners.remove(listener);
+	}
+	
+	/**
+	 * Closes the files, when they were kept open for lazy slides. 
+	 * Slides, text and media that have not been read yet can no longer be accessed afterwards.
+	 */
+	@Override
+	public synchronized void close() {
+		closed = true;
+		releaseFiles();
+	}
+	
+	/**
+	 * Compares the parts of the two packages without loading either file. 
+	 * 
+	 * @throws PpdException
+	 */
+	private void preDiffFiles() throws PpdException {
+		startStage(PpdEvent.STAGE_PACKAGES);
+		
+		PreDiffPackagesCmd cmd = new PreDiffPackagesCmd(rawFileA, rawFileB);
+		cmd.perform();
+		
+		partDiff = cmd.getPartDiff();
+		
+		ReadMetadataCmd metadataCmd = new ReadMetadataCmd(rawFileA, rawFileB);
+		metadataCmd.perform();
+		
+		metadataA = metadataCmd.getMetadataA();
+		metadataB = metadataCmd.getMetadataB();
+		finishStage(PpdEvent.STAGE_PACKAGES);
 	}
 	
 	/**
@@ -77,19 +443,148 @@ public final class Differ {
 	 * @throws PpdException
 	 */
 	private void loadFiles() throws PpdException {
-		LoadPptxCmd cmd = new LoadPptxCmd(rawFileA, rawFileB);
+		startStage(PpdEvent.STAGE_LOAD);
+		
+		LoadPptxCmd cmd = new LoadPptxCmd(rawFileA, rawFileB, newDigestCache());
+		cmd.setExecutor(options.getParallelExecutor());
+		cmd.setPackagePool(options.getPackagePool());
+		// lazy slides are read from the packages, without the POI slide-shows
+		cmd.setPackageOnly(options.isLazySlides());
+		cmd.setCancellationToken(options.getCancellationToken());
+		cmd.setListeners(this.listeners);
 		cmd.perform();
 		
+		sessionA = cmd.getSessionA();
+		sessionB = cmd.getSessionB();
 		poiXmlFileA = cmd.getPoiFileA();
 		poiXmlFileB = cmd.getPoiFileB();
 		sameFile = cmd.isExactlySameFile();
+		mismatchOffsetKnown = cmd.isMismatchOffsetKnown();
+		if (mismatchOffsetKnown) {
+			mismatchOffset = cmd.getMismatchOffset();
+		}
+		fileSizeA = cmd.getFileSizeA();
+		fileSizeB = cmd.getFileSizeB();
+		finishStage(PpdEvent.STAGE_LOAD);
+	}
+	
+	/**
+	 * Checks the files and compares them byte by byte, without opening them, 
+	 * while each file is loaded on its own by compareAsync. 
+	 * 
+	 * @throws PpdException
+	 */
+	private void compareFiles() throws PpdException {
+		startStage(PpdEvent.STAGE_LOAD);
+		
+		LoadPptxCmd cmd = new LoadPptxCmd(rawFileA, rawFileB, newDigestCache());
+		cmd.setOpenFiles(false);
+		cmd.setCancellationToken(options.getCancellationToken());
+		cmd.setListeners(this.listeners);
+		cmd.perform();
+		
+		sameFile = cmd.isExactlySameFile();
+		mismatchOffsetKnown = cmd.isMismatchOffsetKnown();
+		if (mismatchOffsetKnown) {
+			mismatchOffset = cmd.getMismatchOffset();
+		}
+		fileSizeA = cmd.getFileSizeA();
+		fileSizeB = cmd.getFileSizeB();
+		finishStage(PpdEvent.STAGE_LOAD);
+	}
+	
+	/**
+	 * Loads one file on its own for compareAsync. 
+	 * 
+	 * @param fileA boolean, true for File A, false for File B
+	 * @throws PpdException
+	 */
+	private void loadFile(boolean fileA) throws PpdException {
+		startStage(PpdEvent.STAGE_LOAD, fileName(fileA));
+		
+		LoadPptxCmd cmd = new LoadPptxCmd(fileA ? rawFileA : rawFileB);
+		cmd.setPackagePool(options.getPackagePool());
+		cmd.setPackageOnly(options.isLazySlides());
+		cmd.setCancellationToken(options.getCancellationToken());
+		cmd.setListeners(this.listeners);
+		cmd.perform();
+		
+		if (fileA) {
+			sessionA = cmd.getSessionA();
+			poiXmlFileA = cmd.getPoiFileA();
+		} else {
+			sessionB = cmd.getSessionA();
+			poiXmlFileB = cmd.getPoiFileA();
+		}
+		finishStage(PpdEvent.STAGE_LOAD, fileName(fileA));
+	}
+	
+	/**
+	 * Returns the digest cache of the options, null when there is none. 
+	 * 
+	 * @return FileDigestCache
+	 * @throws PpdException
+	 */
+	private FileDigestCache newDigestCache() throws PpdException {
+		if (options.getDigestCacheFile() == null) {
+			return null;
+		}
+		return new FileDigestCache(options.getDigestCacheFile());
+	}
+	
+	/**
+	 * Returns the name of File A or File B, null when the file is null. 
+	 * 
+	 * @param fileA boolean, true for File A, false for File B
+	 * @return String
+	 */
+	private String fileName(boolean fileA) {
+		final File file = fileA ? rawFileA : rawFileB;
+		return file == null ? null : file.getName();
+	}
+	
+	/**
+	 * Closes the sessions for both files. 
+	 */
+	private void releaseFiles() {
+		for (PptxSession session : new PptxSession[] {sessionA, sessionB}) {
+			if (session != null) {
+				try {
+					session.close();
+					
+				} catch (IOException ex) {
+					Debugger.printLog(ex.getMessage(), this.getClass().getName(), Level.WARNING);
+				}
+			}
+		}
 	}
 	
 	/**
 	 * Parses POI XML objects into PPD model objects. 
 	 */
 	private void parseFiles() throws PpdException {
-		ParsePptxCmd cmd = new ParsePptxCmd(this.poiXmlFileA, this.poiXmlFileB);
+		parseSlides();
+		extractText();
+		hashMedia();
+		readTemplates();
+	}
+	
+	/**
+	 * Parses the slides of both files. 
+	 * 
+	 * @throws PpdException
+	 */
+	private void parseSlides() throws PpdException {
+		startStage(PpdEvent.STAGE_PARSE);
+		ParsePptxCmd cmd = options.isLazySlides() 
+				? ParsePptxCmd.fromPackages(this.sessionA.getPackage(), this.sessionB.getPackage()) 
+				: new ParsePptxCmd(this.sessionA.getSlideShow(), this.sessionB.getSlideShow());
+		cmd.setExecutor(options.getParallelExecutor());
+		cmd.setParseMode(options.getParseMode());
+		cmd.setLazySlides(options.isLazySlides());
+		cmd.setSlideCacheSize(options.getSlideCacheSize());
+		cmd.setListeners(this.listeners);
+		cmd.setCancellationToken(options.getCancellationToken());
 		cmd.perform();
 		
 		this.ppdFileA = cmd.getPpdFileA();
@@ -97,8 +592,111 @@ public final class Differ {
 		
 		this.ppdFileB = cmd.getPpdFileB();
 		this.ppdFileB.setFileName(this.rawFileB.getName());
+		finishStage(PpdEvent.STAGE_PARSE);
+	}
+	
+	/**
+	 * Parses the slides of one file on its own for compareAsync. 
+	 * 
+	 * @param fileA boolean, true for File A, false for File B
+	 * @throws PpdException
+	 */
+	private void parseSlides(boolean fileA) throws PpdException {
+		startStage(PpdEvent.STAGE_PARSE, fileName(fileA));
+		final PptxSession session = fileA ? this.sessionA : this.sessionB;
+		ParsePptxCmd cmd = options.isLazySlides() 
+				? ParsePptxCmd.fromPackage(session.getPackage()) 
+				: new ParsePptxCmd(session.getSlideShow());
+		cmd.setParseMode(options.getParseMode());
+		cmd.setLazySlides(options.isLazySlides());
+		cmd.setSlideCacheSize(options.getSlideCacheSize());
+		cmd.setListeners(this.listeners);
+		cmd.setCancellationToken(options.getCancellationToken());
+		performFor(cmd, fileA);
+		
+		final PptxSlideShow ppdFile = cmd.getPpdFileA();
+		ppdFile.setFileName(fileName(fileA));
+		if (fileA) {
+			this.ppdFileA = ppdFile;
+		} else {
+			this.ppdFileB = ppdFile;
+		}
+		finishStage(PpdEvent.STAGE_PARSE, fileName(fileA));
+	}
+	
+	/**
+	 * Performs a command working on one file on its own, which hands back the results 
+	 * of a timeout as those of File A, so that they are handed back for the right file. 
+	 * 
+	 * @param cmd PpdCommand
+	 * @param fileA boolean, true for File A, false for File B
+	 * @throws PpdException
+	 */
+	private static void performFor(PpdCommand cmd, boolean fileA) throws PpdException {
+		try {
+			cmd.perform();
+			
+		} catch (PpdTimeoutException ex) {
+			if (!fileA) {
+				partialAsFileB(ex);
+			}
+			throw ex;
+		}
+	}
+	
+	/**
+	 * Extracts the whole file text and metadata text of both files, once the slides are parsed. 
+	 * With lazy slides, the text is extracted the first time it is used instead.
+	 * 
+	 * @throws PpdException
+	 */
+	private void extractText() throws PpdException {
+		if (!options.isLazySlides()) {
+			readText();
+		}
+	}
+	
+	/**
+	 * Extracts the whole file text and metadata text of one file on its own for compareAsync. 
+	 * With lazy slides, the text of both files is extracted the first time it is used instead.
+	 * 
+	 * @param fileA boolean, true for File A, false for File B
+	 * @throws PpdException
+	 */
+	private void extractText(boolean fileA) throws PpdException {
+		if (options.isLazySlides()) {
+			return;
+		}
+		startStage(PpdEvent.STAGE_TEXT, fileName(fileA));
+		ExtractWholeFileTextCmd wholeTextCmd = new ExtractWholeFileTextCmd(fileA ? this.sessionA : this.sessionB);
+		wholeTextCmd.setCancellationToken(options.getCancellationToken());
+		performFor(wholeTextCmd, fileA);
 		
-		ExtractWholeFileTextCmd wholeTextCmd = new ExtractWholeFileTextCmd(this.rawFileA, this.rawFileB);
+		final PptxSlideShow ppdFile = fileA ? this.ppdFileA : this.ppdFileB;
+		ppdFile.setSlideshowText(wholeTextCmd.getFileA_Text());
+		ppdFile.setMetadata(wholeTextCmd.getFileA_metadata());
+		finishStage(PpdEvent.STAGE_TEXT, fileName(fileA));
+	}
+	
+	/**
+	 * Extracts the whole file text of lazy slides the first time it is used. 
+	 */
+	private synchronized void requireText() {
+		if (!textRead) {
+			readDeferred(this::readText);
+		}
+	}
+	
+	/**
+	 * Extracts the whole file text and metadata text of both files. 
+	 * 
+	 * @throws PpdException
+	 */
+	private synchronized void readText() throws PpdException {
+		startStage(PpdEvent.STAGE_TEXT);
+		ExtractWholeFileTextCmd wholeTextCmd = new ExtractWholeFileTextCmd(this.sessionA, this.sessionB);
+		wholeTextCmd.setExecutor(options.getParallelExecutor());
+		wholeTextCmd.setCancellationToken(options.getCancellationToken());
 		wholeTextCmd.perform();
 		
 		this.ppdFileA.setSlideshowText(wholeTextCmd.getFileA_Text());
@@ -106,10 +704,139 @@ public final class Differ {
 
 		this.ppdFileA.setMetadata(wholeTextCmd.getFileA_metadata());
 		this.ppdFileB.setMetadata(wholeTextCmd.getFileB_metadata());
+		textRead = true;
+		finishStage(PpdEvent.STAGE_TEXT);
+	}
+	
+	/**
+	 * Hashes the media parts of both files. 
+	 * With lazy slides, the media parts are hashed the first time they are used instead.
+	 * 
+	 * @throws PpdException
+	 */
+	private void hashMedia() throws PpdException {
+		if (!options.isLazySlides()) {
+			readMedia();
+		}
+	}
+	
+	/**
+	 * Hashes the media parts of one file on its own for compareAsync. 
+	 * With lazy slides, the media parts of both files are hashed the first time they are used instead.
+	 * 
+	 * @param fileA boolean, true for File A, false for File B
+	 * @throws PpdException
+	 */
+	private void hashMedia(boolean fileA) throws PpdException {
+		if (options.isLazySlides()) {
+			return;
+		}
+		startStage(PpdEvent.STAGE_MEDIA, fileName(fileA));
+		HashMediaPartsCmd mediaCmd = new HashMediaPartsCmd(fileA ? this.sessionA : this.sessionB);
+		mediaCmd.setExecutor(options.getParallelExecutor());
+		mediaCmd.setCancellationToken(options.getCancellationToken());
+		mediaCmd.setListeners(this.listeners);
+		mediaCmd.perform();
+		
+		if (fileA) {
+			this.mediaPartsA = Collections.unmodifiableList(mediaCmd.getMediaPartsA());
+		} else {
+			this.mediaPartsB = Collections.unmodifiableList(mediaCmd.getMediaPartsA());
+		}
+		finishStage(PpdEvent.STAGE_MEDIA, fileName(fileA));
+	}
+	
+	/**
+	 * Records that the text and media of both files were read by compareAsync, 
+	 * unless they are read the first time they are used. 
+	 */
+	private synchronized void filesRead() {
+		textRead = !options.isLazySlides();
+		mediaRead = !options.isLazySlides();
+	}
+	
+	/**
+	 * Hashes the media parts of lazy slides the first time they are used. 
+	 */
+	private synchronized void requireMedia() {
+		if (!mediaRead) {
+			readDeferred(this::readMedia);
+		}
+	}
+	
+	/**
+	 * Hashes the media parts of both files. 
+	 * 
+	 * @throws PpdException
+	 */
+	private synchronized void readMedia() throws PpdException {
+		startStage(PpdEvent.STAGE_MEDIA);
+		HashMediaPartsCmd mediaCmd = new HashMediaPartsCmd(this.sessionA, this.sessionB);
+		mediaCmd.setExecutor(options.getParallelExecutor());
+		mediaCmd.setCancellationToken(options.getCancellationToken());
+		mediaCmd.setListeners(this.listeners);
+		mediaCmd.perform();
+		
+		this.mediaPartsA = Collections.unmodifiableList(mediaCmd.getMediaPartsA());
+		this.mediaPartsB = Collections.unmodifiableList(mediaCmd.getMediaPartsB());
+		mediaRead = true;
+		finishStage(PpdEvent.STAGE_MEDIA);
 	}
 	
+	/**
+	 * Reads from the files kept open for lazy slides. A failure to read is thrown 
+	 * as an IllegalStateException with the PpdException as its cause, the same as for lazy slides.
+	 * 
+	 * @param read ParallelPair.Task
+	 */
+	private void readDeferred(ParallelPair.Task read) {
+		if (closed) {
+			throw new IllegalStateException(ERROR_CLOSED);
+		}
+		try {
+			read.run();
+			
+		} catch (PpdException ex) {
+			throw new IllegalStateException(ERROR_DEFERRED_READ, ex);
+		}
+	}
+	
+	/**
+	 * Reads the layouts and masters of both files, once the slides are parsed. 
+	 * 
+	 * @throws PpdException
+	 */
+	private void readTemplates() throws PpdException {
+		startStage(PpdEvent.STAGE_TEMPLATES);
+		ReadTemplatesCmd templatesCmd = new ReadTemplatesCmd(this.sessionA, this.sessionB);
+		templatesCmd.setExecutor(options.getParallelExecutor());
+		templatesCmd.perform();
+		
+		this.ppdFileA.setTemplates(templatesCmd.getTemplatesA());
+		this.ppdFileB.setTemplates(templatesCmd.getTemplatesB());
+		finishStage(PpdEvent.STAGE_TEMPLATES);
+	}
+	
+	/**
+	 * Reads the layouts and masters of one file on its own for compareAsync. 
+	 * 
+	 * @param fileA boolean, true for File A, false for File B
+	 * @throws PpdException
+	 */
+	private void readTemplates(boolean fileA) throws PpdException {
+		startStage(PpdEvent.STAGE_TEMPLATES, fileName(fileA));
+		ReadTemplatesCmd templatesCmd = new ReadTemplatesCmd(fileA ? this.sessionA : this.sessionB);
+		templatesCmd.perform();
+		
+		final PptxSlideShow ppdFile = fileA ? this.ppdFileA : this.ppdFileB;
+		ppdFile.setTemplates(templatesCmd.getTemplatesA());
+		finishStage(PpdEvent.STAGE_TEMPLATES, fileName(fileA));
+	}
+
 	/**
 	 * Generates and returns an analysis report of the comparisons of the two files. 
+	 * The listeners of this Differ are told of each pair of slides compared and each check completed. 
+	 * With the parallel option, pairs of slides are compared at the same time. 
 	 * 
 	 * @return String
 	 * @throws PpdException
@@ -117,16 +844,39 @@ public final class Differ {
 	public String generateReport() throws PpdException {
 		String result = "";
 		
+		startStage(PpdEvent.STAGE_REPORT);
 		GenerateReportTextCmd cmd = new GenerateReportTextCmd(this);
+		cmd.setListeners(this.listeners);
+		cmd.setExecutor(options.getParallelExecutor());
+		cmd.setCancellationToken(options.getCancellationToken());
 		cmd.perform();
 		
 		if (cmd.isSuccess()) {
 			result = cmd.getReportText();
 		}
+		finishStage(PpdEvent.STAGE_REPORT);
 		
 		return result;
 	}
 	
+	/**
+	 * Generates the report on the given executor, the same way as generateReport. 
+	 * The future fails with a CompletionException caused by the PpdException of the report. 
+	 * 
+	 * @param executor Executor, the common fork-join pool when null
+	 * @return CompletableFuture<String>
+	 */
+	public CompletableFuture<String> generateReportAsync(Executor executor) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return generateReport();
+				
+			} catch (PpdException ex) {
+				throw new CompletionException(ex);
+			}
+		}, executor == null ? ForkJoinPool.commonPool() : executor);
+	}
+	
 	/* File & slide Comparisons section */ 
 	
 	/**
@@ -139,6 +889,56 @@ public final class Differ {
 		return sameFile;
 	}
 	
+	/**
+	 * Returns the zero based offset of the first byte that is different in the two files. 
+	 * Returns -1 if the files are the same, or if the files have different sizes, 
+	 * in which case the contents are not compared byte by byte. When cached digests showed 
+	 * that the files differ, the files are compared the first time the offset is asked for, 
+	 * and a failure to read them is thrown as an IllegalStateException with the PpdException as its cause. 
+	 * 
+	 * @return long
+	 */
+	public synchronized long firstDifferenceOffset() {
+		if (!mismatchOffsetKnown) {
+			try {
+				mismatchOffset = ExactFileComparer.findMismatchOffset(rawFileA, rawFileB);
+				mismatchOffsetKnown = true;
+				
+			} catch (PpdException ex) {
+				throw new IllegalStateException(ERROR_DEFERRED_READ, ex);
+			}
+		}
+		return mismatchOffset;
+	}
+	
+	/**
+	 * Returns the size of File A in bytes. 
+	 * 
+	 * @return long
+	 */
+	public long fileSize_fileA() {
+		return fileSizeA;
+	}
+	
+	/**
+	 * Returns the size of File B in bytes. 
+	 * 
+	 * @return long
+	 */
+	public long fileSize_fileB() {
+		return fileSizeB;
+	}
+	
+	/**
+	 * Returns the parts that were added, removed or changed between File A and File B, 
+	 * and the slides whose parts, layouts and masters are all unchanged. 
+	 * 
+	 * @return PackagePartDiff
+	 */
+	public PackagePartDiff packagePartDiff() {
+		return partDiff;
+	}
+	
 	/**
 	 * Returns a string including all text in File A. 
 	 * White space characters are as they are in the original file. 
@@ -146,6 +946,7 @@ public final class Differ {
 	 * @return String 
 	 */
 	public String wholeFileText_FileA() {
+		requireText();
 		return this.ppdFileA.getSlideshowText();
 	}	
 	
@@ -156,15 +957,30 @@ public final class Differ {
 	 * @return String 
 	 */
 	public String wholeFileText_FileB() {
+		requireText();
 		return this.ppdFileB.getSlideshowText();
 	}
 	
+	/**
+	 * Returns the line by line diff of the whole text of File A with the whole text of File B. 
+	 * Use UnifiedDiff.format() to render the differences as unified diff hunks. 
+	 * 
+	 * @return UnifiedDiff
+	 */
+	public synchronized UnifiedDiff wholeTextDiff() {
+		if (wholeTextDiff == null) {
+			wholeTextDiff = new UnifiedDiff(wholeFileText_FileA(), wholeFileText_FileB());
+		}
+		return wholeTextDiff;
+	}
+	
 	/**
 	 * Parsed metadata for File A. 
 	 * 
 	 * @return String
 	 */
 	public String metadata_FileA() {
+		requireText();
 		return this.ppdFileA.getMetadata();
 	}
 	
@@ -174,8 +990,40 @@ public final class Differ {
 	 * @return String 
 	 */
 	public String metadata_FileB() {
+		requireText();
 		return this.ppdFileB.getMetadata();
 	}
+	
+	/**
+	 * Typed core, extended and custom document properties of File A. 
+	 * 
+	 * @return PptxMetadata
+	 */
+	public PptxMetadata metadataProperties_FileA() {
+		return metadataA;
+	}
+	
+	/**
+	 * Typed core, extended and custom document properties of File B. 
+	 * 
+	 * @return PptxMetadata
+	 */
+	public PptxMetadata metadataProperties_FileB() {
+		return metadataB;
+	}
+	
+	/**
+	 * Compares the document properties of the two files field by field, 
+	 * and returns the properties that differ or are only found in one file. 
+	 * 
+	 * @return List<MetadataChange>
+	 */
+	public synchronized List<MetadataChange> metadataDiff() {
+		if (metadataChanges == null) {
+			metadataChanges = Collections.unmodifiableList(MetadataDiff.diff(metadataA, metadataB));
+		}
+		return metadataChanges;
+	}
 
 	/**
 	 * Returns the number of slides in File A.
@@ -270,6 +1118,204 @@ public final class Differ {
 		return cmd.getSlideText();
 	}
 	
+	/**
+	 * Gets the speaker notes of the slide in File A with a given index value, 
+	 * cleaned the same way as the slide text. Empty when the slide has no notes. 
+	 * Zero based index value. 
+	 * 
+	 * @param index int
+	 * @return String
+	 */
+	public String slideNotes_fileA(int index) {
+		return getPpdFileA().getSlideList().get(index).getNotes();
+	}
+	
+	/**
+	 * Gets the speaker notes of the slide in File B with a given index value, 
+	 * cleaned the same way as the slide text. Empty when the slide has no notes. 
+	 * Zero based index value. 
+	 * 
+	 * @param index int
+	 * @return String
+	 */
+	public String slideNotes_fileB(int index) {
+		return getPpdFileB().getSlideList().get(index).getNotes();
+	}
+	
+	/**
+	 * Returns the alignment of the slides in File A with the slides in File B, 
+	 * ordered by File A, with slides only found in File B placed where they occur. 
+	 * Slides are matched by a fingerprint of their text, layout and shape names, then by 
+	 * similarity, so an inserted, deleted or moved slide does not shift the rest of the comparison. 
+	 * 
+	 * @return List<SlideMatch>
+	 * @throws PpdException
+	 */
+	public synchronized List<SlideMatch> slideAlignment() throws PpdException {
+		if (slideMatches == null) {
+			startStage(PpdEvent.STAGE_ALIGN);
+			AlignSlidesCmd cmd = new AlignSlidesCmd(this.ppdFileA, this.ppdFileB);
+			cmd.perform();
+			slideMatches = cmd.getMatches();
+			finishStage(PpdEvent.STAGE_ALIGN);
+		}
+		return slideMatches;
+	}
+	
+	/**
+	 * Estimates how similar a slide in File A is to a slide in File B, from 0 (nothing in 
+	 * common) to 1 (same words and shape names), by comparing the MinHash sketches of the slides. 
+	 * Zero based index values. 
+	 * 
+	 * @param indexA int
+	 * @param indexB int
+	 * @return double
+	 */
+	public double slideSimilarity(int indexA, int indexB) {
+		return SlideSketch.similarity(SlideSketch.of(getPpdFileA().getSlideList().get(indexA)), 
+				SlideSketch.of(getPpdFileB().getSlideList().get(indexB)));
+	}
+	
+	/**
+	 * Diffs the slide text of a slide in File A with a slide in File B word by word. 
+	 * Zero based index values. 
+	 * 
+	 * @param indexA int
+	 * @param indexB int
+	 * @return List<DiffHunk>
+	 * @throws PpdException
+	 */
+	public List<DiffHunk> slideTextDiff(int indexA, int indexB) throws PpdException {
+		DiffSlideTextCmd cmd = new DiffSlideTextCmd(indexA, this.ppdFileA, indexB, this.ppdFileB);
+		cmd.perform();
+		
+		return cmd.getHunks();
+	}
+	
+	/**
+	 * Diffs the slide text of Files A and B word by word for a given slide index. 
+	 * Hunk ranges are word positions in the space separated slide text. 
+	 * Zero based index value. 
+	 * 
+	 * @param index int
+	 * @return List<DiffHunk>
+	 * @throws PpdException
+	 */
+	public List<DiffHunk> slideTextDiff(int index) throws PpdException {
+		return slideTextDiff(index, index);
+	}
+	
+	/**
+	 * Diffs the speaker notes of a slide in File A with a slide in File B word by word, 
+	 * the same way as the slide text. Zero based index values. 
+	 * 
+	 * @param indexA int
+	 * @param indexB int
+	 * @return List<DiffHunk>
+	 * @throws PpdException
+	 */
+	public List<DiffHunk> slideNotesDiff(int indexA, int indexB) throws PpdException {
+		DiffSlideTextCmd cmd = new DiffSlideTextCmd(indexA, this.ppdFileA, indexB, this.ppdFileB);
+		cmd.setNotes(true);
+		cmd.perform();
+		
+		return cmd.getHunks();
+	}
+	
+	/**
+	 * Diffs the shapes of a slide in File A with a slide in File B. Shapes are matched 
+	 * by id, then by name, then by position, and each entry records whether the shape was 
+	 * moved, resized, rotated, retyped, renamed or given new text, or only found in one file. 
+	 * Zero based index values. 
+	 * 
+	 * @param indexA int
+	 * @param indexB int
+	 * @return List<ShapeChange>
+	 * @throws PpdException
+	 */
+	public List<ShapeChange> shapeDiff(int indexA, int indexB) throws PpdException {
+		DiffSlideShapesCmd cmd = new DiffSlideShapesCmd(indexA, this.ppdFileA, indexB, this.ppdFileB);
+		cmd.perform();
+		
+		return cmd.getChanges();
+	}
+	
+	/**
+	 * Diffs the cells of each table on a slide in File A with its matching table on a slide in File B, 
+	 * with tables paired the same way as the shape diff. Rows and columns are aligned, 
+	 * so inserted or deleted rows and columns are reported as such rather than as changed cells. 
+	 * Zero based index values. 
+	 * 
+	 * @param indexA int
+	 * @param indexB int
+	 * @return List<TableDiff> in File A order
+	 * @throws PpdException
+	 */
+	public List<TableDiff> tableDiff(int indexA, int indexB) throws PpdException {
+		List<TableDiff> tableDiffs = new ArrayList<>();
+		
+		for (ShapeChange change : shapeDiff(indexA, indexB)) {
+			if (change.getShapeA() != null && change.getShapeB() != null 
+					&& change.getShapeA().getTable() != null && change.getShapeB().getTable() != null) {
+				tableDiffs.add(new TableDiff(change.getShapeA().getTable(), change.getShapeB().getTable()));
+			}
+		}
+		return tableDiffs;
+	}
+	
+	/**
+	 * Diffs the layout of a slide in File A with the layout of a slide in File B: 
+	 * the layout name, background and shapes, placeholders included, with their text and geometry. 
+	 * Each distinct pair of layouts is compared once, and the same result is returned for 
+	 * every pair of slides that use them. Returns null when either slide has no layout. 
+	 * Zero based index values. 
+	 * 
+	 * @param indexA int
+	 * @param indexB int
+	 * @return TemplateDiff
+	 */
+	public TemplateDiff layoutDiff(int indexA, int indexB) {
+		return templateDiff(layout(ppdFileA, indexA), layout(ppdFileB, indexB));
+	}
+	
+	/**
+	 * Diffs the master of the layout of a slide in File A with the master of the layout of 
+	 * a slide in File B, the same way as the layouts. Each distinct pair of masters is compared once. 
+	 * Returns null when either slide has no master. Zero based index values. 
+	 * 
+	 * @param indexA int
+	 * @param indexB int
+	 * @return TemplateDiff
+	 */
+	public TemplateDiff masterDiff(int indexA, int indexB) {
+		return templateDiff(master(ppdFileA, indexA), master(ppdFileB, indexB));
+	}
+	
+	/**
+	 * Returns the memoized diff of two layouts or masters, or null when either is missing. 
+	 * 
+	 * @param templateA PptxTemplate
+	 * @param templateB PptxTemplate
+	 * @return TemplateDiff
+	 */
+	private TemplateDiff templateDiff(PptxTemplate templateA, PptxTemplate templateB) {
+		if (templateA == null || templateB == null) {
+			return null;
+		}
+		return templateDiffs.computeIfAbsent(templateA.getPartName() + "|" + templateB.getPartName(), 
+				key -> new TemplateDiff(templateA, templateB));
+	}
+	
+	private static PptxTemplate layout(PptxSlideShow slideshow, int index) {
+		final PptxSlide slide = slideshow.getSlideList().get(index);
+		return slide.getLayoutPart() == null ? null : slideshow.getTemplates().get(slide.getLayoutPart());
+	}
+	
+	private static PptxTemplate master(PptxSlideShow slideshow, int index) {
+		final PptxTemplate layout = layout(slideshow, index);
+		return layout == null || layout.isMaster() ? null : slideshow.getTemplates().get(layout.getMasterPartName());
+	}
+	
 	/**
 	 * Gets the name value of the slide layout, on a given slide index in File A.
 	 * 
@@ -360,7 +1406,8 @@ public final class Differ {
 	 * @return int 
 	 */
 	public int imageCount_fileA() {
-		return poiXmlFileA.getPictureData().size();
+		requireMedia();
+		return mediaPartsA.size();
 	}
 	
 	/**
@@ -369,7 +1416,8 @@ public final class Differ {
 	 * @return int 
 	 */
 	public int imageCount_fileB() {
-		return poiXmlFileB.getPictureData().size();
+		requireMedia();
+		return mediaPartsB.size();
 	}
 	
 	/**
@@ -378,13 +1426,8 @@ public final class Differ {
 	 * @return String[]
 	 */
 	public String[] imageInfo_fileA() {
-		List<XSLFPictureData> data = poiXmlFileA.getPictureData();
-		String[] imageInfo = new String[data.size()];
-		
-		for (int i = 0; i < data.size(); i++) {
-			imageInfo[i] = data.get(i).toString();
-		}
-		return imageInfo;
+		requireMedia();
+		return mediaInfo(mediaPartsA);
 	}
 	
 	/**
@@ -393,17 +1436,71 @@ public final class Differ {
 	 * @return String[]
 	 */
 	public String[] imageInfo_fileB() {
-		List<XSLFPictureData> data = poiXmlFileB.getPictureData();
-		String[] imageInfo = new String[data.size()];
-
-		for (int i = 0; i < data.size(); i++) {
-			imageInfo[i] = data.get(i).toString();
+		requireMedia();
+		return mediaInfo(mediaPartsB);
+	}
+	
+	/**
+	 * Gets the media parts of File A, such as images and videos, 
+	 * with the size and digest of each part's contents. 
+	 * 
+	 * @return List<MediaPart>
+	 */
+	public List<MediaPart> mediaParts_fileA() {
+		requireMedia();
+		return mediaPartsA;
+	}
+	
+	/**
+	 * Gets the media parts of File B, such as images and videos, 
+	 * with the size and digest of each part's contents. 
+	 * 
+	 * @return List<MediaPart>
+	 */
+	public List<MediaPart> mediaParts_fileB() {
+		requireMedia();
+		return mediaPartsB;
+	}
+	
+	/**
+	 * Matches the images of File A with the images of File B by content digest, 
+	 * and returns which were unchanged, replaced, added or removed. 
+	 * 
+	 * @return List<ImageChange>
+	 */
+	public synchronized List<ImageChange> imageDiff() {
+		if (imageChanges == null) {
+			requireMedia();
+			imageChanges = Collections.unmodifiableList(ImageDiff.diff(mediaPartsA, mediaPartsB));
+		}
+		return imageChanges;
+	}
+	
+	/**
+	 * Builds string array of info about the given media parts. 
+	 * 
+	 * @param mediaParts List<MediaPart>
+	 * @return String[]
+	 */
+	private static String[] mediaInfo(List<MediaPart> mediaParts) {
+		String[] imageInfo = new String[mediaParts.size()];
+		
+		for (int i = 0; i < mediaParts.size(); i++) {
+			imageInfo[i] = mediaParts.get(i).getInfo();
 		}
 		return imageInfo;
 	}
 	
 	/* Getters and Setters section */ 
 
+	protected PptxSession getSessionA() {
+		return sessionA;
+	}
+
+	protected PptxSession getSessionB() {
+		return sessionB;
+	}
+
 	protected XMLSlideShow getPoiXmlFileA() {
 		return poiXmlFileA;
 	}
@@ -428,6 +1525,10 @@ public final class Differ {
 		return ppdFileB;
 	}
 
+	public DifferOptions getOptions() {
+		return options;
+	}
+
 	public File getRawFileA() {
 		return rawFileA;
 	}
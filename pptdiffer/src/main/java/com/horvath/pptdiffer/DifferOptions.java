@@ -0,0 +1,244 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer;
+
+import java.io.File;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import com.horvath.pptdiffer.engine.LazySlideList;
+import com.horvath.pptdiffer.engine.PackageHandlePool;
+import com.horvath.pptdiffer.utility.CancellationToken;
+import com.horvath.pptdiffer.utility.ListenerList;
+import com.horvath.pptdiffer.utility.ParseMode;
+import com.horvath.pptdiffer.utility.PpdListener;
+
+/**
+ * Optional settings for how a Differ loads and compares files. 
+ * The defaults match the behavior of the plain Differ constructor.
+ * @author jhorvath
+ */
+public final class DifferOptions {
+	
+	/**
+	 * File used to remember content digests between runs, null when no cache is used.
+	 */
+	private File digestCacheFile;
+	
+	/**
+	 * When true, File A and File B are loaded and parsed at the same time.
+	 */
+	private boolean parallel;
+	
+	/**
+	 * Executor for parallel work, the common fork-join pool when not set.
+	 */
+	private Executor executor;
+	
+	/**
+	 * How slides are parsed, walking the POI shape objects by default.
+	 */
+	private ParseMode parseMode = ParseMode.DOM;
+	
+	/**
+	 * When true, each slide is parsed the first time it is accessed.
+	 */
+	private boolean lazySlides;
+	
+	/**
+	 * Most slides of each file kept parsed at one time when slides are lazy.
+	 */
+	private int slideCacheSize = LazySlideList.DEFAULT_CACHE_SIZE;
+	
+	/**
+	 * Told of the stages, slides, bytes and checks of the comparison and its report.
+	 */
+	private final ListenerList listeners = new ListenerList();
+	
+	/**
+	 * Stops the comparison when cancelled or past its deadline, null when it runs to the end.
+	 */
+	private CancellationToken cancellationToken;
+	
+	/**
+	 * Opens the packages of the files, null for the shared pool.
+	 */
+	private PackageHandlePool packagePool;
+
+	public File getDigestCacheFile() {
+		return digestCacheFile;
+	}
+
+	/**
+	 * Sets a file for caching the content digests of compared files. 
+	 * When set, the exact file check is answered from the digests of the two files, 
+	 * and a file is only read again when it has no digest in the cache, 
+	 * or when its size or last modified time have changed.
+	 * 
+	 * @param digestCacheFile File
+	 */
+	public void setDigestCacheFile(File digestCacheFile) {
+		this.digestCacheFile = digestCacheFile;
+	}
+
+	public boolean isParallel() {
+		return parallel;
+	}
+
+	/**
+	 * Turns on loading and parsing File A and File B at the same time. Off by default.
+	 * 
+	 * @param parallel boolean
+	 */
+	public void setParallel(boolean parallel) {
+		this.parallel = parallel;
+	}
+
+	public Executor getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * Sets the executor used for parallel work. 
+	 * When not set, the common fork-join pool is used.
+	 * 
+	 * @param executor Executor
+	 */
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+	
+	public ParseMode getParseMode() {
+		return parseMode;
+	}
+
+	/**
+	 * Sets how slides are parsed. STREAMING reads the slide parts with a pull parser 
+	 * instead of walking the POI shape objects, and gives the same results.
+	 * 
+	 * @param parseMode ParseMode
+	 */
+	public void setParseMode(ParseMode parseMode) {
+		this.parseMode = parseMode;
+	}
+	
+	public boolean isLazySlides() {
+		return lazySlides;
+	}
+
+	/**
+	 * Turns on parsing each slide the first time it is accessed. Off by default. 
+	 * When on, the Differ keeps both files open until it is closed, and reads the whole 
+	 * file text and the media parts the first time they are used as well.
+	 * 
+	 * @param lazySlides boolean
+	 */
+	public void setLazySlides(boolean lazySlides) {
+		this.lazySlides = lazySlides;
+	}
+
+	public int getSlideCacheSize() {
+		return slideCacheSize;
+	}
+
+	/**
+	 * Sets the most slides of each file to keep parsed at one time when slides are lazy.
+	 * 
+	 * @param slideCacheSize int
+	 */
+	public void setSlideCacheSize(int slideCacheSize) {
+		this.slideCacheSize = slideCacheSize;
+	}
+	
+	public ListenerList getListeners() {
+		return listeners;
+	}
+
+	/**
+	 * Adds a listener that is told of each stage of the comparison as it starts and 
+	 * finishes, of each slide parsed and compared, of the bytes read and of each check 
+	 * of the report completed. Each Differ takes a copy of the listeners when it is created, 
+	 * so a listener added here afterwards is only told of the comparisons created later.
+	 * 
+	 * @param listener PpdListener
+	 */
+	public void addListener(PpdListener listener) {
+		listeners.add(listener);
+	}
+	
+	/**
+	 * Removes a listener added before. 
+	 * 
+	 * @param listener PpdListener
+	 */
+	public void removeListener(PpdListener listener) {
+		listeners.remove(listener);
+	}
+	
+	public CancellationToken getCancellationToken() {
+		return cancellationToken;
+	}
+
+	/**
+	 * Sets a token that stops the comparison, and any report generated from it, 
+	 * between stages, slides and parts. A cancelled comparison throws a PpdException. 
+	 * One past the deadline of the token throws a PpdTimeoutException with the results 
+	 * gathered so far.
+	 * 
+	 * @param cancellationToken CancellationToken
+	 */
+	public void setCancellationToken(CancellationToken cancellationToken) {
+		this.cancellationToken = cancellationToken;
+	}
+	
+	public PackageHandlePool getPackagePool() {
+		return packagePool;
+	}
+
+	/**
+	 * Sets the pool that opens the packages of the files. The shared pool, used when this 
+	 * is null, closes each package when the comparison is done with it. A pool created 
+	 * to keep idle packages keeps them open after the comparison is closed, so comparing 
+	 * one of the files again does not parse it again, until the pool closes its idle packages.
+	 * 
+	 * @param packagePool PackageHandlePool
+	 */
+	public void setPackagePool(PackageHandlePool packagePool) {
+		this.packagePool = packagePool;
+	}
+	
+	/**
+	 * Returns the executor to hand to commands, or null when parallel work is turned off.
+	 * 
+	 * @return Executor
+	 */
+	public Executor getParallelExecutor() {
+		if (!parallel) {
+			return null;
+		}
+		return executor == null ? ForkJoinPool.commonPool() : executor;
+	}
+
+}
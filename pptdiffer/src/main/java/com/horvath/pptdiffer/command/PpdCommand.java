@@ -25,11 +25,21 @@
 package com.horvath.pptdiffer.command;
 
 import com.horvath.pptdiffer.exception.PpdException;
+import com.horvath.pptdiffer.utility.CancellationToken;
+import com.horvath.pptdiffer.utility.ListenerList;
+import com.horvath.pptdiffer.utility.PpdEvent;
+import com.horvath.pptdiffer.utility.PpdEventType;
 
 public abstract class PpdCommand {
 	
 	protected String message = "";
 	protected boolean success;
+	
+	// checked between slides and parts, null when the command is not cancellable
+	protected CancellationToken cancellationToken;
+	
+	// told of slides, bytes and checks as the command goes, null when nobody listens
+	protected ListenerList listeners;
 
 	/**
 	 * Method for performing high level business logic.
@@ -44,4 +54,49 @@ public abstract class PpdCommand {
 	public boolean isSuccess() {
 		return this.success;
 	}
+	
+	/**
+	 * Sets a token that stops the command at its next check, once the token is cancelled 
+	 * or its deadline has passed. 
+	 * 
+	 * @param cancellationToken CancellationToken, may be null
+	 */
+	public void setCancellationToken(CancellationToken cancellationToken) {
+		this.cancellationToken = cancellationToken;
+	}
+	
+	/**
+	 * Sets the listeners told of the progress of the command. 
+	 * 
+	 * @param listeners ListenerList, may be null
+	 */
+	public void setListeners(ListenerList listeners) {
+		this.listeners = listeners;
+	}
+	
+	/**
+	 * Tells an event to the listeners of the command, if it has any. 
+	 * 
+	 * @param type PpdEventType
+	 * @param stage String
+	 * @param done long
+	 * @param total long
+	 * @param detail String, may be null
+	 */
+	protected void fire(PpdEventType type, String stage, long done, long total, String detail) {
+		if (listeners != null && !listeners.isEmpty()) {
+			listeners.fire(new PpdEvent(type, stage, done, total, detail));
+		}
+	}
+	
+	/**
+	 * Stops the command when its token was cancelled, or when its deadline has passed. 
+	 * 
+	 * @throws PpdException
+	 */
+	protected void checkCancelled() throws PpdException {
+		if (cancellationToken != null) {
+			cancellationToken.check();
+		}
+	}
 }
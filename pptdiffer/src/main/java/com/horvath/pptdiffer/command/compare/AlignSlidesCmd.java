@@ -0,0 +1,82 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.command.compare;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.horvath.pptdiffer.application.Debugger;
+import com.horvath.pptdiffer.engine.diff.SlideAligner;
+import com.horvath.pptdiffer.engine.diff.SlideMatch;
+import com.horvath.pptdiffer.engine.model.PptxSlideShow;
+import com.horvath.pptdiffer.exception.PpdException;
+
+/**
+ * Aligns the slides of two PPD slide-shows, detecting inserted, deleted and moved slides.
+ * @author jhorvath 
+ */
+public final class AlignSlidesCmd extends AbstractCompareCmd {
+	
+	private PptxSlideShow slideshowA;
+	private PptxSlideShow slideshowB;
+	private List<SlideMatch> matches = Collections.emptyList();
+	
+	/**
+	 * Constructor. 
+	 * 
+	 * @param slideshowA PptxSlideShow
+	 * @param slideshowB PptxSlideShow
+	 */
+	public AlignSlidesCmd(PptxSlideShow slideshowA, PptxSlideShow slideshowB) {
+		this.slideshowA = slideshowA;
+		this.slideshowB = slideshowB;
+	}
+
+	@Override
+	public void perform() throws PpdException {
+		Debugger.printLog("Align the slides of Files A and B.", this.getClass().getName());
+		success = false;
+		
+		if (slideshowA == null || slideshowB == null) {
+			throw new PpdException(ERROR_NULL_SLIDESHOW);
+		}
+		
+		try {
+			matches = Collections.unmodifiableList(
+					SlideAligner.align(slideshowA.getSlideList(), slideshowB.getSlideList()));
+			
+		} catch (IllegalStateException ex) {
+			// raised by lazily parsed slide lists
+			throw new PpdException(ex.getMessage(), ex);
+		}
+		
+		success = true;
+	}
+
+	public List<SlideMatch> getMatches() {
+		return matches;
+	}
+
+}
@@ -0,0 +1,95 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.command.compare;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.horvath.pptdiffer.application.Debugger;
+import com.horvath.pptdiffer.engine.diff.ShapeChange;
+import com.horvath.pptdiffer.engine.diff.ShapeDiff;
+import com.horvath.pptdiffer.engine.model.PptxShape;
+import com.horvath.pptdiffer.engine.model.PptxSlideShow;
+import com.horvath.pptdiffer.exception.PpdException;
+
+/**
+ * Compares the shapes of a slide in File A with the shapes of a slide in File B, 
+ * matching shapes by id, name or position and recording how each one changed.
+ * @author jhorvath 
+ */
+public final class DiffSlideShapesCmd extends AbstractCompareCmd {
+	
+	private int indexA;
+	private int indexB;
+	private PptxSlideShow slideshowA;
+	private PptxSlideShow slideshowB;
+	
+	private List<ShapeChange> changes = Collections.emptyList();
+	
+	/**
+	 * Constructor. 
+	 * 
+	 * @param indexA int slide index in File A
+	 * @param slideshowA PptxSlideShow
+	 * @param indexB int slide index in File B
+	 * @param slideshowB PptxSlideShow
+	 */
+	public DiffSlideShapesCmd(int indexA, PptxSlideShow slideshowA, int indexB, PptxSlideShow slideshowB) {
+		this.indexA = indexA;
+		this.slideshowA = slideshowA;
+		this.indexB = indexB;
+		this.slideshowB = slideshowB;
+	}
+
+	@Override
+	public void perform() throws PpdException {
+		Debugger.printLog("Diff slide shapes.", this.getClass().getName());
+		success = false;
+		
+		changes = Collections.unmodifiableList(ShapeDiff.diff(shapes(indexA, slideshowA), shapes(indexB, slideshowB)));
+		
+		success = true;
+	}
+	
+	/**
+	 * Returns the shapes of the slide, or no shapes if the slide does not exist. 
+	 * 
+	 * @param index int
+	 * @param slideshow PptxSlideShow
+	 * @return List<PptxShape>
+	 * @throws PpdException
+	 */
+	private List<PptxShape> shapes(int index, PptxSlideShow slideshow) throws PpdException {
+		if (!rangeCheck(index, slideshow)) {
+			return Collections.emptyList();
+		}
+		return slideshow.getSlideList().get(index).getShapes();
+	}
+
+	public List<ShapeChange> getChanges() {
+		return changes;
+	}
+
+}
@@ -0,0 +1,121 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.command.compare;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.horvath.pptdiffer.application.Debugger;
+import com.horvath.pptdiffer.engine.diff.DiffHunk;
+import com.horvath.pptdiffer.engine.diff.MyersDiff;
+import com.horvath.pptdiffer.engine.model.PptxSlide;
+import com.horvath.pptdiffer.engine.model.PptxSlideShow;
+import com.horvath.pptdiffer.exception.PpdException;
+
+/**
+ * Compares the text of a slide in File A with a slide in File B word by word, 
+ * producing the insert, delete and replace hunks between them. 
+ * The speaker notes of the two slides can be compared the same way instead.
+ * @author jhorvath 
+ */
+public final class DiffSlideTextCmd extends AbstractCompareCmd {
+	
+	private int indexA;
+	private int indexB;
+	private PptxSlideShow slideshowA;
+	private PptxSlideShow slideshowB;
+	
+	// compares the speaker notes rather than the slide text
+	private boolean notes;
+	
+	private List<String> wordsA = Collections.emptyList();
+	private List<String> wordsB = Collections.emptyList();
+	private List<DiffHunk> hunks = Collections.emptyList();
+	
+	/**
+	 * Constructor. 
+	 * 
+	 * @param indexA int slide index in File A
+	 * @param slideshowA PptxSlideShow
+	 * @param indexB int slide index in File B
+	 * @param slideshowB PptxSlideShow
+	 */
+	public DiffSlideTextCmd(int indexA, PptxSlideShow slideshowA, int indexB, PptxSlideShow slideshowB) {
+		this.indexA = indexA;
+		this.slideshowA = slideshowA;
+		this.indexB = indexB;
+		this.slideshowB = slideshowB;
+	}
+
+	@Override
+	public void perform() throws PpdException {
+		Debugger.printLog(notes ? "Diff slide notes word by word." : "Diff slide text word by word.", this.getClass().getName());
+		success = false;
+		
+		wordsA = words(indexA, slideshowA);
+		wordsB = words(indexB, slideshowB);
+		hunks = Collections.unmodifiableList(MyersDiff.diff(wordsA, wordsB));
+		
+		success = true;
+	}
+	
+	/**
+	 * Returns the words of the slide text or notes, or no words if the slide does not exist. 
+	 * 
+	 * @param index int
+	 * @param slideshow PptxSlideShow
+	 * @return List<String>
+	 * @throws PpdException
+	 */
+	private List<String> words(int index, PptxSlideShow slideshow) throws PpdException {
+		if (!rangeCheck(index, slideshow)) {
+			return Collections.emptyList();
+		}
+		final PptxSlide slide = slideshow.getSlideList().get(index);
+		return Collections.unmodifiableList(MyersDiff.words(notes ? slide.getNotes() : slide.getText()));
+	}
+	
+	/**
+	 * Sets whether the speaker notes of the slides are compared rather than the slide text. 
+	 * 
+	 * @param notes boolean
+	 */
+	public void setNotes(boolean notes) {
+		this.notes = notes;
+	}
+
+	public List<String> getWordsA() {
+		return wordsA;
+	}
+
+	public List<String> getWordsB() {
+		return wordsB;
+	}
+
+	public List<DiffHunk> getHunks() {
+		return hunks;
+	}
+
+}
@@ -25,12 +25,39 @@
 package com.horvath.pptdiffer.command.compare;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import com.horvath.pptdiffer.Differ;
 import com.horvath.pptdiffer.application.Debugger;
+import com.horvath.pptdiffer.engine.diff.CellChange;
+import com.horvath.pptdiffer.engine.diff.DiffHunk;
+import com.horvath.pptdiffer.engine.diff.HunkType;
+import com.horvath.pptdiffer.engine.diff.ImageChange;
+import com.horvath.pptdiffer.engine.diff.MetadataChange;
+import com.horvath.pptdiffer.engine.diff.ShapeChange;
+import com.horvath.pptdiffer.engine.diff.ShapeChangeType;
+import com.horvath.pptdiffer.engine.diff.SlideMatch;
+import com.horvath.pptdiffer.engine.diff.SlideMatchType;
+import com.horvath.pptdiffer.engine.diff.TableDiff;
+import com.horvath.pptdiffer.engine.diff.TemplateDiff;
+import com.horvath.pptdiffer.engine.diff.UnifiedDiff;
+import com.horvath.pptdiffer.engine.model.MediaPart;
+import com.horvath.pptdiffer.engine.model.PackagePartDiff;
+import com.horvath.pptdiffer.engine.model.PptxShape;
+import com.horvath.pptdiffer.engine.model.PptxTemplate;
 import com.horvath.pptdiffer.exception.PpdException;
+import com.horvath.pptdiffer.exception.PpdTimeoutException;
+import com.horvath.pptdiffer.utility.ParallelPair;
+import com.horvath.pptdiffer.utility.ParallelTasks;
+import com.horvath.pptdiffer.utility.PpdEvent;
+import com.horvath.pptdiffer.utility.PpdEventType;
 
 /**
  * Command for building report text.
@@ -44,6 +71,17 @@ public class GenerateReportTextCmd extends AbstractCompareCmd {
 	private StringBuilder sb;
 	// final return value 
 	private String reportText;
+	// checks completed so far, told to the listeners
+	private int checksDone;
+	// compares pairs of slides at the same time, null to compare them in order
+	private Executor executor;
+	
+	/**
+	 * Fewest aligned pairs of slides for the pairs to be compared in parallel.
+	 */
+	public static final int PARALLEL_MIN_SLIDES = 4;
+	
+	private static final int WORKERS = Runtime.getRuntime().availableProcessors();
 	
 	public static final String ERROR_NULL_DIFFER = "";
 	
@@ -54,33 +92,110 @@ public class GenerateReportTextCmd extends AbstractCompareCmd {
 	public static final String EXACT_CHECK_DESCRIPTION = "Exact file check: Checks if the two files are exactly the same file or not.";
 	public static final String EXACT_CHECK_SAME = "The two files appear to be the same exact file.";
 	public static final String EXACT_CHECK_DIFFERENT = "In reading the data in the two files, it was found that the two files are not the same file.";
+	public static final String EXACT_CHECK_SIZES = "The byte length of the two files is not the same.";
+	public static final String EXACT_CHECK_OFFSET = "The two files first differ at byte offset ";
 
+	public static final String PART_CHECK_DESCRIPTION = "Package part check: Compares the name, size and checksum of the parts stored in the two files.";
+	public static final String PART_CHECK_SAME = "The two files contain the same parts with the same contents.";
+	public static final String PART_CHECK_DIFFERENT = " part(s) differ between the two files:";
+	public static final String PART_CHECK_CHANGED = "Changed: ";
+	/**
+	 * Names of the checks, told to the listeners as each one is completed.
+	 */
+	public static final String CHECK_EXACT_FILE = "Exact file";
+	public static final String CHECK_PACKAGE_PARTS = "Package parts";
+	public static final String CHECK_WHOLE_TEXT = "Whole text";
+	public static final String CHECK_METADATA = "Metadata";
+	public static final String CHECK_SLIDE_COUNT = "Slide count";
+	public static final String CHECK_IMAGE_COUNT = "Image count";
+	public static final String CHECK_IMAGE_INFO = "Image information";
+	public static final String CHECK_MASTER_COUNT = "Master slide count";
+	public static final String CHECK_TEMPLATES = "Layouts and masters";
+	public static final String CHECK_SLIDES = "Slides";
+	public static final String CHECK_NOTES = "Speaker notes";
+	
+	/**
+	 * Number of checks in a whole report.
+	 */
+	public static final int CHECK_COUNT = 11;
+	
+	public static final String PART_CHECK_ONLY_FILE_A = "Only in File A: ";
+	public static final String PART_CHECK_ONLY_FILE_B = "Only in File B: ";
+	
 	public static final String WHOLE_TEXT_EMPTY = "Neither file contains any text.";
 	public static final String WHOLE_TEXT_SAME = "Both files seem to contain the exact same text.";
 	public static final String WHOLE_TEXT_DIFFERENT = "There are differences in the text in the two files.";
 	
 	public static final String METADATA_SAME = "The metadata in File A and File B appear to be the same.";
 	public static final String METADATA_DIFFERENT = "The metadata in File A and File B contain different information.";
+	public static final String METADATA_CORE = "Core property ";
+	public static final String METADATA_EXTENDED = "Extended property ";
+	public static final String METADATA_CUSTOM = "Custom property ";
+	public static final String METADATA_FILE_A = " in File A, ";
+	public static final String METADATA_FILE_B = " in File B.";
+	public static final String METADATA_ONLY_FILE_A = " only found in File A: ";
+	public static final String METADATA_ONLY_FILE_B = " only found in File B: ";
 	
 	public static final String SLIDE_COUNT_DESCRIPTION = "Slide Count: Compares the number of slides in the two files.";
 	public static final String SLIDE_COUNT_SAME = "Both files contain ";
 	public static final String SLIDE_COUNT_DIFFERENT = "The slide counts are not the same.";
 
-	public static final String SLIDE_COMP_ENDED = "Slide comparison checked ended due to File B having fewer slides than File A. ";
+	public static final String SLIDE_ONLY_FILE_A = "Slide only found in File A at (zero-based) index: ";
+	public static final String SLIDE_ONLY_FILE_B = "Slide only found in File B at (zero-based) index: ";
+	public static final String SLIDE_MOVED = "Slide was moved from (zero-based) index ";
+	public static final String SLIDE_ALIGNED = "Slide at (zero-based) index ";
+	public static final String SLIDE_ALIGNED_FILE_B = " in File A is compared with index ";
+	public static final String SLIDE_MOVED_FILE_B = " in File A to index ";
+	public static final String SLIDE_INDEX_FILE_B = " in File B.";
+	private static final String FILE_B_LABEL = "(File B) ";
 
 	public static final String IMAGE_COUNT_DESCRIPTION = "Images Count: Compares the number of images in the two files.";
 	public static final String IMAGE_COUNT_SAME = "Both files contain ";
 	public static final String IMAGE_COUNT_DIFFERENT = "The image counts are not the same.";
 	
 	public static final String IMAGE_INFO_TEXT = " image information:";
+	public static final String IMAGE_REPLACED = "Image replaced with different content:";
+	public static final String IMAGE_RENAMED = "Same image stored under a different name:";
+	public static final String IMAGE_ONLY_FILE_A = "Image only found in File A:";
+	public static final String IMAGE_ONLY_FILE_B = "Image only found in File B:";
 	
 	public static final String SLIDE_NAME_DIFFERENT = "Slides for Files A and B are different at (zero-based) index: ";
 	
 	public static final String SLIDE_LAYOUTS_DIFFERENT = "Slides for Files A and B have different layouts: ";
+	public static final String SLIDE_LAYOUT_CONTENT_DIFFERENT = "Slides for Files A and B use layouts with different content: ";
+	public static final String SLIDE_MASTER_CONTENT_DIFFERENT = "Slides for Files A and B use masters with different content: ";
+	
+	public static final String TEMPLATE_LAYOUT = "Slide layout \"";
+	public static final String TEMPLATE_MASTER = "Slide master \"";
+	public static final String TEMPLATE_FILE_A = " in File A differs from \"";
+	public static final String TEMPLATE_FILE_B = " in File B, used by (zero-based) slide indexes ";
+	public static final String TEMPLATE_BACKGROUND_CHANGED = "Background changed.";
 	
 	public static final String SLIDE_SHAPE_NAMES_FILE_A = "File A shape names: ";
 	public static final String SLIDE_SHAPE_NAMES_FILE_B = "File B shape names: ";
 	
+	public static final String SLIDE_SHAPE_CHANGES = "Shape changes on slide index ";
+	public static final String SHAPE_LABEL = "Shape \"";
+	public static final String SHAPE_ID = "\" (id ";
+	public static final String SHAPE_ONLY_FILE_A = ") only found in File A.";
+	public static final String SHAPE_ONLY_FILE_B = ") only found in File B.";
+	public static final String SHAPE_MOVED = "moved from ";
+	public static final String SHAPE_RESIZED = "resized from ";
+	public static final String SHAPE_ROTATED = "rotated from ";
+	public static final String SHAPE_RETYPED = "retyped from ";
+	public static final String SHAPE_RENAMED = "renamed to \"";
+	public static final String SHAPE_RETEXTED = "text changed";
+	
+	public static final String TABLE_ROW_ONLY_FILE_A = "Row only found in File A at (zero-based) index: ";
+	public static final String TABLE_ROW_ONLY_FILE_B = "Row only found in File B at (zero-based) index: ";
+	public static final String TABLE_COLUMN_ONLY_FILE_A = "Column only found in File A at (zero-based) index: ";
+	public static final String TABLE_COLUMN_ONLY_FILE_B = "Column only found in File B at (zero-based) index: ";
+	public static final String TABLE_CELL = "Cell at (zero-based) row ";
+	public static final String TABLE_CELL_COLUMN = ", column ";
+	public static final String TABLE_CELL_FILE_B = " in File B";
+	public static final String TABLE_CELL_CHANGED = " changed from \"";
+	public static final String TABLE_CELL_TO = "\" to \"";
+	
 	public static final String SLIDE_TEXT_SAME = "Slide text for Files A and B are the same at (zero-based) index: ";
 	public static final String SLIDE_TEXT_DIFFERENT = "Slide text for Files A and B are different at (zero-based) index: ";
 	
@@ -92,6 +207,18 @@ public class GenerateReportTextCmd extends AbstractCompareCmd {
 	public static final String EXTRA_TEXT_FILE_A = "Extra Text found in File A.";
 	public static final String EXTRA_TEXT_FILE_B = "Extra Text found in File B.";
 	
+	public static final String SLIDE_TEXT_CHANGES = "Word changes on slide index ";
+	public static final String NOTES_LABEL = "SPEAKER NOTES";
+	public static final String NOTES_CHANGES = "Notes word changes on slide index ";
+	
+	public static final String HUNK_AT_WORD = "At word ";
+	public static final String HUNK_OF_FILE_A = " of File A and word ";
+	public static final String HUNK_OF_FILE_B = " of File B, ";
+	public static final String HUNK_REPLACED = "replaced \"";
+	public static final String HUNK_WITH = "\" with \"";
+	public static final String HUNK_INSERTED = "inserted \"";
+	public static final String HUNK_DELETED = "deleted \"";
+	
 	/**
 	 * Constructor. 
 	 * @param differ Differ
@@ -100,6 +227,17 @@ public class GenerateReportTextCmd extends AbstractCompareCmd {
 		this.differ = differ;
 	}
 	
+	/**
+	 * Sets an executor for comparing the aligned pairs of slides at the same time, 
+	 * when there are many of them. The report text is the same as without one. 
+	 * When null, the default, the pairs are compared one after the other.
+	 * 
+	 * @param executor Executor
+	 */
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+	
 	@Override
 	public void perform() throws PpdException {
 		
@@ -112,26 +250,50 @@ public class GenerateReportTextCmd extends AbstractCompareCmd {
 		}
 		
 		sb = new StringBuilder();
+		checksDone = 0;
 		
-		overviewLabel();
-		
-		// high level checks on file
-		exactFileCheck();
-		wholeTextComparisonCheck();
-		metadataCheck();
-		slideCountsCheck();
-		imageCountCheck();
-		imageInfoCheck();
-		masterSlideCountCheck();
-		
-		// individual slide checks
-		slideComparisonCheck();
+		try {
+			overviewLabel();
+			
+			// high level checks on file
+			check(CHECK_EXACT_FILE, this::exactFileCheck);
+			check(CHECK_PACKAGE_PARTS, this::packagePartCheck);
+			check(CHECK_WHOLE_TEXT, this::wholeTextComparisonCheck);
+			check(CHECK_METADATA, this::metadataCheck);
+			check(CHECK_SLIDE_COUNT, this::slideCountsCheck);
+			check(CHECK_IMAGE_COUNT, this::imageCountCheck);
+			check(CHECK_IMAGE_INFO, this::imageInfoCheck);
+			check(CHECK_MASTER_COUNT, this::masterSlideCountCheck);
+			check(CHECK_TEMPLATES, this::templateCheck);
+			checkCancelled();
+			
+			// individual slide checks
+			check(CHECK_SLIDES, this::slideComparisonCheck);
+			check(CHECK_NOTES, this::notesComparisonCheck);
+			
+		} catch (PpdTimeoutException ex) {
+			// hand back the report written before the deadline
+			ex.setPartialReport(sb.toString());
+			throw ex;
+		}
 
 		this.reportText = sb.toString();
 
 		success = true;
 	}
 	
+	/**
+	 * Runs one check of the report, then tells the listeners it was completed. 
+	 * 
+	 * @param name String, one of the check names
+	 * @param check ParallelPair.Task
+	 * @throws PpdException
+	 */
+	private void check(String name, ParallelPair.Task check) throws PpdException {
+		check.run();
+		fire(PpdEventType.CHECK_COMPLETED, PpdEvent.STAGE_REPORT, ++checksDone, CHECK_COUNT, name);
+	}
+	
 	/**
 	 * Writes overview label for report. 
 	 */
@@ -190,8 +352,17 @@ public class GenerateReportTextCmd extends AbstractCompareCmd {
 	 * @param index int (not zero based)
 	 */
 	private void slideLabel(int index) {
+		slideLabel(String.valueOf(index));
+	}
+	
+	/**
+	 * Writes slide label. 
+	 * 
+	 * @param label String
+	 */
+	private void slideLabel(String label) {
 		sb.append("SLIDE: ");
-		sb.append(index);
+		sb.append(label);
 		sb.append(EOL);
 		sb.append(SECTION_SEPARATOR);
 		sb.append(EOL);
@@ -209,21 +380,127 @@ public class GenerateReportTextCmd extends AbstractCompareCmd {
 			sb.append(EXACT_CHECK_SAME);
 		} else {
 			sb.append(EXACT_CHECK_DIFFERENT);
+			sb.append(EOL);
+			exactFileDetails();
+		}
+		sb.append(EOL);
+		sb.append(EOL);
+	}
+	
+	/**
+	 * Builds report text describing where the two files are different.
+	 */
+	private void exactFileDetails() {
+		if (differ.fileSize_fileA() != differ.fileSize_fileB()) {
+			sb.append(EXACT_CHECK_SIZES);
+			sb.append(" ");
+			sb.append(differ.getPpdFileA().getFileName());
+			sb.append(" has a byte length of ");
+			sb.append(differ.fileSize_fileA());
+			sb.append(" and ");
+			sb.append(differ.getPpdFileB().getFileName());
+			sb.append(" has a byte length of ");
+			sb.append(differ.fileSize_fileB());
+			sb.append(".");
+			
+		} else if (differ.firstDifferenceOffset() >= 0) {
+			sb.append(EXACT_CHECK_OFFSET);
+			sb.append(differ.firstDifferenceOffset());
+			sb.append(".");
+		}
+	}
+	
+	/**
+	 * Builds report text listing the package parts that differ, when the files are not the same. 
+	 */
+	private void packagePartCheck() {
+		PackagePartDiff partDiff = differ.packagePartDiff();
+		if (differ.isSameFile() || partDiff == null) {
+			return;
+		}
+		
+		sb.append(PART_CHECK_DESCRIPTION);
+		sb.append(EOL);
+		sb.append("Result: ");
+		if (partDiff.isIdentical()) {
+			sb.append(PART_CHECK_SAME);
+			
+		} else {
+			sb.append(partDiff.getDifferentParts().size());
+			sb.append(PART_CHECK_DIFFERENT);
+			appendPartNames(PART_CHECK_CHANGED, partDiff.getChangedParts());
+			appendPartNames(PART_CHECK_ONLY_FILE_A, partDiff.getRemovedParts());
+			appendPartNames(PART_CHECK_ONLY_FILE_B, partDiff.getAddedParts());
 		}
 		sb.append(EOL);
 		sb.append(EOL);
 	}
 	
 	/**
-	 * Performs high level check on metadata and includes basic finding in report. 
+	 * Appends one line for each part name, with the given label. 
+	 * 
+	 * @param label String
+	 * @param partNames Collection<String>
+	 */
+	private void appendPartNames(String label, Collection<String> partNames) {
+		for (String name : partNames) {
+			sb.append(EOL);
+			sb.append("\t");
+			sb.append(label);
+			sb.append(name);
+		}
+	}
+	
+	/**
+	 * Compares the document properties of the two files and lists each one that differs. 
 	 */
 	private void metadataCheck() {
-		if (differ.metadata_FileA().equals(differ.metadata_FileB())) {
+		final List<MetadataChange> changes = differ.metadataDiff();
+		
+		if (changes.isEmpty()) {
 			sb.append(METADATA_SAME).append(EOL).append(EOL);
+			return;
+		}
+		
+		sb.append(METADATA_DIFFERENT).append(EOL);
+		for (MetadataChange change : changes) {
+			sb.append("\t");
+			switch (change.getGroup()) {
+			case CORE:
+				sb.append(METADATA_CORE);
+				break;
+			case EXTENDED:
+				sb.append(METADATA_EXTENDED);
+				break;
+			default:
+				sb.append(METADATA_CUSTOM);
+			}
+			sb.append("\"").append(change.getName()).append("\"");
 			
-		} else {
-			sb.append(METADATA_DIFFERENT).append(EOL).append(EOL);
+			if (change.getValueB() == null) {
+				sb.append(METADATA_ONLY_FILE_A).append(formatValue(change.getValueA())).append(".");
+			} else if (change.getValueA() == null) {
+				sb.append(METADATA_ONLY_FILE_B).append(formatValue(change.getValueB())).append(".");
+			} else {
+				sb.append(": ").append(formatValue(change.getValueA())).append(METADATA_FILE_A);
+				sb.append(formatValue(change.getValueB())).append(METADATA_FILE_B);
+			}
+			sb.append(EOL);
 		}
+		sb.append(EOL);
+	}
+	
+	/**
+	 * Formats a property value, quoting text so that empty and padded values can be seen. 
+	 * 
+	 * @param value Object
+	 * @return String
+	 */
+	private static String formatValue(Object value) {
+		if (value instanceof String) {
+			return "\"" + value + "\"";
+		}
+		return String.valueOf(value);
 	}
 	
 	/**
@@ -247,6 +524,7 @@ public class GenerateReportTextCmd extends AbstractCompareCmd {
 		} else {
 			sb.append(WHOLE_TEXT_DIFFERENT);
 			sb.append(EOL);
+			sb.append(differ.wholeTextDiff().format("File A", "File B", UnifiedDiff.DEFAULT_CONTEXT, EOL));
 			sb.append(EOL);
 		}
 	}
@@ -322,42 +600,50 @@ public class GenerateReportTextCmd extends AbstractCompareCmd {
 	}
 	
 	/*
-	 * Builds report data when image information does not match. 
+	 * Builds report data for images that were replaced, added, removed or renamed, 
+	 * with images matched across the two files by the digest of their content. 
 	 */
 	private void imageInfoCheck() {
 		boolean reportUpdated = false;
-		String[] infoFileA = differ.imageInfo_fileA();
-		String[] infoFileB = differ.imageInfo_fileB();
 		
-		if (infoFileA.length == 0 && infoFileB.length == 0) {
-			return;
-			
-		} else if (infoFileA.length > 0 && infoFileB.length > 0) { 
-			for (int i = 0; i < infoFileA.length; i++) {
-				if (infoFileB.length <= i) {
-					break;
+		for (ImageChange change : differ.imageDiff()) {
+			switch (change.getType()) {
+			case UNCHANGED:
+				if (!change.isRenamed()) {
+					continue;
 				}
+				sb.append(IMAGE_RENAMED);
+				break;
 				
-				// if we have image information that does not match
-				if (!infoFileA[i].equals(infoFileB[i])) {
-					reportUpdated = true; 
-					
-					sb.append("File A ");
-					sb.append(i + 1);
-					sb.append(IMAGE_INFO_TEXT);
-					sb.append(EOL);
-					sb.append("\t");
-					sb.append(infoFileA[i]);
-					sb.append(EOL);
-					
-					sb.append("File B ");
-					sb.append(i + 1);
-					sb.append(IMAGE_INFO_TEXT);
-					sb.append(EOL);
-					sb.append("\t");
-					sb.append(infoFileB[i]);
-					sb.append(EOL);
-				}
+			case REPLACED:
+				sb.append(IMAGE_REPLACED);
+				break;
+				
+			case REMOVED:
+				sb.append(IMAGE_ONLY_FILE_A);
+				break;
+				
+			default:
+				sb.append(IMAGE_ONLY_FILE_B);
+			}
+			sb.append(EOL);
+			reportUpdated = true;
+			
+			if (change.getImageA() != null) {
+				sb.append("File A");
+				sb.append(IMAGE_INFO_TEXT);
+				sb.append(EOL);
+				sb.append("\t");
+				sb.append(imageDetails(change.getImageA()));
+				sb.append(EOL);
+			}
+			if (change.getImageB() != null) {
+				sb.append("File B");
+				sb.append(IMAGE_INFO_TEXT);
+				sb.append(EOL);
+				sb.append("\t");
+				sb.append(imageDetails(change.getImageB()));
+				sb.append(EOL);
 			}
 		}
 		if (reportUpdated) {
@@ -366,6 +652,17 @@ public class GenerateReportTextCmd extends AbstractCompareCmd {
 		}
 	}
 	
+	/**
+	 * Describes an image by name, content type, size and the slides that reference it. 
+	 * 
+	 * @param image MediaPart
+	 * @return String
+	 */
+	private String imageDetails(MediaPart image) {
+		return image.getInfo() + " - Size: " + image.getSize() + " bytes - Slides (zero-based): " 
+				+ image.getSlideIndexes();
+	}
+	
 	/**
 	 * Builds report data when the two files have different numbers of master slides. 
 	 */
@@ -389,53 +686,241 @@ public class GenerateReportTextCmd extends AbstractCompareCmd {
 	}
 	
 	/**
-	 * Calls checks for individual comparisons. 
+	 * Builds report data for each distinct pair of slide masters and of slide layouts 
+	 * used by the compared slides that differ in content. Every pair is listed once 
+	 * with the slides that use it, however many slides share it. 
+	 * 
+	 * @throws PpdException
+	 */
+	private void templateCheck() throws PpdException {
+		Map<TemplateDiff, List<Integer>> masters = new LinkedHashMap<>();
+		Map<TemplateDiff, List<Integer>> layouts = new LinkedHashMap<>();
+		
+		for (SlideMatch match : differ.slideAlignment()) {
+			if (match.getType() == SlideMatchType.DELETED || match.getType() == SlideMatchType.INSERTED) {
+				continue;
+			}
+			// the same pair of parts always gives back the same diff
+			final TemplateDiff masterDiff = differ.masterDiff(match.getIndexA(), match.getIndexB());
+			if (masterDiff != null && !masterDiff.isSame()) {
+				masters.computeIfAbsent(masterDiff, key -> new ArrayList<>()).add(match.getIndexA());
+			}
+			final TemplateDiff layoutDiff = differ.layoutDiff(match.getIndexA(), match.getIndexB());
+			if (layoutDiff != null && !layoutDiff.isSame()) {
+				layouts.computeIfAbsent(layoutDiff, key -> new ArrayList<>()).add(match.getIndexA());
+			}
+		}
+		
+		for (Map.Entry<TemplateDiff, List<Integer>> entry : masters.entrySet()) {
+			templateDetails(TEMPLATE_MASTER, entry.getKey(), entry.getValue());
+		}
+		for (Map.Entry<TemplateDiff, List<Integer>> entry : layouts.entrySet()) {
+			templateDetails(TEMPLATE_LAYOUT, entry.getKey(), entry.getValue());
+		}
+	}
+	
+	/**
+	 * Builds report text for a pair of slide masters or layouts that differ in content. 
+	 * 
+	 * @param label String
+	 * @param templateDiff TemplateDiff
+	 * @param slideIndexes List<Integer> File A slides that use the pair
+	 */
+	private void templateDetails(String label, TemplateDiff templateDiff, List<Integer> slideIndexes) {
+		final PptxTemplate templateA = templateDiff.getTemplateA();
+		final PptxTemplate templateB = templateDiff.getTemplateB();
+		
+		sb.append(label);
+		sb.append(templateA.getName());
+		sb.append("\" (");
+		sb.append(templateA.getPartName());
+		sb.append(")");
+		sb.append(TEMPLATE_FILE_A);
+		sb.append(templateB.getName());
+		sb.append("\" (");
+		sb.append(templateB.getPartName());
+		sb.append(")");
+		sb.append(TEMPLATE_FILE_B);
+		sb.append(slideIndexes);
+		sb.append(":");
+		sb.append(EOL);
+		
+		if (templateDiff.isBackgroundChanged()) {
+			sb.append("\t");
+			sb.append(TEMPLATE_BACKGROUND_CHANGED);
+			sb.append(EOL);
+		}
+		for (ShapeChange change : templateDiff.getShapeChanges()) {
+			shapeChangeDetails(change);
+		}
+		sb.append(EOL);
+	}
+	
+	/**
+	 * Calls checks for individual comparisons on each aligned pair of slides, 
+	 * and lists the slides only found in one of the files. Each pair writes its own 
+	 * fragment, on the executor when one is set, and the fragments are added in slide order, 
+	 * so the report is the same either way. 
 	 * 
 	 * @throws PpdException
 	 */
 	private void slideComparisonCheck() throws PpdException {
+		final List<SlideMatch> matches = differ.slideAlignment();
+		
+		// many pairs are compared at the same time, a few are not worth the hand off
+		final Executor slideExecutor = matches.size() >= PARALLEL_MIN_SLIDES ? executor : null;
+		final String[] fragments = new String[matches.size()];
+		final AtomicInteger done = new AtomicInteger();
+		
+		try {
+			ParallelTasks.forEach(slideExecutor, WORKERS, matches.size(), index -> {
+				checkCancelled();
+				fragments[index] = slideFragment(matches.get(index));
+				fire(PpdEventType.SLIDE_COMPARED, PpdEvent.STAGE_REPORT, done.incrementAndGet(), matches.size(), 
+						matches.get(index).getType().toString());
+			});
+			
+		} finally {
+			// after a timeout, the fragments up to the first one missing still make a partial report
+			for (String fragment : fragments) {
+				if (fragment == null) {
+					break;
+				}
+				sb.append(fragment);
+			}
+		}
+	}
+	
+	/**
+	 * Writes the report fragment of one aligned pair of slides into a builder of its own, 
+	 * so fragments can be written on several threads at once. 
+	 * 
+	 * @param match SlideMatch
+	 * @return String
+	 * @throws PpdException
+	 */
+	private String slideFragment(SlideMatch match) throws PpdException {
+		GenerateReportTextCmd fragment = new GenerateReportTextCmd(differ);
+		fragment.sb = new StringBuilder();
+		fragment.slideComparison(match);
+		return fragment.sb.toString();
+	}
+	
+	/**
+	 * Calls checks for individual comparisons on one aligned pair of slides, 
+	 * or notes the slide only found in one of the files. 
+	 * 
+	 * @param match SlideMatch
+	 * @throws PpdException
+	 */
+	private void slideComparison(SlideMatch match) throws PpdException {
+		final int indexA = match.getIndexA();
+		final int indexB = match.getIndexB();
 		
-		for (int i = 0; i < differ.slideCount_fileA(); i++) {
-			if (rangeCheck(i, differ.getPpdFileB())) {
-				slideLabel(i + 1);
-				slideNameComparisonsCheck(i);
-				slideLayoutComparisonsCheck(i);
-				slideTextComparisonsCheck(i);
-				slideShapeCountCheck(i);
-				slideShapeNamesCheck(i);
-				slideTableCountCheck(i);
+		switch (match.getType()) {
+		case DELETED:
+			slideLabel(indexA + 1);
+			sb.append(SLIDE_ONLY_FILE_A);
+			sb.append(indexA);
+			sb.append(EOL);
+			sb.append(EOL);
+			break;
+			
+		case INSERTED:
+			slideLabel(FILE_B_LABEL + (indexB + 1));
+			sb.append(SLIDE_ONLY_FILE_B);
+			sb.append(indexB);
+			sb.append(EOL);
+			sb.append(EOL);
+			break;
+			
+		default:
+			slideLabel(indexA + 1);
+			if (match.getType() == SlideMatchType.MOVED) {
+				sb.append(SLIDE_MOVED);
+				sb.append(indexA);
+				sb.append(SLIDE_MOVED_FILE_B);
+				sb.append(indexB);
+				sb.append(SLIDE_INDEX_FILE_B);
 				sb.append(EOL);
 				
-			} else {
-				sb.append(SLIDE_COMP_ENDED);
+			} else if (indexA != indexB) {
+				sb.append(SLIDE_ALIGNED);
+				sb.append(indexA);
+				sb.append(SLIDE_ALIGNED_FILE_B);
+				sb.append(indexB);
+				sb.append(SLIDE_INDEX_FILE_B);
 				sb.append(EOL);
-				sb.append("File A: ");
-				sb.append(differ.getPpdFileA().getSlideList().size());
-				sb.append(differ.getPpdFileA().getSlideList().size() == 1 ? " slide. " : " slides ");
-				sb.append(" File B: ");
-				sb.append(differ.getPpdFileB().getSlideList().size());
-				sb.append(differ.getPpdFileB().getSlideList().size() == 1 ? " slide. " : " slides ");
+			}
+			slideNameComparisonsCheck(indexA, indexB);
+			slideLayoutComparisonsCheck(indexA, indexB);
+			slideTemplateComparisonsCheck(indexA, indexB);
+			slideTextComparisonsCheck(indexA, indexB);
+			slideShapeCountCheck(indexA, indexB);
+			slideShapeNamesCheck(indexA, indexB);
+			slideShapeChangesCheck(indexA, indexB);
+			slideTableCountCheck(indexA, indexB);
+			sb.append(EOL);
+		}
+	}
+	
+	/**
+	 * Builds a section listing the word changes in the speaker notes of each aligned 
+	 * pair of slides. The section is left out when no notes differ. 
+	 * 
+	 * @throws PpdException
+	 */
+	private void notesComparisonCheck() throws PpdException {
+		boolean first = true;
+		
+		for (SlideMatch match : differ.slideAlignment()) {
+			if (match.getType() == SlideMatchType.DELETED || match.getType() == SlideMatchType.INSERTED) {
+				continue;
+			}
+			checkCancelled();
+			final int indexA = match.getIndexA();
+			
+			DiffSlideTextCmd cmd = new DiffSlideTextCmd(indexA, differ.getPpdFileA(), match.getIndexB(), differ.getPpdFileB());
+			cmd.setNotes(true);
+			cmd.perform();
+			
+			if (cmd.getHunks().isEmpty()) {
+				continue;
+			}
+			if (first) {
+				sb.append(NOTES_LABEL);
 				sb.append(EOL);
-				return;				
+				sb.append(SECTION_SEPARATOR);
+				sb.append(EOL);
+				first = false;
 			}
+			sb.append(NOTES_CHANGES);
+			sb.append(indexA);
+			sb.append(":");
+			sb.append(EOL);
+			for (DiffHunk hunk : cmd.getHunks()) {
+				appendHunk(hunk, cmd.getWordsA(), cmd.getWordsB());
+			}
+			sb.append(EOL);
 		}
 	}
 	
 	/**
 	 * Compares the names of slides in Files A & B for a given index.
 	 * 
-	 * @param index int 
+	 * @param indexA int 
+	 * @param indexB int 
 	 * @throws PpdException
 	 */
-	private void slideNameComparisonsCheck(int index) throws PpdException { 
+	private void slideNameComparisonsCheck(int indexA, int indexB) throws PpdException { 
 		
-		final String slideNameA = differ.slideName_fileA(index).trim();
-		final String slideNameB = differ.slideName_fileB(index).trim();
+		final String slideNameA = differ.slideName_fileA(indexA).trim();
+		final String slideNameB = differ.slideName_fileB(indexB).trim();
 		
 		// only add to report if slide names are different
 		if (!slideNameA.equals(slideNameB)) {
 			sb.append(SLIDE_NAME_DIFFERENT);
-			sb.append(index);
+			sb.append(indexA);
 			sb.append(EOL);
 			sb.append("File A: slide name: ");
 			sb.append(slideNameA);
@@ -449,12 +934,13 @@ public class GenerateReportTextCmd extends AbstractCompareCmd {
 	/**
 	 * Compares the layouts of slides in Files A & B for a given index.
 	 * 
-	 * @param index int 
+	 * @param indexA int 
+	 * @param indexB int 
 	 */
-	private void slideLayoutComparisonsCheck(int index) {
+	private void slideLayoutComparisonsCheck(int indexA, int indexB) {
 		
-		final String slideLayoutA = differ.slideLayout_fileA(index);
-		final String slideLayoutB = differ.slideLayout_fileB(index);
+		final String slideLayoutA = differ.slideLayout_fileA(indexA);
+		final String slideLayoutB = differ.slideLayout_fileB(indexB);
 		
 		// only add to report if slide names are different
 		if (!slideLayoutA.equals(slideLayoutB)) {
@@ -469,125 +955,180 @@ public class GenerateReportTextCmd extends AbstractCompareCmd {
 		}
 	}
 	
+	/**
+	 * Notes when the slides in Files A & B use a layout or master that differs in content. 
+	 * The differences themselves are listed once for each pair, with the other overview checks.
+	 * 
+	 * @param indexA int 
+	 * @param indexB int 
+	 */
+	private void slideTemplateComparisonsCheck(int indexA, int indexB) {
+		
+		final TemplateDiff masterDiff = differ.masterDiff(indexA, indexB);
+		if (masterDiff != null && !masterDiff.isSame()) {
+			sb.append(SLIDE_MASTER_CONTENT_DIFFERENT);
+			sb.append(masterDiff.getTemplateA().getPartName());
+			sb.append(EOL);
+		}
+		
+		final TemplateDiff layoutDiff = differ.layoutDiff(indexA, indexB);
+		if (layoutDiff != null && !layoutDiff.isSame()) {
+			sb.append(SLIDE_LAYOUT_CONTENT_DIFFERENT);
+			sb.append(layoutDiff.getTemplateA().getName());
+			sb.append(EOL);
+		}
+	}
+	
 	/**
 	 * Performs high level comparison for slide text contents between files A and B.
 	 * 
-	 * @param index int 
+	 * @param indexA int 
+	 * @param indexB int 
 	 * @throws PpdException
 	 */
-	private void slideTextComparisonsCheck(int index) throws PpdException {
+	private void slideTextComparisonsCheck(int indexA, int indexB) throws PpdException {
 		
-		final String slideTextA = differ.slideText_fileA(index);
-		final String slideTextB = differ.slideText_fileB(index);
+		final String slideTextA = differ.slideText_fileA(indexA);
+		final String slideTextB = differ.slideText_fileB(indexB);
 		
 		if (slideTextA.equals(slideTextB)) {
 			sb.append(SLIDE_TEXT_SAME);
-			sb.append(index);
+			sb.append(indexA);
 			sb.append(EOL);
 			
 		} else {
 			sb.append(SLIDE_TEXT_DIFFERENT);
-			sb.append(index);
+			sb.append(indexA);
 			sb.append(EOL);
-			showExpectedAndActual(index);
+			showExpectedAndActual(indexA, indexB);
 		}
 	}
 	
 	/**
 	 * When slide text is found to have differences, show expected and actual words in report. 
+	 * The first difference is reported as before, followed by every word change on the slide 
+	 * when there is more than a single word to report. 
 	 * 
-	 * @param index int
+	 * @param indexA int 
+	 * @param indexB int 
 	 * @throws PpdException
 	 */
-	private void showExpectedAndActual(int index) throws PpdException {
+	private void showExpectedAndActual(int indexA, int indexB) throws PpdException {
 		
-		String[] slideA = differ.slideText_fileA(index).split(" ");
-		String[] slideB = differ.slideText_fileB(index).split(" ");
+		DiffSlideTextCmd cmd = new DiffSlideTextCmd(indexA, differ.getPpdFileA(), indexB, differ.getPpdFileB());
+		cmd.perform();
 		
-		String expected = "";
-		String actual = "";
-		for (int i = 0; i < slideA.length; i++) {
-			
-			if (i >= slideB.length) {
-				// have not found a change yet
-				// and there is no more slide B text
-				break;
-			}
-			
-			String wordA = slideA[i];
-			String wordB = slideB[i];
-			// if the current iteration has different values
-			if (!wordA.equals(wordB)) {
-				expected = wordA;
-				actual = wordB;
-				break;
-			}
+		final List<String> wordsA = cmd.getWordsA();
+		final List<String> wordsB = cmd.getWordsB();
+		final List<DiffHunk> hunks = cmd.getHunks();
+		
+		if (hunks.isEmpty()) {
+			// only the spacing differs
+			return;
 		}
 		
-		// if we didn't find the difference 
-		if (expected.isEmpty() && actual.isEmpty()) {
-			// try searching for additional text
-			searchForExtraText(slideA, slideB);
-			sb.append(EOL);
+		final DiffHunk first = hunks.get(0);
+		switch (first.getType()) {
+		case DELETE:
+			sb.append(EXTRA_TEXT_FILE_A).append(EOL).append(EXTRA_TEXT);
+			appendWords(wordsA, first.getStartA(), first.getEndA());
+			sb.append(EOL).append(EOL);
+			break;
 			
-		} else {
-			// do reporting
+		case INSERT:
+			sb.append(EXTRA_TEXT_FILE_B).append(EOL).append(EXTRA_TEXT);
+			appendWords(wordsB, first.getStartB(), first.getEndB());
+			sb.append(EOL).append(EOL);
+			break;
+			
+		default:
 			sb.append("On slide index ");
-			sb.append(index);
+			sb.append(indexA);
 			sb.append(SLIDE_TEXT_EXPECTED);
-			sb.append(expected);
+			sb.append(wordsA.get(first.getStartA()));
 			sb.append(SLIDE_TEXT_ACTUAL);
-			if (actual.isEmpty()) {
-				sb.append("[EMPTY]");
-			} else {
-				sb.append(actual);
-			}
+			sb.append(wordsB.get(first.getStartB()));
 			sb.append(SLIDE_TEXT_CLOSE);
 			sb.append(EOL);
 		}
+		
+		final boolean singleWord = first.getType() == HunkType.REPLACE 
+				&& first.getLengthA() == 1 && first.getLengthB() == 1;
+		if (hunks.size() > 1 || (first.getType() == HunkType.REPLACE && !singleWord)) {
+			sb.append(SLIDE_TEXT_CHANGES);
+			sb.append(indexA);
+			sb.append(":");
+			sb.append(EOL);
+			for (DiffHunk hunk : hunks) {
+				appendHunk(hunk, wordsA, wordsB);
+			}
+		}
 	}
 	
 	/**
-	 * Looks for circumstance where the text on both slides are the same, but one
-	 * slide has additional text that was not found in the liner comparison search.
+	 * Appends one word change, with 1-based word positions in both files. 
 	 * 
-	 * @param slideA String[]
-	 * @param slideB String[]
-	 */
-	private void searchForExtraText(String[] slideA, String[] slideB) {
-		StringBuilder extraWordsSb = new StringBuilder();
-		// if there is a different number of words on the two slides
-		if (slideA.length != slideB.length) {
-			// more words on slide A
-			if (slideA.length > slideB.length) {
-				extraWordsSb.append(EXTRA_TEXT_FILE_A).append(EOL).append(EXTRA_TEXT);
-				for (int i = slideB.length; i < slideA.length; i++) {
-					extraWordsSb.append(slideA[i]).append(" ");
-				}
-
-			} else {
-				// more words on slide B
-				extraWordsSb.append(EXTRA_TEXT_FILE_B).append(EOL).append(EXTRA_TEXT);
-				;
-				for (int i = slideA.length; i < slideB.length; i++) {
-					extraWordsSb.append(slideB[i]).append(" ");
-				}
+	 * @param hunk DiffHunk
+	 * @param wordsA List<String>
+	 * @param wordsB List<String>
+	 */
+	private void appendHunk(DiffHunk hunk, List<String> wordsA, List<String> wordsB) {
+		sb.append("\t");
+		sb.append(HUNK_AT_WORD);
+		sb.append(hunk.getStartA() + 1);
+		sb.append(HUNK_OF_FILE_A);
+		sb.append(hunk.getStartB() + 1);
+		sb.append(HUNK_OF_FILE_B);
+		
+		switch (hunk.getType()) {
+		case DELETE:
+			sb.append(HUNK_DELETED);
+			appendWords(wordsA, hunk.getStartA(), hunk.getEndA());
+			break;
+			
+		case INSERT:
+			sb.append(HUNK_INSERTED);
+			appendWords(wordsB, hunk.getStartB(), hunk.getEndB());
+			break;
+			
+		default:
+			sb.append(HUNK_REPLACED);
+			appendWords(wordsA, hunk.getStartA(), hunk.getEndA());
+			sb.append(HUNK_WITH);
+			appendWords(wordsB, hunk.getStartB(), hunk.getEndB());
+		}
+		sb.append(SLIDE_TEXT_CLOSE);
+		sb.append(EOL);
+	}
+	
+	/**
+	 * Appends the words in the range [start, end), separated by spaces. 
+	 * 
+	 * @param words List<String>
+	 * @param start int
+	 * @param end int
+	 */
+	private void appendWords(List<String> words, int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (i > start) {
+				sb.append(" ");
 			}
-			sb.append(extraWordsSb.toString()).append(EOL);
+			sb.append(words.get(i));
 		}
 	}
 	
 	/**
 	 * Builds report text for comparing the number of shapes on a given slide index. 
-	 * @param index int
+	 * @param indexA int 
+	 * @param indexB int 
 	 */
-	private void slideShapeCountCheck(int index) {
-		final int fileAShapeCount = differ.getPpdFileA().getSlideList().get(index).getShapeCount();
-		final int fileBShapeCount = differ.getPpdFileB().getSlideList().get(index).getShapeCount();
+	private void slideShapeCountCheck(int indexA, int indexB) {
+		final int fileAShapeCount = differ.getPpdFileA().getSlideList().get(indexA).getShapeCount();
+		final int fileBShapeCount = differ.getPpdFileB().getSlideList().get(indexB).getShapeCount();
 				
 		// do reporting
 		sb.append("On slide index ");
-		sb.append(index);
+		sb.append(indexA);
 		sb.append(" File A contains ");
 		sb.append(fileAShapeCount);
 		sb.append(fileAShapeCount == 1 ? " shape." : " shapes.");
@@ -600,11 +1141,12 @@ public class GenerateReportTextCmd extends AbstractCompareCmd {
 	/**
 	 * Builds report text for comparing the human readable names of shapes on a given slide index. 
 	 * 
-	 * @param index int 
+	 * @param indexA int 
+	 * @param indexB int 
 	 */
-	private void slideShapeNamesCheck(int index) {
-		List<String> namesFileA = differ.shapeNames_fileA(index);
-		List<String> namesFileB = differ.shapeNames_fileB(index);
+	private void slideShapeNamesCheck(int indexA, int indexB) {
+		List<String> namesFileA = differ.shapeNames_fileA(indexA);
+		List<String> namesFileB = differ.shapeNames_fileB(indexB);
 		
 		for (int i = 0; i < namesFileA.size(); i++) {
 			if (i >= namesFileB.size()) {
@@ -616,7 +1158,7 @@ public class GenerateReportTextCmd extends AbstractCompareCmd {
 			// only update report if something does not match
 			if (!nameA.equals(nameB)) {
 				sb.append("On slide index ");
-				sb.append(index);
+				sb.append(indexA);
 				sb.append(":");
 				sb.append(EOL);
 				sb.append(SLIDE_SHAPE_NAMES_FILE_A);
@@ -630,19 +1172,158 @@ public class GenerateReportTextCmd extends AbstractCompareCmd {
 		}
 	}
 	
+	/**
+	 * Builds report text listing the shapes that were added, removed or changed 
+	 * between the two slides, with positions and sizes in points. 
+	 * 
+	 * @param indexA int 
+	 * @param indexB int 
+	 * @throws PpdException
+	 */
+	private void slideShapeChangesCheck(int indexA, int indexB) throws PpdException {
+		boolean first = true;
+		
+		for (ShapeChange change : differ.shapeDiff(indexA, indexB)) {
+			if (!change.isChanged()) {
+				continue;
+			}
+			if (first) {
+				sb.append(SLIDE_SHAPE_CHANGES);
+				sb.append(indexA);
+				sb.append(":");
+				sb.append(EOL);
+				first = false;
+			}
+			shapeChangeDetails(change);
+		}
+	}
+	
+	/**
+	 * Builds a report line for a shape that was added, removed or changed, 
+	 * followed by the changed cells when the shape is a table. 
+	 * 
+	 * @param change ShapeChange
+	 */
+	private void shapeChangeDetails(ShapeChange change) {
+		final PptxShape shapeA = change.getShapeA();
+		final PptxShape shapeB = change.getShapeB();
+		
+		sb.append("\t");
+		sb.append(SHAPE_LABEL);
+		if (shapeA == null) {
+			sb.append(shapeB.getName());
+			sb.append(SHAPE_ID);
+			sb.append(shapeB.getId());
+			sb.append(SHAPE_ONLY_FILE_B);
+			sb.append(EOL);
+			return;
+		}
+		sb.append(shapeA.getName());
+		sb.append(SHAPE_ID);
+		sb.append(shapeA.getId());
+		if (shapeB == null) {
+			sb.append(SHAPE_ONLY_FILE_A);
+			sb.append(EOL);
+			return;
+		}
+		sb.append("): ");
+		
+		List<String> details = new ArrayList<>();
+		if (change.hasChange(ShapeChangeType.MOVED)) {
+			details.add(SHAPE_MOVED + "(" + points(shapeA.getX()) + ", " + points(shapeA.getY()) 
+					+ ") to (" + points(shapeB.getX()) + ", " + points(shapeB.getY()) + ") pt");
+		}
+		if (change.hasChange(ShapeChangeType.RESIZED)) {
+			details.add(SHAPE_RESIZED + points(shapeA.getWidth()) + " x " + points(shapeA.getHeight()) 
+					+ " to " + points(shapeB.getWidth()) + " x " + points(shapeB.getHeight()) + " pt");
+		}
+		if (change.hasChange(ShapeChangeType.ROTATED)) {
+			details.add(SHAPE_ROTATED + shapeA.getRotation() + " to " + shapeB.getRotation() + " degrees");
+		}
+		if (change.hasChange(ShapeChangeType.RETYPED)) {
+			details.add(SHAPE_RETYPED + shapeA.getType() + " to " + shapeB.getType());
+		}
+		if (change.hasChange(ShapeChangeType.RENAMED)) {
+			details.add(SHAPE_RENAMED + shapeB.getName() + "\"");
+		}
+		if (change.hasChange(ShapeChangeType.RETEXTED)) {
+			details.add(SHAPE_RETEXTED);
+		}
+		sb.append(String.join("; ", details));
+		sb.append(".");
+		sb.append(EOL);
+		
+		if (shapeA.getTable() != null && shapeB.getTable() != null) {
+			tableDetails(new TableDiff(shapeA.getTable(), shapeB.getTable()));
+		}
+	}
+	
+	/**
+	 * Builds report text listing the rows and columns only found in one of two tables, 
+	 * and the cells whose text changed. 
+	 * 
+	 * @param tableDiff TableDiff
+	 */
+	private void tableDetails(TableDiff tableDiff) {
+		for (int row : tableDiff.getDeletedRows()) {
+			sb.append("\t\t").append(TABLE_ROW_ONLY_FILE_A).append(row).append(EOL);
+		}
+		for (int row : tableDiff.getInsertedRows()) {
+			sb.append("\t\t").append(TABLE_ROW_ONLY_FILE_B).append(row).append(EOL);
+		}
+		for (int column : tableDiff.getDeletedColumns()) {
+			sb.append("\t\t").append(TABLE_COLUMN_ONLY_FILE_A).append(column).append(EOL);
+		}
+		for (int column : tableDiff.getInsertedColumns()) {
+			sb.append("\t\t").append(TABLE_COLUMN_ONLY_FILE_B).append(column).append(EOL);
+		}
+		for (CellChange cell : tableDiff.getChangedCells()) {
+			sb.append("\t\t");
+			sb.append(TABLE_CELL);
+			sb.append(cell.getRowA());
+			sb.append(TABLE_CELL_COLUMN);
+			sb.append(cell.getColumnA());
+			if (cell.isShifted()) {
+				sb.append(" (row ");
+				sb.append(cell.getRowB());
+				sb.append(TABLE_CELL_COLUMN);
+				sb.append(cell.getColumnB());
+				sb.append(TABLE_CELL_FILE_B);
+				sb.append(")");
+			}
+			sb.append(TABLE_CELL_CHANGED);
+			sb.append(cell.getTextA());
+			sb.append(TABLE_CELL_TO);
+			sb.append(cell.getTextB());
+			sb.append(SLIDE_TEXT_CLOSE);
+			sb.append(EOL);
+		}
+	}
+	
+	/**
+	 * Converts EMUs to points, rounded to two decimal places. 
+	 * 
+	 * @param emu long
+	 * @return double
+	 */
+	private static double points(long emu) {
+		return Math.round(emu / 127.0) / 100.0;
+	}
+	
 	/**
 	 * Builds report text for comparing the number of tables on a given slide index. 
 	 * 
-	 * @param index int
+	 * @param indexA int 
+	 * @param indexB int 
 	 */
-	private void slideTableCountCheck(int index) {
-		final int tableCountA = differ.tableCount_fileA(index);
-		final int tableCountB = differ.tableCount_fileB(index);
+	private void slideTableCountCheck(int indexA, int indexB) {
+		final int tableCountA = differ.tableCount_fileA(indexA);
+		final int tableCountB = differ.tableCount_fileB(indexB);
 		
 		if (tableCountA > 0 || tableCountB > 0) {
 			// do reporting
 			sb.append("On slide index ");
-			sb.append(index);
+			sb.append(indexA);
 			sb.append(" File A contains ");
 			sb.append(tableCountA);
 			sb.append(tableCountA == 1 ? " table." : " tables.");
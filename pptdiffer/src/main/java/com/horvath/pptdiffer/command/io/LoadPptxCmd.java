@@ -25,16 +25,19 @@
 package com.horvath.pptdiffer.command.io;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.file.Files;
+import java.util.concurrent.Executor;
 import java.util.logging.Level;
 
 import org.apache.poi.xslf.usermodel.XMLSlideShow;
 
 import com.horvath.pptdiffer.application.Debugger;
+import com.horvath.pptdiffer.engine.PackageHandlePool;
+import com.horvath.pptdiffer.engine.PptxSession;
 import com.horvath.pptdiffer.exception.PpdException;
+import com.horvath.pptdiffer.io.ExactFileComparer;
+import com.horvath.pptdiffer.io.FileDigestCache;
+import com.horvath.pptdiffer.utility.ParallelPair;
 
 /**
  * Command for reading in PPTX files.
@@ -46,11 +49,40 @@ public final class LoadPptxCmd extends AbstractFileLoader {
 	private File rawFileA;
 	private File rawFileB;
 	
+	// sessions holding the single parse of each file
+	private PptxSession sessionA;
+	private PptxSession sessionB;
+	
 	// POI slide-show files for internal processing
 	private XMLSlideShow poiFileA;
 	private XMLSlideShow poiFileB;
 	
 	private boolean exactlySameFile;
+	private long mismatchOffset = ExactFileComparer.NO_MISMATCH;
+	
+	// false when cached digests showed the files differ, and the offset is found when it is asked for
+	private boolean mismatchOffsetKnown = true;
+	
+	private long fileSizeA;
+	private long fileSizeB;
+	
+	// optional cache of content digests, used for the exact file check
+	private FileDigestCache digestCache;
+	
+	// when set, File A and File B are loaded at the same time
+	private Executor executor;
+	
+	// opens the packages, the shared pool when null
+	private PackageHandlePool packagePool;
+	
+	// when set, the packages are opened without creating the POI slide-shows
+	private boolean packageOnly;
+	
+	// true when one file is loaded on its own, as File A, without the exact file check
+	private boolean singleFile;
+	
+	// when cleared, the files are only checked and compared, not opened
+	private boolean openFiles = true;
 	
 	/**
 	 * Constructor. 
@@ -61,6 +93,27 @@ public final class LoadPptxCmd extends AbstractFileLoader {
 		this.rawFileA = fileA;
 		this.rawFileB = fileB;
 	}
+	
+	/**
+	 * Constructor for loading one file on its own, so that it can be parsed without 
+	 * waiting for the other. The file is loaded as File A, and is not compared with another.
+	 * @param file File 
+	 */
+	public LoadPptxCmd(File file) {
+		this(file, file);
+		this.singleFile = true;
+	}
+	
+	/**
+	 * Constructor. 
+	 * @param fileA File 
+	 * @param fileB File 
+	 * @param digestCache FileDigestCache, may be null
+	 */
+	public LoadPptxCmd(File fileA, File fileB, FileDigestCache digestCache) {
+		this(fileA, fileB);
+		this.digestCache = digestCache;
+	}
 
 	@Override
 	public void perform() throws PpdException {
@@ -72,31 +125,92 @@ public final class LoadPptxCmd extends AbstractFileLoader {
 		nullCheck(rawFileA, rawFileB);
 		filesExistsCheck(rawFileA, rawFileB);
 		filesArePptxCheck(rawFileA, rawFileB);
-		exactSameFileCheck();
+		checkCancelled();
+		if (singleFile) {
+			this.fileSizeA = this.rawFileA.length();
+		} else {
+			exactSameFileCheck();
+		}
 		
-		loadPptxFiles();
+		if (openFiles) {
+			loadPptxFiles();
+		}
 		
 		success = true;
 	}
 	
 	/**
 	 * Reads in the file data from disk, and creates POI slide-show files 
-	 * for processing.
+	 * for processing, unless only the packages are to be opened. The files are 
+	 * opened through sessions, so that later stages can share the same parse.
 	 * 
 	 * @throws PpdException
 	 */
 	private void loadPptxFiles() throws PpdException {
 		Debugger.printLog("loadPptxFiles()", this.getClass().getName());
 
-		try (FileInputStream fisA = new FileInputStream(this.rawFileA);
-				FileInputStream fisB = new FileInputStream(this.rawFileB)) {
-
-			this.poiFileA = new XMLSlideShow(fisA);
-			this.poiFileB = new XMLSlideShow(fisB);
+		final PackageHandlePool pool = this.packagePool == null ? PackageHandlePool.getInstance() : this.packagePool;
+		this.sessionA = new PptxSession(this.rawFileA, pool);
+		if (singleFile) {
+			try {
+				checkCancelled();
+				this.poiFileA = open(this.sessionA);
+				
+			} catch (PpdException | RuntimeException ex) {
+				closeQuietly(this.sessionA);
+				this.poiFileA = null;
+				throw ex;
+			}
+			return;
+		}
+		this.sessionB = new PptxSession(this.rawFileB, pool);
 
+		try {
+			ParallelPair.run(this.executor, () -> {
+				checkCancelled();
+				this.poiFileA = open(this.sessionA);
+			}, () -> {
+				checkCancelled();
+				this.poiFileB = open(this.sessionB);
+			});
+			
+		} catch (PpdException | RuntimeException ex) {
+			// do not leave the file that did load open
+			closeQuietly(this.sessionA);
+			closeQuietly(this.sessionB);
+			this.poiFileA = null;
+			this.poiFileB = null;
+			throw ex;
+		}
+	}
+	
+	/**
+	 * Opens the package of a session, and creates its POI slide-show unless only the package is wanted. 
+	 * The token is checked before each part the slide-show reads. 
+	 * 
+	 * @param session PptxSession
+	 * @return XMLSlideShow, null when only the package is opened
+	 * @throws PpdException
+	 */
+	private XMLSlideShow open(PptxSession session) throws PpdException {
+		if (this.packageOnly) {
+			session.getPackage();
+			return null;
+		}
+		return session.getSlideShow(this.cancellationToken);
+	}
+	
+	/**
+	 * Closes a session after a failed load, logging any problem in doing so.
+	 * 
+	 * @param session PptxSession
+	 */
+	private void closeQuietly(PptxSession session) {
+		try {
+			session.close();
+			
 		} catch (IOException ex) {
-			Debugger.printLog(ex.getMessage(), this.getClass().getName(), Level.SEVERE);
-			throw new PpdException(ex.getMessage(), ex);
+			Debugger.printLog(ex.getMessage(), this.getClass().getName(), Level.WARNING);
 		}
 	}
 	
@@ -107,32 +221,108 @@ public final class LoadPptxCmd extends AbstractFileLoader {
 	 * @throws PpdException
 	 */
 	private void exactSameFileCheck() throws PpdException {
-		this.exactlySameFile = true;
+		this.fileSizeA = this.rawFileA.length();
+		this.fileSizeB = this.rawFileB.length();
+		
+		// files with different sizes are rejected by the comparer without reading them
+		if (this.digestCache != null && this.fileSizeA == this.fileSizeB) {
+			digestSameFileCheck();
+			return;
+		}
+		
+		ExactFileComparer comparer = new ExactFileComparer(this.rawFileA, this.rawFileB);
+		comparer.setCancellationToken(this.cancellationToken);
+		comparer.setListeners(this.listeners);
+		
+		try {
+			comparer.compare();
+			
+		} catch (PpdException ex) {
+			Debugger.printLog(ex.getMessage(), this.getClass().getName(), Level.SEVERE);
+			throw ex;
+		}
+		
+		this.exactlySameFile = comparer.isSameFile();
+		this.mismatchOffset = comparer.getMismatchOffset();
+		this.fileSizeA = comparer.getSizeA();
+		this.fileSizeB = comparer.getSizeB();
+	}
+	
+	/**
+	 * Determines if the two files are the same exact file by comparing their content digests. 
+	 * Only a file without a current digest in the cache is read. When the digests differ, 
+	 * the offset of the first differing byte is left to be found when it is asked for.
+	 * 
+	 * @throws PpdException
+	 */
+	private void digestSameFileCheck() throws PpdException {
+		Debugger.printLog("Exact file check using digest cache", this.getClass().getName());
+		
+		this.digestCache.setCancellationToken(this.cancellationToken);
+		this.digestCache.setListeners(this.listeners);
+		
+		try {
+			final String digestA = this.digestCache.getDigest(this.rawFileA);
+			final String digestB = this.digestCache.getDigest(this.rawFileB);
+			this.digestCache.save();
+			
+			this.exactlySameFile = digestA.equals(digestB);
+			this.mismatchOffset = ExactFileComparer.NO_MISMATCH;
+			this.mismatchOffsetKnown = this.exactlySameFile;
+			
+		} catch (PpdException ex) {
+			Debugger.printLog(ex.getMessage(), this.getClass().getName(), Level.SEVERE);
+			throw ex;
+		}
+	}
 
-		try (InputStream fileA_stream = Files.newInputStream(this.rawFileA.toPath());
-			 InputStream fileB_stream = Files.newInputStream(this.rawFileB.toPath());) {
+	/**
+	 * Sets an executor for loading File A and File B at the same time. 
+	 * When null, the default, the files are loaded one after the other.
+	 * 
+	 * @param executor Executor
+	 */
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
 
-			int fileA_Value;
-			int fileB_Value;
+	/**
+	 * Sets the pool that opens the packages. When null, the default, the shared pool is used, 
+	 * which closes each package once its session is closed.
+	 * 
+	 * @param packagePool PackageHandlePool
+	 */
+	public void setPackagePool(PackageHandlePool packagePool) {
+		this.packagePool = packagePool;
+	}
 
-			do {
-				// read a byte of data from both files
-				fileA_Value = fileA_stream.read();
-				fileB_Value = fileB_stream.read();
+	/**
+	 * Turns on opening only the packages of the files. The POI slide-shows, which read 
+	 * every slide, are then created by the sessions the first time they are asked for, 
+	 * and getPoiFileA() and getPoiFileB() return null.
+	 * 
+	 * @param packageOnly boolean
+	 */
+	public void setPackageOnly(boolean packageOnly) {
+		this.packageOnly = packageOnly;
+	}
+
+	/**
+	 * Turns off opening the files, so that they are only checked and compared byte by byte, 
+	 * while each is loaded by a command of its own. The sessions are then null.
+	 * 
+	 * @param openFiles boolean
+	 */
+	public void setOpenFiles(boolean openFiles) {
+		this.openFiles = openFiles;
+	}
 
-				// as we read the data, check if values are the same
-				if (fileA_Value != fileB_Value) {
-					// we have found contents that are not the same
-					this.exactlySameFile = false;
-					// no need to continue
-					break;
-				}
-			} while (fileA_Value >= 0);
+	public PptxSession getSessionA() {
+		return sessionA;
+	}
 
-		} catch (IOException ex) {
-			Debugger.printLog(ex.getMessage(), this.getClass().getName(), Level.SEVERE);
-			throw new PpdException(ex.getMessage(), ex);
-		}
+	public PptxSession getSessionB() {
+		return sessionB;
 	}
 
 	public XMLSlideShow getPoiFileA() {
@@ -147,4 +337,38 @@ public final class LoadPptxCmd extends AbstractFileLoader {
 		return exactlySameFile;
 	}
 
+	/**
+	 * Returns the offset of the first byte that differs in the two files, or NO_MISMATCH. 
+	 * When the digest cache showed that the files differ, the files are compared 
+	 * byte by byte the first time the offset is asked for.
+	 * 
+	 * @return long
+	 * @throws PpdException
+	 */
+	public long getMismatchOffset() throws PpdException {
+		if (!this.mismatchOffsetKnown) {
+			this.mismatchOffset = ExactFileComparer.findMismatchOffset(this.rawFileA, this.rawFileB);
+			this.mismatchOffsetKnown = true;
+		}
+		return mismatchOffset;
+	}
+	
+	/**
+	 * Returns false when the offset of the first differing byte has not been found yet, 
+	 * and getMismatchOffset() would read the files to find it.
+	 * 
+	 * @return boolean
+	 */
+	public boolean isMismatchOffsetKnown() {
+		return mismatchOffsetKnown;
+	}
+
+	public long getFileSizeA() {
+		return fileSizeA;
+	}
+
+	public long getFileSizeB() {
+		return fileSizeB;
+	}
+
 }
@@ -0,0 +1,325 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.command.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.horvath.pptdiffer.application.Debugger;
+import com.horvath.pptdiffer.engine.model.PackagePartDiff;
+import com.horvath.pptdiffer.exception.PpdException;
+import com.horvath.pptdiffer.io.StaxReaderFactory;
+
+/**
+ * Compares the parts of two PPTX packages using only the zip central directories, 
+ * which record the name, size and CRC-32 of every part. No part is decompressed, 
+ * other than the small relationship parts of unchanged slides, layouts and masters.
+ * @author jhorvath
+ */
+public final class PreDiffPackagesCmd extends AbstractFileLoader {
+	
+	public static final String SLIDES_FOLDER = "ppt/slides/";
+	
+	private static final String REL_TYPE_LAYOUT = "/slideLayout";
+	private static final String REL_TYPE_MASTER = "/slideMaster";
+	
+	private File fileA;
+	private File fileB;
+	
+	private PackagePartDiff partDiff;
+	
+	// parts that are the same in both files
+	private Map<String, ZipEntry> unchanged;
+	
+	// cache of layout and master parts already checked
+	private Map<String, Boolean> checkedParts;
+	
+	// parts being checked further up the walk, to stop on a cycle in a malformed package
+	private Set<String> partsInProgress;
+	
+	/**
+	 * Constructor. 
+	 * @param fileA File
+	 * @param fileB File
+	 */
+	public PreDiffPackagesCmd(File fileA, File fileB) {
+		this.fileA = fileA;
+		this.fileB = fileB;
+	}
+
+	@Override
+	public void perform() throws PpdException {
+		Debugger.printLog("Compare package parts using zip central directories", this.getClass().getName());
+		
+		success = false;
+		
+		nullCheck(fileA, fileB);
+		filesExistsCheck(fileA, fileB);
+		filesArePptxCheck(fileA, fileB);
+		
+		partDiff = new PackagePartDiff();
+		unchanged = new HashMap<>();
+		checkedParts = new HashMap<>();
+		partsInProgress = new HashSet<>();
+		
+		try (ZipFile zipA = new ZipFile(fileA); ZipFile zipB = new ZipFile(fileB)) {
+			
+			comparePartLists(readEntries(zipA), readEntries(zipB));
+			findUnchangedSlides(zipA);
+			
+		} catch (IOException | XMLStreamException ex) {
+			Debugger.printLog(ex.getMessage(), this.getClass().getName(), Level.SEVERE);
+			throw new PpdException(ex.getMessage(), ex);
+		}
+		
+		success = true;
+	}
+	
+	/**
+	 * Reads the part entries of a package, as listed in its central directory. 
+	 * 
+	 * @param zip ZipFile
+	 * @return Map<String, ZipEntry>
+	 */
+	private Map<String, ZipEntry> readEntries(ZipFile zip) {
+		Map<String, ZipEntry> entries = new HashMap<>();
+		
+		Enumeration<? extends ZipEntry> enumeration = zip.entries();
+		while (enumeration.hasMoreElements()) {
+			ZipEntry entry = enumeration.nextElement();
+			if (!entry.isDirectory()) {
+				entries.put(entry.getName(), entry);
+			}
+		}
+		return entries;
+	}
+	
+	/**
+	 * Sorts the parts of both packages into removed, added, changed and unchanged parts. 
+	 * 
+	 * @param entriesA Map<String, ZipEntry>
+	 * @param entriesB Map<String, ZipEntry>
+	 */
+	private void comparePartLists(Map<String, ZipEntry> entriesA, Map<String, ZipEntry> entriesB) {
+		for (ZipEntry entryA : entriesA.values()) {
+			ZipEntry entryB = entriesB.get(entryA.getName());
+			
+			if (entryB == null) {
+				partDiff.getRemovedParts().add(entryA.getName());
+				
+			} else if (entryA.getSize() != entryB.getSize() || entryA.getCrc() != entryB.getCrc()) {
+				partDiff.getChangedParts().add(entryA.getName());
+				
+			} else {
+				unchanged.put(entryA.getName(), entryA);
+			}
+		}
+		
+		for (String name : entriesB.keySet()) {
+			if (!entriesA.containsKey(name)) {
+				partDiff.getAddedParts().add(name);
+			}
+		}
+		
+		partDiff.setUnchangedPartCount(unchanged.size());
+	}
+	
+	/**
+	 * Records the slides whose slide, layout and master parts, and their relationships, 
+	 * are all unchanged. 
+	 * 
+	 * @param zipA ZipFile 
+	 * @throws IOException
+	 * @throws XMLStreamException
+	 */
+	private void findUnchangedSlides(ZipFile zipA) throws IOException, XMLStreamException {
+		for (String name : new ArrayList<>(unchanged.keySet())) {
+			if (name.startsWith(SLIDES_FOLDER) && name.endsWith(".xml") 
+					&& name.indexOf('/', SLIDES_FOLDER.length()) < 0 
+					&& isPartUnchanged(zipA, name, true)) {
+				
+				partDiff.getUnchangedSlides().add(name);
+			}
+		}
+	}
+	
+	/**
+	 * Returns true if the part, its relationships, and the layout and master parts it 
+	 * refers to are all unchanged. The walk only goes from slide to layout to master: 
+	 * a master lists every one of its layouts, but a slide does not depend on the layouts 
+	 * it does not use, so those links are not followed. The result of a part then only 
+	 * depends on the parts below it, whatever order the parts are checked in. 
+	 * 
+	 * @param zipA ZipFile
+	 * @param name String
+	 * @param followLayouts boolean, false for a master, whose layout links are not followed
+	 * @return boolean
+	 * @throws IOException
+	 * @throws XMLStreamException
+	 */
+	private boolean isPartUnchanged(ZipFile zipA, String name, boolean followLayouts) 
+			throws IOException, XMLStreamException {
+		
+		Boolean known = checkedParts.get(name);
+		if (known != null) {
+			return known;
+		}
+		if (!partsInProgress.add(name)) {
+			// a cycle, which well formed packages do not have, counts as changed
+			return false;
+		}
+		
+		boolean result = unchanged.containsKey(name);
+		
+		final String relsName = relationshipsPartName(name);
+		if (result && !unchanged.containsKey(relsName)) {
+			// relationships changed, or only exist in one of the files
+			result = partDiff.getChangedParts().contains(relsName) == false
+					&& partDiff.getAddedParts().contains(relsName) == false
+					&& partDiff.getRemovedParts().contains(relsName) == false;
+		}
+		
+		if (result && unchanged.containsKey(relsName)) {
+			for (Map.Entry<String, Boolean> target : readLayoutAndMasterTargets(zipA, name, relsName, followLayouts).entrySet()) {
+				// a master target is checked without its layouts
+				if (!isPartUnchanged(zipA, target.getKey(), !target.getValue())) {
+					result = false;
+					break;
+				}
+			}
+		}
+		
+		partsInProgress.remove(name);
+		checkedParts.put(name, result);
+		return result;
+	}
+	
+	/**
+	 * Reads the relationships part of a part and returns the names of the layout 
+	 * and master parts it refers to, each mapped to true when it is a master. 
+	 * 
+	 * @param zipA ZipFile
+	 * @param name String source part name
+	 * @param relsName String relationships part name
+	 * @param followLayouts boolean, false to leave out the layout targets
+	 * @return Map<String, Boolean>
+	 * @throws IOException
+	 * @throws XMLStreamException
+	 */
+	private Map<String, Boolean> readLayoutAndMasterTargets(ZipFile zipA, String name, String relsName, 
+			boolean followLayouts) throws IOException, XMLStreamException {
+		
+		Map<String, Boolean> targets = new LinkedHashMap<>();
+		
+		try (InputStream in = zipA.getInputStream(unchanged.get(relsName))) {
+			XMLStreamReader reader = StaxReaderFactory.newReader(in);
+			try {
+				while (reader.hasNext()) {
+					if (reader.next() == XMLStreamConstants.START_ELEMENT 
+							&& "Relationship".equals(reader.getLocalName())) {
+						
+						final String type = reader.getAttributeValue(null, "Type");
+						final String target = reader.getAttributeValue(null, "Target");
+						final String mode = reader.getAttributeValue(null, "TargetMode");
+						
+						if (type != null && target != null && !"External".equals(mode)) {
+							if (type.endsWith(REL_TYPE_MASTER)) {
+								targets.put(resolveTarget(name, target), Boolean.TRUE);
+								
+							} else if (followLayouts && type.endsWith(REL_TYPE_LAYOUT)) {
+								targets.put(resolveTarget(name, target), Boolean.FALSE);
+							}
+						}
+					}
+				}
+			} finally {
+				reader.close();
+			}
+		}
+		return targets;
+	}
+	
+	/**
+	 * Returns the name of the relationships part for a part. 
+	 * For example ppt/slides/slide1.xml has ppt/slides/_rels/slide1.xml.rels
+	 * 
+	 * @param name String
+	 * @return String
+	 */
+	public static String relationshipsPartName(String name) {
+		final int slash = name.lastIndexOf('/');
+		return name.substring(0, slash + 1) + "_rels/" + name.substring(slash + 1) + ".rels";
+	}
+	
+	/**
+	 * Resolves a relationship target against the folder of its source part. 
+	 * 
+	 * @param source String, such as ppt/slides/slide1.xml
+	 * @param target String, such as ../slideLayouts/slideLayout1.xml
+	 * @return String, such as ppt/slideLayouts/slideLayout1.xml
+	 */
+	public static String resolveTarget(String source, String target) {
+		if (target.startsWith("/")) {
+			return target.substring(1);
+		}
+		
+		Deque<String> path = new ArrayDeque<>();
+		final String[] sourceSegments = source.split("/");
+		// drop the source file name, keep its folders
+		for (int i = 0; i < sourceSegments.length - 1; i++) {
+			path.addLast(sourceSegments[i]);
+		}
+		for (String segment : target.split("/")) {
+			if ("..".equals(segment)) {
+				path.pollLast();
+			} else if (!segment.isEmpty() && !".".equals(segment)) {
+				path.addLast(segment);
+			}
+		}
+		return String.join("/", path);
+	}
+
+	public PackagePartDiff getPartDiff() {
+		return partDiff;
+	}
+
+}
@@ -0,0 +1,103 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.command.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.zip.ZipFile;
+
+import javax.xml.stream.XMLStreamException;
+
+import com.horvath.pptdiffer.application.Debugger;
+import com.horvath.pptdiffer.engine.MetadataPartReader;
+import com.horvath.pptdiffer.engine.model.PptxMetadata;
+import com.horvath.pptdiffer.exception.PpdException;
+
+/**
+ * Reads the core, extended and custom document properties of two PPTX files 
+ * straight out of their zips, without loading either file as a slide-show.
+ * @author jhorvath
+ */
+public final class ReadMetadataCmd extends AbstractFileLoader {
+	
+	private File fileA;
+	private File fileB;
+	
+	private PptxMetadata metadataA;
+	private PptxMetadata metadataB;
+	
+	/**
+	 * Constructor. 
+	 * @param fileA File
+	 * @param fileB File
+	 */
+	public ReadMetadataCmd(File fileA, File fileB) {
+		this.fileA = fileA;
+		this.fileB = fileB;
+	}
+
+	@Override
+	public void perform() throws PpdException {
+		Debugger.printLog("Read document properties from the property parts", this.getClass().getName());
+		
+		success = false;
+		
+		nullCheck(fileA, fileB);
+		filesExistsCheck(fileA, fileB);
+		filesArePptxCheck(fileA, fileB);
+		
+		metadataA = readMetadata(fileA);
+		metadataB = readMetadata(fileB);
+		
+		success = true;
+	}
+	
+	/**
+	 * Reads the document properties of one file. 
+	 * 
+	 * @param file File
+	 * @return PptxMetadata
+	 * @throws PpdException
+	 */
+	private PptxMetadata readMetadata(File file) throws PpdException {
+		try (ZipFile zip = new ZipFile(file)) {
+			return new MetadataPartReader(zip).read();
+			
+		} catch (IOException | XMLStreamException ex) {
+			Debugger.printLog(ex.getMessage(), this.getClass().getName(), Level.SEVERE);
+			throw new PpdException(ex.getMessage(), ex);
+		}
+	}
+
+	public PptxMetadata getMetadataA() {
+		return metadataA;
+	}
+
+	public PptxMetadata getMetadataB() {
+		return metadataB;
+	}
+
+}
@@ -25,19 +25,23 @@
 package com.horvath.pptdiffer.command.parse;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 import org.apache.poi.extractor.POITextExtractor;
 import org.apache.poi.sl.extractor.SlideShowExtractor;
+import org.apache.poi.sl.usermodel.Slide;
 import org.apache.poi.sl.usermodel.SlideShow;
-import org.apache.poi.xslf.usermodel.XMLSlideShow;
 import org.apache.poi.xslf.usermodel.XSLFShape;
 import org.apache.poi.xslf.usermodel.XSLFTextParagraph;
 
 import com.horvath.pptdiffer.application.Debugger;
 import com.horvath.pptdiffer.command.io.AbstractFileLoader;
+import com.horvath.pptdiffer.engine.PptxSession;
 import com.horvath.pptdiffer.exception.PpdException;
+import com.horvath.pptdiffer.exception.PpdTimeoutException;
+import com.horvath.pptdiffer.utility.ParallelPair;
 
 /**
  * Extracts text from the entire file into a single string.
@@ -48,6 +52,18 @@ public final class ExtractWholeFileTextCmd extends AbstractFileLoader {
 	private File fileA;
 	private File fileB;
 	
+	private PptxSession sessionA;
+	private PptxSession sessionB;
+	
+	// true when this command opened the sessions itself, and must close them
+	private boolean ownsSessions;
+	
+	// true when one file is extracted on its own, as File A
+	private boolean singleFile;
+	
+	// when set, File A and File B are extracted at the same time
+	private Executor executor;
+	
 	private String fileA_Text = "";
 	private String fileB_Text = "";
 	
@@ -62,6 +78,30 @@ public final class ExtractWholeFileTextCmd extends AbstractFileLoader {
 	public ExtractWholeFileTextCmd(File fileA, File fileB) {
 		this.fileA = fileA;
 		this.fileB = fileB;
+		this.ownsSessions = true;
+	}
+	
+	/**
+	 * Constructor. Reads from already opened sessions, rather than opening the files again.
+	 * @param sessionA PptxSession
+	 * @param sessionB PptxSession
+	 */
+	public ExtractWholeFileTextCmd(PptxSession sessionA, PptxSession sessionB) {
+		this.sessionA = sessionA;
+		this.sessionB = sessionB;
+		this.fileA = sessionA == null ? null : sessionA.getFile();
+		this.fileB = sessionB == null ? null : sessionB.getFile();
+		this.ownsSessions = false;
+	}
+	
+	/**
+	 * Constructor for extracting one file on its own, from an already opened session, 
+	 * without waiting for the other file. The text is returned as that of File A.
+	 * @param session PptxSession
+	 */
+	public ExtractWholeFileTextCmd(PptxSession session) {
+		this(session, session);
+		this.singleFile = true;
 	}
 	
 	@Override
@@ -75,67 +115,113 @@ public final class ExtractWholeFileTextCmd extends AbstractFileLoader {
 		filesExistsCheck(fileA, fileB);
 		filesArePptxCheck(fileA, fileB);
 		
-		fileA_Text = extractText(fileA);
-		fileB_Text = extractText(fileB);
+		if (ownsSessions) {
+			sessionA = new PptxSession(fileA);
+			sessionB = new PptxSession(fileB);
+		}
 		
-		fileA_metadata = extractMetaData(fileA);
-		fileB_metadata = extractMetaData(fileB);
+		try {
+			// one session given for both files has one slide-show, so extract one after the other
+			final Executor pairExecutor = sessionA == sessionB ? null : executor;
+			
+			if (singleFile) {
+				fileA_Text = extractText(sessionA, text -> fileA_Text = text);
+				fileA_metadata = extractMetaData(sessionA);
+			} else {
+				ParallelPair.run(pairExecutor, () -> {
+					fileA_Text = extractText(sessionA, text -> fileA_Text = text);
+					fileA_metadata = extractMetaData(sessionA);
+				}, () -> {
+					fileB_Text = extractText(sessionB, text -> fileB_Text = text);
+					fileB_metadata = extractMetaData(sessionB);
+				});
+			}
+			
+		} catch (PpdTimeoutException ex) {
+			// hand back the text extracted before the deadline
+			ex.setPartialTextA(fileA_Text);
+			if (!singleFile) {
+				ex.setPartialTextB(fileB_Text);
+			}
+			throw ex;
+			
+		} finally {
+			if (ownsSessions) {
+				closeSession(sessionA);
+				closeSession(sessionB);
+			}
+		}
 		
 		success = true;
 	}
 
 	/**
-	 * Extracts text from the entire file into a single string. 
-	 * @param inputFile File 
+	 * Extracts text from the entire file into a single string, slide by slide, 
+	 * checking the cancellation token between slides. 
+	 * @param session PptxSession 
+	 * @param partial Consumer<String> told of the text extracted before the deadline, when it passes
 	 * @return String 
 	 * @throws PpdException
 	 */
-	private String extractText(File inputFile) throws PpdException {
-		String allText = "";
+	private String extractText(PptxSession session, Consumer<String> partial) throws PpdException {
+		StringBuilder allText = new StringBuilder();
 
 		try {
-			SlideShow<XSLFShape, XSLFTextParagraph> slideshow = 
-					new XMLSlideShow(new FileInputStream(inputFile));
+			SlideShow<XSLFShape, XSLFTextParagraph> slideshow = session.getSlideShow();
 
 			SlideShowExtractor<XSLFShape, XSLFTextParagraph> slideShowExtractor = 
 					new SlideShowExtractor<XSLFShape, XSLFTextParagraph>(slideshow);
+			// the slide-show belongs to the session, do not let the extractor close it
+			slideShowExtractor.setCloseFilesystem(false);
 
 			slideShowExtractor.setMasterByDefault(false);
 			slideShowExtractor.setNotesByDefault(true);
 
-			allText = slideShowExtractor.getText();
-
-			slideShowExtractor.close();
-			slideshow.close();
+			try {
+				// the same text as getText(), which joins the text of every slide
+				for (Slide<XSLFShape, XSLFTextParagraph> slide : slideshow.getSlides()) {
+					checkCancelled();
+					allText.append(slideShowExtractor.getText(slide));
+				}
+				
+			} catch (PpdTimeoutException ex) {
+				// the text so far is only copied when it is handed back
+				partial.accept(allText.toString());
+				throw ex;
+				
+			} finally {
+				slideShowExtractor.close();
+			}
 
 		} catch (IOException ex) {
 			throw new PpdException(ex.getLocalizedMessage(), ex);
 		}
 
-		return allText;
+		return allText.toString();
 	}
 	
 	/**
 	 * Extracts metadata from file. 
-	 * @param inputFile File 
+	 * @param session PptxSession 
 	 * @return String
 	 * @throws PpdException
 	 */
-	private String extractMetaData(File inputFile) throws PpdException {
+	private String extractMetaData(PptxSession session) throws PpdException {
 		String metadata = "";
 		
 		try {
-			SlideShow<XSLFShape, XSLFTextParagraph> slideshow = 
-					new XMLSlideShow(new FileInputStream(inputFile));
+			SlideShow<XSLFShape, XSLFTextParagraph> slideshow = session.getSlideShow();
 
 			SlideShowExtractor<XSLFShape, XSLFTextParagraph> slideShowExtractor = 
 					new SlideShowExtractor<XSLFShape, XSLFTextParagraph>(slideshow);
+			slideShowExtractor.setCloseFilesystem(false);
 			
 			POITextExtractor textExtractor = slideShowExtractor.getMetadataTextExtractor();
+			textExtractor.setCloseFilesystem(false);
 			metadata = textExtractor.getText();			
 
+			textExtractor.close();
 			slideShowExtractor.close();
-			slideshow.close();
 
 		} catch (IOException ex) {
 			throw new PpdException(ex.getLocalizedMessage(), ex);
@@ -143,6 +229,30 @@ public final class ExtractWholeFileTextCmd extends AbstractFileLoader {
 		
 		return metadata;
 	}
+	
+	/**
+	 * Closes a session opened by this command. 
+	 * @param session PptxSession
+	 * @throws PpdException
+	 */
+	private void closeSession(PptxSession session) throws PpdException {
+		try {
+			session.close();
+			
+		} catch (IOException ex) {
+			throw new PpdException(ex.getLocalizedMessage(), ex);
+		}
+	}
+
+	/**
+	 * Sets an executor for extracting from File A and File B at the same time. 
+	 * When null, the default, the files are extracted one after the other.
+	 * 
+	 * @param executor Executor
+	 */
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
 
 	public String getFileA_Text() {
 		return fileA_Text;
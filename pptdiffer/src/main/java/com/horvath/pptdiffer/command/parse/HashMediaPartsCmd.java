@@ -0,0 +1,276 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.command.parse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.regex.Pattern;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.openxml4j.opc.PackageRelationship;
+import org.apache.poi.openxml4j.opc.PackagingURIHelper;
+import org.apache.poi.openxml4j.opc.TargetMode;
+
+import com.horvath.pptdiffer.application.Debugger;
+import com.horvath.pptdiffer.command.PpdCommand;
+import com.horvath.pptdiffer.engine.PptxSession;
+import com.horvath.pptdiffer.engine.SlidePartReader;
+import com.horvath.pptdiffer.engine.model.MediaPart;
+import com.horvath.pptdiffer.exception.PpdException;
+import com.horvath.pptdiffer.io.FileDigestCache;
+import com.horvath.pptdiffer.utility.ParallelPair;
+import com.horvath.pptdiffer.utility.ParallelTasks;
+import com.horvath.pptdiffer.utility.PpdEvent;
+import com.horvath.pptdiffer.utility.PpdEventType;
+
+/**
+ * Describes every media part of two PPTX files by name, content type, size, digest 
+ * and the slides that reference it. Each part is streamed through the digest in fixed 
+ * size blocks, so a large video or image is never held in memory as a whole.
+ * @author jhorvath
+ */
+public final class HashMediaPartsCmd extends PpdCommand {
+	
+	public static final String ERROR_NULL_SESSION = "Session cannot be null:";
+	
+	/**
+	 * The same media parts POI lists as picture data.
+	 */
+	private static final Pattern MEDIA_PARTS = Pattern.compile("/ppt/media/.*?");
+	
+	/**
+	 * Fewest media parts in one file for the parts to be digested in parallel.
+	 */
+	public static final int PARALLEL_MIN_PARTS = 4;
+	
+	private static final int WORKERS = Runtime.getRuntime().availableProcessors();
+	
+	private PptxSession sessionA;
+	private PptxSession sessionB;
+	
+	// true when one file is hashed on its own, as File A
+	private boolean singleFile;
+	
+	// when set, File A and File B are hashed at the same time, as are the parts of each file
+	private Executor executor;
+	
+	private List<MediaPart> mediaPartsA = new ArrayList<>();
+	private List<MediaPart> mediaPartsB = new ArrayList<>();
+	
+	// bytes of media read from both files, counted across threads for the listeners
+	private final AtomicLong bytesRead = new AtomicLong();
+	
+	/**
+	 * Constructor. 
+	 * @param sessionA PptxSession
+	 * @param sessionB PptxSession
+	 */
+	public HashMediaPartsCmd(PptxSession sessionA, PptxSession sessionB) {
+		this.sessionA = sessionA;
+		this.sessionB = sessionB;
+	}
+	
+	/**
+	 * Constructor for one file on its own, so that its media parts are hashed without waiting 
+	 * for the other file. They are returned as those of File A.
+	 * @param session PptxSession
+	 */
+	public HashMediaPartsCmd(PptxSession session) {
+		this(session, session);
+		this.singleFile = true;
+	}
+
+	@Override
+	public void perform() throws PpdException {
+		Debugger.printLog("Hash the media parts of both files", this.getClass().getName());
+		
+		success = false;
+		
+		if (sessionA == null || sessionB == null) {
+			String message = ERROR_NULL_SESSION;
+			if (sessionA == null) {
+				message = message + " file A"; 
+			}
+			if (sessionB == null) {
+				message = message + " file B"; 
+			}
+			throw new PpdException(message);
+		}
+		
+		// one session given for both files has one package, so hash one after the other
+		final Executor pairExecutor = sessionA == sessionB ? null : executor;
+		bytesRead.set(0);
+		
+		if (singleFile) {
+			mediaPartsA = hashMediaParts(sessionA);
+		} else {
+			ParallelPair.run(pairExecutor, 
+					() -> mediaPartsA = hashMediaParts(sessionA), 
+					() -> mediaPartsB = hashMediaParts(sessionB));
+		}
+		
+		success = true;
+	}
+	
+	/**
+	 * Describes the media parts of one file. 
+	 * 
+	 * @param session PptxSession
+	 * @return List<MediaPart>
+	 * @throws PpdException
+	 */
+	private List<MediaPart> hashMediaParts(PptxSession session) throws PpdException {
+		final OPCPackage pkg = session.getPackage();
+		final List<PackagePart> parts;
+		final Map<String, List<Integer>> references;
+		
+		try {
+			parts = pkg.getPartsByName(MEDIA_PARTS);
+			references = slideReferences(pkg);
+			
+		} catch (InvalidFormatException | RuntimeException ex) {
+			Debugger.printLog(ex.getMessage(), this.getClass().getName(), Level.SEVERE);
+			throw new PpdException(ex.getMessage(), ex);
+		}
+		
+		// many parts are digested at the same time, a few are not worth the hand off
+		final Executor partExecutor = parts.size() >= PARALLEL_MIN_PARTS ? executor : null;
+		final MediaPart[] mediaParts = new MediaPart[parts.size()];
+		
+		ParallelTasks.forEach(partExecutor, WORKERS, parts.size(), index -> {
+			checkCancelled();
+			try {
+				MediaPart mediaPart = hashMediaPart(parts.get(index));
+				List<Integer> slideIndexes = references.get(mediaPart.getPartName());
+				if (slideIndexes != null) {
+					mediaPart.setSlideIndexes(slideIndexes);
+				}
+				mediaParts[index] = mediaPart;
+				fire(PpdEventType.BYTES_READ, PpdEvent.STAGE_MEDIA, bytesRead.addAndGet(mediaPart.getSize()), 0, 
+						mediaPart.getPartName());
+				
+			} catch (IOException | NoSuchAlgorithmException | RuntimeException ex) {
+				Debugger.printLog(ex.getMessage(), this.getClass().getName(), Level.SEVERE);
+				throw new PpdException(ex.getMessage(), ex);
+			}
+		});
+		
+		return new ArrayList<>(Arrays.asList(mediaParts));
+	}
+	
+	/**
+	 * Maps the name of each part that slides relate to, onto the zero based indexes of 
+	 * the slides that relate to it, in slide order. 
+	 * 
+	 * @param pkg OPCPackage
+	 * @return Map<String, List<Integer>>
+	 * @throws InvalidFormatException
+	 * @throws PpdException
+	 */
+	private static Map<String, List<Integer>> slideReferences(OPCPackage pkg) throws InvalidFormatException, PpdException {
+		Map<String, List<Integer>> references = new HashMap<>();
+		SlidePartReader reader = new SlidePartReader(pkg);
+		
+		for (int i = 0; i < reader.getSlideCount(); i++) {
+			final PackagePart slidePart = reader.getSlidePart(i);
+			for (PackageRelationship relationship : slidePart.getRelationships()) {
+				if (relationship.getTargetMode() == TargetMode.EXTERNAL) {
+					continue;
+				}
+				final String target = PackagingURIHelper.resolvePartUri(
+						slidePart.getPartName().getURI(), relationship.getTargetURI()).getPath();
+				
+				List<Integer> slideIndexes = references.computeIfAbsent(target, key -> new ArrayList<>());
+				// a slide can show the same image more than once
+				if (slideIndexes.isEmpty() || slideIndexes.get(slideIndexes.size() - 1) != i) {
+					slideIndexes.add(i);
+				}
+			}
+		}
+		return references;
+	}
+	
+	/**
+	 * Streams a part through the digest, counting its bytes along the way. 
+	 * 
+	 * @param part PackagePart
+	 * @return MediaPart
+	 * @throws IOException
+	 * @throws NoSuchAlgorithmException
+	 */
+	private static MediaPart hashMediaPart(PackagePart part) throws IOException, NoSuchAlgorithmException {
+		MessageDigest md = MessageDigest.getInstance(FileDigestCache.ALGORITHM);
+		long size = 0;
+		
+		try (InputStream in = part.getInputStream()) {
+			byte[] buffer = new byte[FileDigestCache.BUFFER_SIZE];
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				md.update(buffer, 0, read);
+				size += read;
+			}
+		}
+		
+		MediaPart mediaPart = new MediaPart();
+		mediaPart.setPartName(part.getPartName().getName());
+		mediaPart.setContentType(part.getContentType());
+		mediaPart.setSize(size);
+		mediaPart.setDigest(FileDigestCache.toHex(md.digest()));
+		
+		return mediaPart;
+	}
+
+	/**
+	 * Sets an executor for hashing File A and File B at the same time, and the media 
+	 * parts of a file at the same time when there are many of them. 
+	 * When null, the default, everything is hashed one after the other.
+	 * 
+	 * @param executor Executor
+	 */
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
+	public List<MediaPart> getMediaPartsA() {
+		return mediaPartsA;
+	}
+
+	public List<MediaPart> getMediaPartsB() {
+		return mediaPartsB;
+	}
+
+}
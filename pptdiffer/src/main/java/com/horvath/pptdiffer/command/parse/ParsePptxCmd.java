@@ -26,20 +26,42 @@ package com.horvath.pptdiffer.command.parse;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import javax.xml.namespace.QName;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
 import org.apache.poi.xslf.usermodel.XMLSlideShow;
+import org.apache.poi.xslf.usermodel.XSLFConnectorShape;
+import org.apache.poi.xslf.usermodel.XSLFGraphicFrame;
+import org.apache.poi.xslf.usermodel.XSLFGroupShape;
+import org.apache.poi.xslf.usermodel.XSLFNotes;
+import org.apache.poi.xslf.usermodel.XSLFPictureShape;
 import org.apache.poi.xslf.usermodel.XSLFShape;
 import org.apache.poi.xslf.usermodel.XSLFSlide;
 import org.apache.poi.xslf.usermodel.XSLFTable;
 import org.apache.poi.xslf.usermodel.XSLFTableCell;
 import org.apache.poi.xslf.usermodel.XSLFTableRow;
 import org.apache.poi.xslf.usermodel.XSLFTextShape;
+import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlCursor.TokenType;
 
 import com.horvath.pptdiffer.application.Debugger;
 import com.horvath.pptdiffer.command.PpdCommand;
+import com.horvath.pptdiffer.engine.LazySlideList;
+import com.horvath.pptdiffer.engine.SlidePartReader;
+import com.horvath.pptdiffer.engine.SlideTextBuilder;
+import com.horvath.pptdiffer.engine.model.PptxShape;
+import com.horvath.pptdiffer.engine.model.PptxShapeType;
 import com.horvath.pptdiffer.engine.model.PptxSlide;
 import com.horvath.pptdiffer.engine.model.PptxSlideShow;
 import com.horvath.pptdiffer.exception.PpdException;
+import com.horvath.pptdiffer.exception.PpdTimeoutException;
+import com.horvath.pptdiffer.utility.ParallelPair;
+import com.horvath.pptdiffer.utility.ParseMode;
+import com.horvath.pptdiffer.utility.PpdEvent;
+import com.horvath.pptdiffer.utility.PpdEventType;
 
 /**
  * Parses POI .pptx objects into PPD .pptx objects.
@@ -50,9 +72,29 @@ public class ParsePptxCmd extends PpdCommand {
 	private XMLSlideShow xmlFileA;
 	private XMLSlideShow xmlFileB;
 	
+	// packages behind the files, read by the streaming parser
+	private OPCPackage packageA;
+	private OPCPackage packageB;
+	
 	private PptxSlideShow ppdFileA;
 	private PptxSlideShow ppdFileB;
 	
+	// when set, File A and File B are parsed at the same time
+	private Executor executor;
+	
+	private ParseMode parseMode = ParseMode.DOM;
+	
+	// when set, slides are parsed the first time they are accessed
+	private boolean lazySlides;
+	private int slideCacheSize = LazySlideList.DEFAULT_CACHE_SIZE;
+	
+	// true when one file is parsed on its own, as File A
+	private boolean singleFile;
+	
+	// slides parsed in both files, counted across threads for progress
+	private final AtomicInteger parsedSlides = new AtomicInteger();
+	private int totalSlides;
+	
 	public static final String ERROR_NULL_OBJECT = "POI object cannot be null:";
 	
 	/**
@@ -64,9 +106,50 @@ public class ParsePptxCmd extends PpdCommand {
 	public ParsePptxCmd(XMLSlideShow xmlFileA, XMLSlideShow xmlFileB) {
 		this.xmlFileA = xmlFileA;
 		this.xmlFileB = xmlFileB;
+		this.packageA = xmlFileA == null ? null : xmlFileA.getPackage();
+		this.packageB = xmlFileB == null ? null : xmlFileB.getPackage();
 		this.ppdFileA = new PptxSlideShow();
 		this.ppdFileB = new PptxSlideShow();
 	}
+	
+	/**
+	 * Constructor for parsing one file on its own, without waiting for the other to load. 
+	 * The file is parsed as File A.
+	 * 
+	 * @param xmlFile XMLSlideShow
+	 */
+	public ParsePptxCmd(XMLSlideShow xmlFile) {
+		this(xmlFile, xmlFile);
+		this.singleFile = true;
+	}
+	
+	/**
+	 * Returns a command that parses straight from the packages, without the POI slide-show objects, 
+	 * which read every slide when they are created. Slides are always read with the streaming parser.
+	 * 
+	 * @param packageA OPCPackage
+	 * @param packageB OPCPackage
+	 * @return ParsePptxCmd
+	 */
+	public static ParsePptxCmd fromPackages(OPCPackage packageA, OPCPackage packageB) {
+		ParsePptxCmd cmd = new ParsePptxCmd(null, null);
+		cmd.packageA = packageA;
+		cmd.packageB = packageB;
+		return cmd;
+	}
+	
+	/**
+	 * Returns a command that parses one file straight from its package, the same way as 
+	 * fromPackages, without waiting for the other file to load. The file is parsed as File A.
+	 * 
+	 * @param pkg OPCPackage
+	 * @return ParsePptxCmd
+	 */
+	public static ParsePptxCmd fromPackage(OPCPackage pkg) {
+		ParsePptxCmd cmd = fromPackages(pkg, pkg);
+		cmd.singleFile = true;
+		return cmd;
+	}
 
 	@Override
 	public void perform() throws PpdException {
@@ -76,20 +159,67 @@ public class ParsePptxCmd extends PpdCommand {
 		
 		nullCheck();
 		
-		parseFile(this.xmlFileA, this.ppdFileA);
-		parseFile(this.xmlFileB, this.ppdFileB);
+		// a file compared with itself shares one package, which is not safe to walk from two threads
+		final Executor pairExecutor = this.packageA == this.packageB ? null : this.executor;
+		
+		parsedSlides.set(0);
+		
+		try {
+			if (isStreaming() && singleFile) {
+				final SlidePartReader reader = new SlidePartReader(this.packageA);
+				totalSlides = reader.getSlideCount();
+				
+				streamFile(reader, this.ppdFileA);
+			} else if (isStreaming()) {
+				final SlidePartReader readerA = new SlidePartReader(this.packageA);
+				final SlidePartReader readerB = new SlidePartReader(this.packageB);
+				totalSlides = readerA.getSlideCount() + readerB.getSlideCount();
+				
+				ParallelPair.run(pairExecutor, 
+						() -> streamFile(readerA, this.ppdFileA), 
+						() -> streamFile(readerB, this.ppdFileB));
+			} else if (singleFile) {
+				totalSlides = this.xmlFileA.getSlides().size();
+				
+				parseFile(this.xmlFileA, this.ppdFileA);
+			} else {
+				totalSlides = this.xmlFileA.getSlides().size() + this.xmlFileB.getSlides().size();
+				
+				ParallelPair.run(pairExecutor, 
+						() -> parseFile(this.xmlFileA, this.ppdFileA), 
+						() -> parseFile(this.xmlFileB, this.ppdFileB));
+			}
+			
+		} catch (PpdTimeoutException ex) {
+			// hand back the slides parsed before the deadline
+			ex.setPartialFileA(this.ppdFileA);
+			if (!singleFile) {
+				ex.setPartialFileB(this.ppdFileB);
+			}
+			throw ex;
+		}
 		
 		success = true;
 	}
 	
+	/**
+	 * Returns true if the slides are read from the slide parts with the streaming parser. 
+	 * Lazy slides, and slides parsed straight from the packages, always are.
+	 * 
+	 * @return boolean
+	 */
+	private boolean isStreaming() {
+		return parseMode == ParseMode.STREAMING || lazySlides || xmlFileA == null || xmlFileB == null;
+	}
+	
 	/**
 	 * Parses POI slide-show object to a PPD slide-show object. 
 	 * 
 	 * @param xmlFile XMLSlideShow - Parse From
 	 * @param ppdFile PptxSlideShow - Parse To
+	 * @throws PpdException
 	 */
-	private void parseFile(XMLSlideShow xmlFile, PptxSlideShow ppdFile) {
-
+	private void parseFile(XMLSlideShow xmlFile, PptxSlideShow ppdFile) throws PpdException {
 		for (XSLFSlide xmlSlide : xmlFile.getSlides()) {
 			PptxSlide ppdSlide = new PptxSlide();
 
@@ -98,88 +228,189 @@ public class ParsePptxCmd extends PpdCommand {
 			ppdSlide.setSlideNumber(xmlSlide.getSlideNumber());
 			
 			ppdSlide.setLayout(xmlSlide.getSlideLayout().getName());
+			ppdSlide.setLayoutPart(xmlSlide.getSlideLayout().getPackagePart().getPartName().getName());
 			
-			ppdSlide.setShapeCount(xmlSlide.getShapes().size());
-
-			List<String> shapeNames = new ArrayList<>(ppdSlide.getShapeCount());
-			for (XSLFShape shape : xmlSlide.getShapes()) {
-				shapeNames.add(shape.getShapeName());
-			}
-			ppdSlide.setShapeNames(shapeNames);
-
-			int tableCount = 0;
 			// search for text to parse out of slide
-			StringBuilder sb = new StringBuilder();
-			for (XSLFShape shape : xmlSlide.getShapes()) {
-				sbPreTest(sb);
-				
-				if (shape instanceof XSLFTextShape) {
-					String text = parseTextFromTextShape((XSLFTextShape) shape);
-					sb.append(text);
-					
-				} else if (shape instanceof XSLFTable) {
-					tableCount++;
-					String text = parseTextFromTable((XSLFTable) shape);
-					sb.append(text);
-				}
-
+			SlideTextBuilder builder = new SlideTextBuilder();
+			addShapes(xmlSlide.getShapes(), builder);
+			builder.fill(ppdSlide);
+			
+			final XSLFNotes xmlNotes = xmlSlide.getNotes();
+			if (xmlNotes != null) {
+				SlideTextBuilder notesBuilder = new SlideTextBuilder();
+				addShapes(xmlNotes.getShapes(), notesBuilder);
+				notesBuilder.fillNotes(ppdSlide);
 			}
-			ppdSlide.setTableCount(tableCount);
-			ppdSlide.setText(sb.toString());
 
 			ppdFile.getSlideList().add(ppdSlide);
+			slideParsed(ppdSlide);
+			checkCancelled();
 		}
 		
 		ppdFile.setMasterSlideCount(xmlFile.getSlideMasters().size());
 	}
 	
 	/**
-	 * Parses text from a PPTX text box and clean whitespace.
-	 * @param txShape XSLFTextShape 
-	 * @return String 
+	 * Tells the listeners that a slide was parsed, counting the slides of both files. 
+	 * Lazy slides are not parsed here, so they are not told.
+	 * 
+	 * @param ppdSlide PptxSlide
+	 */
+	private void slideParsed(PptxSlide ppdSlide) {
+		fire(PpdEventType.SLIDE_PARSED, PpdEvent.STAGE_PARSE, parsedSlides.incrementAndGet(), totalSlides, 
+				ppdSlide.getSlideName());
+	}
+	
+	/**
+	 * Parses the slide parts of a package with a pull parser, without walking the POI shape objects. 
+	 * 
+	 * @param reader SlidePartReader - Parse From
+	 * @param ppdFile PptxSlideShow - Parse To
+	 * @throws PpdException
 	 */
-	private String parseTextFromTextShape(XSLFTextShape txShape) {
-		String txt = txShape.getText().trim();
-		String[] words = txt.split("\\s+");
+	private void streamFile(SlidePartReader reader, PptxSlideShow ppdFile) throws PpdException {
+		if (lazySlides) {
+			ppdFile.setSlideList(new LazySlideList(reader, slideCacheSize));
+			ppdFile.setMasterSlideCount(reader.getMasterSlideCount());
+			return;
+		}
 		
-		StringBuilder sb = new StringBuilder();
-		for (String s : words) {
-			if (!s.trim().isEmpty()) {
-				sb.append(s.trim()).append(" ");
+		for (int i = 0; i < reader.getSlideCount(); i++) {
+			PptxSlide ppdSlide = reader.readSlide(i);
+			ppdFile.getSlideList().add(ppdSlide);
+			slideParsed(ppdSlide);
+			checkCancelled();
+		}
+		
+		ppdFile.setMasterSlideCount(reader.getMasterSlideCount());
+	}
+	
+	/**
+	 * Adds the top level shapes of a slide, or of its notes, to a builder. 
+	 * 
+	 * @param shapes List<XSLFShape>
+	 * @param builder SlideTextBuilder
+	 */
+	private void addShapes(List<XSLFShape> shapes, SlideTextBuilder builder) {
+		for (XSLFShape shape : shapes) {
+			if (shape instanceof XSLFTextShape) {
+				builder.addTextShape(newShape(shape, PptxShapeType.TEXT), ((XSLFTextShape) shape).getText());
+				
+			} else if (shape instanceof XSLFTable) {
+				builder.addTable(newShape(shape, PptxShapeType.TABLE), parseTextFromTable((XSLFTable) shape));
+				
+			} else {
+				builder.addOtherShape(newShape(shape, otherShapeType(shape)));
 			}
 		}
-		return sb.toString().trim();
 	}
 	
 	/**
-	 * Parse text from a PowerPoint table.
-	 * @param table XSLFTable
-	 * @return String
+	 * Returns a new PPD shape for a POI shape, with the shape's own transform and placeholder. 
+	 * The transform is read from the shape XML, the same as the streaming parser, 
+	 * rather than from the anchor POI inherits from the layout for placeholders. 
+	 * 
+	 * @param shape XSLFShape
+	 * @param type PptxShapeType
+	 * @return PptxShape
 	 */
-	private String parseTextFromTable(XSLFTable table) {
-		StringBuilder sb = new StringBuilder();
+	private static PptxShape newShape(XSLFShape shape, PptxShapeType type) {
+		PptxShape ppdShape = SlideTextBuilder.newShape(String.valueOf(shape.getShapeId()), shape.getShapeName(), type);
 		
-		for (XSLFTableRow row : table.getRows()) {
-			for (XSLFTableCell cell : row.getCells()) {
-				sb.append(cell.getText().trim());
-				sb.append(" ");
-			}
+		try (XmlCursor cursor = shape.getXmlObject().newCursor()) {
+			// the first transform in the shape is its own, a group's shapes come after it
+			int depth = 0;
+			do {
+				final TokenType token = cursor.toNextToken();
+				if (token.isStart()) {
+					final String localName = cursor.getName().getLocalPart();
+					if ("xfrm".equals(localName)) {
+						readTransform(cursor, ppdShape);
+						break;
+					}
+					if (depth == 2 && "ph".equals(localName)) {
+						// the ph element of the shape's own non-visual properties
+						SlideTextBuilder.setPlaceholder(ppdShape, 
+								cursor.getAttributeText(new QName("type")), cursor.getAttributeText(new QName("idx")));
+					}
+					depth++;
+				} else if (token.isEnd()) {
+					depth--;
+				} else if (token.isNone() || token.isEnddoc()) {
+					break;
+				}
+			} while (depth >= 0);
 		}
+		return ppdShape;
+	}
+	
+	/**
+	 * Reads the anchor and rotation of a transform the cursor is on. 
+	 * 
+	 * @param cursor XmlCursor
+	 * @param shape PptxShape
+	 */
+	private static void readTransform(XmlCursor cursor, PptxShape shape) {
+		final String rot = cursor.getAttributeText(new QName("rot"));
+		String x = null;
+		String y = null;
+		String cx = null;
+		String cy = null;
 		
-		return sb.toString().trim();
+		if (cursor.toFirstChild()) {
+			do {
+				final String localName = cursor.getName().getLocalPart();
+				if ("off".equals(localName)) {
+					x = cursor.getAttributeText(new QName("x"));
+					y = cursor.getAttributeText(new QName("y"));
+				} else if ("ext".equals(localName)) {
+					cx = cursor.getAttributeText(new QName("cx"));
+					cy = cursor.getAttributeText(new QName("cy"));
+				}
+			} while (cursor.toNextSibling());
+		}
+		SlideTextBuilder.setTransform(shape, rot, x, y, cx, cy);
+	}
+	
+	/**
+	 * Returns the type of a shape that has no text. 
+	 * 
+	 * @param shape XSLFShape
+	 * @return PptxShapeType
+	 */
+	private static PptxShapeType otherShapeType(XSLFShape shape) {
+		if (shape instanceof XSLFPictureShape) {
+			return PptxShapeType.PICTURE;
+		}
+		if (shape instanceof XSLFGroupShape) {
+			return PptxShapeType.GROUP;
+		}
+		if (shape instanceof XSLFConnectorShape) {
+			return PptxShapeType.CONNECTOR;
+		}
+		if (shape instanceof XSLFGraphicFrame) {
+			return PptxShapeType.GRAPHIC;
+		}
+		return PptxShapeType.OTHER;
 	}
 	
 	/**
-	 * If the contents of a StringBuilder is not empty,
-	 * append a word space to prevent word crashing.
-	 * @param sb StringBuilder
-	 * @return StringBuilder
+	 * Collects the text of each cell in a PowerPoint table, row by row.
+	 * @param table XSLFTable
+	 * @return List<List<String>>
 	 */
-	private StringBuilder sbPreTest(StringBuilder sb) {
-		if (!sb.toString().isEmpty()) {
-			sb.append(" ");
+	private List<List<String>> parseTextFromTable(XSLFTable table) {
+		List<List<String>> rows = new ArrayList<>();
+		
+		for (XSLFTableRow row : table.getRows()) {
+			List<String> cellTexts = new ArrayList<>();
+			for (XSLFTableCell cell : row.getCells()) {
+				cellTexts.add(cell.getText());
+			}
+			rows.add(cellTexts);
 		}
-		return sb;
+		
+		return rows;
 	}
 	
 	/**
@@ -188,12 +419,12 @@ public class ParsePptxCmd extends PpdCommand {
 	 * @throws PpdException
 	 */
 	private void nullCheck() throws PpdException {
-		if (xmlFileA == null || xmlFileB == null) {
+		if (packageA == null || packageB == null) {
 			String message = ERROR_NULL_OBJECT;
-			if (xmlFileA == null) {
+			if (packageA == null) {
 				message = message + " file A"; 
 			}
-			if (xmlFileB == null) {
+			if (packageB == null) {
 				message = message + " file B"; 
 			}
 			throw new PpdException(message);
@@ -201,6 +432,46 @@ public class ParsePptxCmd extends PpdCommand {
 	}
 
 
+	/**
+	 * Sets an executor for parsing File A and File B at the same time. 
+	 * When null, the default, the files are parsed one after the other.
+	 * 
+	 * @param executor Executor
+	 */
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Sets how slides are parsed. DOM, the default, walks the POI shape objects. 
+	 * STREAMING reads the slide parts with a pull parser and gives the same results.
+	 * 
+	 * @param parseMode ParseMode
+	 */
+	public void setParseMode(ParseMode parseMode) {
+		this.parseMode = parseMode == null ? ParseMode.DOM : parseMode;
+	}
+
+	/**
+	 * Turns on parsing each slide the first time it is accessed, rather than all at once. 
+	 * Lazy slides are always read with the streaming parser, and the packages 
+	 * must stay open for as long as the parsed slide-shows are used.
+	 * 
+	 * @param lazySlides boolean
+	 */
+	public void setLazySlides(boolean lazySlides) {
+		this.lazySlides = lazySlides;
+	}
+
+	/**
+	 * Sets the most slides of each file to keep parsed at one time when slides are lazy.
+	 * 
+	 * @param slideCacheSize int
+	 */
+	public void setSlideCacheSize(int slideCacheSize) {
+		this.slideCacheSize = slideCacheSize;
+	}
+	
 	public PptxSlideShow getPpdFileA() {
 		return ppdFileA;
 	}
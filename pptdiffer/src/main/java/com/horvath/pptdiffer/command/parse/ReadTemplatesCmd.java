@@ -0,0 +1,130 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.command.parse;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import com.horvath.pptdiffer.application.Debugger;
+import com.horvath.pptdiffer.command.PpdCommand;
+import com.horvath.pptdiffer.engine.PptxSession;
+import com.horvath.pptdiffer.engine.SlidePartReader;
+import com.horvath.pptdiffer.engine.model.PptxTemplate;
+import com.horvath.pptdiffer.exception.PpdException;
+import com.horvath.pptdiffer.utility.ParallelPair;
+
+/**
+ * Reads the slide masters and layouts of two PPTX files, with the shapes, placeholders 
+ * and background of each. There are only a few of them however many slides there are, 
+ * so they are read straight from the packages whichever way the slides are parsed.
+ * @author jhorvath
+ */
+public final class ReadTemplatesCmd extends PpdCommand {
+	
+	public static final String ERROR_NULL_SESSION = "Session cannot be null:";
+	
+	private PptxSession sessionA;
+	private PptxSession sessionB;
+	
+	// true when one file is read on its own, as File A
+	private boolean singleFile;
+	
+	// when set, File A and File B are read at the same time
+	private Executor executor;
+	
+	private Map<String, PptxTemplate> templatesA = new LinkedHashMap<>();
+	private Map<String, PptxTemplate> templatesB = new LinkedHashMap<>();
+	
+	/**
+	 * Constructor. 
+	 * @param sessionA PptxSession
+	 * @param sessionB PptxSession
+	 */
+	public ReadTemplatesCmd(PptxSession sessionA, PptxSession sessionB) {
+		this.sessionA = sessionA;
+		this.sessionB = sessionB;
+	}
+	
+	/**
+	 * Constructor for one file on its own, so that its templates are read without waiting 
+	 * for the other file. They are returned as those of File A.
+	 * @param session PptxSession
+	 */
+	public ReadTemplatesCmd(PptxSession session) {
+		this(session, session);
+		this.singleFile = true;
+	}
+
+	@Override
+	public void perform() throws PpdException {
+		Debugger.printLog("Read the slide masters and layouts of both files", this.getClass().getName());
+		
+		success = false;
+		
+		if (sessionA == null || sessionB == null) {
+			String message = ERROR_NULL_SESSION;
+			if (sessionA == null) {
+				message = message + " file A"; 
+			}
+			if (sessionB == null) {
+				message = message + " file B"; 
+			}
+			throw new PpdException(message);
+		}
+		
+		// one session given for both files has one package, so read one after the other
+		final Executor pairExecutor = sessionA == sessionB ? null : executor;
+		
+		if (singleFile) {
+			templatesA = new SlidePartReader(sessionA.getPackage()).readTemplates();
+		} else {
+			ParallelPair.run(pairExecutor, 
+					() -> templatesA = new SlidePartReader(sessionA.getPackage()).readTemplates(), 
+					() -> templatesB = new SlidePartReader(sessionB.getPackage()).readTemplates());
+		}
+		
+		success = true;
+	}
+
+	/**
+	 * Sets an executor for reading File A and File B at the same time. 
+	 * When null, the default, the files are read one after the other.
+	 * 
+	 * @param executor Executor
+	 */
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
+	public Map<String, PptxTemplate> getTemplatesA() {
+		return templatesA;
+	}
+
+	public Map<String, PptxTemplate> getTemplatesB() {
+		return templatesB;
+	}
+
+}
@@ -0,0 +1,117 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Enumeration;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.poi.openxml4j.util.ZipEntrySource;
+
+import com.horvath.pptdiffer.exception.PpdException;
+import com.horvath.pptdiffer.utility.CancellationToken;
+
+/**
+ * Zip entries of a package that check a cancellation token before each part is read, 
+ * so that POI building a slide-show, which reads every slide part, stops at the next part 
+ * once the token is cancelled or its deadline has passed. POI logs and carries on past 
+ * some failed reads, so the PpdException of the token is kept, and taken with takeCancellation().
+ * @author jhorvath
+ */
+final class CancellableZipSource implements ZipEntrySource {
+	
+	private final ZipEntrySource source;
+	
+	// null when reading is not cancellable
+	private volatile CancellationToken cancellationToken;
+	
+	// the exception of the token, once it has refused to read a part
+	private volatile PpdException cancellation;
+	
+	/**
+	 * Constructor. 
+	 * @param source ZipEntrySource
+	 */
+	CancellableZipSource(ZipEntrySource source) {
+		this.source = source;
+	}
+	
+	@Override
+	public Enumeration<? extends ZipArchiveEntry> getEntries() {
+		return source.getEntries();
+	}
+
+	@Override
+	public ZipArchiveEntry getEntry(String path) {
+		return source.getEntry(path);
+	}
+
+	@Override
+	public InputStream getInputStream(ZipArchiveEntry entry) throws IOException {
+		final CancellationToken token = this.cancellationToken;
+		if (token != null) {
+			try {
+				token.check();
+				
+			} catch (PpdException ex) {
+				this.cancellation = ex;
+				throw new IOException(ex.getMessage(), ex);
+			}
+		}
+		return source.getInputStream(entry);
+	}
+
+	@Override
+	public void close() throws IOException {
+		source.close();
+	}
+
+	@Override
+	public boolean isClosed() {
+		return source.isClosed();
+	}
+	
+	/**
+	 * Sets the token checked before each part is read. 
+	 * 
+	 * @param cancellationToken CancellationToken, may be null
+	 */
+	void setCancellationToken(CancellationToken cancellationToken) {
+		this.cancellationToken = cancellationToken;
+	}
+	
+	/**
+	 * Returns the exception of the token if it refused to read a part since the last call, and forgets it. 
+	 * 
+	 * @return PpdException, null when every part was read
+	 */
+	PpdException takeCancellation() {
+		final PpdException taken = this.cancellation;
+		this.cancellation = null;
+		return taken;
+	}
+
+}
@@ -0,0 +1,126 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine;
+
+import java.util.AbstractList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.RandomAccess;
+
+import com.horvath.pptdiffer.engine.model.PptxSlide;
+import com.horvath.pptdiffer.exception.PpdException;
+
+/**
+ * Read only slide list that parses a slide the first time it is accessed. 
+ * The slide count comes from presentation.xml, and only the most recently used 
+ * slides are kept, so checking a few slides of a large deck only pays for those slides.
+ * The package behind the reader must stay open while the list is in use.
+ * @author jhorvath
+ */
+public final class LazySlideList extends AbstractList<PptxSlide> implements RandomAccess {
+	
+	public static final int DEFAULT_CACHE_SIZE = 64;
+	
+	public static final String ERROR_READ_SLIDE = "Unable to read slide at index:";
+	
+	private final SlidePartReader reader;
+	private final Map<Integer, PptxSlide> cache;
+	
+	// slides read from the package, counting a slide read again after it was dropped
+	private int readCount;
+	
+	/**
+	 * Constructor. 
+	 * 
+	 * @param reader SlidePartReader
+	 * @param cacheSize int, the most slides to keep parsed at one time
+	 */
+	public LazySlideList(SlidePartReader reader, final int cacheSize) {
+		this.reader = reader;
+		final int maxSize = Math.max(1, cacheSize);
+		
+		// access order, so the least recently used slide is dropped first
+		this.cache = new LinkedHashMap<Integer, PptxSlide>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, PptxSlide> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	/**
+	 * Returns the slide at a zero based index, parsing it if it is not cached. 
+	 * A failure to read the slide is thrown as an IllegalStateException 
+	 * with the PpdException as its cause.
+	 * 
+	 * @param index int
+	 * @return PptxSlide
+	 */
+	@Override
+	public synchronized PptxSlide get(int index) {
+		if (index < 0 || index >= size()) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+		}
+		
+		PptxSlide slide = cache.get(index);
+		if (slide == null) {
+			try {
+				slide = reader.readSlide(index);
+				readCount++;
+				
+			} catch (PpdException ex) {
+				throw new IllegalStateException(ERROR_READ_SLIDE + " " + index, ex);
+			}
+			cache.put(index, slide);
+		}
+		return slide;
+	}
+
+	@Override
+	public int size() {
+		return reader.getSlideCount();
+	}
+	
+	/**
+	 * Returns the number of slides currently parsed and held in the cache. 
+	 * 
+	 * @return int
+	 */
+	public synchronized int getCachedCount() {
+		return cache.size();
+	}
+	
+	/**
+	 * Returns the number of times a slide has been read from the package. 
+	 * 
+	 * @return int
+	 */
+	public synchronized int getReadCount() {
+		return readCount;
+	}
+
+}
@@ -0,0 +1,323 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.horvath.pptdiffer.engine.model.PptxMetadata;
+import com.horvath.pptdiffer.io.StaxReaderFactory;
+
+/**
+ * Reads the document properties of a PPTX file straight out of its zip, with a pull parser. 
+ * Only the package relationships and the property parts are decompressed, 
+ * so the cost does not depend on the number or size of the slides.
+ * @author jhorvath
+ */
+public final class MetadataPartReader {
+	
+	public static final String PACKAGE_RELS = "_rels/.rels";
+	
+	private static final String REL_TYPE_CORE = "/core-properties";
+	private static final String REL_TYPE_EXTENDED = "/extended-properties";
+	private static final String REL_TYPE_CUSTOM = "/custom-properties";
+	
+	private static final String DEFAULT_CORE = "docProps/core.xml";
+	private static final String DEFAULT_EXTENDED = "docProps/app.xml";
+	private static final String DEFAULT_CUSTOM = "docProps/custom.xml";
+	
+	private static final Set<String> CORE_DATES = new HashSet<>(Arrays.asList("created", "modified", "lastPrinted"));
+	
+	private static final Set<String> EXTENDED_NUMBERS = new HashSet<>(Arrays.asList("Pages", "Words", "Characters", 
+			"Lines", "Paragraphs", "Slides", "Notes", "TotalTime", "HiddenSlides", "MMClips", 
+			"CharactersWithSpaces", "DocSecurity"));
+	
+	private static final Set<String> EXTENDED_FLAGS = new HashSet<>(Arrays.asList("ScaleCrop", "LinksUpToDate", 
+			"SharedDoc", "HyperlinksChanged"));
+	
+	private final ZipFile zip;
+	
+	/**
+	 * Constructor. 
+	 * @param zip ZipFile of the PPTX package
+	 */
+	public MetadataPartReader(ZipFile zip) {
+		this.zip = zip;
+	}
+	
+	/**
+	 * Reads all three property parts. A part that is not in the package leaves its properties empty, 
+	 * and properties without a value are left out.
+	 * 
+	 * @return PptxMetadata
+	 * @throws IOException
+	 * @throws XMLStreamException
+	 */
+	public PptxMetadata read() throws IOException, XMLStreamException {
+		String corePart = DEFAULT_CORE;
+		String extendedPart = DEFAULT_EXTENDED;
+		String customPart = DEFAULT_CUSTOM;
+		
+		ZipEntry rels = zip.getEntry(PACKAGE_RELS);
+		if (rels != null) {
+			try (InputStream in = zip.getInputStream(rels)) {
+				XMLStreamReader reader = StaxReaderFactory.newReader(in);
+				try {
+					while (reader.hasNext()) {
+						if (reader.next() == XMLStreamConstants.START_ELEMENT 
+								&& "Relationship".equals(reader.getLocalName())) {
+							
+							final String type = reader.getAttributeValue(null, "Type");
+							final String target = reader.getAttributeValue(null, "Target");
+							if (type == null || target == null) {
+								continue;
+							}
+							if (type.endsWith(REL_TYPE_CORE)) {
+								corePart = resolveTarget(target);
+							} else if (type.endsWith(REL_TYPE_EXTENDED)) {
+								extendedPart = resolveTarget(target);
+							} else if (type.endsWith(REL_TYPE_CUSTOM)) {
+								customPart = resolveTarget(target);
+							}
+						}
+					}
+				} finally {
+					reader.close();
+				}
+			}
+		}
+		
+		PptxMetadata metadata = new PptxMetadata();
+		readProperties(corePart, metadata.getCoreProperties(), false);
+		readProperties(extendedPart, metadata.getExtendedProperties(), false);
+		readProperties(customPart, metadata.getCustomProperties(), true);
+		return metadata;
+	}
+	
+	/**
+	 * Resolves a target of the package relationships, which are relative to the package root.
+	 */
+	private static String resolveTarget(String target) {
+		return target.startsWith("/") ? target.substring(1) : target;
+	}
+	
+	/**
+	 * Reads the properties of one part, which are the children of its root element. 
+	 * 
+	 * @param partName String
+	 * @param properties Map<String, Object>
+	 * @param custom boolean true if each property is named by a name attribute
+	 * @throws IOException
+	 * @throws XMLStreamException
+	 */
+	private void readProperties(String partName, Map<String, Object> properties, boolean custom) 
+			throws IOException, XMLStreamException {
+		
+		ZipEntry entry = zip.getEntry(partName);
+		if (entry == null) {
+			return;
+		}
+		
+		try (InputStream in = zip.getInputStream(entry)) {
+			XMLStreamReader reader = StaxReaderFactory.newReader(in);
+			try {
+				int depth = 0;
+				while (reader.hasNext()) {
+					final int event = reader.next();
+					if (event == XMLStreamConstants.START_ELEMENT) {
+						if (depth == 1) {
+							final String name = custom ? reader.getAttributeValue(null, "name") : reader.getLocalName();
+							final Object value = readPropertyValue(reader);
+							// an empty element, such as <Company />, holds no value
+							if (name != null && !"".equals(value)) {
+								properties.put(name, custom ? value : typed(name, value));
+							}
+						} else {
+							depth++;
+						}
+					} else if (event == XMLStreamConstants.END_ELEMENT) {
+						depth--;
+					}
+				}
+			} finally {
+				reader.close();
+			}
+		}
+	}
+	
+	/**
+	 * Reads the value of a property element the reader is on, 
+	 * either its text or the typed value of its variant child.
+	 * 
+	 * @param reader XMLStreamReader
+	 * @return Object
+	 * @throws XMLStreamException
+	 */
+	private static Object readPropertyValue(XMLStreamReader reader) throws XMLStreamException {
+		StringBuilder text = new StringBuilder();
+		Object value = null;
+		
+		int depth = 1;
+		while (depth > 0) {
+			final int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				value = readVariant(reader);
+			} else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+				text.append(reader.getText());
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+		}
+		return value != null ? value : text.toString().trim();
+	}
+	
+	/**
+	 * Reads a vt element the reader is on, such as vt:lpwstr, vt:i4 or vt:vector. 
+	 * 
+	 * @param reader XMLStreamReader
+	 * @return Object
+	 * @throws XMLStreamException
+	 */
+	private static Object readVariant(XMLStreamReader reader) throws XMLStreamException {
+		final String type = reader.getLocalName();
+		
+		if ("variant".equals(type)) {
+			return readPropertyValue(reader);
+		}
+		if ("vector".equals(type) || "array".equals(type)) {
+			List<Object> values = new ArrayList<>();
+			int depth = 1;
+			while (depth > 0) {
+				final int event = reader.next();
+				if (event == XMLStreamConstants.START_ELEMENT) {
+					values.add(readVariant(reader));
+				} else if (event == XMLStreamConstants.END_ELEMENT) {
+					depth--;
+				}
+			}
+			return values;
+		}
+		
+		final String text = readText(reader).trim();
+		switch (type) {
+		case "bool":
+			return "true".equals(text) || "1".equals(text);
+		case "i1": case "i2": case "i4": case "i8": case "int": 
+		case "ui1": case "ui2": case "ui4": case "ui8": case "uint":
+			return parseNumber(text);
+		case "r4": case "r8": case "decimal":
+			try {
+				return Double.valueOf(text);
+			} catch (NumberFormatException ex) {
+				return text;
+			}
+		case "filetime": case "date":
+			return parseDate(text);
+		default:
+			return text;
+		}
+	}
+	
+	/**
+	 * Reads all the text inside the element the reader is on, up to its end.
+	 */
+	private static String readText(XMLStreamReader reader) throws XMLStreamException {
+		StringBuilder text = new StringBuilder();
+		int depth = 1;
+		while (depth > 0) {
+			final int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				depth++;
+			} else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+				text.append(reader.getText());
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+		}
+		return text.toString();
+	}
+	
+	/**
+	 * Types the text of a core or extended property from its name.
+	 */
+	private static Object typed(String name, Object value) {
+		if (!(value instanceof String) || ((String) value).isEmpty()) {
+			return value;
+		}
+		final String text = (String) value;
+		if (CORE_DATES.contains(name)) {
+			return parseDate(text);
+		}
+		if (EXTENDED_NUMBERS.contains(name)) {
+			return parseNumber(text);
+		}
+		if (EXTENDED_FLAGS.contains(name)) {
+			return "true".equals(text) || "1".equals(text);
+		}
+		return text;
+	}
+	
+	/**
+	 * Parses a whole number, keeping the text when it is not one.
+	 */
+	private static Object parseNumber(String text) {
+		try {
+			return Long.valueOf(text);
+		} catch (NumberFormatException ex) {
+			return text;
+		}
+	}
+	
+	/**
+	 * Parses a W3C date and time, keeping the text when it is only a date or is malformed.
+	 */
+	private static Object parseDate(String text) {
+		try {
+			return OffsetDateTime.parse(text).toInstant();
+		} catch (DateTimeParseException ex) {
+			try {
+				return Instant.parse(text);
+			} catch (DateTimeParseException ex2) {
+				return text;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,128 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine;
+
+import java.io.Closeable;
+import java.io.File;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.xslf.usermodel.XMLSlideShow;
+
+import com.horvath.pptdiffer.engine.PackageHandlePool.PooledPackage;
+import com.horvath.pptdiffer.exception.PpdException;
+import com.horvath.pptdiffer.utility.CancellationToken;
+
+/**
+ * The lease of a package open in a PackageHandlePool, which no other handle shares. 
+ * Closing the handle ends the lease; closing it again does nothing.
+ * @author jhorvath
+ */
+public final class PackageHandle implements Closeable {
+	
+	private final PackageHandlePool pool;
+	private final PooledPackage pooled;
+	
+	private boolean closed;
+	
+	/**
+	 * Constructor. 
+	 * @param pool PackageHandlePool
+	 * @param pooled PooledPackage
+	 */
+	PackageHandle(PackageHandlePool pool, PooledPackage pooled) {
+		this.pool = pool;
+		this.pooled = pooled;
+	}
+	
+	/**
+	 * Returns the POI slide-show of the package, which reads every slide the first time it is asked for. 
+	 * The slide-show belongs to the pool, and must not be changed or closed by the caller.
+	 * 
+	 * @return XMLSlideShow
+	 * @throws PpdException when the package is not a slide-show POI can read
+	 */
+	public XMLSlideShow getSlideShow() throws PpdException {
+		return pooled.getSlideShow(null);
+	}
+	
+	/**
+	 * Returns the POI slide-show of the package. When it has to be created, the token is checked 
+	 * before each part is read, so creating it stops once the token is cancelled or its deadline has passed. 
+	 * 
+	 * @param cancellationToken CancellationToken, may be null
+	 * @return XMLSlideShow
+	 * @throws PpdException when the package is not a slide-show POI can read, or the token stopped the reading
+	 */
+	public XMLSlideShow getSlideShow(CancellationToken cancellationToken) throws PpdException {
+		return pooled.getSlideShow(cancellationToken);
+	}
+	
+	/**
+	 * Returns the open package, without creating the POI slide-show. 
+	 * The package belongs to the pool, and must not be changed or closed by the caller.
+	 * 
+	 * @return OPCPackage
+	 */
+	public OPCPackage getPackage() {
+		return pooled.getPackage();
+	}
+	
+	/**
+	 * Returns true if a token stopped the slide-show being created. The package can no longer 
+	 * create one, and is closed when the handle is.
+	 * @return boolean
+	 */
+	public boolean isLoadStopped() {
+		return pooled.isLoadStopped();
+	}
+	
+	/**
+	 * Returns true if the POI slide-show of the package has been created.
+	 * @return boolean
+	 */
+	public boolean hasSlideShow() {
+		return pooled.hasSlideShow();
+	}
+	
+	public File getFile() {
+		return pooled.getFile();
+	}
+	
+	public synchronized boolean isClosed() {
+		return closed;
+	}
+
+	@Override
+	public void close() {
+		synchronized (this) {
+			if (closed) {
+				return;
+			}
+			closed = true;
+		}
+		pool.release(pooled);
+	}
+
+}
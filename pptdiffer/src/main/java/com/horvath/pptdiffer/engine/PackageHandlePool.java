@@ -0,0 +1,469 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.logging.Level;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.util.ZipFileZipEntrySource;
+import org.apache.poi.openxml4j.util.ZipSecureFile;
+import org.apache.poi.xslf.usermodel.XMLSlideShow;
+
+import com.horvath.pptdiffer.application.Debugger;
+import com.horvath.pptdiffer.exception.PpdException;
+import com.horvath.pptdiffer.utility.CancellationToken;
+
+/**
+ * Opens PPTX packages for everything that loads them, and can bound how many are open at once. 
+ * Each open package is leased to one handle at a time, rather than shared and counted by its 
+ * users, because POI's OPCPackage and XMLSlideShow are not safe to use from two threads: two 
+ * comparisons of the same deck running together would otherwise read and parse one slide-show 
+ * at the same time. A file opened twice at the same time is therefore opened as two packages, 
+ * and the count of packages in use takes the place of a reference count. 
+ * By default a package is closed when its handle is released. A pool created to keep idle 
+ * packages holds released packages open, so that a deck compared again is not parsed again, 
+ * and closes the least recently used of them to stay within the limit. Packages in use are 
+ * never closed by the pool, and once the limit is reached by packages in use, acquiring 
+ * another one fails until some are released. The shared pool has no limit, so comparisons 
+ * running together never fail for want of a package; a limit applies only to a pool the 
+ * caller creates with one and sets in the options.
+ * @author jhorvath
+ */
+public final class PackageHandlePool {
+	
+	public static final int UNLIMITED = Integer.MAX_VALUE;
+	
+	public static final String ERROR_LIMIT = "Too many PPTX files are open at once, the limit is ";
+	
+	public static final String ERROR_LOAD_STOPPED = "The loading of this package was stopped, acquire the file again.";
+	
+	private static PackageHandlePool instance = null;
+	
+	// released packages kept open, least recently used first
+	private final List<PooledPackage> idle = new LinkedList<>();
+	
+	// packages leased to a handle, or being opened for one
+	private int inUseCount;
+	
+	private int maxOpen;
+	
+	private final boolean keepIdle;
+	
+	/**
+	 * Constructor for a pool with no limit that closes each package when it is released. 
+	 */
+	public PackageHandlePool() {
+		this(UNLIMITED);
+	}
+	
+	/**
+	 * Constructor for a pool that closes each package when it is released. 
+	 * @param maxOpen int, the most packages to have open at once
+	 */
+	public PackageHandlePool(int maxOpen) {
+		this(maxOpen, false);
+	}
+	
+	/**
+	 * Constructor. 
+	 * @param maxOpen int, the most packages to have open at once
+	 * @param keepIdle boolean, true to keep released packages open for the next acquire of the same file
+	 */
+	public PackageHandlePool(int maxOpen, boolean keepIdle) {
+		this.maxOpen = Math.max(1, maxOpen);
+		this.keepIdle = keepIdle;
+	}
+	
+	/**
+	 * Returns the pool shared by the application, which has no limit and does not keep 
+	 * idle packages open. 
+	 * @return PackageHandlePool
+	 */
+	public static synchronized PackageHandlePool getInstance() {
+		if (instance == null) {
+			instance = new PackageHandlePool();
+		}
+		return instance;
+	}
+	
+	/**
+	 * Returns a handle to an open package of a file, for the caller alone. An idle package 
+	 * of the file is reused when the file has not changed on disk since it was opened, 
+	 * otherwise the file is opened. The handle must be closed when it is no longer needed.
+	 * 
+	 * @param file File
+	 * @return PackageHandle
+	 * @throws PpdException when the file cannot be opened, or the limit is reached by packages in use
+	 */
+	public PackageHandle acquire(File file) throws PpdException {
+		final String key = keyFor(file);
+		List<PooledPackage> toClose = new ArrayList<>();
+		
+		try {
+			synchronized (this) {
+				PooledPackage reused = takeIdle(key, toClose);
+				if (reused != null) {
+					inUseCount++;
+					return new PackageHandle(this, reused);
+				}
+				
+				// make room for one more, closing idle packages before exceeding the limit
+				Iterator<PooledPackage> it = idle.iterator();
+				while (getOpenCount() >= maxOpen && it.hasNext()) {
+					toClose.add(it.next());
+					it.remove();
+				}
+				if (inUseCount >= maxOpen) {
+					Debugger.printLog(ERROR_LIMIT + maxOpen, this.getClass().getName(), Level.WARNING);
+					throw new PpdException(ERROR_LIMIT + maxOpen);
+				}
+				// hold the place while the file opens, which can take a while
+				inUseCount++;
+			}
+			
+		} finally {
+			closeAll(toClose);
+		}
+		
+		try {
+			return new PackageHandle(this, open(file, key));
+			
+		} catch (PpdException ex) {
+			synchronized (this) {
+				inUseCount--;
+			}
+			throw ex;
+		}
+	}
+	
+	/**
+	 * Removes and returns the most recently used idle package of a file, when the file 
+	 * has not changed since it was opened. Idle packages of the file that are out of date 
+	 * are collected for closing. 
+	 * 
+	 * @param key String
+	 * @param toClose List<PooledPackage>
+	 * @return PooledPackage, null when there is none
+	 */
+	private PooledPackage takeIdle(String key, List<PooledPackage> toClose) {
+		PooledPackage found = null;
+		Iterator<PooledPackage> it = idle.iterator();
+		while (it.hasNext()) {
+			PooledPackage pooled = it.next();
+			if (!pooled.key.equals(key)) {
+				continue;
+			}
+			it.remove();
+			if (!pooled.isCurrent()) {
+				toClose.add(pooled);
+			} else if (found == null) {
+				found = pooled;
+			} else {
+				// the older of two idle copies is not needed
+				toClose.add(found);
+				found = pooled;
+			}
+		}
+		return found;
+	}
+	
+	/**
+	 * Ends the lease of a package. Called when a handle is closed. The package is kept 
+	 * idle when the pool keeps idle packages and the file has not changed, otherwise it is closed.
+	 * 
+	 * @param pooled PooledPackage
+	 */
+	void release(PooledPackage pooled) {
+		List<PooledPackage> toClose = new ArrayList<>();
+		
+		synchronized (this) {
+			inUseCount--;
+			if (keepIdle && pooled.isCurrent() && !pooled.isLoadStopped()) {
+				idle.add(pooled);
+				trim(toClose);
+			} else {
+				toClose.add(pooled);
+			}
+		}
+		
+		closeAll(toClose);
+	}
+	
+	/**
+	 * Closes every package that is not in use. 
+	 */
+	public void closeIdle() {
+		List<PooledPackage> toClose;
+		
+		synchronized (this) {
+			toClose = new ArrayList<>(idle);
+			idle.clear();
+		}
+		
+		closeAll(toClose);
+	}
+	
+	/**
+	 * Returns the number of packages currently open. 
+	 * @return int
+	 */
+	public synchronized int getOpenCount() {
+		return idle.size() + inUseCount;
+	}
+	
+	/**
+	 * Returns the number of open packages leased to a handle.
+	 * @return int
+	 */
+	public synchronized int getInUseCount() {
+		return inUseCount;
+	}
+	
+	public synchronized int getMaxOpen() {
+		return maxOpen;
+	}
+	
+	public boolean isKeepIdle() {
+		return keepIdle;
+	}
+	
+	/**
+	 * Sets the most packages to have open at once. Idle packages over the limit are closed. 
+	 * @param maxOpen int
+	 */
+	public void setMaxOpen(int maxOpen) {
+		List<PooledPackage> toClose = new ArrayList<>();
+		
+		synchronized (this) {
+			this.maxOpen = Math.max(1, maxOpen);
+			trim(toClose);
+		}
+		
+		closeAll(toClose);
+	}
+	
+	/**
+	 * Removes least recently used idle packages until no more than the limit are open. 
+	 * 
+	 * @param toClose List<PooledPackage> collects the packages to close
+	 */
+	private void trim(List<PooledPackage> toClose) {
+		Iterator<PooledPackage> it = idle.iterator();
+		while (getOpenCount() > maxOpen && it.hasNext()) {
+			toClose.add(it.next());
+			it.remove();
+		}
+	}
+	
+	/**
+	 * Opens a file as a read-only package. The POI slide-show is created on first use. 
+	 * 
+	 * @param file File
+	 * @param key String
+	 * @return PooledPackage
+	 * @throws PpdException
+	 */
+	private PooledPackage open(File file, String key) throws PpdException {
+		Debugger.printLog("Open " + file.getName(), this.getClass().getName());
+		
+		final long lastModified = file.lastModified();
+		final long length = file.length();
+		
+		CancellableZipSource source = null;
+		try {
+			source = new CancellableZipSource(new ZipFileZipEntrySource(new ZipSecureFile(file)));
+			// a package opened from zip entries is read-only
+			return new PooledPackage(file, key, OPCPackage.open(source), source, length, lastModified);
+			
+		} catch (IOException | InvalidFormatException | RuntimeException ex) {
+			// POI reports files it cannot read with unchecked exceptions
+			Debugger.printLog(ex.getMessage(), this.getClass().getName(), Level.SEVERE);
+			closeQuietly(source);
+			throw new PpdException(ex.getMessage(), ex);
+		}
+	}
+	
+	/**
+	 * Closes the zip entries of a package that could not be opened. 
+	 * @param source CancellableZipSource, may be null
+	 */
+	private void closeQuietly(CancellableZipSource source) {
+		if (source != null) {
+			try {
+				source.close();
+				
+			} catch (IOException ex) {
+				Debugger.printLog(ex.getMessage(), this.getClass().getName(), Level.WARNING);
+			}
+		}
+	}
+	
+	/**
+	 * Closes packages, outside of the pool lock. 
+	 * @param toClose List<PooledPackage>
+	 */
+	private void closeAll(List<PooledPackage> toClose) {
+		for (PooledPackage pooled : toClose) {
+			Debugger.printLog("Close " + pooled.file.getName(), this.getClass().getName());
+			pooled.close();
+		}
+	}
+	
+	/**
+	 * Returns the pool key for a file. 
+	 * @param file File
+	 * @return String
+	 */
+	private static String keyFor(File file) {
+		try {
+			return file.getCanonicalPath();
+		} catch (IOException ex) {
+			return file.getAbsolutePath();
+		}
+	}
+	
+	/**
+	 * An open package of a file, and its POI slide-show once one has been created.
+	 */
+	static final class PooledPackage {
+		
+		private final File file;
+		private final String key;
+		private final OPCPackage pkg;
+		private final CancellableZipSource source;
+		private final long length;
+		private final long lastModified;
+		
+		// reads every slide of the package, so it is only created when asked for
+		private XMLSlideShow slideShow;
+		
+		// set when a token stopped the slide-show being created, which may leave POI holding half read parts
+		private boolean loadStopped;
+		
+		private PooledPackage(File file, String key, OPCPackage pkg, CancellableZipSource source, 
+				long length, long lastModified) {
+			this.file = file;
+			this.key = key;
+			this.pkg = pkg;
+			this.source = source;
+			this.length = length;
+			this.lastModified = lastModified;
+		}
+		
+		/**
+		 * Returns true if the file has not changed since it was opened.
+		 * @return boolean
+		 */
+		private boolean isCurrent() {
+			return file.length() == length && file.lastModified() == lastModified;
+		}
+		
+		/**
+		 * Returns the POI slide-show of the package, creating it on first use. 
+		 * While it is created, the token is checked before each part is read. 
+		 * 
+		 * @param cancellationToken CancellationToken, may be null
+		 * @return XMLSlideShow
+		 * @throws PpdException when the package cannot be read, or the token stopped the reading
+		 */
+		synchronized XMLSlideShow getSlideShow(CancellationToken cancellationToken) throws PpdException {
+			if (slideShow == null) {
+				if (loadStopped) {
+					throw new PpdException(ERROR_LOAD_STOPPED);
+				}
+				
+				XMLSlideShow created = null;
+				RuntimeException failure = null;
+				
+				source.setCancellationToken(cancellationToken);
+				try {
+					created = new XMLSlideShow(pkg);
+					
+				} catch (RuntimeException ex) {
+					failure = ex;
+					
+				} finally {
+					// parts read later are checked by the work reading them
+					source.setCancellationToken(null);
+				}
+				
+				// POI carries on past some parts it could not read, so the token is asked whether it stopped one
+				final PpdException cancellation = source.takeCancellation();
+				if (cancellation != null) {
+					loadStopped = true;
+					throw cancellation;
+				}
+				if (failure != null) {
+					// POI reports files it cannot read with unchecked exceptions
+					Debugger.printLog(failure.getMessage(), PooledPackage.class.getName(), Level.SEVERE);
+					throw new PpdException(failure.getMessage(), failure);
+				}
+				slideShow = created;
+			}
+			return slideShow;
+		}
+		
+		synchronized boolean isLoadStopped() {
+			return loadStopped;
+		}
+		
+		synchronized boolean hasSlideShow() {
+			return slideShow != null;
+		}
+		
+		OPCPackage getPackage() {
+			return pkg;
+		}
+		
+		/**
+		 * Closes the slide-show, or the package alone when no slide-show was created.
+		 */
+		private synchronized void close() {
+			try {
+				if (slideShow != null) {
+					slideShow.close();
+				} else {
+					// read-only packages are released without saving
+					pkg.revert();
+				}
+				
+			} catch (IOException ex) {
+				Debugger.printLog(ex.getMessage(), PooledPackage.class.getName(), Level.WARNING);
+			}
+		}
+		
+		File getFile() {
+			return file;
+		}
+	}
+
+}
@@ -0,0 +1,185 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.xslf.usermodel.XMLSlideShow;
+
+import com.horvath.pptdiffer.exception.PpdException;
+import com.horvath.pptdiffer.utility.CancellationToken;
+
+/**
+ * Holds the single POI slide-show parsed from a PPTX file, so that loading,
+ * parsing and text extraction all read from the same parse instead of each
+ * opening the file again. The slide-show is borrowed from a PackageHandlePool.
+ * @author jhorvath
+ */
+public final class PptxSession implements Closeable {
+	
+	private final File file;
+	
+	private final PackageHandlePool pool;
+	
+	private PackageHandle handle;
+	
+	/**
+	 * Number of times this session has acquired the file from the pool.
+	 */
+	private int openCount;
+	
+	/**
+	 * Constructor. Uses the shared package handle pool.
+	 * @param file File 
+	 */
+	public PptxSession(File file) {
+		this(file, PackageHandlePool.getInstance());
+	}
+	
+	/**
+	 * Constructor. 
+	 * @param file File 
+	 * @param pool PackageHandlePool
+	 */
+	public PptxSession(File file, PackageHandlePool pool) {
+		this.file = file;
+		this.pool = pool;
+	}
+	
+	/**
+	 * Returns the POI slide-show for the file, acquiring the package from the pool 
+	 * on first use only. Creating the slide-show reads every slide of the package.
+	 * 
+	 * @return XMLSlideShow
+	 * @throws PpdException
+	 */
+	public synchronized XMLSlideShow getSlideShow() throws PpdException {
+		return handle().getSlideShow();
+	}
+	
+	/**
+	 * Returns the POI slide-show for the file, the same as getSlideShow(). When the slide-show 
+	 * has to be created, the token is checked before each part is read, so that a load cancelled 
+	 * or past its deadline stops at the next part rather than once every slide is read.
+	 * 
+	 * @param cancellationToken CancellationToken, may be null
+	 * @return XMLSlideShow
+	 * @throws PpdException
+	 */
+	public synchronized XMLSlideShow getSlideShow(CancellationToken cancellationToken) throws PpdException {
+		final PackageHandle current = handle();
+		try {
+			return current.getSlideShow(cancellationToken);
+			
+		} catch (PpdException ex) {
+			if (current.isLoadStopped()) {
+				// the stopped package is not used again, the next call acquires the file anew
+				current.close();
+				this.handle = null;
+			}
+			throw ex;
+		}
+	}
+	
+	/**
+	 * Returns the open package of the file, acquiring it from the pool on first use only. 
+	 * The POI slide-show is not created, so parts can be read without reading every slide.
+	 * 
+	 * @return OPCPackage
+	 * @throws PpdException
+	 */
+	public synchronized OPCPackage getPackage() throws PpdException {
+		return handle().getPackage();
+	}
+	
+	/**
+	 * Returns the handle to the package, acquiring it from the pool if the session has none.
+	 * 
+	 * @return PackageHandle
+	 * @throws PpdException
+	 */
+	private PackageHandle handle() throws PpdException {
+		if (this.handle == null) {
+			this.handle = this.pool.acquire(this.file);
+			this.openCount++;
+		}
+		return this.handle;
+	}
+	
+	/**
+	 * Returns true if the session holds a handle to the open package.
+	 * @return boolean
+	 */
+	public synchronized boolean isOpen() {
+		return this.handle != null;
+	}
+	
+	/**
+	 * Returns true if the session holds the package, and its POI slide-show has been created.
+	 * @return boolean
+	 */
+	public synchronized boolean hasSlideShow() {
+		return this.handle != null && this.handle.hasSlideShow();
+	}
+
+	/**
+	 * Returns the handle to the package, which the pool may close once it is idle. 
+	 * The file is never written to. A later call to getSlideShow() will acquire the file again.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (this.handle != null) {
+			this.handle.close();
+			this.handle = null;
+		}
+	}
+
+	/**
+	 * Returns true if both sessions are for the same file on disk. 
+	 * Each session still has a slide-show of its own.
+	 * 
+	 * @param other PptxSession
+	 * @return boolean
+	 */
+	public boolean isSameFile(PptxSession other) {
+		try {
+			return this.file.getCanonicalFile().equals(other.file.getCanonicalFile());
+		} catch (IOException ex) {
+			return this.file.getAbsoluteFile().equals(other.file.getAbsoluteFile());
+		}
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	public synchronized int getOpenCount() {
+		return openCount;
+	}
+
+}
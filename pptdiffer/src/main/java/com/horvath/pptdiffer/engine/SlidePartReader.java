@@ -0,0 +1,825 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.openxml4j.opc.PackagePartName;
+import org.apache.poi.openxml4j.opc.PackageRelationship;
+import org.apache.poi.openxml4j.opc.PackageRelationshipCollection;
+import org.apache.poi.openxml4j.opc.PackageRelationshipTypes;
+import org.apache.poi.openxml4j.opc.PackagingURIHelper;
+import org.apache.poi.openxml4j.opc.TargetMode;
+import org.apache.poi.xslf.usermodel.XSLFRelation;
+
+import com.horvath.pptdiffer.application.Debugger;
+import com.horvath.pptdiffer.engine.model.PptxShape;
+import com.horvath.pptdiffer.engine.model.PptxShapeType;
+import com.horvath.pptdiffer.engine.model.PptxSlide;
+import com.horvath.pptdiffer.engine.model.PptxTemplate;
+import com.horvath.pptdiffer.exception.PpdException;
+import com.horvath.pptdiffer.io.StaxReaderFactory;
+
+/**
+ * Reads slides straight out of the slide parts of a PPTX package with a pull parser, 
+ * without building the POI shape objects. Gives the same results as walking the shapes 
+ * of an XSLFSlide: top level shapes only, with the id, name, type, own transform and text 
+ * of each, text of every shape and table, the layout name and the speaker notes. 
+ * Also reads the shapes and backgrounds of the slide masters and layouts.
+ * @author jhorvath
+ */
+public final class SlidePartReader {
+	
+	public static final String ERROR_NO_PRESENTATION = "Package does not contain a presentation part.";
+	
+	private static final String TABLE_URI = "http://schemas.openxmlformats.org/drawingml/2006/table";
+	
+	private static final String RELATIONSHIPS_NAMESPACE = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+	
+	private final List<PackagePart> slideParts = new ArrayList<>();
+	private final List<PackagePart> masterParts = new ArrayList<>();
+	private int masterSlideCount;
+	
+	// many slides share a layout, so each layout is read once
+	private final Map<PackagePartName, String> layoutNames = new ConcurrentHashMap<>();
+	
+	/**
+	 * Constructor. Reads the slide order and master slide count from the presentation part.
+	 * 
+	 * @param pkg OPCPackage
+	 * @throws PpdException
+	 */
+	public SlidePartReader(OPCPackage pkg) throws PpdException {
+		
+		List<PackagePart> presentationParts = pkg.getPartsByRelationshipType(PackageRelationshipTypes.CORE_DOCUMENT);
+		if (presentationParts.isEmpty()) {
+			throw new PpdException(ERROR_NO_PRESENTATION);
+		}
+		
+		readPresentation(presentationParts.get(0));
+	}
+	
+	/**
+	 * Returns the number of slides in the presentation. 
+	 * 
+	 * @return int
+	 */
+	public int getSlideCount() {
+		return slideParts.size();
+	}
+	
+	public int getMasterSlideCount() {
+		return masterSlideCount;
+	}
+	
+	/**
+	 * Returns the part of the slide at a zero based index. 
+	 * 
+	 * @param index int
+	 * @return PackagePart
+	 */
+	public PackagePart getSlidePart(int index) {
+		return slideParts.get(index);
+	}
+	
+	/**
+	 * Reads the slide at a zero based index into a new PptxSlide. 
+	 * 
+	 * @param index int
+	 * @return PptxSlide
+	 * @throws PpdException
+	 */
+	public PptxSlide readSlide(int index) throws PpdException {
+		final PackagePart part = slideParts.get(index);
+		
+		try {
+			PptxSlide slide = new PptxSlide();
+			SlideTextBuilder builder = new SlideTextBuilder();
+			
+			String name = null;
+			try (InputStream in = part.getInputStream()) {
+				XMLStreamReader reader = StaxReaderFactory.newReader(in);
+				try {
+					while (reader.hasNext()) {
+						if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+							continue;
+						}
+						if ("cSld".equals(reader.getLocalName())) {
+							name = reader.getAttributeValue(null, "name");
+							
+						} else if ("spTree".equals(reader.getLocalName())) {
+							readShapes(reader, builder);
+							break;
+						}
+					}
+				} finally {
+					reader.close();
+				}
+			}
+			
+			slide.setSlideNumber(index + 1);
+			slide.setSlideName(name != null ? name : "Slide" + slide.getSlideNumber());
+			final PackagePart layoutPart = layoutPart(part);
+			if (layoutPart != null) {
+				slide.setLayout(readLayoutName(layoutPart));
+				slide.setLayoutPart(layoutPart.getPartName().getName());
+			}
+			builder.fill(slide);
+			
+			final PackagePart notesPart = notesPart(part);
+			if (notesPart != null) {
+				SlideTextBuilder notesBuilder = new SlideTextBuilder();
+				readShapeTree(notesPart, notesBuilder);
+				notesBuilder.fillNotes(slide);
+			}
+			
+			return slide;
+			
+		} catch (IOException | XMLStreamException | InvalidFormatException ex) {
+			Debugger.printLog(ex.getMessage(), this.getClass().getName(), Level.SEVERE);
+			throw new PpdException(ex.getMessage(), ex);
+		}
+	}
+	
+	/**
+	 * Reads every slide master of the presentation and the layouts of each master, 
+	 * keyed by part name with each master followed by its layouts. 
+	 * 
+	 * @return Map<String, PptxTemplate>
+	 * @throws PpdException
+	 */
+	public Map<String, PptxTemplate> readTemplates() throws PpdException {
+		Map<String, PptxTemplate> templates = new LinkedHashMap<>();
+		
+		try {
+			for (PackagePart masterPart : masterParts) {
+				final String masterPartName = masterPart.getPartName().getName();
+				templates.put(masterPartName, readTemplate(masterPart, null));
+				
+				for (PackageRelationship rel : masterPart.getRelationshipsByType(XSLFRelation.SLIDE_LAYOUT.getRelation())) {
+					final PackagePart layoutPart = masterPart.getRelatedPart(rel);
+					if (layoutPart != null && !templates.containsKey(layoutPart.getPartName().getName())) {
+						templates.put(layoutPart.getPartName().getName(), readTemplate(layoutPart, masterPartName));
+					}
+				}
+			}
+			return templates;
+			
+		} catch (IOException | XMLStreamException | InvalidFormatException ex) {
+			Debugger.printLog(ex.getMessage(), this.getClass().getName(), Level.SEVERE);
+			throw new PpdException(ex.getMessage(), ex);
+		}
+	}
+	
+	/**
+	 * Reads the name, background and shapes of a slide master or layout. 
+	 * 
+	 * @param part PackagePart
+	 * @param masterPartName String, null when the part is a master
+	 * @return PptxTemplate
+	 * @throws IOException
+	 * @throws XMLStreamException
+	 * @throws InvalidFormatException
+	 */
+	private PptxTemplate readTemplate(PackagePart part, String masterPartName) 
+			throws IOException, XMLStreamException, InvalidFormatException {
+		PptxTemplate template = new PptxTemplate();
+		template.setPartName(part.getPartName().getName());
+		template.setMasterPartName(masterPartName);
+		template.setName("");
+		
+		SlideTextBuilder builder = new SlideTextBuilder();
+		try (InputStream in = part.getInputStream()) {
+			XMLStreamReader reader = StaxReaderFactory.newReader(in);
+			try {
+				while (reader.hasNext()) {
+					if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+						continue;
+					}
+					if ("cSld".equals(reader.getLocalName())) {
+						final String name = reader.getAttributeValue(null, "name");
+						if (name != null) {
+							template.setName(name);
+						}
+					} else if ("bg".equals(reader.getLocalName())) {
+						template.setBackground(readBackground(reader, part));
+						
+					} else if ("spTree".equals(reader.getLocalName())) {
+						readShapes(reader, builder);
+						break;
+					}
+				}
+			} finally {
+				reader.close();
+			}
+		}
+		
+		PptxSlide shapes = new PptxSlide();
+		builder.fill(shapes);
+		template.setShapes(shapes.getShapes());
+		
+		return template;
+	}
+	
+	/**
+	 * Writes out a background element as one string of element names and attributes, 
+	 * such as bgPr{solidFill{srgbClr[val=FF0000]}}, and leaves the reader on the end of it. 
+	 * Relationship ids are replaced with the name of the part they point to, as the same 
+	 * picture can be related under a different id in each file.
+	 * 
+	 * @param reader XMLStreamReader
+	 * @param part PackagePart the background belongs to
+	 * @return String
+	 * @throws XMLStreamException
+	 * @throws InvalidFormatException
+	 */
+	private static String readBackground(XMLStreamReader reader, PackagePart part) 
+			throws XMLStreamException, InvalidFormatException {
+		StringBuilder sb = new StringBuilder();
+		// an element's braces are only written once it turns out to have children
+		boolean open = false;
+		
+		int depth = 1;
+		while (depth > 0) {
+			final int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				if (open) {
+					sb.append('{');
+				} else if (sb.length() > 0) {
+					sb.append(", ");
+				}
+				sb.append(reader.getLocalName());
+				if (reader.getAttributeCount() > 0) {
+					sb.append('[');
+					for (int i = 0; i < reader.getAttributeCount(); i++) {
+						if (i > 0) {
+							sb.append(", ");
+						}
+						String value = reader.getAttributeValue(i);
+						if (RELATIONSHIPS_NAMESPACE.equals(reader.getAttributeNamespace(i))) {
+							final PackageRelationship rel = part.getRelationship(value);
+							if (rel != null) {
+								value = rel.getTargetMode() == TargetMode.EXTERNAL ? rel.getTargetURI().toString() 
+										: PackagingURIHelper.resolvePartUri(part.getPartName().getURI(), rel.getTargetURI()).getPath();
+							}
+						}
+						sb.append(reader.getAttributeLocalName(i)).append('=').append(value);
+					}
+					sb.append(']');
+				}
+				open = true;
+				depth++;
+				
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+				if (depth > 0 && !open) {
+					sb.append('}');
+				}
+				open = false;
+			}
+		}
+		return sb.toString();
+	}
+	
+	/**
+	 * Reads the slide and master slide lists of the presentation part. 
+	 * 
+	 * @param presentation PackagePart
+	 * @throws PpdException
+	 */
+	private void readPresentation(PackagePart presentation) throws PpdException {
+		try (InputStream in = presentation.getInputStream()) {
+			XMLStreamReader reader = StaxReaderFactory.newReader(in);
+			try {
+				while (reader.hasNext()) {
+					if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+						continue;
+					}
+					if ("sldMasterId".equals(reader.getLocalName())) {
+						masterSlideCount++;
+						PackageRelationship rel = presentation.getRelationship(relationshipId(reader));
+						if (rel != null) {
+							masterParts.add(presentation.getRelatedPart(rel));
+						}
+						
+					} else if ("sldId".equals(reader.getLocalName())) {
+						PackageRelationship rel = presentation.getRelationship(relationshipId(reader));
+						if (rel != null) {
+							slideParts.add(presentation.getRelatedPart(rel));
+						}
+					}
+				}
+			} finally {
+				reader.close();
+			}
+			
+		} catch (IOException | XMLStreamException | InvalidFormatException ex) {
+			Debugger.printLog(ex.getMessage(), this.getClass().getName(), Level.SEVERE);
+			throw new PpdException(ex.getMessage(), ex);
+		}
+	}
+	
+	/**
+	 * Returns the r:id attribute of the current element. 
+	 * 
+	 * @param reader XMLStreamReader
+	 * @return String
+	 */
+	private static String relationshipId(XMLStreamReader reader) {
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			final String namespace = reader.getAttributeNamespace(i);
+			if ("id".equals(reader.getAttributeLocalName(i)) && namespace != null && !namespace.isEmpty()) {
+				return reader.getAttributeValue(i);
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Returns the layout part a slide relates to, or null when it has none. 
+	 * 
+	 * @param slidePart PackagePart
+	 * @return PackagePart
+	 * @throws InvalidFormatException
+	 */
+	private static PackagePart layoutPart(PackagePart slidePart) throws InvalidFormatException {
+		PackageRelationshipCollection rels = slidePart.getRelationshipsByType(XSLFRelation.SLIDE_LAYOUT.getRelation());
+		if (rels.size() == 0) {
+			return null;
+		}
+		return slidePart.getRelatedPart(rels.getRelationship(0));
+	}
+	
+	/**
+	 * Returns the notes part of a slide, or null when the slide has no notes. 
+	 * 
+	 * @param slidePart PackagePart
+	 * @return PackagePart
+	 * @throws InvalidFormatException
+	 */
+	private static PackagePart notesPart(PackagePart slidePart) throws InvalidFormatException {
+		PackageRelationshipCollection rels = slidePart.getRelationshipsByType(XSLFRelation.NOTES.getRelation());
+		if (rels.size() == 0) {
+			return null;
+		}
+		return slidePart.getRelatedPart(rels.getRelationship(0));
+	}
+	
+	/**
+	 * Reads the shapes of the shape tree of a part, such as a notes part. 
+	 * 
+	 * @param part PackagePart
+	 * @param builder SlideTextBuilder
+	 * @throws IOException
+	 * @throws XMLStreamException
+	 */
+	private void readShapeTree(PackagePart part, SlideTextBuilder builder) throws IOException, XMLStreamException {
+		try (InputStream in = part.getInputStream()) {
+			XMLStreamReader reader = StaxReaderFactory.newReader(in);
+			try {
+				while (reader.hasNext()) {
+					if (reader.next() == XMLStreamConstants.START_ELEMENT && "spTree".equals(reader.getLocalName())) {
+						readShapes(reader, builder);
+						break;
+					}
+				}
+			} finally {
+				reader.close();
+			}
+		}
+	}
+	
+	/**
+	 * Returns the name of a layout, reading each layout part only once. 
+	 * 
+	 * @param layoutPart PackagePart
+	 * @return String
+	 * @throws IOException
+	 * @throws XMLStreamException
+	 */
+	private String readLayoutName(PackagePart layoutPart) throws IOException, XMLStreamException {
+		String name = layoutNames.get(layoutPart.getPartName());
+		if (name != null) {
+			return name;
+		}
+		
+		name = "";
+		try (InputStream in = layoutPart.getInputStream()) {
+			XMLStreamReader reader = StaxReaderFactory.newReader(in);
+			try {
+				while (reader.hasNext()) {
+					if (reader.next() == XMLStreamConstants.START_ELEMENT && "cSld".equals(reader.getLocalName())) {
+						String value = reader.getAttributeValue(null, "name");
+						if (value != null) {
+							name = value;
+						}
+						break;
+					}
+				}
+			} finally {
+				reader.close();
+			}
+		}
+		
+		layoutNames.put(layoutPart.getPartName(), name);
+		return name;
+	}
+	
+	/**
+	 * Reads the shapes that are children of a shape tree, or of the element the reader 
+	 * is on, and leaves the reader on the end of that element. 
+	 * 
+	 * @param reader XMLStreamReader
+	 * @param builder SlideTextBuilder
+	 * @throws XMLStreamException
+	 */
+	private void readShapes(XMLStreamReader reader, SlideTextBuilder builder) throws XMLStreamException {
+		while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			switch (reader.getLocalName()) {
+			case "sp":
+				readTextShape(reader, builder);
+				break;
+			case "graphicFrame":
+				readGraphicFrame(reader, builder);
+				break;
+			case "grpSp":
+				builder.addOtherShape(readOtherShape(reader, PptxShapeType.GROUP));
+				break;
+			case "cxnSp":
+				builder.addOtherShape(readOtherShape(reader, PptxShapeType.CONNECTOR));
+				break;
+			case "pic":
+				builder.addOtherShape(readOtherShape(reader, PptxShapeType.PICTURE));
+				break;
+			case "AlternateContent":
+				readAlternateContent(reader, builder);
+				break;
+			default:
+				skipElement(reader);
+				break;
+			}
+		}
+	}
+	
+	/**
+	 * Reads a shape with a text body. 
+	 * 
+	 * @param reader XMLStreamReader
+	 * @param builder SlideTextBuilder
+	 * @throws XMLStreamException
+	 */
+	private void readTextShape(XMLStreamReader reader, SlideTextBuilder builder) throws XMLStreamException {
+		String id = null;
+		String name = null;
+		String[] transform = null;
+		String[] placeholder = null;
+		String text = "";
+		
+		int depth = 1;
+		while (depth > 0) {
+			final int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				if (name == null && "cNvPr".equals(reader.getLocalName())) {
+					id = reader.getAttributeValue(null, "id");
+					name = reader.getAttributeValue(null, "name");
+					depth++;
+					
+				} else if (depth == 3 && "ph".equals(reader.getLocalName())) {
+					// the ph element of the shape's own non-visual properties
+					placeholder = new String[] {reader.getAttributeValue(null, "type"), reader.getAttributeValue(null, "idx")};
+					depth++;
+					
+				} else if (transform == null && "xfrm".equals(reader.getLocalName())) {
+					transform = readTransform(reader);
+					
+				} else if (depth == 1 && "txBody".equals(reader.getLocalName())) {
+					text = readTextBody(reader);
+					
+				} else {
+					depth++;
+				}
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+		}
+		
+		builder.addTextShape(newShape(id, name, PptxShapeType.TEXT, transform, placeholder), text);
+	}
+	
+	/**
+	 * Reads a graphic frame, which is a table or another kind of graphic such as a chart. 
+	 * 
+	 * @param reader XMLStreamReader
+	 * @param builder SlideTextBuilder
+	 * @throws XMLStreamException
+	 */
+	private void readGraphicFrame(XMLStreamReader reader, SlideTextBuilder builder) throws XMLStreamException {
+		String id = null;
+		String name = null;
+		String[] transform = null;
+		String[] placeholder = null;
+		boolean table = false;
+		List<List<String>> rows = new ArrayList<>();
+		
+		int depth = 1;
+		while (depth > 0) {
+			final int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				final String localName = reader.getLocalName();
+				
+				if (name == null && "cNvPr".equals(localName)) {
+					id = reader.getAttributeValue(null, "id");
+					name = reader.getAttributeValue(null, "name");
+					depth++;
+					
+				} else if (depth == 3 && "ph".equals(localName)) {
+					// the ph element of the shape's own non-visual properties
+					placeholder = new String[] {reader.getAttributeValue(null, "type"), reader.getAttributeValue(null, "idx")};
+					depth++;
+					
+				} else if (transform == null && "xfrm".equals(localName)) {
+					transform = readTransform(reader);
+					
+				} else if ("graphicData".equals(localName)) {
+					table = TABLE_URI.equals(reader.getAttributeValue(null, "uri"));
+					depth++;
+					
+				} else if (table && "tr".equals(localName)) {
+					rows.add(new ArrayList<>());
+					depth++;
+					
+				} else if (table && "tc".equals(localName) && !rows.isEmpty()) {
+					rows.get(rows.size() - 1).add(readTableCell(reader));
+					
+				} else {
+					depth++;
+				}
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+		}
+		
+		if (table) {
+			builder.addTable(newShape(id, name, PptxShapeType.TABLE, transform, placeholder), rows);
+		} else {
+			builder.addOtherShape(newShape(id, name, PptxShapeType.GRAPHIC, transform, placeholder));
+		}
+	}
+	
+	/**
+	 * Reads the text of a table cell. 
+	 * 
+	 * @param reader XMLStreamReader
+	 * @return String
+	 * @throws XMLStreamException
+	 */
+	private String readTableCell(XMLStreamReader reader) throws XMLStreamException {
+		String text = "";
+		
+		int depth = 1;
+		while (depth > 0) {
+			final int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				if (depth == 1 && "txBody".equals(reader.getLocalName())) {
+					text = readTextBody(reader);
+				} else {
+					depth++;
+				}
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+		}
+		return text;
+	}
+	
+	/**
+	 * Reads the text of a text body, one line per paragraph, the same as XSLFTextShape.getText(). 
+	 * 
+	 * @param reader XMLStreamReader
+	 * @return String
+	 * @throws XMLStreamException
+	 */
+	private String readTextBody(XMLStreamReader reader) throws XMLStreamException {
+		StringBuilder text = new StringBuilder();
+		StringBuilder paragraph = null;
+		
+		int depth = 1;
+		while (depth > 0) {
+			final int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				final String localName = reader.getLocalName();
+				
+				if (paragraph != null && "t".equals(localName)) {
+					// leaves the reader on the end of the element
+					paragraph.append(reader.getElementText());
+					
+				} else if (paragraph != null && "br".equals(localName)) {
+					paragraph.append('\n');
+					depth++;
+					
+				} else {
+					if ("p".equals(localName)) {
+						paragraph = new StringBuilder();
+					}
+					depth++;
+				}
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				if (paragraph != null && "p".equals(reader.getLocalName())) {
+					if (text.length() > 0) {
+						text.append('\n');
+					}
+					text.append(paragraph);
+					paragraph = null;
+				}
+				depth--;
+			}
+		}
+		return text.toString();
+	}
+	
+	/**
+	 * Reads alternate content the same way POI does: the shapes inside the first 
+	 * element of the first choice are used, and the fallback is ignored. 
+	 * 
+	 * @param reader XMLStreamReader
+	 * @param builder SlideTextBuilder
+	 * @throws XMLStreamException
+	 */
+	private void readAlternateContent(XMLStreamReader reader, SlideTextBuilder builder) throws XMLStreamException {
+		boolean choiceSeen = false;
+		boolean inChoice = false;
+		boolean handled = false;
+		
+		int depth = 1;
+		while (depth > 0) {
+			final int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				if (inChoice && !handled) {
+					readShapes(reader, builder);
+					handled = true;
+					
+				} else {
+					depth++;
+					if (depth == 2 && !choiceSeen && "Choice".equals(reader.getLocalName())) {
+						choiceSeen = true;
+						inChoice = true;
+					}
+				}
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				inChoice = false;
+				depth--;
+			}
+		}
+	}
+	
+	/**
+	 * Reads a shape without text, such as a picture, connector or group, 
+	 * and leaves the reader on the end of the shape. 
+	 * 
+	 * @param reader XMLStreamReader
+	 * @param type PptxShapeType
+	 * @return PptxShape
+	 * @throws XMLStreamException
+	 */
+	private static PptxShape readOtherShape(XMLStreamReader reader, PptxShapeType type) throws XMLStreamException {
+		String id = null;
+		String name = null;
+		String[] transform = null;
+		String[] placeholder = null;
+		
+		int depth = 1;
+		while (depth > 0) {
+			final int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				if (name == null && "cNvPr".equals(reader.getLocalName())) {
+					id = reader.getAttributeValue(null, "id");
+					name = reader.getAttributeValue(null, "name");
+					depth++;
+					
+				} else if (depth == 3 && "ph".equals(reader.getLocalName())) {
+					// the ph element of the shape's own non-visual properties
+					placeholder = new String[] {reader.getAttributeValue(null, "type"), reader.getAttributeValue(null, "idx")};
+					depth++;
+					
+				} else if (transform == null && "xfrm".equals(reader.getLocalName())) {
+					// a group's own transform comes before the shapes inside it
+					transform = readTransform(reader);
+					
+				} else {
+					depth++;
+				}
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+		}
+		return newShape(id, name, type, transform, placeholder);
+	}
+	
+	/**
+	 * Reads a transform into {rot, x, y, cx, cy} attribute values, 
+	 * and leaves the reader on the end of the transform. 
+	 * 
+	 * @param reader XMLStreamReader
+	 * @return String[]
+	 * @throws XMLStreamException
+	 */
+	private static String[] readTransform(XMLStreamReader reader) throws XMLStreamException {
+		String[] transform = new String[5];
+		transform[0] = reader.getAttributeValue(null, "rot");
+		
+		int depth = 1;
+		while (depth > 0) {
+			final int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				if (depth == 1 && "off".equals(reader.getLocalName())) {
+					transform[1] = reader.getAttributeValue(null, "x");
+					transform[2] = reader.getAttributeValue(null, "y");
+					
+				} else if (depth == 1 && "ext".equals(reader.getLocalName())) {
+					transform[3] = reader.getAttributeValue(null, "cx");
+					transform[4] = reader.getAttributeValue(null, "cy");
+				}
+				depth++;
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+		}
+		return transform;
+	}
+	
+	/**
+	 * Returns a new shape, with the transform and placeholder applied when the shape has them. 
+	 * 
+	 * @param id String
+	 * @param name String
+	 * @param type PptxShapeType
+	 * @param transform String[] {rot, x, y, cx, cy}, may be null
+	 * @param placeholder String[] {type, idx}, may be null
+	 * @return PptxShape
+	 */
+	private static PptxShape newShape(String id, String name, PptxShapeType type, String[] transform, String[] placeholder) {
+		PptxShape shape = SlideTextBuilder.newShape(id, name, type);
+		if (transform != null) {
+			SlideTextBuilder.setTransform(shape, transform[0], transform[1], transform[2], transform[3], transform[4]);
+		}
+		if (placeholder != null) {
+			SlideTextBuilder.setPlaceholder(shape, placeholder[0], placeholder[1]);
+		}
+		return shape;
+	}
+	
+	/**
+	 * Moves the reader to the end of the current element. 
+	 * 
+	 * @param reader XMLStreamReader
+	 * @throws XMLStreamException
+	 */
+	private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+		int depth = 1;
+		while (depth > 0) {
+			final int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				depth++;
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+		}
+	}
+	
+}
@@ -0,0 +1,231 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.horvath.pptdiffer.engine.diff.SlideSketch;
+import com.horvath.pptdiffer.engine.model.PptxShape;
+import com.horvath.pptdiffer.engine.model.PptxShapeType;
+import com.horvath.pptdiffer.engine.model.PptxSlide;
+import com.horvath.pptdiffer.engine.model.PptxTable;
+
+/**
+ * Collects the shapes of one slide, in document order, and fills in the shapes, shape count, 
+ * shape names, table count and cleaned up text of a PptxSlide. 
+ * Used by every slide parser so that each produces exactly the same text.
+ * @author jhorvath
+ */
+public final class SlideTextBuilder {
+	
+	// rotation is stored in 60,000ths of a degree
+	private static final double ROTATION_UNITS = 60000d;
+	
+	private final StringBuilder sb = new StringBuilder();
+	private final List<String> shapeNames = new ArrayList<>();
+	private final List<PptxShape> shapes = new ArrayList<>();
+	private int tableCount;
+	
+	/**
+	 * Returns a new shape with the id, name and type read from the slide. 
+	 * 
+	 * @param id String cNvPr id attribute, may be null
+	 * @param name String
+	 * @param type PptxShapeType
+	 * @return PptxShape
+	 */
+	public static PptxShape newShape(String id, String name, PptxShapeType type) {
+		PptxShape shape = new PptxShape();
+		shape.setId((int) parseLong(id));
+		shape.setName(name);
+		shape.setType(type);
+		return shape;
+	}
+	
+	/**
+	 * Sets the anchor and rotation of a shape from the attributes of its transform. 
+	 * Missing attributes are read as zero.
+	 * 
+	 * @param shape PptxShape
+	 * @param rot String xfrm rot attribute
+	 * @param x String off x attribute
+	 * @param y String off y attribute
+	 * @param cx String ext cx attribute
+	 * @param cy String ext cy attribute
+	 */
+	public static void setTransform(PptxShape shape, String rot, String x, String y, String cx, String cy) {
+		shape.setRotation(parseLong(rot) / ROTATION_UNITS);
+		shape.setX(parseLong(x));
+		shape.setY(parseLong(y));
+		shape.setWidth(parseLong(cx));
+		shape.setHeight(parseLong(cy));
+	}
+	
+	/**
+	 * Marks a shape as a placeholder from the attributes of its ph element. 
+	 * A missing type is an object placeholder, and a missing index is read as zero.
+	 * 
+	 * @param shape PptxShape
+	 * @param type String ph type attribute
+	 * @param idx String ph idx attribute
+	 */
+	public static void setPlaceholder(PptxShape shape, String type, String idx) {
+		shape.setPlaceholderType(type != null ? type : "obj");
+		shape.setPlaceholderIndex(parseLong(idx));
+	}
+	
+	/**
+	 * Adds a shape that holds text, such as a text box or placeholder. 
+	 * 
+	 * @param shape PptxShape
+	 * @param text String, as found in the shape with paragraphs separated by new lines
+	 */
+	public void addTextShape(PptxShape shape, String text) {
+		addShape(shape);
+		shape.setText(cleanText(text));
+		sb.append(shape.getText());
+	}
+	
+	/**
+	 * Adds a table shape, keeping its grid of cells. 
+	 * 
+	 * @param shape PptxShape
+	 * @param rows List<List<String>> text of each cell, row by row
+	 */
+	public void addTable(PptxShape shape, List<List<String>> rows) {
+		addShape(shape);
+		tableCount++;
+		
+		StringBuilder tableText = new StringBuilder();
+		List<List<String>> cleanedRows = new ArrayList<>(rows.size());
+		for (List<String> row : rows) {
+			List<String> cleanedRow = new ArrayList<>(row.size());
+			for (String cellText : row) {
+				tableText.append(cellText.trim());
+				tableText.append(" ");
+				cleanedRow.add(cleanText(cellText));
+			}
+			cleanedRows.add(cleanedRow);
+		}
+		shape.setText(tableText.toString().trim());
+		shape.setTable(new PptxTable(cleanedRows));
+		sb.append(shape.getText());
+	}
+	
+	/**
+	 * Adds a shape without text, such as a picture, connector or group. 
+	 * 
+	 * @param shape PptxShape
+	 */
+	public void addOtherShape(PptxShape shape) {
+		addShape(shape);
+	}
+	
+	/**
+	 * Fills the shape and text information of a slide, and its similarity sketch. 
+	 * 
+	 * @param slide PptxSlide
+	 */
+	public void fill(PptxSlide slide) {
+		slide.setShapeCount(shapeNames.size());
+		slide.setShapeNames(shapeNames);
+		slide.setShapes(shapes);
+		slide.setTableCount(tableCount);
+		slide.setText(sb.toString());
+		slide.setSketch(SlideSketch.sketch(slide.getText(), shapeNames));
+	}
+	
+	/**
+	 * Fills the speaker notes of a slide, when the builder was given the shapes of the slide's notes. 
+	 * The notes are the text of the body placeholders, which leaves out the slide image, 
+	 * the slide number and the header and footer.
+	 * 
+	 * @param slide PptxSlide
+	 */
+	public void fillNotes(PptxSlide slide) {
+		StringBuilder notes = new StringBuilder();
+		for (PptxShape shape : shapes) {
+			if ("body".equals(shape.getPlaceholderType()) && !shape.getText().isEmpty()) {
+				if (notes.length() > 0) {
+					notes.append(" ");
+				}
+				notes.append(shape.getText());
+			}
+		}
+		slide.setNotes(notes.toString());
+	}
+	
+	/**
+	 * Records the shape. If the text so far is not empty, 
+	 * append a word space to prevent word crashing.
+	 * 
+	 * @param shape PptxShape
+	 */
+	private void addShape(PptxShape shape) {
+		shapes.add(shape);
+		shapeNames.add(shape.getName());
+		if (sb.length() > 0) {
+			sb.append(" ");
+		}
+	}
+	
+	/**
+	 * Parses a whole number attribute, reading a missing or malformed value as zero.
+	 * 
+	 * @param value String
+	 * @return long
+	 */
+	private static long parseLong(String value) {
+		if (value == null) {
+			return 0;
+		}
+		try {
+			return Long.parseLong(value.trim());
+			
+		} catch (NumberFormatException ex) {
+			return 0;
+		}
+	}
+	
+	/**
+	 * Cleans whitespace out of text, leaving words separated by a single space.
+	 * 
+	 * @param text String 
+	 * @return String
+	 */
+	private static String cleanText(String text) {
+		String[] words = text.trim().split("\\s+");
+		
+		StringBuilder cleaned = new StringBuilder();
+		for (String s : words) {
+			if (!s.trim().isEmpty()) {
+				cleaned.append(s.trim()).append(" ");
+			}
+		}
+		return cleaned.toString().trim();
+	}
+
+}
@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine.diff;
+
+/**
+ * A cell whose text differs between a table of File A and a table of File B. 
+ * Coordinates are zero based and given for both tables, since inserted and 
+ * deleted rows or columns can shift a cell.
+ * @author jhorvath
+ */
+public final class CellChange {
+	
+	private final int rowA;
+	private final int columnA;
+	private final int rowB;
+	private final int columnB;
+	private final String textA;
+	private final String textB;
+	
+	/**
+	 * Constructor. 
+	 * @param rowA int
+	 * @param columnA int
+	 * @param rowB int
+	 * @param columnB int
+	 * @param textA String
+	 * @param textB String
+	 */
+	public CellChange(int rowA, int columnA, int rowB, int columnB, String textA, String textB) {
+		this.rowA = rowA;
+		this.columnA = columnA;
+		this.rowB = rowB;
+		this.columnB = columnB;
+		this.textA = textA;
+		this.textB = textB;
+	}
+	
+	/**
+	 * Returns true if the cell is at a different row or column in File B.
+	 * 
+	 * @return boolean
+	 */
+	public boolean isShifted() {
+		return rowA != rowB || columnA != columnB;
+	}
+
+	public int getRowA() {
+		return rowA;
+	}
+
+	public int getColumnA() {
+		return columnA;
+	}
+
+	public int getRowB() {
+		return rowB;
+	}
+
+	public int getColumnB() {
+		return columnB;
+	}
+
+	public String getTextA() {
+		return textA;
+	}
+
+	public String getTextB() {
+		return textB;
+	}
+	
+	@Override
+	public String toString() {
+		return "(" + rowA + "," + columnA + ")->(" + rowB + "," + columnB + ") \"" + textA + "\" -> \"" + textB + "\"";
+	}
+
+}
@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine.diff;
+
+/**
+ * One run of differences between sequence A and sequence B. 
+ * Ranges are zero based, with the start included and the end excluded. 
+ * An insert has an empty A range and a delete has an empty B range, 
+ * both positioned where the change happens.
+ * @author jhorvath
+ */
+public final class DiffHunk {
+	
+	private final int startA;
+	private final int endA;
+	private final int startB;
+	private final int endB;
+	
+	/**
+	 * Constructor. 
+	 * @param startA int
+	 * @param endA int
+	 * @param startB int
+	 * @param endB int
+	 */
+	public DiffHunk(int startA, int endA, int startB, int endB) {
+		this.startA = startA;
+		this.endA = endA;
+		this.startB = startB;
+		this.endB = endB;
+	}
+	
+	/**
+	 * Returns the kind of difference. 
+	 * @return HunkType
+	 */
+	public HunkType getType() {
+		if (startA == endA) {
+			return HunkType.INSERT;
+		}
+		if (startB == endB) {
+			return HunkType.DELETE;
+		}
+		return HunkType.REPLACE;
+	}
+	
+	public int getLengthA() {
+		return endA - startA;
+	}
+	
+	public int getLengthB() {
+		return endB - startB;
+	}
+
+	public int getStartA() {
+		return startA;
+	}
+
+	public int getEndA() {
+		return endA;
+	}
+
+	public int getStartB() {
+		return startB;
+	}
+
+	public int getEndB() {
+		return endB;
+	}
+	
+	@Override
+	public String toString() {
+		return getType() + " A[" + startA + "," + endA + ") B[" + startB + "," + endB + ")";
+	}
+
+}
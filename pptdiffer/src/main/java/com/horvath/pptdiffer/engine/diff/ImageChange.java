@@ -0,0 +1,79 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine.diff;
+
+import com.horvath.pptdiffer.engine.model.MediaPart;
+
+/**
+ * One entry of an image diff, pairing an image of File A with an image of File B. 
+ * The image of the missing side of an added or removed image is null.
+ * @author jhorvath
+ */
+public final class ImageChange {
+	
+	private final ImageChangeType type;
+	private final MediaPart imageA;
+	private final MediaPart imageB;
+	
+	/**
+	 * Constructor. 
+	 * @param type ImageChangeType
+	 * @param imageA MediaPart, may be null
+	 * @param imageB MediaPart, may be null
+	 */
+	public ImageChange(ImageChangeType type, MediaPart imageA, MediaPart imageB) {
+		this.type = type;
+		this.imageA = imageA;
+		this.imageB = imageB;
+	}
+	
+	/**
+	 * Returns true if an unchanged image is stored under a different part name in File B.
+	 * 
+	 * @return boolean
+	 */
+	public boolean isRenamed() {
+		return imageA != null && imageB != null && !imageA.getPartName().equals(imageB.getPartName());
+	}
+
+	public ImageChangeType getType() {
+		return type;
+	}
+
+	public MediaPart getImageA() {
+		return imageA;
+	}
+
+	public MediaPart getImageB() {
+		return imageB;
+	}
+	
+	@Override
+	public String toString() {
+		return type + " A:" + (imageA == null ? null : imageA.getPartName()) 
+				+ " B:" + (imageB == null ? null : imageB.getPartName());
+	}
+
+}
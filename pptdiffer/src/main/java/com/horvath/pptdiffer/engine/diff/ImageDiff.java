@@ -0,0 +1,142 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine.diff;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.horvath.pptdiffer.engine.model.MediaPart;
+
+/**
+ * Matches the images of File A with the images of File B by the digest of their content, 
+ * so reordered or renamed images are not reported as changes. Images left over are paired 
+ * as replacements when they have the same part name, or are referenced by the same slides, 
+ * and are otherwise reported as added or removed. Runs in time linear in the number of images.
+ * @author jhorvath
+ */
+public final class ImageDiff {
+	
+	private ImageDiff() { }
+	
+	/**
+	 * Returns the image changes, ordered by File A with images only found in File B last.
+	 * 
+	 * @param imagesA List<MediaPart>
+	 * @param imagesB List<MediaPart>
+	 * @return List<ImageChange>
+	 */
+	public static List<ImageChange> diff(List<MediaPart> imagesA, List<MediaPart> imagesB) {
+		final int countA = imagesA.size();
+		final MediaPart[] pairedWith = new MediaPart[countA];
+		final ImageChangeType[] types = new ImageChangeType[countA];
+		
+		// B images not yet paired, in File B order
+		Set<MediaPart> unpairedB = new LinkedHashSet<>();
+		Map<String, ArrayDeque<MediaPart>> byDigest = new HashMap<>();
+		for (MediaPart imageB : imagesB) {
+			unpairedB.add(imageB);
+			byDigest.computeIfAbsent(imageB.getDigest(), key -> new ArrayDeque<>()).add(imageB);
+		}
+		
+		// same content, preferring the image with the same part name
+		for (int i = 0; i < countA; i++) {
+			final MediaPart imageA = imagesA.get(i);
+			ArrayDeque<MediaPart> candidates = byDigest.get(imageA.getDigest());
+			if (candidates == null || candidates.isEmpty()) {
+				continue;
+			}
+			MediaPart match = null;
+			for (Iterator<MediaPart> it = candidates.iterator(); it.hasNext();) {
+				MediaPart candidate = it.next();
+				if (candidate.getPartName().equals(imageA.getPartName())) {
+					match = candidate;
+					it.remove();
+					break;
+				}
+			}
+			if (match == null) {
+				match = candidates.poll();
+			}
+			pair(i, match, ImageChangeType.UNCHANGED, pairedWith, types, unpairedB);
+		}
+		
+		// different content under the same part name
+		Map<String, MediaPart> byName = new HashMap<>();
+		for (MediaPart imageB : unpairedB) {
+			byName.put(imageB.getPartName(), imageB);
+		}
+		for (int i = 0; i < countA; i++) {
+			if (types[i] == null) {
+				MediaPart match = byName.remove(imagesA.get(i).getPartName());
+				if (match != null) {
+					pair(i, match, ImageChangeType.REPLACED, pairedWith, types, unpairedB);
+				}
+			}
+		}
+		
+		// different content on the same slides
+		Map<List<Integer>, ArrayDeque<MediaPart>> bySlides = new HashMap<>();
+		for (MediaPart imageB : unpairedB) {
+			if (!imageB.getSlideIndexes().isEmpty()) {
+				bySlides.computeIfAbsent(imageB.getSlideIndexes(), key -> new ArrayDeque<>()).add(imageB);
+			}
+		}
+		for (int i = 0; i < countA; i++) {
+			if (types[i] == null && !imagesA.get(i).getSlideIndexes().isEmpty()) {
+				ArrayDeque<MediaPart> candidates = bySlides.get(imagesA.get(i).getSlideIndexes());
+				if (candidates != null && !candidates.isEmpty()) {
+					pair(i, candidates.poll(), ImageChangeType.REPLACED, pairedWith, types, unpairedB);
+				}
+			}
+		}
+		
+		List<ImageChange> changes = new ArrayList<>(countA + unpairedB.size());
+		for (int i = 0; i < countA; i++) {
+			if (types[i] == null) {
+				changes.add(new ImageChange(ImageChangeType.REMOVED, imagesA.get(i), null));
+			} else {
+				changes.add(new ImageChange(types[i], imagesA.get(i), pairedWith[i]));
+			}
+		}
+		for (MediaPart imageB : unpairedB) {
+			changes.add(new ImageChange(ImageChangeType.ADDED, null, imageB));
+		}
+		return changes;
+	}
+	
+	private static void pair(int i, MediaPart imageB, ImageChangeType type, MediaPart[] pairedWith, 
+			ImageChangeType[] types, Set<MediaPart> unpairedB) {
+		pairedWith[i] = imageB;
+		types[i] = type;
+		unpairedB.remove(imageB);
+	}
+
+}
@@ -0,0 +1,74 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine.diff;
+
+/**
+ * A document property whose value differs between File A and File B. 
+ * The value of the missing side of a property only found in one file is null.
+ * @author jhorvath
+ */
+public final class MetadataChange {
+	
+	private final MetadataGroup group;
+	private final String name;
+	private final Object valueA;
+	private final Object valueB;
+	
+	/**
+	 * Constructor. 
+	 * @param group MetadataGroup
+	 * @param name String
+	 * @param valueA Object, may be null
+	 * @param valueB Object, may be null
+	 */
+	public MetadataChange(MetadataGroup group, String name, Object valueA, Object valueB) {
+		this.group = group;
+		this.name = name;
+		this.valueA = valueA;
+		this.valueB = valueB;
+	}
+
+	public MetadataGroup getGroup() {
+		return group;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Object getValueA() {
+		return valueA;
+	}
+
+	public Object getValueB() {
+		return valueB;
+	}
+	
+	@Override
+	public String toString() {
+		return group + " " + name + ": " + valueA + " -> " + valueB;
+	}
+
+}
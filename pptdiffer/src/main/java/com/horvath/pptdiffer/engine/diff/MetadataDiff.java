@@ -0,0 +1,76 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine.diff;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.horvath.pptdiffer.engine.model.PptxMetadata;
+
+/**
+ * Compares the document properties of two files field by field.
+ * @author jhorvath
+ */
+public final class MetadataDiff {
+	
+	private MetadataDiff() { }
+	
+	/**
+	 * Returns the properties that differ, core first, then extended, then custom. 
+	 * Within each group, properties are in File A order with properties only found in File B last.
+	 * 
+	 * @param metadataA PptxMetadata
+	 * @param metadataB PptxMetadata
+	 * @return List<MetadataChange>
+	 */
+	public static List<MetadataChange> diff(PptxMetadata metadataA, PptxMetadata metadataB) {
+		List<MetadataChange> changes = new ArrayList<>();
+		
+		diff(MetadataGroup.CORE, metadataA.getCoreProperties(), metadataB.getCoreProperties(), changes);
+		diff(MetadataGroup.EXTENDED, metadataA.getExtendedProperties(), metadataB.getExtendedProperties(), changes);
+		diff(MetadataGroup.CUSTOM, metadataA.getCustomProperties(), metadataB.getCustomProperties(), changes);
+		
+		return changes;
+	}
+	
+	private static void diff(MetadataGroup group, Map<String, Object> propertiesA, Map<String, Object> propertiesB, 
+			List<MetadataChange> changes) {
+		
+		for (Map.Entry<String, Object> entry : propertiesA.entrySet()) {
+			final Object valueB = propertiesB.get(entry.getKey());
+			if (!Objects.equals(entry.getValue(), valueB)) {
+				changes.add(new MetadataChange(group, entry.getKey(), entry.getValue(), valueB));
+			}
+		}
+		for (Map.Entry<String, Object> entry : propertiesB.entrySet()) {
+			if (!propertiesA.containsKey(entry.getKey())) {
+				changes.add(new MetadataChange(group, entry.getKey(), null, entry.getValue()));
+			}
+		}
+	}
+
+}
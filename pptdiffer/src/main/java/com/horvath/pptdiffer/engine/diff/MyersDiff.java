@@ -0,0 +1,336 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine.diff;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes the shortest edit script between two token sequences with Myers' O(ND) 
+ * difference algorithm, in its linear space form. Tokens are interned to integers first, 
+ * so comparing two tokens is a single int compare, and common prefixes and suffixes are 
+ * trimmed before each split. The result is the list of insert, delete and replace hunks.
+ * @author jhorvath
+ */
+public final class MyersDiff {
+	
+	private final int[] a;
+	private final int[] b;
+	
+	// tokens that are not part of the longest common subsequence
+	private final boolean[] changedA;
+	private final boolean[] changedB;
+	
+	/**
+	 * Constructor. 
+	 * @param a int[] interned tokens of sequence A
+	 * @param b int[] interned tokens of sequence B
+	 */
+	private MyersDiff(int[] a, int[] b) {
+		this.a = a;
+		this.b = b;
+		this.changedA = new boolean[a.length];
+		this.changedB = new boolean[b.length];
+	}
+	
+	/**
+	 * Returns the hunks that turn token sequence A into token sequence B. 
+	 * 
+	 * @param tokensA List<String>
+	 * @param tokensB List<String>
+	 * @return List<DiffHunk>
+	 */
+	public static List<DiffHunk> diff(List<String> tokensA, List<String> tokensB) {
+		Map<String, Integer> ids = new HashMap<>();
+		return diff(intern(tokensA, ids), intern(tokensB, ids));
+	}
+	
+	/**
+	 * Returns the hunks that turn sequence A into sequence B, where equal tokens have equal ids. 
+	 * 
+	 * @param a int[]
+	 * @param b int[]
+	 * @return List<DiffHunk>
+	 */
+	public static List<DiffHunk> diff(int[] a, int[] b) {
+		MyersDiff myers = new MyersDiff(a, b);
+		
+		if (shareNoTokens(a, b)) {
+			// nothing in common, so everything is replaced
+			myers.markChanged(0, a.length, 0, b.length);
+		} else {
+			myers.compareSequences(0, a.length, 0, b.length);
+		}
+		return myers.buildHunks();
+	}
+	
+	/**
+	 * Splits text on single spaces into words, ignoring empty words. 
+	 * 
+	 * @param text String
+	 * @return List<String>
+	 */
+	public static List<String> words(String text) {
+		List<String> words = new ArrayList<>();
+		for (String word : text.split(" ")) {
+			if (!word.isEmpty()) {
+				words.add(word);
+			}
+		}
+		return words;
+	}
+	
+	/**
+	 * Maps each token to an integer id, shared between both sequences. 
+	 * 
+	 * @param tokens List<String>
+	 * @param ids Map<String, Integer>
+	 * @return int[]
+	 */
+	private static int[] intern(List<String> tokens, Map<String, Integer> ids) {
+		int[] interned = new int[tokens.size()];
+		for (int i = 0; i < interned.length; i++) {
+			Integer id = ids.get(tokens.get(i));
+			if (id == null) {
+				id = ids.size();
+				ids.put(tokens.get(i), id);
+			}
+			interned[i] = id;
+		}
+		return interned;
+	}
+	
+	/**
+	 * Returns true if no token appears in both sequences.
+	 * 
+	 * @param a int[]
+	 * @param b int[]
+	 * @return boolean
+	 */
+	private static boolean shareNoTokens(int[] a, int[] b) {
+		BitSet seen = new BitSet();
+		for (int id : a) {
+			if (id >= 0) {
+				seen.set(id);
+			}
+		}
+		for (int id : b) {
+			if (id < 0 || seen.get(id)) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Marks the tokens of A[xOff, xLim) and B[yOff, yLim) that are not in their longest 
+	 * common subsequence. 
+	 * 
+	 * @param xOff int
+	 * @param xLim int
+	 * @param yOff int
+	 * @param yLim int
+	 */
+	private void compareSequences(int xOff, int xLim, int yOff, int yLim) {
+		// trim the common prefix and suffix
+		while (xOff < xLim && yOff < yLim && a[xOff] == b[yOff]) {
+			xOff++;
+			yOff++;
+		}
+		while (xOff < xLim && yOff < yLim && a[xLim - 1] == b[yLim - 1]) {
+			xLim--;
+			yLim--;
+		}
+		
+		if (xOff == xLim || yOff == yLim) {
+			markChanged(xOff, xLim, yOff, yLim);
+			return;
+		}
+		
+		final int[] split = middleSnake(xOff, xLim, yOff, yLim);
+		if (split == null) {
+			markChanged(xOff, xLim, yOff, yLim);
+			return;
+		}
+		
+		compareSequences(xOff, split[0], yOff, split[1]);
+		compareSequences(split[0], xLim, split[1], yLim);
+	}
+	
+	/**
+	 * Finds a point on an optimal edit path through A[xOff, xLim) and B[yOff, yLim), by running 
+	 * the search forward from the start and backward from the end until the two paths overlap.
+	 * Both ranges must be non-empty, with differing first and last tokens.
+	 * 
+	 * @param xOff int
+	 * @param xLim int
+	 * @param yOff int
+	 * @param yLim int
+	 * @return int[] {x, y} split point, or null if none was found
+	 */
+	private int[] middleSnake(int xOff, int xLim, int yOff, int yLim) {
+		final int n = xLim - xOff;
+		final int m = yLim - yOff;
+		final int maxD = (n + m + 1) / 2;
+		final int vOffset = maxD;
+		final int vLength = 2 * maxD + 2;
+		
+		// furthest x reached on each diagonal, forward and backward
+		int[] v1 = new int[vLength];
+		int[] v2 = new int[vLength];
+		for (int i = 0; i < vLength; i++) {
+			v1[i] = -1;
+			v2[i] = -1;
+		}
+		v1[vOffset + 1] = 0;
+		v2[vOffset + 1] = 0;
+		
+		final int delta = n - m;
+		// when the difference is odd, the forward path checks for overlap, otherwise the backward path
+		final boolean front = (delta % 2 != 0);
+		
+		// diagonals that ran off the edges of the grid are skipped
+		int k1start = 0;
+		int k1end = 0;
+		int k2start = 0;
+		int k2end = 0;
+		
+		for (int d = 0; d < maxD; d++) {
+			
+			for (int k1 = -d + k1start; k1 <= d - k1end; k1 += 2) {
+				final int k1Offset = vOffset + k1;
+				int x1;
+				if (k1 == -d || (k1 != d && v1[k1Offset - 1] < v1[k1Offset + 1])) {
+					x1 = v1[k1Offset + 1];
+				} else {
+					x1 = v1[k1Offset - 1] + 1;
+				}
+				int y1 = x1 - k1;
+				while (x1 < n && y1 < m && a[xOff + x1] == b[yOff + y1]) {
+					x1++;
+					y1++;
+				}
+				v1[k1Offset] = x1;
+				
+				if (x1 > n) {
+					k1end += 2;
+				} else if (y1 > m) {
+					k1start += 2;
+				} else if (front) {
+					final int k2Offset = vOffset + delta - k1;
+					if (k2Offset >= 0 && k2Offset < vLength && v2[k2Offset] != -1) {
+						final int x2 = n - v2[k2Offset];
+						if (x1 >= x2) {
+							return new int[] {xOff + x1, yOff + y1};
+						}
+					}
+				}
+			}
+			
+			for (int k2 = -d + k2start; k2 <= d - k2end; k2 += 2) {
+				final int k2Offset = vOffset + k2;
+				int x2;
+				if (k2 == -d || (k2 != d && v2[k2Offset - 1] < v2[k2Offset + 1])) {
+					x2 = v2[k2Offset + 1];
+				} else {
+					x2 = v2[k2Offset - 1] + 1;
+				}
+				int y2 = x2 - k2;
+				while (x2 < n && y2 < m && a[xLim - x2 - 1] == b[yLim - y2 - 1]) {
+					x2++;
+					y2++;
+				}
+				v2[k2Offset] = x2;
+				
+				if (x2 > n) {
+					k2end += 2;
+				} else if (y2 > m) {
+					k2start += 2;
+				} else if (!front) {
+					final int k1Offset = vOffset + delta - k2;
+					if (k1Offset >= 0 && k1Offset < vLength && v1[k1Offset] != -1) {
+						final int x1 = v1[k1Offset];
+						final int y1 = x1 - (k1Offset - vOffset);
+						if (x1 >= n - x2) {
+							return new int[] {xOff + x1, yOff + y1};
+						}
+					}
+				}
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Marks A[xOff, xLim) as deleted and B[yOff, yLim) as inserted.
+	 * 
+	 * @param xOff int
+	 * @param xLim int
+	 * @param yOff int
+	 * @param yLim int
+	 */
+	private void markChanged(int xOff, int xLim, int yOff, int yLim) {
+		for (int i = xOff; i < xLim; i++) {
+			changedA[i] = true;
+		}
+		for (int j = yOff; j < yLim; j++) {
+			changedB[j] = true;
+		}
+	}
+	
+	/**
+	 * Walks both sequences together, joining each run of deleted and inserted tokens into a hunk.
+	 * 
+	 * @return List<DiffHunk>
+	 */
+	private List<DiffHunk> buildHunks() {
+		List<DiffHunk> hunks = new ArrayList<>();
+		
+		int i = 0;
+		int j = 0;
+		while (i < a.length || j < b.length) {
+			if (i < a.length && j < b.length && !changedA[i] && !changedB[j]) {
+				i++;
+				j++;
+				continue;
+			}
+			
+			final int startA = i;
+			final int startB = j;
+			while (i < a.length && changedA[i]) {
+				i++;
+			}
+			while (j < b.length && changedB[j]) {
+				j++;
+			}
+			hunks.add(new DiffHunk(startA, i, startB, j));
+		}
+		return hunks;
+	}
+
+}
@@ -0,0 +1,94 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine.diff;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import com.horvath.pptdiffer.engine.model.PptxShape;
+
+/**
+ * One entry of a shape diff, pairing a shape of File A with its match in File B. 
+ * The shape of the missing side of an added or removed shape is null.
+ * @author jhorvath
+ */
+public final class ShapeChange {
+	
+	private final PptxShape shapeA;
+	private final PptxShape shapeB;
+	private final Set<ShapeChangeType> changes;
+	
+	/**
+	 * Constructor. 
+	 * @param shapeA PptxShape, may be null
+	 * @param shapeB PptxShape, may be null
+	 * @param changes Set<ShapeChangeType>
+	 */
+	public ShapeChange(PptxShape shapeA, PptxShape shapeB, Set<ShapeChangeType> changes) {
+		this.shapeA = shapeA;
+		this.shapeB = shapeB;
+		this.changes = Collections.unmodifiableSet(changes.isEmpty() 
+				? EnumSet.noneOf(ShapeChangeType.class) : EnumSet.copyOf(changes));
+	}
+	
+	/**
+	 * Returns true if the shape differs between the two files in any way.
+	 * 
+	 * @return boolean
+	 */
+	public boolean isChanged() {
+		return !changes.isEmpty();
+	}
+	
+	/**
+	 * Returns true if the shape has the given change.
+	 * 
+	 * @param type ShapeChangeType
+	 * @return boolean
+	 */
+	public boolean hasChange(ShapeChangeType type) {
+		return changes.contains(type);
+	}
+
+	public PptxShape getShapeA() {
+		return shapeA;
+	}
+
+	public PptxShape getShapeB() {
+		return shapeB;
+	}
+
+	public Set<ShapeChangeType> getChanges() {
+		return changes;
+	}
+	
+	@Override
+	public String toString() {
+		return changes + " A:" + (shapeA == null ? null : shapeA.getName()) 
+				+ " B:" + (shapeB == null ? null : shapeB.getName());
+	}
+
+}
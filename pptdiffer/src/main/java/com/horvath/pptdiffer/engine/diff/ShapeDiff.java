@@ -0,0 +1,206 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine.diff;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.horvath.pptdiffer.engine.model.PptxShape;
+
+/**
+ * Matches the shapes of a slide of File A with the shapes of a slide of File B. 
+ * Shapes are matched by id first (when the name or type also agrees), then by placeholder 
+ * type and index, then by name, then by having the same anchor, so a shape that was moved, 
+ * resized or given new text is reported as changed rather than as removed and added. 
+ * Runs in time linear in the number of shapes.
+ * @author jhorvath
+ */
+public final class ShapeDiff {
+	
+	private ShapeDiff() { }
+	
+	/**
+	 * Returns an entry for every shape, ordered by File A with shapes only found in File B last. 
+	 * Matched shapes without any change have an empty set of changes.
+	 * 
+	 * @param shapesA List<PptxShape>
+	 * @param shapesB List<PptxShape>
+	 * @return List<ShapeChange>
+	 */
+	public static List<ShapeChange> diff(List<PptxShape> shapesA, List<PptxShape> shapesB) {
+		final int countA = shapesA.size();
+		final PptxShape[] pairedWith = new PptxShape[countA];
+		
+		// B shapes not yet paired, in File B order
+		Set<PptxShape> unpairedB = new LinkedHashSet<>();
+		Map<Integer, PptxShape> byId = new HashMap<>();
+		for (PptxShape shapeB : shapesB) {
+			unpairedB.add(shapeB);
+			byId.putIfAbsent(shapeB.getId(), shapeB);
+		}
+		
+		// ids are only unique within a slide, so an id is not trusted on its own when both 
+		// the name and the type differ, as with unrelated shapes on a replaced slide
+		for (int i = 0; i < countA; i++) {
+			final PptxShape shapeA = shapesA.get(i);
+			final PptxShape match = byId.get(shapeA.getId());
+			if (match != null && (match.getType() == shapeA.getType() 
+					|| String.valueOf(match.getName()).equals(String.valueOf(shapeA.getName())))) {
+				byId.remove(shapeA.getId());
+				pair(i, match, pairedWith, unpairedB);
+			}
+		}
+		
+		// a placeholder keeps its type and index when the shape is recreated under a new id
+		Map<String, ArrayDeque<PptxShape>> byPlaceholder = new HashMap<>();
+		for (PptxShape shapeB : unpairedB) {
+			if (shapeB.isPlaceholder()) {
+				byPlaceholder.computeIfAbsent(placeholderKey(shapeB), key -> new ArrayDeque<>()).add(shapeB);
+			}
+		}
+		for (int i = 0; i < countA; i++) {
+			if (pairedWith[i] == null && shapesA.get(i).isPlaceholder()) {
+				ArrayDeque<PptxShape> candidates = byPlaceholder.get(placeholderKey(shapesA.get(i)));
+				if (candidates != null) {
+					pairNext(i, candidates, pairedWith, unpairedB);
+				}
+			}
+		}
+		
+		Map<String, ArrayDeque<PptxShape>> byName = new HashMap<>();
+		for (PptxShape shapeB : unpairedB) {
+			if (shapeB.getName() != null) {
+				byName.computeIfAbsent(shapeB.getName(), key -> new ArrayDeque<>()).add(shapeB);
+			}
+		}
+		for (int i = 0; i < countA; i++) {
+			if (pairedWith[i] == null && shapesA.get(i).getName() != null) {
+				ArrayDeque<PptxShape> candidates = byName.get(shapesA.get(i).getName());
+				if (candidates != null) {
+					pairNext(i, candidates, pairedWith, unpairedB);
+				}
+			}
+		}
+		
+		// shapes without their own anchor would all share the empty one, so they are left out
+		Map<List<Long>, ArrayDeque<PptxShape>> byAnchor = new HashMap<>();
+		for (PptxShape shapeB : unpairedB) {
+			if (hasAnchor(shapeB)) {
+				byAnchor.computeIfAbsent(anchorKey(shapeB), key -> new ArrayDeque<>()).add(shapeB);
+			}
+		}
+		for (int i = 0; i < countA; i++) {
+			if (pairedWith[i] == null && hasAnchor(shapesA.get(i))) {
+				ArrayDeque<PptxShape> candidates = byAnchor.get(anchorKey(shapesA.get(i)));
+				if (candidates != null) {
+					pairNext(i, candidates, pairedWith, unpairedB);
+				}
+			}
+		}
+		
+		List<ShapeChange> changes = new ArrayList<>(countA + unpairedB.size());
+		for (int i = 0; i < countA; i++) {
+			if (pairedWith[i] == null) {
+				changes.add(new ShapeChange(shapesA.get(i), null, EnumSet.of(ShapeChangeType.REMOVED)));
+			} else {
+				changes.add(new ShapeChange(shapesA.get(i), pairedWith[i], compare(shapesA.get(i), pairedWith[i])));
+			}
+		}
+		for (PptxShape shapeB : unpairedB) {
+			changes.add(new ShapeChange(null, shapeB, EnumSet.of(ShapeChangeType.ADDED)));
+		}
+		return changes;
+	}
+	
+	/**
+	 * Returns the ways two matched shapes differ.
+	 * 
+	 * @param shapeA PptxShape
+	 * @param shapeB PptxShape
+	 * @return Set<ShapeChangeType>
+	 */
+	static Set<ShapeChangeType> compare(PptxShape shapeA, PptxShape shapeB) {
+		Set<ShapeChangeType> changes = EnumSet.noneOf(ShapeChangeType.class);
+		
+		if (!shapeA.hasSamePosition(shapeB)) {
+			changes.add(ShapeChangeType.MOVED);
+		}
+		if (!shapeA.hasSameSize(shapeB)) {
+			changes.add(ShapeChangeType.RESIZED);
+		}
+		if (Double.compare(shapeA.getRotation(), shapeB.getRotation()) != 0) {
+			changes.add(ShapeChangeType.ROTATED);
+		}
+		if (shapeA.getType() != shapeB.getType()) {
+			changes.add(ShapeChangeType.RETYPED);
+		}
+		if (!String.valueOf(shapeA.getName()).equals(String.valueOf(shapeB.getName()))) {
+			changes.add(ShapeChangeType.RENAMED);
+		}
+		if (!shapeA.getText().equals(shapeB.getText())) {
+			changes.add(ShapeChangeType.RETEXTED);
+		}
+		return changes;
+	}
+	
+	private static String placeholderKey(PptxShape shape) {
+		return shape.getPlaceholderType() + " " + shape.getPlaceholderIndex();
+	}
+	
+	private static boolean hasAnchor(PptxShape shape) {
+		return shape.getX() != 0 || shape.getY() != 0 || shape.getWidth() != 0 || shape.getHeight() != 0;
+	}
+	
+	private static List<Long> anchorKey(PptxShape shape) {
+		return Arrays.asList(shape.getX(), shape.getY(), shape.getWidth(), shape.getHeight());
+	}
+	
+	/**
+	 * Pairs shape i of File A with the first candidate not already paired by an earlier pass.
+	 */
+	private static void pairNext(int i, ArrayDeque<PptxShape> candidates, PptxShape[] pairedWith, 
+			Set<PptxShape> unpairedB) {
+		while (!candidates.isEmpty()) {
+			PptxShape candidate = candidates.poll();
+			if (unpairedB.contains(candidate)) {
+				pair(i, candidate, pairedWith, unpairedB);
+				return;
+			}
+		}
+	}
+	
+	private static void pair(int i, PptxShape shapeB, PptxShape[] pairedWith, Set<PptxShape> unpairedB) {
+		pairedWith[i] = shapeB;
+		unpairedB.remove(shapeB);
+	}
+
+}
@@ -0,0 +1,460 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine.diff;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.horvath.pptdiffer.engine.model.PptxSlide;
+
+/**
+ * Aligns the slides of File A with the slides of File B, so that an inserted, deleted or 
+ * moved slide does not shift every later comparison. 
+ * <p>
+ * Each slide gets a fingerprint of its text, layout and shape names. Slides with equal 
+ * fingerprints are paired, and the longest increasing run of those pairs is kept in order, 
+ * while the rest are reported as moved. Slides left without an exact match are then paired 
+ * by the similarity of their MinHash sketches, found by LSH banding, so a lightly edited 
+ * slide is still paired, and reported as moved when it left its place. The slides left 
+ * between two in order pairs are diffed by structure (layout and shape names), or paired 
+ * by position when that does not line up similar text, leaving any remainder as inserted 
+ * or deleted. Apart from the diff of those gaps and the check of the LSH candidates, every 
+ * step is linear or n log n in the number of slides.
+ * @author jhorvath
+ */
+public final class SlideAligner {
+	
+	private static final char SEPARATOR = '\u0000';
+	
+	/**
+	 * Smallest estimated similarity for two slides without an exact match to be paired 
+	 * before the gaps are aligned.
+	 */
+	public static final double SIMILARITY_THRESHOLD = 0.6;
+	
+	private SlideAligner() { }
+	
+	/**
+	 * Returns the alignment of the two slide lists, ordered by File A, with inserted 
+	 * slides placed where they occur in File B. 
+	 * 
+	 * @param slidesA List<PptxSlide>
+	 * @param slidesB List<PptxSlide>
+	 * @return List<SlideMatch>
+	 */
+	public static List<SlideMatch> align(List<PptxSlide> slidesA, List<PptxSlide> slidesB) {
+		final int countA = slidesA.size();
+		final int countB = slidesB.size();
+		
+		final String[] fingerprintsA = new String[countA];
+		final String[] structuresA = new String[countA];
+		for (int i = 0; i < countA; i++) {
+			fingerprintsA[i] = fingerprint(slidesA.get(i));
+			structuresA[i] = structure(slidesA.get(i));
+		}
+		final String[] fingerprintsB = new String[countB];
+		final String[] structuresB = new String[countB];
+		for (int j = 0; j < countB; j++) {
+			fingerprintsB[j] = fingerprint(slidesB.get(j));
+			structuresB[j] = structure(slidesB.get(j));
+		}
+		
+		// pair the k-th occurrence of a fingerprint in A with its k-th occurrence in B
+		Map<String, ArrayDeque<Integer>> positionsB = new HashMap<>();
+		for (int j = 0; j < countB; j++) {
+			positionsB.computeIfAbsent(fingerprintsB[j], key -> new ArrayDeque<>()).add(j);
+		}
+		final int[] exactA = new int[countA];
+		final int[] exactB = new int[countB];
+		Arrays.fill(exactA, SlideMatch.NO_SLIDE);
+		Arrays.fill(exactB, SlideMatch.NO_SLIDE);
+		List<Integer> candidates = new ArrayList<>();
+		for (int i = 0; i < countA; i++) {
+			ArrayDeque<Integer> positions = positionsB.get(fingerprintsA[i]);
+			if (positions != null && !positions.isEmpty()) {
+				final int j = positions.poll();
+				exactA[i] = j;
+				exactB[j] = i;
+				candidates.add(i);
+			}
+		}
+		
+		// pairs on the longest increasing run stay in order, the others have moved
+		final boolean[] inOrderA = longestIncreasingRun(candidates, exactA, countA);
+		final boolean[] movedB = new boolean[countB];
+		for (int i : candidates) {
+			if (!inOrderA[i]) {
+				movedB[exactA[i]] = true;
+			}
+		}
+		
+		// lightly edited slides do not match exactly, so the rest are paired by similarity
+		final List<Integer> similar = pairSimilar(slidesA, slidesB, exactA, exactB);
+		final boolean[] inOrderSimilarA = similarInOrder(similar, exactA, inOrderA, countB);
+		for (int i : similar) {
+			if (inOrderSimilarA[i]) {
+				inOrderA[i] = true;
+			} else {
+				movedB[exactA[i]] = true;
+			}
+		}
+		
+		// pair each A slide that is not an exact or similar match
+		final int[] pairedA = new int[countA];
+		final SlideMatchType[] typeA = new SlideMatchType[countA];
+		Arrays.fill(pairedA, SlideMatch.NO_SLIDE);
+		final boolean[] pairedB = new boolean[countB];
+		for (int i : candidates) {
+			pairedA[i] = exactA[i];
+			typeA[i] = inOrderA[i] ? SlideMatchType.SAME : SlideMatchType.MOVED;
+			pairedB[exactA[i]] = true;
+		}
+		for (int i : similar) {
+			pairedA[i] = exactA[i];
+			typeA[i] = inOrderA[i] ? SlideMatchType.CHANGED : SlideMatchType.MOVED;
+			pairedB[exactA[i]] = true;
+		}
+		
+		int gapStartA = 0;
+		int gapStartB = 0;
+		for (int i = 0; i <= countA; i++) {
+			if (i < countA && !inOrderA[i]) {
+				continue;
+			}
+			final int gapEndA = i;
+			final int gapEndB = (i < countA) ? exactA[i] : countB;
+			alignGap(gapStartA, gapEndA, gapStartB, gapEndB, exactA, movedB, slidesA, slidesB, 
+					structuresA, structuresB, pairedA, typeA, pairedB);
+			gapStartA = gapEndA + 1;
+			gapStartB = gapEndB + 1;
+		}
+		
+		return buildMatches(pairedA, typeA, pairedB);
+	}
+	
+	/**
+	 * Returns the fingerprint of a slide: its layout, shape names and text.
+	 * 
+	 * @param slide PptxSlide
+	 * @return String
+	 */
+	public static String fingerprint(PptxSlide slide) {
+		return structure(slide) + SEPARATOR + nullToEmpty(slide.getText());
+	}
+	
+	/**
+	 * Returns the structure of a slide: its layout and shape names.
+	 * 
+	 * @param slide PptxSlide
+	 * @return String
+	 */
+	public static String structure(PptxSlide slide) {
+		StringBuilder sb = new StringBuilder(nullToEmpty(slide.getLayout()));
+		if (slide.getShapeNames() != null) {
+			for (String name : slide.getShapeNames()) {
+				sb.append(SEPARATOR).append(nullToEmpty(name));
+			}
+		}
+		return sb.toString();
+	}
+	
+	private static String nullToEmpty(String value) {
+		return value == null ? "" : value;
+	}
+	
+	/**
+	 * Pairs the slides without an exact match whose sketches are at least 
+	 * SIMILARITY_THRESHOLD similar, most similar pairs first, found by LSH banding 
+	 * rather than by comparing every slide with every other. 
+	 * 
+	 * @param slidesA List<PptxSlide>
+	 * @param slidesB List<PptxSlide>
+	 * @param exactA int[] matching B index of each A index, filled in for the new pairs
+	 * @param exactB int[] matching A index of each B index, filled in for the new pairs
+	 * @return List<Integer> A indexes of the new pairs, ascending
+	 */
+	private static List<Integer> pairSimilar(List<PptxSlide> slidesA, List<PptxSlide> slidesB, 
+			int[] exactA, int[] exactB) {
+		final int[][] sketchesA = new int[exactA.length][];
+		for (int i = 0; i < exactA.length; i++) {
+			if (exactA[i] == SlideMatch.NO_SLIDE) {
+				sketchesA[i] = SlideSketch.of(slidesA.get(i));
+			}
+		}
+		final int[][] sketchesB = new int[exactB.length][];
+		for (int j = 0; j < exactB.length; j++) {
+			if (exactB[j] == SlideMatch.NO_SLIDE) {
+				sketchesB[j] = SlideSketch.of(slidesB.get(j));
+			}
+		}
+		
+		List<Integer> similar = new ArrayList<>();
+		for (int[] pair : SlideSketch.similarPairs(sketchesA, sketchesB, SIMILARITY_THRESHOLD)) {
+			if (exactA[pair[0]] == SlideMatch.NO_SLIDE && exactB[pair[1]] == SlideMatch.NO_SLIDE) {
+				exactA[pair[0]] = pair[1];
+				exactB[pair[1]] = pair[0];
+				similar.add(pair[0]);
+			}
+		}
+		Collections.sort(similar);
+		return similar;
+	}
+	
+	/**
+	 * Marks the similar pairs that stay in order: both slides must lie in the same gap 
+	 * between two in order exact pairs, and the pair must be on the longest increasing 
+	 * run of those. The others have moved, such as a slide that was edited and moved.
+	 * 
+	 * @param similar List<Integer> A indexes of similar pairs, ascending
+	 * @param pairsA int[] the matching B index of each A index
+	 * @param inOrderA boolean[] A indexes of the in order exact pairs
+	 * @param countB int
+	 * @return boolean[] by A index
+	 */
+	private static boolean[] similarInOrder(List<Integer> similar, int[] pairsA, boolean[] inOrderA, int countB) {
+		// gap number of each position: the number of in order exact pairs before it
+		final int[] gapA = new int[inOrderA.length];
+		final boolean[] inOrderB = new boolean[countB];
+		int gap = 0;
+		for (int i = 0; i < inOrderA.length; i++) {
+			gapA[i] = gap;
+			if (inOrderA[i]) {
+				inOrderB[pairsA[i]] = true;
+				gap++;
+			}
+		}
+		final int[] gapB = new int[countB];
+		gap = 0;
+		for (int j = 0; j < countB; j++) {
+			gapB[j] = gap;
+			if (inOrderB[j]) {
+				gap++;
+			}
+		}
+		
+		// pairs in different gaps are in order with each other, so one run covers every gap
+		List<Integer> sameGap = new ArrayList<>();
+		for (int i : similar) {
+			if (gapA[i] == gapB[pairsA[i]]) {
+				sameGap.add(i);
+			}
+		}
+		return longestIncreasingRun(sameGap, pairsA, inOrderA.length);
+	}
+	
+	/**
+	 * Marks the candidates whose B indexes form the longest increasing run, in n log n time 
+	 * with patience sorting.
+	 * 
+	 * @param candidates List<Integer> A indexes with an exact match, ascending
+	 * @param exactA int[] the matching B index of each A index
+	 * @param countA int
+	 * @return boolean[] by A index
+	 */
+	private static boolean[] longestIncreasingRun(List<Integer> candidates, int[] exactA, int countA) {
+		final int size = candidates.size();
+		// tails[k] is the candidate position ending the best run of length k + 1
+		final int[] tails = new int[size];
+		final int[] previous = new int[size];
+		int length = 0;
+		
+		for (int c = 0; c < size; c++) {
+			final int value = exactA[candidates.get(c)];
+			int low = 0;
+			int high = length;
+			while (low < high) {
+				final int middle = (low + high) >>> 1;
+				if (exactA[candidates.get(tails[middle])] < value) {
+					low = middle + 1;
+				} else {
+					high = middle;
+				}
+			}
+			previous[c] = (low > 0) ? tails[low - 1] : -1;
+			tails[low] = c;
+			if (low == length) {
+				length++;
+			}
+		}
+		
+		final boolean[] inOrder = new boolean[countA];
+		for (int c = (length > 0) ? tails[length - 1] : -1; c >= 0; c = previous[c]) {
+			inOrder[candidates.get(c)] = true;
+		}
+		return inOrder;
+	}
+	
+	/**
+	 * Pairs the slides in A[startA, endA) with the slides in B[startB, endB) that were not 
+	 * matched exactly. Slides are paired by structure when the slides it lines up out of 
+	 * position also have similar text, and otherwise simply by position. 
+	 */
+	private static void alignGap(int startA, int endA, int startB, int endB, int[] exactA, boolean[] movedB,
+			List<PptxSlide> slidesA, List<PptxSlide> slidesB, String[] structuresA, String[] structuresB, 
+			int[] pairedA, SlideMatchType[] typeA, boolean[] pairedB) {
+		
+		List<Integer> gapA = new ArrayList<>();
+		for (int i = startA; i < endA; i++) {
+			if (exactA[i] == SlideMatch.NO_SLIDE) {
+				gapA.add(i);
+			}
+		}
+		List<Integer> gapB = new ArrayList<>();
+		for (int j = startB; j < endB; j++) {
+			if (!movedB[j] && !pairedB[j]) {
+				gapB.add(j);
+			}
+		}
+		if (gapA.isEmpty() || gapB.isEmpty()) {
+			return;
+		}
+		
+		List<String> gapStructuresA = new ArrayList<>(gapA.size());
+		for (int i : gapA) {
+			gapStructuresA.add(structuresA[i]);
+		}
+		List<String> gapStructuresB = new ArrayList<>(gapB.size());
+		for (int j : gapB) {
+			gapStructuresB.add(structuresB[j]);
+		}
+		
+		// pairs of slides with the same structure, kept only if their text is also similar
+		List<int[]> structurePairs = new ArrayList<>();
+		boolean similar = true;
+		int a = 0;
+		int b = 0;
+		for (DiffHunk hunk : MyersDiff.diff(gapStructuresA, gapStructuresB)) {
+			for (; a < hunk.getStartA(); a++, b++) {
+				structurePairs.add(new int[] {a, b});
+			}
+			// slides with different structures pair up by position
+			final int paired = Math.min(hunk.getLengthA(), hunk.getLengthB());
+			for (int k = 0; k < paired; k++) {
+				structurePairs.add(new int[] {a + k, b + k});
+			}
+			a = hunk.getEndA();
+			b = hunk.getEndB();
+		}
+		for (; a < gapA.size() && b < gapB.size(); a++, b++) {
+			structurePairs.add(new int[] {a, b});
+		}
+		for (int[] structurePair : structurePairs) {
+			final int i = gapA.get(structurePair[0]);
+			final int j = gapB.get(structurePair[1]);
+			if (structurePair[0] != structurePair[1] && structuresA[i].equals(structuresB[j]) 
+					&& !isSimilarText(slidesA.get(i).getText(), slidesB.get(j).getText())) {
+				similar = false;
+				break;
+			}
+		}
+		
+		if (similar) {
+			for (int[] structurePair : structurePairs) {
+				pair(gapA.get(structurePair[0]), gapB.get(structurePair[1]), pairedA, typeA, pairedB);
+			}
+		} else {
+			// the structure did not find the edited slides, so pair by position
+			final int paired = Math.min(gapA.size(), gapB.size());
+			for (int k = 0; k < paired; k++) {
+				pair(gapA.get(k), gapB.get(k), pairedA, typeA, pairedB);
+			}
+		}
+	}
+	
+	/**
+	 * Returns true if the two texts share at least half of their distinct words.
+	 * 
+	 * @param textA String
+	 * @param textB String
+	 * @return boolean
+	 */
+	private static boolean isSimilarText(String textA, String textB) {
+		Set<String> wordsA = new HashSet<>(MyersDiff.words(nullToEmpty(textA)));
+		Set<String> wordsB = new HashSet<>(MyersDiff.words(nullToEmpty(textB)));
+		if (wordsA.isEmpty() && wordsB.isEmpty()) {
+			return true;
+		}
+		
+		int shared = 0;
+		for (String word : wordsA) {
+			if (wordsB.contains(word)) {
+				shared++;
+			}
+		}
+		final int distinct = wordsA.size() + wordsB.size() - shared;
+		return shared * 2 >= distinct;
+	}
+	
+	private static void pair(int i, int j, int[] pairedA, SlideMatchType[] typeA, boolean[] pairedB) {
+		pairedA[i] = j;
+		typeA[i] = SlideMatchType.CHANGED;
+		pairedB[j] = true;
+	}
+	
+	/**
+	 * Lists the matches in File A order, placing each inserted File B slide before the first 
+	 * in order pair that follows it in File B. 
+	 * 
+	 * @param pairedA int[]
+	 * @param typeA SlideMatchType[]
+	 * @param pairedB boolean[]
+	 * @return List<SlideMatch>
+	 */
+	private static List<SlideMatch> buildMatches(int[] pairedA, SlideMatchType[] typeA, boolean[] pairedB) {
+		List<SlideMatch> matches = new ArrayList<>(pairedA.length + pairedB.length);
+		int nextB = 0;
+		
+		for (int i = 0; i < pairedA.length; i++) {
+			final int j = pairedA[i];
+			if (j == SlideMatch.NO_SLIDE) {
+				matches.add(new SlideMatch(SlideMatchType.DELETED, i, SlideMatch.NO_SLIDE));
+				continue;
+			}
+			if (typeA[i] != SlideMatchType.MOVED) {
+				for (; nextB < j; nextB++) {
+					if (!pairedB[nextB]) {
+						matches.add(new SlideMatch(SlideMatchType.INSERTED, SlideMatch.NO_SLIDE, nextB));
+					}
+				}
+				nextB = Math.max(nextB, j + 1);
+			}
+			matches.add(new SlideMatch(typeA[i], i, j));
+		}
+		for (; nextB < pairedB.length; nextB++) {
+			if (!pairedB[nextB]) {
+				matches.add(new SlideMatch(SlideMatchType.INSERTED, SlideMatch.NO_SLIDE, nextB));
+			}
+		}
+		return matches;
+	}
+
+}
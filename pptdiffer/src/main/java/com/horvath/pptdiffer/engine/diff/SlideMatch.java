@@ -0,0 +1,78 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine.diff;
+
+/**
+ * One entry of a slide alignment, pairing a slide index in File A with a slide index in File B. 
+ * Indexes are zero based, and NO_SLIDE marks the missing side of an inserted or deleted slide.
+ * @author jhorvath
+ */
+public final class SlideMatch {
+	
+	public static final int NO_SLIDE = -1;
+	
+	private final SlideMatchType type;
+	private final int indexA;
+	private final int indexB;
+	
+	/**
+	 * Constructor. 
+	 * @param type SlideMatchType
+	 * @param indexA int
+	 * @param indexB int
+	 */
+	public SlideMatch(SlideMatchType type, int indexA, int indexB) {
+		this.type = type;
+		this.indexA = indexA;
+		this.indexB = indexB;
+	}
+	
+	/**
+	 * Returns true if the match has a slide in both files.
+	 * 
+	 * @return boolean
+	 */
+	public boolean isPaired() {
+		return indexA != NO_SLIDE && indexB != NO_SLIDE;
+	}
+
+	public SlideMatchType getType() {
+		return type;
+	}
+
+	public int getIndexA() {
+		return indexA;
+	}
+
+	public int getIndexB() {
+		return indexB;
+	}
+	
+	@Override
+	public String toString() {
+		return type + " A:" + indexA + " B:" + indexB;
+	}
+
+}
@@ -0,0 +1,245 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine.diff;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import com.horvath.pptdiffer.engine.model.PptxSlide;
+
+/**
+ * MinHash sketches of slides, for finding slides that are similar rather than equal. 
+ * <p>
+ * A slide is reduced to a set of shingles: its words, each pair of neighbouring words, 
+ * and one shingle for its shape names. The sketch keeps the smallest hash of those 
+ * shingles under each of a fixed number of hash functions, so the share of positions 
+ * where two sketches agree estimates the Jaccard similarity of the two shingle sets. 
+ * Similar pairs are found by LSH banding: only slides that agree on every position of 
+ * at least one band are compared, instead of every slide with every other.
+ * @author jhorvath
+ */
+public final class SlideSketch {
+	
+	/**
+	 * Number of hash functions, which is the length of a sketch.
+	 */
+	public static final int SIZE = 64;
+	
+	/**
+	 * Bands of ROWS positions each. Two rows per band makes slides that share about 
+	 * a fifth of their shingles likely candidates, and the candidates are then checked 
+	 * against the threshold with the whole sketch.
+	 */
+	private static final int BANDS = 32;
+	private static final int ROWS = SIZE / BANDS;
+	
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+	
+	private static final char SEPARATOR = '\u0000';
+	
+	private SlideSketch() { }
+	
+	/**
+	 * Returns the sketch of a slide, computing it when the slide was not given one. 
+	 * 
+	 * @param slide PptxSlide
+	 * @return int[]
+	 */
+	public static int[] of(PptxSlide slide) {
+		if (slide.getSketch() != null) {
+			return slide.getSketch();
+		}
+		return sketch(slide.getText(), slide.getShapeNames());
+	}
+	
+	/**
+	 * Returns the sketch of the text and shape names of a slide. 
+	 * 
+	 * @param text String, may be null
+	 * @param shapeNames List<String>, may be null
+	 * @return int[]
+	 */
+	public static int[] sketch(String text, List<String> shapeNames) {
+		final int[] sketch = new int[SIZE];
+		Arrays.fill(sketch, Integer.MAX_VALUE);
+		
+		for (String shingle : shingles(text, shapeNames)) {
+			final long base = hash(shingle);
+			for (int k = 0; k < SIZE; k++) {
+				final int value = (int) (mix(base + (k + 1) * GOLDEN_GAMMA) >>> 33);
+				if (value < sketch[k]) {
+					sketch[k] = value;
+				}
+			}
+		}
+		return sketch;
+	}
+	
+	/**
+	 * Returns the estimated similarity of two sketched slides, from 0 (nothing in common) 
+	 * to 1 (the same words and shape names). 
+	 * 
+	 * @param sketchA int[]
+	 * @param sketchB int[]
+	 * @return double
+	 */
+	public static double similarity(int[] sketchA, int[] sketchB) {
+		return agreement(sketchA, sketchB) / (double) SIZE;
+	}
+	
+	/**
+	 * Returns every pair of a sketch in A with a sketch in B whose similarity is at least 
+	 * the threshold, as {indexA, indexB, agreeing positions}, most similar first and 
+	 * then in index order. Null sketches are left out. 
+	 * 
+	 * @param sketchesA int[][]
+	 * @param sketchesB int[][]
+	 * @param threshold double
+	 * @return List<int[]>
+	 */
+	public static List<int[]> similarPairs(int[][] sketchesA, int[][] sketchesB, double threshold) {
+		final int minAgreement = (int) Math.ceil(threshold * SIZE);
+		
+		// a bucket per band for the B sketches that agree on every position of the band
+		List<Map<Long, List<Integer>>> buckets = new ArrayList<>(BANDS);
+		for (int band = 0; band < BANDS; band++) {
+			Map<Long, List<Integer>> bandBuckets = new HashMap<>();
+			for (int j = 0; j < sketchesB.length; j++) {
+				if (sketchesB[j] != null) {
+					bandBuckets.computeIfAbsent(bandKey(sketchesB[j], band), key -> new ArrayList<>()).add(j);
+				}
+			}
+			buckets.add(bandBuckets);
+		}
+		
+		List<int[]> pairs = new ArrayList<>();
+		// the A index that last checked each B sketch, so a pair sharing several bands is checked once
+		final int[] checkedBy = new int[sketchesB.length];
+		Arrays.fill(checkedBy, -1);
+		
+		for (int i = 0; i < sketchesA.length; i++) {
+			if (sketchesA[i] == null) {
+				continue;
+			}
+			for (int band = 0; band < BANDS; band++) {
+				List<Integer> bucket = buckets.get(band).get(bandKey(sketchesA[i], band));
+				if (bucket == null) {
+					continue;
+				}
+				for (int j : bucket) {
+					if (checkedBy[j] == i) {
+						continue;
+					}
+					checkedBy[j] = i;
+					final int agreement = agreement(sketchesA[i], sketchesB[j]);
+					if (agreement >= minAgreement) {
+						pairs.add(new int[] {i, j, agreement});
+					}
+				}
+			}
+		}
+		
+		pairs.sort((a, b) -> a[2] != b[2] ? Integer.compare(b[2], a[2]) 
+				: a[0] != b[0] ? Integer.compare(a[0], b[0]) : Integer.compare(a[1], b[1]));
+		return pairs;
+	}
+	
+	/**
+	 * Returns the shingles of a slide. There is always the shape names shingle, 
+	 * so a slide without text still has a sketch.
+	 */
+	private static Set<String> shingles(String text, List<String> shapeNames) {
+		Set<String> shingles = new LinkedHashSet<>();
+		
+		StringBuilder names = new StringBuilder();
+		if (shapeNames != null) {
+			for (String name : shapeNames) {
+				names.append(SEPARATOR).append(name);
+			}
+		}
+		shingles.add(names.toString());
+		
+		if (text != null) {
+			String previous = null;
+			for (String word : MyersDiff.words(text.toLowerCase(Locale.ROOT))) {
+				shingles.add(word);
+				if (previous != null) {
+					shingles.add(previous + ' ' + word);
+				}
+				previous = word;
+			}
+		}
+		return shingles;
+	}
+	
+	private static int agreement(int[] sketchA, int[] sketchB) {
+		int agreement = 0;
+		for (int k = 0; k < SIZE; k++) {
+			if (sketchA[k] == sketchB[k]) {
+				agreement++;
+			}
+		}
+		return agreement;
+	}
+	
+	private static long bandKey(int[] sketch, int band) {
+		long key = band;
+		for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+			key = key * 31 + sketch[row];
+		}
+		return mix(key);
+	}
+	
+	/**
+	 * FNV-1a hash of the characters of a string.
+	 */
+	private static long hash(String value) {
+		long hash = FNV_OFFSET;
+		for (int i = 0; i < value.length(); i++) {
+			hash ^= value.charAt(i);
+			hash *= FNV_PRIME;
+		}
+		return hash;
+	}
+	
+	/**
+	 * Finalizer of SplitMix64, which spreads every input bit over the whole result.
+	 */
+	private static long mix(long value) {
+		long z = value;
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+}
@@ -0,0 +1,391 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine.diff;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntBinaryOperator;
+
+import com.horvath.pptdiffer.engine.model.PptxTable;
+
+/**
+ * Diffs two table grids cell by cell. Rows and columns are aligned separately with 
+ * Myers' diff over a key per row or column, so an inserted or deleted row or column 
+ * does not shift every cell after it. Each key only covers the cells of the columns 
+ * (or rows) already matched on the other axis, which lets a row insertion and a column 
+ * insertion be found in the same table. Rows or columns that take the place of others 
+ * are paired by the number of equal cells, and their cells are compared as changed cells. 
+ * The cost is a few linear passes over the cells plus a diff of the row and column keys.
+ * @author jhorvath
+ */
+public final class TableDiff {
+	
+	private static final String CELL_SEPARATOR = "\u0000";
+	
+	/**
+	 * Largest replaced run, in row or column pairs, aligned by cell similarity. 
+	 * Larger runs are paired by position.
+	 */
+	private static final int MAX_SIMILARITY_PAIRS = 250000;
+	
+	private final PptxTable tableA;
+	private final PptxTable tableB;
+	
+	/**
+	 * For each row or column of table A, the index it is paired with in table B, or -1.
+	 */
+	private int[] rowMap;
+	private int[] columnMap;
+	
+	private final List<Integer> deletedRows = new ArrayList<>();
+	private final List<Integer> insertedRows = new ArrayList<>();
+	private final List<Integer> deletedColumns = new ArrayList<>();
+	private final List<Integer> insertedColumns = new ArrayList<>();
+	private final List<CellChange> changedCells = new ArrayList<>();
+	
+	/**
+	 * Constructor. Diffs table A against table B. 
+	 * 
+	 * @param tableA PptxTable
+	 * @param tableB PptxTable
+	 */
+	public TableDiff(PptxTable tableA, PptxTable tableB) {
+		this.tableA = tableA;
+		this.tableB = tableB;
+		
+		align();
+		
+		collectUnpaired(rowMap, tableB.getRowCount(), deletedRows, insertedRows);
+		collectUnpaired(columnMap, tableB.getColumnCount(), deletedColumns, insertedColumns);
+		
+		for (int row = 0; row < rowMap.length; row++) {
+			if (rowMap[row] < 0) {
+				continue;
+			}
+			for (int column = 0; column < columnMap.length; column++) {
+				if (columnMap[column] < 0) {
+					continue;
+				}
+				final String textA = tableA.getCell(row, column);
+				final String textB = tableB.getCell(rowMap[row], columnMap[column]);
+				if (!textA.equals(textB)) {
+					changedCells.add(new CellChange(row, column, rowMap[row], columnMap[column], textA, textB));
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Aligns the rows and columns. Columns are seeded from whole columns, or from the 
+	 * header row when no whole column is unchanged, then each axis is aligned on the 
+	 * cells the other axis matched exactly.
+	 */
+	private void align() {
+		final int[] allRowsA = range(tableA.getRowCount());
+		final int[] allRowsB = range(tableB.getRowCount());
+		
+		boolean[] exactColumns = new boolean[tableA.getColumnCount()];
+		columnMap = alignColumns(allRowsA, allRowsB, exactColumns);
+		if (!any(exactColumns) && tableA.getRowCount() > 0 && tableB.getRowCount() > 0) {
+			columnMap = alignKeys(tableA.getRows().get(0), tableB.getRows().get(0), exactColumns, 
+					(a, b) -> 0);
+		}
+		
+		boolean[] exactRows = new boolean[tableA.getRowCount()];
+		rowMap = alignRows(exactColumns, exactRows);
+		
+		if (any(exactRows)) {
+			final int[][] rows = pairedIndexes(rowMap, exactRows);
+			boolean[] columns = new boolean[tableA.getColumnCount()];
+			final int[] refined = alignColumns(rows[0], rows[1], columns);
+			if (!Arrays.equals(refined, columnMap)) {
+				columnMap = refined;
+				exactColumns = columns;
+				rowMap = alignRows(exactColumns, exactRows);
+			}
+		}
+	}
+	
+	/**
+	 * Aligns the rows on the cells of the exactly matched columns, 
+	 * or on whole rows when no column matched exactly.
+	 */
+	private int[] alignRows(boolean[] exactColumns, boolean[] exactRows) {
+		final int[] columnsA;
+		final int[] columnsB;
+		if (any(exactColumns)) {
+			final int[][] columns = pairedIndexes(columnMap, exactColumns);
+			columnsA = columns[0];
+			columnsB = columns[1];
+		} else {
+			columnsA = range(tableA.getColumnCount());
+			columnsB = range(tableB.getColumnCount());
+		}
+		final int shared = Math.min(columnsA.length, columnsB.length);
+		
+		return alignKeys(rowKeys(tableA, columnsA), rowKeys(tableB, columnsB), exactRows, (rowA, rowB) -> {
+			int equal = 0;
+			for (int i = 0; i < shared; i++) {
+				if (tableA.getCell(rowA, columnsA[i]).equals(tableB.getCell(rowB, columnsB[i]))) {
+					equal++;
+				}
+			}
+			return equal;
+		});
+	}
+	
+	/**
+	 * Aligns the columns on the cells of the given rows of each table, paired in order.
+	 */
+	private int[] alignColumns(int[] rowsA, int[] rowsB, boolean[] exactColumns) {
+		final int shared = Math.min(rowsA.length, rowsB.length);
+		
+		return alignKeys(columnKeys(tableA, rowsA), columnKeys(tableB, rowsB), exactColumns, (columnA, columnB) -> {
+			int equal = 0;
+			for (int i = 0; i < shared; i++) {
+				if (tableA.getCell(rowsA[i], columnA).equals(tableB.getCell(rowsB[i], columnB))) {
+					equal++;
+				}
+			}
+			return equal;
+		});
+	}
+	
+	/**
+	 * Pairs equal keys in order, then pairs the rest of each replaced run by similarity. 
+	 * 
+	 * @param keysA List<String>
+	 * @param keysB List<String>
+	 * @param exact boolean[] set to true for the A indexes paired by an equal key
+	 * @param similarity IntBinaryOperator number of equal cells of an A index and a B index
+	 * @return int[] B index for each A index, or -1
+	 */
+	private static int[] alignKeys(List<String> keysA, List<String> keysB, boolean[] exact, 
+			IntBinaryOperator similarity) {
+		final int[] map = new int[keysA.size()];
+		Arrays.fill(map, -1);
+		Arrays.fill(exact, false);
+		
+		int a = 0;
+		int b = 0;
+		for (DiffHunk hunk : MyersDiff.diff(keysA, keysB)) {
+			while (a < hunk.getStartA()) {
+				map[a] = b++;
+				exact[a++] = true;
+			}
+			pairReplaced(hunk, map, similarity);
+			a = hunk.getEndA();
+			b = hunk.getEndB();
+		}
+		while (a < keysA.size()) {
+			map[a] = b++;
+			exact[a++] = true;
+		}
+		return map;
+	}
+	
+	/**
+	 * Pairs the A and B indexes of a replaced run in order, choosing the pairs with 
+	 * the most equal cells. A run of equal length, or one too large to weigh, is paired by position.
+	 */
+	private static void pairReplaced(DiffHunk hunk, int[] map, IntBinaryOperator similarity) {
+		final int lengthA = hunk.getLengthA();
+		final int lengthB = hunk.getLengthB();
+		
+		if (lengthA == lengthB || (long) lengthA * lengthB > MAX_SIMILARITY_PAIRS) {
+			final int paired = Math.min(lengthA, lengthB);
+			for (int i = 0; i < paired; i++) {
+				map[hunk.getStartA() + i] = hunk.getStartB() + i;
+			}
+			return;
+		}
+		
+		// weighted LCS, where every pair scores one more than twice its equal cells, 
+		// so pairing is always worth more than skipping unless it costs a more similar pair
+		final int[][] score = new int[lengthA + 1][lengthB + 1];
+		for (int i = 1; i <= lengthA; i++) {
+			for (int j = 1; j <= lengthB; j++) {
+				final int pair = score[i - 1][j - 1] + 1 
+						+ 2 * similarity.applyAsInt(hunk.getStartA() + i - 1, hunk.getStartB() + j - 1);
+				score[i][j] = Math.max(pair, Math.max(score[i - 1][j], score[i][j - 1]));
+			}
+		}
+		
+		int i = lengthA;
+		int j = lengthB;
+		while (i > 0 && j > 0) {
+			if (score[i][j] == score[i - 1][j]) {
+				i--;
+			} else if (score[i][j] == score[i][j - 1]) {
+				j--;
+			} else {
+				map[hunk.getStartA() + i - 1] = hunk.getStartB() + j - 1;
+				i--;
+				j--;
+			}
+		}
+	}
+	
+	private static List<String> rowKeys(PptxTable table, int[] columns) {
+		List<String> keys = new ArrayList<>(table.getRowCount());
+		StringBuilder key = new StringBuilder();
+		for (int row = 0; row < table.getRowCount(); row++) {
+			key.setLength(0);
+			for (int column : columns) {
+				key.append(table.getCell(row, column)).append(CELL_SEPARATOR);
+			}
+			keys.add(key.toString());
+		}
+		return keys;
+	}
+	
+	private static List<String> columnKeys(PptxTable table, int[] rows) {
+		List<String> keys = new ArrayList<>(table.getColumnCount());
+		StringBuilder key = new StringBuilder();
+		for (int column = 0; column < table.getColumnCount(); column++) {
+			key.setLength(0);
+			for (int row : rows) {
+				key.append(table.getCell(row, column)).append(CELL_SEPARATOR);
+			}
+			keys.add(key.toString());
+		}
+		return keys;
+	}
+	
+	/**
+	 * Returns the A indexes and the B indexes of the exact pairs of a map, in order.
+	 */
+	private static int[][] pairedIndexes(int[] map, boolean[] exact) {
+		int count = 0;
+		for (boolean e : exact) {
+			if (e) {
+				count++;
+			}
+		}
+		final int[][] indexes = new int[2][count];
+		int next = 0;
+		for (int i = 0; i < map.length; i++) {
+			if (exact[i]) {
+				indexes[0][next] = i;
+				indexes[1][next++] = map[i];
+			}
+		}
+		return indexes;
+	}
+	
+	private static void collectUnpaired(int[] map, int countB, List<Integer> deleted, List<Integer> inserted) {
+		final boolean[] pairedB = new boolean[countB];
+		for (int i = 0; i < map.length; i++) {
+			if (map[i] < 0) {
+				deleted.add(i);
+			} else {
+				pairedB[map[i]] = true;
+			}
+		}
+		for (int i = 0; i < countB; i++) {
+			if (!pairedB[i]) {
+				inserted.add(i);
+			}
+		}
+	}
+	
+	private static int[] range(int count) {
+		final int[] indexes = new int[count];
+		for (int i = 0; i < count; i++) {
+			indexes[i] = i;
+		}
+		return indexes;
+	}
+	
+	private static boolean any(boolean[] values) {
+		for (boolean value : values) {
+			if (value) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Returns true if the two tables have the same cells in the same places.
+	 * 
+	 * @return boolean
+	 */
+	public boolean isSame() {
+		return deletedRows.isEmpty() && insertedRows.isEmpty() && deletedColumns.isEmpty() 
+				&& insertedColumns.isEmpty() && changedCells.isEmpty();
+	}
+	
+	/**
+	 * Returns the row of table B paired with a row of table A, or -1 if the row was deleted.
+	 * 
+	 * @param rowA int
+	 * @return int
+	 */
+	public int pairedRow(int rowA) {
+		return rowMap[rowA];
+	}
+	
+	/**
+	 * Returns the column of table B paired with a column of table A, or -1 if the column was deleted.
+	 * 
+	 * @param columnA int
+	 * @return int
+	 */
+	public int pairedColumn(int columnA) {
+		return columnMap[columnA];
+	}
+
+	public PptxTable getTableA() {
+		return tableA;
+	}
+
+	public PptxTable getTableB() {
+		return tableB;
+	}
+
+	public List<Integer> getDeletedRows() {
+		return Collections.unmodifiableList(deletedRows);
+	}
+
+	public List<Integer> getInsertedRows() {
+		return Collections.unmodifiableList(insertedRows);
+	}
+
+	public List<Integer> getDeletedColumns() {
+		return Collections.unmodifiableList(deletedColumns);
+	}
+
+	public List<Integer> getInsertedColumns() {
+		return Collections.unmodifiableList(insertedColumns);
+	}
+
+	public List<CellChange> getChangedCells() {
+		return Collections.unmodifiableList(changedCells);
+	}
+
+}
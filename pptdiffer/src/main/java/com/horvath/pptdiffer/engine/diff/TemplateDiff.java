@@ -0,0 +1,102 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine.diff;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import com.horvath.pptdiffer.engine.model.PptxTemplate;
+
+/**
+ * Diffs a slide layout or slide master of File A with one of File B: the name, 
+ * the background, and the shapes, placeholders included, with their text and geometry. 
+ * Shapes are matched the same way as the shapes of a slide.
+ * @author jhorvath
+ */
+public final class TemplateDiff {
+	
+	private final PptxTemplate templateA;
+	private final PptxTemplate templateB;
+	
+	private final boolean renamed;
+	private final boolean backgroundChanged;
+	
+	/**
+	 * Shapes that were changed, or only found in one of the templates.
+	 */
+	private final List<ShapeChange> shapeChanges = new ArrayList<>();
+	
+	/**
+	 * Constructor. Diffs template A against template B. 
+	 * 
+	 * @param templateA PptxTemplate
+	 * @param templateB PptxTemplate
+	 */
+	public TemplateDiff(PptxTemplate templateA, PptxTemplate templateB) {
+		this.templateA = templateA;
+		this.templateB = templateB;
+		
+		this.renamed = !Objects.equals(templateA.getName(), templateB.getName());
+		this.backgroundChanged = !Objects.equals(templateA.getBackground(), templateB.getBackground());
+		
+		for (ShapeChange change : ShapeDiff.diff(templateA.getShapes(), templateB.getShapes())) {
+			if (change.isChanged()) {
+				shapeChanges.add(change);
+			}
+		}
+	}
+	
+	/**
+	 * Returns true if the two templates have the same name, background and shapes. 
+	 * 
+	 * @return boolean
+	 */
+	public boolean isSame() {
+		return !renamed && !backgroundChanged && shapeChanges.isEmpty();
+	}
+
+	public PptxTemplate getTemplateA() {
+		return templateA;
+	}
+
+	public PptxTemplate getTemplateB() {
+		return templateB;
+	}
+
+	public boolean isRenamed() {
+		return renamed;
+	}
+
+	public boolean isBackgroundChanged() {
+		return backgroundChanged;
+	}
+
+	public List<ShapeChange> getShapeChanges() {
+		return Collections.unmodifiableList(shapeChanges);
+	}
+
+}
@@ -0,0 +1,195 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine.diff;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Diffs two texts line by line and formats the result as unified diff hunks with context. 
+ * Lines are interned through a hash map, so each line is compared by a single int compare, 
+ * and the diff itself is Myers' O(ND) algorithm.
+ * @author jhorvath
+ */
+public final class UnifiedDiff {
+	
+	public static final int DEFAULT_CONTEXT = 3;
+	
+	private final List<String> linesA;
+	private final List<String> linesB;
+	private final List<DiffHunk> hunks;
+	
+	/**
+	 * Constructor. Diffs the lines of text A against the lines of text B. 
+	 * 
+	 * @param textA String
+	 * @param textB String
+	 */
+	public UnifiedDiff(String textA, String textB) {
+		this.linesA = lines(textA);
+		this.linesB = lines(textB);
+		this.hunks = MyersDiff.diff(linesA, linesB);
+	}
+	
+	/**
+	 * Splits text into lines on any line terminator. A trailing terminator does not start a new line.
+	 * 
+	 * @param text String
+	 * @return List<String>
+	 */
+	public static List<String> lines(String text) {
+		List<String> lines = new ArrayList<>();
+		if (text == null || text.isEmpty()) {
+			return lines;
+		}
+		
+		int start = 0;
+		final int length = text.length();
+		for (int i = 0; i < length; i++) {
+			final char c = text.charAt(i);
+			if (c == '\n' || c == '\r') {
+				lines.add(text.substring(start, i));
+				if (c == '\r' && i + 1 < length && text.charAt(i + 1) == '\n') {
+					i++;
+				}
+				start = i + 1;
+			}
+		}
+		if (start < length) {
+			lines.add(text.substring(start));
+		}
+		return lines;
+	}
+	
+	/**
+	 * Returns true if the two texts have the same lines.
+	 * 
+	 * @return boolean
+	 */
+	public boolean isSame() {
+		return hunks.isEmpty();
+	}
+	
+	/**
+	 * Formats the differences as a unified diff, joining hunks whose context overlaps.
+	 * 
+	 * @param labelA String name shown for text A
+	 * @param labelB String name shown for text B
+	 * @param context int number of unchanged lines shown around each change
+	 * @param eol String line separator
+	 * @return String empty if the texts have the same lines
+	 */
+	public String format(String labelA, String labelB, int context, String eol) {
+		if (hunks.isEmpty()) {
+			return "";
+		}
+		context = Math.max(0, context);
+		
+		StringBuilder sb = new StringBuilder();
+		sb.append("--- ").append(labelA).append(eol);
+		sb.append("+++ ").append(labelB).append(eol);
+		
+		int first = 0;
+		while (first < hunks.size()) {
+			// extend the group while the next change is within two contexts of the last
+			int last = first;
+			while (last + 1 < hunks.size() 
+					&& hunks.get(last + 1).getStartA() - hunks.get(last).getEndA() <= 2 * context) {
+				last++;
+			}
+			appendGroup(sb, first, last, context, eol);
+			first = last + 1;
+		}
+		return sb.toString();
+	}
+	
+	/**
+	 * Appends one unified diff hunk covering hunks first to last, with context around them.
+	 */
+	private void appendGroup(StringBuilder sb, int first, int last, int context, String eol) {
+		final DiffHunk firstHunk = hunks.get(first);
+		final DiffHunk lastHunk = hunks.get(last);
+		
+		// unchanged lines line up one to one, so the B window moves with the A window
+		final int leading = Math.min(context, firstHunk.getStartA());
+		final int startA = firstHunk.getStartA() - leading;
+		final int startB = firstHunk.getStartB() - leading;
+		final int trailing = Math.min(context, linesA.size() - lastHunk.getEndA());
+		final int endA = lastHunk.getEndA() + trailing;
+		final int endB = lastHunk.getEndB() + trailing;
+		
+		sb.append("@@ -").append(range(startA, endA - startA));
+		sb.append(" +").append(range(startB, endB - startB));
+		sb.append(" @@").append(eol);
+		
+		int a = startA;
+		for (int h = first; h <= last; h++) {
+			final DiffHunk hunk = hunks.get(h);
+			for (; a < hunk.getStartA(); a++) {
+				sb.append(' ').append(linesA.get(a)).append(eol);
+			}
+			for (int i = hunk.getStartA(); i < hunk.getEndA(); i++) {
+				sb.append('-').append(linesA.get(i)).append(eol);
+			}
+			for (int j = hunk.getStartB(); j < hunk.getEndB(); j++) {
+				sb.append('+').append(linesB.get(j)).append(eol);
+			}
+			a = hunk.getEndA();
+		}
+		for (; a < endA; a++) {
+			sb.append(' ').append(linesA.get(a)).append(eol);
+		}
+	}
+	
+	/**
+	 * Formats a range as 1-based "start,length". An empty range names the line before it.
+	 * 
+	 * @param start int zero based
+	 * @param length int
+	 * @return String
+	 */
+	private static String range(int start, int length) {
+		if (length == 0) {
+			return start + ",0";
+		}
+		if (length == 1) {
+			return String.valueOf(start + 1);
+		}
+		return (start + 1) + "," + length;
+	}
+
+	public List<String> getLinesA() {
+		return linesA;
+	}
+
+	public List<String> getLinesB() {
+		return linesB;
+	}
+
+	public List<DiffHunk> getHunks() {
+		return hunks;
+	}
+
+}
@@ -0,0 +1,116 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data model for a media part of a PPTX file, such as an image or video under ppt/media. 
+ * The contents are described by their size and digest, and are never held in memory.
+ * @author jhorvath 
+ */
+public final class MediaPart {
+	
+	/**
+	 * Part name, such as /ppt/media/image1.png
+	 */
+	private String partName;
+	
+	private String contentType;
+	
+	/**
+	 * Number of bytes in the part, after decompression.
+	 */
+	private long size;
+	
+	/**
+	 * Hex encoded digest of the part contents.
+	 */
+	private String digest;
+	
+	/**
+	 * Zero based indexes of the slides that reference the part, in slide order.
+	 */
+	private List<Integer> slideIndexes = new ArrayList<>();
+	
+	/**
+	 * Returns true if both parts have the same contents. 
+	 * @param other MediaPart
+	 * @return boolean
+	 */
+	public boolean hasSameContent(MediaPart other) {
+		return this.size == other.size && this.digest.equals(other.digest);
+	}
+	
+	/**
+	 * Returns the name and content type, in the same form as POI describes a package part.
+	 * @return String
+	 */
+	public String getInfo() {
+		return "Name: " + partName + " - Content Type: " + contentType;
+	}
+
+	public String getPartName() {
+		return partName;
+	}
+
+	public void setPartName(String partName) {
+		this.partName = partName;
+	}
+
+	public String getContentType() {
+		return contentType;
+	}
+
+	public void setContentType(String contentType) {
+		this.contentType = contentType;
+	}
+
+	public long getSize() {
+		return size;
+	}
+
+	public void setSize(long size) {
+		this.size = size;
+	}
+
+	public String getDigest() {
+		return digest;
+	}
+
+	public void setDigest(String digest) {
+		this.digest = digest;
+	}
+
+	public List<Integer> getSlideIndexes() {
+		return slideIndexes;
+	}
+
+	public void setSlideIndexes(List<Integer> slideIndexes) {
+		this.slideIndexes = slideIndexes;
+	}
+
+}
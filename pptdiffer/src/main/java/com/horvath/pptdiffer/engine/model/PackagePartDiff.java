@@ -0,0 +1,124 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine.model;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Result of comparing the parts stored in two PPTX packages, by name, size and CRC-32.
+ * @author jhorvath 
+ */
+public final class PackagePartDiff {
+	
+	/**
+	 * Parts only found in File A.
+	 */
+	private SortedSet<String> removedParts;
+	
+	/**
+	 * Parts only found in File B.
+	 */
+	private SortedSet<String> addedParts;
+	
+	/**
+	 * Parts found in both files, with different contents.
+	 */
+	private SortedSet<String> changedParts;
+	
+	private int unchangedPartCount;
+	
+	/**
+	 * Slide parts that, together with their layout and master parts, are byte identical in both files.
+	 */
+	private Set<String> unchangedSlides;
+	
+	/**
+	 * Constructor. 
+	 */
+	public PackagePartDiff() {
+		this.removedParts = new TreeSet<>();
+		this.addedParts = new TreeSet<>();
+		this.changedParts = new TreeSet<>();
+		this.unchangedSlides = new HashSet<>();
+	}
+	
+	/**
+	 * Returns true when both files contain the same parts with the same contents.
+	 * @return boolean
+	 */
+	public boolean isIdentical() {
+		return removedParts.isEmpty() && addedParts.isEmpty() && changedParts.isEmpty();
+	}
+	
+	/**
+	 * Returns the names of all parts that are not the same in both files. 
+	 * @return SortedSet<String>
+	 */
+	public SortedSet<String> getDifferentParts() {
+		SortedSet<String> parts = new TreeSet<>(removedParts);
+		parts.addAll(addedParts);
+		parts.addAll(changedParts);
+		return parts;
+	}
+	
+	/**
+	 * Returns true if the slide part, its layout and its master are byte identical in both files, 
+	 * in which case the slide does not need to be compared. 
+	 * 
+	 * @param slidePartName String, such as ppt/slides/slide1.xml
+	 * @return boolean 
+	 */
+	public boolean isSlideUnchanged(String slidePartName) {
+		return unchangedSlides.contains(slidePartName);
+	}
+
+	public SortedSet<String> getRemovedParts() {
+		return removedParts;
+	}
+
+	public SortedSet<String> getAddedParts() {
+		return addedParts;
+	}
+
+	public SortedSet<String> getChangedParts() {
+		return changedParts;
+	}
+
+	public int getUnchangedPartCount() {
+		return unchangedPartCount;
+	}
+
+	public void setUnchangedPartCount(int unchangedPartCount) {
+		this.unchangedPartCount = unchangedPartCount;
+	}
+
+	public Set<String> getUnchangedSlides() {
+		return unchangedSlides;
+	}
+
+}
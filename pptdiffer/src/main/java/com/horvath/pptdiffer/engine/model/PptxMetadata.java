@@ -0,0 +1,77 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Document properties of a PPTX file, read from the core, extended and custom property parts. 
+ * Values are typed: String, Long, Double, Boolean, java.time.Instant for dates, 
+ * or a List of values for vector properties. Properties are kept in document order.
+ * @author jhorvath 
+ */
+public final class PptxMetadata {
+	
+	/**
+	 * Core properties from docProps/core.xml, such as title, creator and modified, by local name.
+	 */
+	private Map<String, Object> coreProperties = new LinkedHashMap<>();
+	
+	/**
+	 * Extended properties from docProps/app.xml, such as Application and Slides.
+	 */
+	private Map<String, Object> extendedProperties = new LinkedHashMap<>();
+	
+	/**
+	 * Custom properties from docProps/custom.xml, by property name.
+	 */
+	private Map<String, Object> customProperties = new LinkedHashMap<>();
+
+	public Map<String, Object> getCoreProperties() {
+		return coreProperties;
+	}
+
+	public void setCoreProperties(Map<String, Object> coreProperties) {
+		this.coreProperties = coreProperties;
+	}
+
+	public Map<String, Object> getExtendedProperties() {
+		return extendedProperties;
+	}
+
+	public void setExtendedProperties(Map<String, Object> extendedProperties) {
+		this.extendedProperties = extendedProperties;
+	}
+
+	public Map<String, Object> getCustomProperties() {
+		return customProperties;
+	}
+
+	public void setCustomProperties(Map<String, Object> customProperties) {
+		this.customProperties = customProperties;
+	}
+
+}
@@ -0,0 +1,196 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine.model;
+
+/**
+ * Shape model for the top level shapes of a slide. 
+ * The anchor is the shape's own transform, in EMUs (12700 per point). A shape without 
+ * its own transform, such as a placeholder that takes its place from the layout, 
+ * has an empty anchor.
+ * @author jhorvath 
+ */
+public final class PptxShape {
+	
+	/**
+	 * Shape id, unique within the slide.
+	 */
+	private int id;
+	private String name;
+	private PptxShapeType type;
+	
+	private long x;
+	private long y;
+	private long width;
+	private long height;
+	
+	/**
+	 * Clockwise rotation in degrees.
+	 */
+	private double rotation;
+	
+	/**
+	 * Text of the shape, cleaned the same way as the slide text. 
+	 */
+	private String text = "";
+	
+	/**
+	 * Cell grid of a table shape, null for every other type of shape.
+	 */
+	private PptxTable table;
+	
+	/**
+	 * Placeholder type, such as title or body, null when the shape is not a placeholder. 
+	 * A placeholder without a type is an object placeholder.
+	 */
+	private String placeholderType;
+	
+	/**
+	 * Placeholder index, which pairs a placeholder on a slide with the one on its layout.
+	 */
+	private long placeholderIndex;
+	
+	/**
+	 * Returns true if the two shapes have the same position. 
+	 * @param other PptxShape
+	 * @return boolean
+	 */
+	public boolean hasSamePosition(PptxShape other) {
+		return this.x == other.x && this.y == other.y;
+	}
+	
+	/**
+	 * Returns true if the two shapes have the same size. 
+	 * @param other PptxShape
+	 * @return boolean
+	 */
+	public boolean hasSameSize(PptxShape other) {
+		return this.width == other.width && this.height == other.height;
+	}
+	
+	/**
+	 * Returns true if the shape is a placeholder. 
+	 * @return boolean
+	 */
+	public boolean isPlaceholder() {
+		return placeholderType != null;
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	public void setId(int id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public PptxShapeType getType() {
+		return type;
+	}
+
+	public void setType(PptxShapeType type) {
+		this.type = type;
+	}
+
+	public long getX() {
+		return x;
+	}
+
+	public void setX(long x) {
+		this.x = x;
+	}
+
+	public long getY() {
+		return y;
+	}
+
+	public void setY(long y) {
+		this.y = y;
+	}
+
+	public long getWidth() {
+		return width;
+	}
+
+	public void setWidth(long width) {
+		this.width = width;
+	}
+
+	public long getHeight() {
+		return height;
+	}
+
+	public void setHeight(long height) {
+		this.height = height;
+	}
+
+	public double getRotation() {
+		return rotation;
+	}
+
+	public void setRotation(double rotation) {
+		this.rotation = rotation;
+	}
+
+	public String getText() {
+		return text;
+	}
+
+	public void setText(String text) {
+		this.text = text;
+	}
+
+	public PptxTable getTable() {
+		return table;
+	}
+
+	public void setTable(PptxTable table) {
+		this.table = table;
+	}
+
+	public String getPlaceholderType() {
+		return placeholderType;
+	}
+
+	public void setPlaceholderType(String placeholderType) {
+		this.placeholderType = placeholderType;
+	}
+
+	public long getPlaceholderIndex() {
+		return placeholderIndex;
+	}
+
+	public void setPlaceholderIndex(long placeholderIndex) {
+		this.placeholderIndex = placeholderIndex;
+	}
+
+}
@@ -24,6 +24,7 @@
 
 package com.horvath.pptdiffer.engine.model;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -37,14 +38,34 @@ public final class PptxSlide {
 	 */
 	private String text;
 	
+	/**
+	 * Speaker notes of the slide, cleaned the same way as the text. Empty when the slide has no notes.
+	 */
+	private String notes = "";
+	
 	private String slideName;
 	private int slideNumber;
 	private String layout;
 	
+	/**
+	 * Name of the layout part, which tells apart layouts that have the same name.
+	 */
+	private String layoutPart;
+	
 	private int shapeCount;
 	private List<String> shapeNames;
 	
+	/**
+	 * Top level shapes, in document order.
+	 */
+	private List<PptxShape> shapes = new ArrayList<>();
+	
 	private int tableCount;
+	
+	/**
+	 * MinHash sketch of the text and shape names, for finding similar slides.
+	 */
+	private int[] sketch;
 
 	public String getText() {
 		return text;
@@ -54,6 +75,14 @@ public final class PptxSlide {
 		this.text = text;
 	}
 
+	public String getNotes() {
+		return notes;
+	}
+
+	public void setNotes(String notes) {
+		this.notes = notes;
+	}
+
 	public String getSlideName() {
 		return slideName;
 	}
@@ -102,4 +131,28 @@ public final class PptxSlide {
 		this.layout = layout;
 	}
 
+	public String getLayoutPart() {
+		return layoutPart;
+	}
+
+	public void setLayoutPart(String layoutPart) {
+		this.layoutPart = layoutPart;
+	}
+
+	public List<PptxShape> getShapes() {
+		return shapes;
+	}
+
+	public void setShapes(List<PptxShape> shapes) {
+		this.shapes = shapes;
+	}
+
+	public int[] getSketch() {
+		return sketch;
+	}
+
+	public void setSketch(int[] sketch) {
+		this.sketch = sketch;
+	}
+
 }
@@ -25,7 +25,9 @@
 package com.horvath.pptdiffer.engine.model;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data model for PPTX file. 
@@ -43,6 +45,11 @@ public final class PptxSlideShow {
 	
 	private int masterSlideCount;
 	
+	/**
+	 * Slide masters and layouts by part name, each master followed by its layouts.
+	 */
+	private Map<String, PptxTemplate> templates = new LinkedHashMap<>();
+	
 	/**
 	 * Constructor. 
 	 */
@@ -54,6 +61,14 @@ public final class PptxSlideShow {
 		return slideList;
 	}
 
+	/**
+	 * Replaces the slide list, such as with a list that parses slides when they are accessed.
+	 * @param slideList List<PptxSlide>
+	 */
+	public void setSlideList(List<PptxSlide> slideList) {
+		this.slideList = slideList;
+	}
+
 	public String getFileName() {
 		return fileName;
 	}
@@ -85,5 +100,13 @@ public final class PptxSlideShow {
 	public void setMasterSlideCount(int masterSlideCount) {
 		this.masterSlideCount = masterSlideCount;
 	}
+
+	public Map<String, PptxTemplate> getTemplates() {
+		return templates;
+	}
+
+	public void setTemplates(Map<String, PptxTemplate> templates) {
+		this.templates = templates;
+	}
 	
 }
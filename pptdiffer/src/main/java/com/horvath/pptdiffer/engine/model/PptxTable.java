@@ -0,0 +1,89 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Table model holding the grid of cell texts of a table shape. 
+ * Every row has the same number of cells, short rows are padded with empty cells.
+ * @author jhorvath 
+ */
+public final class PptxTable {
+	
+	/**
+	 * Cell texts, row by row, cleaned the same way as the slide text.
+	 */
+	private final List<List<String>> rows;
+	private final int columnCount;
+	
+	/**
+	 * Constructor. 
+	 * @param rows List<List<String>> cell texts, row by row
+	 */
+	public PptxTable(List<List<String>> rows) {
+		int columns = 0;
+		for (List<String> row : rows) {
+			columns = Math.max(columns, row.size());
+		}
+		
+		List<List<String>> grid = new ArrayList<>(rows.size());
+		for (List<String> row : rows) {
+			List<String> cells = new ArrayList<>(row);
+			while (cells.size() < columns) {
+				cells.add("");
+			}
+			grid.add(Collections.unmodifiableList(cells));
+		}
+		this.rows = Collections.unmodifiableList(grid);
+		this.columnCount = columns;
+	}
+	
+	/**
+	 * Returns the text of a cell. Zero based index values.
+	 * 
+	 * @param row int
+	 * @param column int
+	 * @return String
+	 */
+	public String getCell(int row, int column) {
+		return rows.get(row).get(column);
+	}
+	
+	public int getRowCount() {
+		return rows.size();
+	}
+
+	public int getColumnCount() {
+		return columnCount;
+	}
+
+	public List<List<String>> getRows() {
+		return rows;
+	}
+
+}
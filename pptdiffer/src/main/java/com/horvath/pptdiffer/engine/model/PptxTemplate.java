@@ -0,0 +1,119 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Template model for a slide layout or slide master: its shapes, placeholders included, 
+ * and its background. Slides only refer to a template by part name, so the content of 
+ * a layout or master is read once however many slides use it.
+ * @author jhorvath 
+ */
+public final class PptxTemplate {
+	
+	private String partName;
+	private String name;
+	
+	/**
+	 * Part name of the master a layout is based on, null for a master.
+	 */
+	private String masterPartName;
+	
+	/**
+	 * Background properties written out as one string, with related parts by name 
+	 * rather than by relationship id. Null when the template has no background of its own.
+	 */
+	private String background;
+	
+	/**
+	 * Top level shapes, in document order.
+	 */
+	private List<PptxShape> shapes = new ArrayList<>();
+	
+	/**
+	 * Returns true if the template is a slide master. 
+	 * @return boolean
+	 */
+	public boolean isMaster() {
+		return masterPartName == null;
+	}
+	
+	/**
+	 * Returns the placeholders of the template, in document order. 
+	 * @return List<PptxShape>
+	 */
+	public List<PptxShape> getPlaceholders() {
+		List<PptxShape> placeholders = new ArrayList<>();
+		for (PptxShape shape : shapes) {
+			if (shape.isPlaceholder()) {
+				placeholders.add(shape);
+			}
+		}
+		return placeholders;
+	}
+
+	public String getPartName() {
+		return partName;
+	}
+
+	public void setPartName(String partName) {
+		this.partName = partName;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public String getMasterPartName() {
+		return masterPartName;
+	}
+
+	public void setMasterPartName(String masterPartName) {
+		this.masterPartName = masterPartName;
+	}
+
+	public String getBackground() {
+		return background;
+	}
+
+	public void setBackground(String background) {
+		this.background = background;
+	}
+
+	public List<PptxShape> getShapes() {
+		return shapes;
+	}
+
+	public void setShapes(List<PptxShape> shapes) {
+		this.shapes = shapes;
+	}
+
+}
@@ -0,0 +1,91 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.exception;
+
+import com.horvath.pptdiffer.engine.model.PptxSlideShow;
+
+/**
+ * Thrown when a comparison does not finish before its deadline. Carries what had been 
+ * gathered so far: the slides parsed, the whole file text extracted and the report written. 
+ * Each is null when the comparison did not get that far.
+ * @author jhorvath
+ */
+public class PpdTimeoutException extends PpdException {
+
+	private static final long serialVersionUID = 1L;
+	
+	private transient PptxSlideShow partialFileA;
+	private transient PptxSlideShow partialFileB;
+	
+	private String partialTextA;
+	private String partialTextB;
+	
+	private String partialReport;
+	
+	public PpdTimeoutException(String string) {
+		super(string);
+	}
+
+	public PptxSlideShow getPartialFileA() {
+		return partialFileA;
+	}
+
+	public void setPartialFileA(PptxSlideShow partialFileA) {
+		this.partialFileA = partialFileA;
+	}
+
+	public PptxSlideShow getPartialFileB() {
+		return partialFileB;
+	}
+
+	public void setPartialFileB(PptxSlideShow partialFileB) {
+		this.partialFileB = partialFileB;
+	}
+
+	public String getPartialTextA() {
+		return partialTextA;
+	}
+
+	public void setPartialTextA(String partialTextA) {
+		this.partialTextA = partialTextA;
+	}
+
+	public String getPartialTextB() {
+		return partialTextB;
+	}
+
+	public void setPartialTextB(String partialTextB) {
+		this.partialTextB = partialTextB;
+	}
+
+	public String getPartialReport() {
+		return partialReport;
+	}
+
+	public void setPartialReport(String partialReport) {
+		this.partialReport = partialReport;
+	}
+
+}
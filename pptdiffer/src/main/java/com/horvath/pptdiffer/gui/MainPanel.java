@@ -35,6 +35,7 @@ import javax.swing.BorderFactory;
 import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.JTextField;
 
 import com.horvath.pptdiffer.application.PpdState;
@@ -62,6 +63,13 @@ public final class MainPanel extends JPanel {
 	private JButton helpBtn;
 	private JPanel helpPanel;
 	private JButton compareBtn;
+	private CompareAction compareAction;
+	
+	private JProgressBar progressBar;
+	private JButton cancelBtn;
+	
+	// true while a comparison runs in the background
+	private boolean comparing;
 	
 	/**
 	 * Constructor.
@@ -87,7 +95,7 @@ public final class MainPanel extends JPanel {
 	 */
 	private void initializePanel() {
 		final int midWidth = 600;
-		final int height = 190;
+		final int height = 220;
 		
 		this.setMinimumSize(new Dimension(midWidth, height));
 		this.setPreferredSize(new Dimension(midWidth, height));
@@ -117,8 +125,13 @@ public final class MainPanel extends JPanel {
 		helpPanel.setLayout(new BorderLayout());
 		helpPanel.add(helpBtn, BorderLayout.WEST);
 		
+		compareAction = new CompareAction();
 		compareBtn = new JButton();
-		compareBtn.addActionListener(new CompareAction());
+		compareBtn.addActionListener(compareAction);
+		
+		progressBar = new JProgressBar();
+		cancelBtn = new JButton();
+		cancelBtn.addActionListener(e -> compareAction.cancel());
 	}
 	
 	/**
@@ -132,18 +145,67 @@ public final class MainPanel extends JPanel {
 		fileA_TextField.setEditable(false);
 		setTextFieldValue(fileA_TextField, state.getFileA());
 		fileA_SelectBtn.setText(selectButtonText);
+		fileA_SelectBtn.setEnabled(!comparing);
 		
 		fileB_Label.setText("File B");
 		fileB_TextField.setEditable(false);
 		setTextFieldValue(fileB_TextField, state.getFileB());
 		fileB_SelectBtn.setText(selectButtonText);
+		fileB_SelectBtn.setEnabled(!comparing);
 		
 		helpBtn.setText("Help");
 		helpBtn.setToolTipText("Open help documentation.");
 		
 		compareBtn.setText("Compare");
 		compareBtn.setToolTipText("With two files selected, click to compare the files.");
-		compareBtn.setEnabled(state.isReadForDiff());
+		compareBtn.setEnabled(state.isReadForDiff() && !comparing);
+		
+		progressBar.setStringPainted(true);
+		cancelBtn.setText("Cancel");
+		cancelBtn.setToolTipText("Stop the running comparison.");
+		cancelBtn.setEnabled(comparing);
+	}
+	
+	/**
+	 * Locks the file and compare buttons and resets the progress bar, 
+	 * as a comparison starts in the background.
+	 */
+	public void compareStarted() {
+		comparing = true;
+		showProgress("Starting", 0, 0);
+		configureComponents();
+	}
+	
+	/**
+	 * Shows the progress of the running comparison. 
+	 * The bar is indeterminate for stages that are not counted in slides.
+	 * 
+	 * @param stage String
+	 * @param done int
+	 * @param total int
+	 */
+	public void showProgress(String stage, int done, int total) {
+		if (total > 0) {
+			progressBar.setIndeterminate(false);
+			progressBar.setMaximum(total);
+			progressBar.setValue(done);
+			progressBar.setString(stage + " " + done + " of " + total);
+			
+		} else {
+			progressBar.setIndeterminate(true);
+			progressBar.setString(stage);
+		}
+	}
+	
+	/**
+	 * Clears the progress bar and unlocks the buttons, once a comparison has finished or been cancelled.
+	 */
+	public void compareFinished() {
+		comparing = false;
+		progressBar.setIndeterminate(false);
+		progressBar.setValue(0);
+		progressBar.setString("");
+		configureComponents();
 	}
 	
 	/**
@@ -218,6 +280,22 @@ public final class MainPanel extends JPanel {
 		gbc.weightx = 0.5;
 		gbc.insets = new Insets(10, 20, 0, 0);
 		add(compareBtn, gbc);
+		
+		gbc.fill = GridBagConstraints.HORIZONTAL;
+		gbc.gridx = 0;
+		gbc.gridy = 5;
+		gbc.gridwidth = 2;
+		gbc.weightx = 1;
+		gbc.insets = new Insets(10, 0, 0, 0);
+		add(progressBar, gbc);
+		
+		gbc.fill = GridBagConstraints.HORIZONTAL;
+		gbc.gridx = 3;
+		gbc.gridy = 5;
+		gbc.gridwidth = 1;
+		gbc.weightx = 0.5;
+		gbc.insets = new Insets(10, 20, 0, 0);
+		add(cancelBtn, gbc);
 	}
 
 	/**
@@ -256,6 +334,14 @@ public final class MainPanel extends JPanel {
 		return compareBtn;
 	}
 
+	public JProgressBar getProgressBar() {
+		return progressBar;
+	}
+
+	public JButton getCancelBtn() {
+		return cancelBtn;
+	}
+
 	@Override
 	public String toString() {
 		return "MainPanel [fileA_Label=" + fileA_Label.getText() + ", fileA_TextField=" + fileA_TextField.getText()
@@ -34,72 +34,79 @@ import javax.swing.JButton;
 import javax.swing.JOptionPane;
 import javax.swing.JScrollPane;
 import javax.swing.JTextArea;
-import com.horvath.pptdiffer.Differ;
 import com.horvath.pptdiffer.application.Debugger;
 import com.horvath.pptdiffer.application.PpdState;
-import com.horvath.pptdiffer.exception.PpdException;
 import com.horvath.pptdiffer.gui.PpdWindow;
 
 /**
- * Calls the command to run the difference operations.
+ * Starts the difference operations in the background, and shows the report when they finish.
  * @author jhorvath
  */
 public class CompareAction extends PpdAction {
 
 	private static final long serialVersionUID = 1L;
 
+	// comparison running in the background, null before the first comparison
+	private CompareWorker worker;
+
 	@Override
 	public void actionPerformed(ActionEvent e) {
 		Debugger.printLog("Action for comparing files.", this.getClass().getName());
 
 		PpdState state = PpdState.getInstance();
 		
-		if (state.isReadForDiff()) {
-			PpdWindow window = PpdWindow.getWindow();
-			// lock the GUI with a 'wait' cursor
-			window.guiWait();
-			
-			try {
-				// run the comparison between the files
-				Differ diff = new Differ(state.getFileA(), state.getFileB());
-				state.setReport(diff.generateReport());
-
-				// prepare dialog contents
-				JTextArea textArea = new JTextArea(PpdState.getInstance().getReport());
-				Font labelFont = new Font("Roman", Font.PLAIN, 12);
-				textArea.setFont(labelFont);
-				textArea.setEditable(false);
-				textArea.setLineWrap(true);
-				textArea.setWrapStyleWord(true);
-				textArea.setMargin(new Insets(5,5,5,5));
-				JScrollPane scrollPane = new JScrollPane(textArea);
-				scrollPane.setPreferredSize(new Dimension(500, 200));
-				String[] buttons = {"Save Report", "Close"};
-
-				// display report dialog
-				int userResponse = JOptionPane.showOptionDialog(window, scrollPane, 
-						"Comparison Report", 0, JOptionPane.INFORMATION_MESSAGE, PpdWindow.getAppIcon(), buttons, null); 
-
-				
-				// if user wants to save the report
-				if (userResponse == 0) {
-					JButton btn = new JButton();
-					btn.setAction(new SaveReportAction());
-					btn.doClick();
-				}
-				
-			} catch (PpdException ex) {
-				// there was a problem performing the comparison 
-				Debugger.printLog(ex.getMessage(), this.getClass().getName(), Level.SEVERE);
-				PpdWindow.getWindow().simpleMessagePopup("Application Error", ex.getMessage());
-			}
+		if (worker != null && !worker.isDone()) {
+			Debugger.printLog("Action called while a comparison is running.", this.getClass().getName(), Level.WARNING);
 			
-			// unlock the GUI and restore the cursor 
-			window.guiResume();
+		} else if (state.isReadForDiff()) {
+			// run the comparison off the event thread, so the window stays responsive
+			PpdWindow.getWindow().getMainPanel().compareStarted();
+			worker = new CompareWorker(state.getFileA(), state.getFileB());
+			worker.execute();
 			
 		} else {
 			Debugger.printLog("Action called when state not ready for diff.", this.getClass().getName(), Level.WARNING);
 		}
 	}
+	
+	/**
+	 * Cancels the running comparison, which stops at its next slide or stage. 
+	 */
+	public void cancel() {
+		if (worker != null && !worker.isDone()) {
+			Debugger.printLog("Cancelling the comparison.", this.getClass().getName());
+			worker.cancelComparison();
+		}
+	}
+	
+	/**
+	 * Displays the report held in the application state, and offers to save it. 
+	 */
+	static void showReport() {
+		PpdWindow window = PpdWindow.getWindow();
+		
+		// prepare dialog contents
+		JTextArea textArea = new JTextArea(PpdState.getInstance().getReport());
+		Font labelFont = new Font("Roman", Font.PLAIN, 12);
+		textArea.setFont(labelFont);
+		textArea.setEditable(false);
+		textArea.setLineWrap(true);
+		textArea.setWrapStyleWord(true);
+		textArea.setMargin(new Insets(5,5,5,5));
+		JScrollPane scrollPane = new JScrollPane(textArea);
+		scrollPane.setPreferredSize(new Dimension(500, 200));
+		String[] buttons = {"Save Report", "Close"};
+
+		// display report dialog
+		int userResponse = JOptionPane.showOptionDialog(window, scrollPane, 
+				"Comparison Report", 0, JOptionPane.INFORMATION_MESSAGE, PpdWindow.getAppIcon(), buttons, null); 
+
+		// if user wants to save the report
+		if (userResponse == 0) {
+			JButton btn = new JButton();
+			btn.setAction(new SaveReportAction());
+			btn.doClick();
+		}
+	}
 
 }
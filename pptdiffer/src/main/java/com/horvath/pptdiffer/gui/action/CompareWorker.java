@@ -0,0 +1,150 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.gui.action;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.logging.Level;
+
+import javax.swing.SwingWorker;
+
+import com.horvath.pptdiffer.Differ;
+import com.horvath.pptdiffer.DifferOptions;
+import com.horvath.pptdiffer.application.Debugger;
+import com.horvath.pptdiffer.application.PpdState;
+import com.horvath.pptdiffer.gui.PpdWindow;
+import com.horvath.pptdiffer.utility.CancellationToken;
+import com.horvath.pptdiffer.utility.PpdEvent;
+import com.horvath.pptdiffer.utility.PpdListener;
+
+/**
+ * Compares two files and generates the report off the event thread, 
+ * passing progress to the main panel as the comparison moves forward.
+ * @author jhorvath
+ */
+public class CompareWorker extends SwingWorker<String, CompareWorker.Step> implements PpdListener {
+	
+	private final File fileA;
+	private final File fileB;
+	
+	// stops the comparison at its next slide or stage
+	private final CancellationToken cancellationToken = new CancellationToken();
+	
+	/**
+	 * A progress update, handed from the worker thread to the event thread.
+	 */
+	static final class Step {
+		private final String stage;
+		private final int done;
+		private final int total;
+		
+		Step(String stage, int done, int total) {
+			this.stage = stage;
+			this.done = done;
+			this.total = total;
+		}
+	}
+	
+	/**
+	 * Constructor. 
+	 * @param fileA File
+	 * @param fileB File
+	 */
+	public CompareWorker(File fileA, File fileB) {
+		this.fileA = fileA;
+		this.fileB = fileB;
+	}
+
+	@Override
+	protected String doInBackground() throws Exception {
+		Debugger.printLog("Comparing files in the background.", this.getClass().getName());
+		
+		DifferOptions options = new DifferOptions();
+		options.addListener(this);
+		options.setCancellationToken(cancellationToken);
+		
+		Differ diff = new Differ(fileA, fileB, options);
+		return diff.generateReport();
+	}
+	
+	/**
+	 * Cancels the comparison, which stops at its next slide or stage. 
+	 * The worker is cancelled right away, so the panel is unlocked without waiting.
+	 */
+	public void cancelComparison() {
+		cancellationToken.cancel();
+		cancel(false);
+	}
+	
+	@Override
+	public void eventOccurred(PpdEvent event) {
+		// the bar counts slides, the other events come too often or are too brief to show
+		switch (event.getType()) {
+		case STAGE_STARTED:
+			publish(new Step(event.getStage(), 0, 0));
+			break;
+		case SLIDE_PARSED:
+		case SLIDE_COMPARED:
+			publish(new Step(event.getStage(), (int) event.getDone(), (int) event.getTotal()));
+			break;
+		default:
+			break;
+		}
+	}
+	
+	@Override
+	protected void process(List<Step> steps) {
+		// only the latest step is worth showing
+		Step step = steps.get(steps.size() - 1);
+		PpdWindow.getWindow().getMainPanel().showProgress(step.stage, step.done, step.total);
+	}
+	
+	@Override
+	protected void done() {
+		PpdWindow window = PpdWindow.getWindow();
+		window.getMainPanel().compareFinished();
+		
+		if (isCancelled()) {
+			Debugger.printLog("Comparison cancelled by the user.", this.getClass().getName());
+			return;
+		}
+		
+		try {
+			PpdState.getInstance().setReport(get());
+			CompareAction.showReport();
+			
+		} catch (ExecutionException ex) {
+			// there was a problem performing the comparison 
+			final Throwable cause = ex.getCause() == null ? ex : ex.getCause();
+			Debugger.printLog(cause.getMessage(), this.getClass().getName(), Level.SEVERE);
+			window.simpleMessagePopup("Application Error", String.valueOf(cause.getMessage()));
+			
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
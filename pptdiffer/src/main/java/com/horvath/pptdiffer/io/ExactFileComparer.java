@@ -0,0 +1,249 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+import com.horvath.pptdiffer.exception.PpdException;
+import com.horvath.pptdiffer.utility.CancellationToken;
+import com.horvath.pptdiffer.utility.ListenerList;
+import com.horvath.pptdiffer.utility.PpdEvent;
+import com.horvath.pptdiffer.utility.PpdEventType;
+
+/**
+ * Determines if two files have exactly the same contents. 
+ * Files of different sizes are rejected without reading any data, otherwise the 
+ * files are read in large blocks and the offset of the first differing byte is recorded.
+ * @author jhorvath
+ */
+public class ExactFileComparer {
+	
+	/**
+	 * Number of bytes read from each file at a time.
+	 */
+	public static final int BUFFER_SIZE = 1024 * 1024;
+	
+	/**
+	 * Offset value used when no differing byte has been found.
+	 */
+	public static final long NO_MISMATCH = -1;
+	
+	public static final String ERROR_FILE_SHRANK = "File became shorter while it was being compared:";
+	
+	private File fileA;
+	private File fileB;
+	
+	private long sizeA;
+	private long sizeB;
+	
+	private boolean sameFile;
+	private long mismatchOffset = NO_MISMATCH;
+	
+	// checked between blocks, null when the comparison is not cancellable
+	private CancellationToken cancellationToken;
+	
+	// told of the bytes read after each block, null when nobody listens
+	private ListenerList listeners;
+	
+	/**
+	 * Constructor. 
+	 * @param fileA File
+	 * @param fileB File
+	 */
+	public ExactFileComparer(File fileA, File fileB) {
+		this.fileA = fileA;
+		this.fileB = fileB;
+	}
+	
+	/**
+	 * Performs the comparison of the two files. 
+	 * @throws PpdException
+	 */
+	public void compare() throws PpdException {
+		this.sameFile = false;
+		this.mismatchOffset = NO_MISMATCH;
+		
+		try {
+			this.sizeA = Files.size(this.fileA.toPath());
+			this.sizeB = Files.size(this.fileB.toPath());
+			
+			if (this.sizeA != this.sizeB) {
+				// no need to read anything, the files cannot be the same
+				return;
+			}
+			
+			if (Files.isSameFile(this.fileA.toPath(), this.fileB.toPath())) {
+				// both paths point to the very same file on disk
+				this.sameFile = true;
+				return;
+			}
+			
+			this.mismatchOffset = findMismatch();
+			this.sameFile = this.mismatchOffset == NO_MISMATCH;
+			
+		} catch (IOException ex) {
+			throw new PpdException(ex.getMessage(), ex);
+		}
+	}
+	
+	/**
+	 * Compares two files and returns the offset of the first byte that differs. 
+	 * 
+	 * @param fileA File
+	 * @param fileB File
+	 * @return long, NO_MISMATCH when the files are the same or have different sizes
+	 * @throws PpdException
+	 */
+	public static long findMismatchOffset(File fileA, File fileB) throws PpdException {
+		ExactFileComparer comparer = new ExactFileComparer(fileA, fileB);
+		comparer.compare();
+		return comparer.getMismatchOffset();
+	}
+	
+	/**
+	 * Reads both files block by block and returns the offset of the first 
+	 * differing byte, or NO_MISMATCH if the contents are the same. 
+	 * 
+	 * @return long
+	 * @throws IOException when the files cannot be read, or both became shorter while reading
+	 * @throws PpdException when cancelled, or past the deadline
+	 */
+	private long findMismatch() throws IOException, PpdException {
+		try (FileChannel channelA = FileChannel.open(this.fileA.toPath(), StandardOpenOption.READ);
+			 FileChannel channelB = FileChannel.open(this.fileB.toPath(), StandardOpenOption.READ)) {
+			
+			final int size = (int) Math.min(BUFFER_SIZE, Math.max(this.sizeA, 1));
+			ByteBuffer bufferA = ByteBuffer.allocateDirect(size);
+			ByteBuffer bufferB = ByteBuffer.allocateDirect(size);
+			
+			long position = 0;
+			while (position < this.sizeA) {
+				if (this.cancellationToken != null) {
+					this.cancellationToken.check();
+				}
+				fill(channelA, bufferA);
+				fill(channelB, bufferB);
+				
+				// equals() compares the remaining bytes of each buffer in bulk
+				if (!bufferA.equals(bufferB)) {
+					return position + firstDifference(bufferA, bufferB);
+				}
+				
+				if (bufferA.limit() == 0) {
+					// both files were truncated while reading, so what is left of them cannot be compared
+					throw new IOException(ERROR_FILE_SHRANK + " " + this.fileA.getName() + " " + this.fileB.getName());
+				}
+				position += bufferA.limit();
+				if (this.listeners != null) {
+					// both files are read, so twice the position out of twice the size
+					this.listeners.fire(new PpdEvent(PpdEventType.BYTES_READ, PpdEvent.STAGE_LOAD, 
+							2 * position, 2 * this.sizeA, this.fileA.getName()));
+				}
+			}
+		}
+		return NO_MISMATCH;
+	}
+	
+	/**
+	 * Reads from the channel until the buffer is full or the end of the file is reached,
+	 * and readies the buffer for reading.
+	 * 
+	 * @param channel FileChannel
+	 * @param buffer ByteBuffer
+	 * @throws IOException
+	 */
+	private static void fill(FileChannel channel, ByteBuffer buffer) throws IOException {
+		buffer.clear();
+		while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+			// keep reading
+		}
+		buffer.flip();
+	}
+	
+	/**
+	 * Returns the index of the first byte that is different in the two buffers.
+	 * 
+	 * @param bufferA ByteBuffer
+	 * @param bufferB ByteBuffer
+	 * @return int 
+	 */
+	private static int firstDifference(ByteBuffer bufferA, ByteBuffer bufferB) {
+		final int length = Math.min(bufferA.limit(), bufferB.limit());
+		for (int i = 0; i < length; i++) {
+			if (bufferA.get(i) != bufferB.get(i)) {
+				return i;
+			}
+		}
+		return length;
+	}
+	
+	/**
+	 * Sets a token that stops the comparison between blocks, once the token is cancelled 
+	 * or its deadline has passed. 
+	 * 
+	 * @param cancellationToken CancellationToken, may be null
+	 */
+	public void setCancellationToken(CancellationToken cancellationToken) {
+		this.cancellationToken = cancellationToken;
+	}
+
+	/**
+	 * Sets the listeners told of the bytes read from both files after each block. 
+	 * 
+	 * @param listeners ListenerList, may be null
+	 */
+	public void setListeners(ListenerList listeners) {
+		this.listeners = listeners;
+	}
+
+	public boolean isSameFile() {
+		return sameFile;
+	}
+
+	/**
+	 * Returns the offset of the first byte that differs in the two files. 
+	 * NO_MISMATCH when the files are the same, or when the sizes are different, 
+	 * as the contents are not read in that case. 
+	 * 
+	 * @return long 
+	 */
+	public long getMismatchOffset() {
+		return mismatchOffset;
+	}
+
+	public long getSizeA() {
+		return sizeA;
+	}
+
+	public long getSizeB() {
+		return sizeB;
+	}
+
+}
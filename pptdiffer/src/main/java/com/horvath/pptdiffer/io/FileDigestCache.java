@@ -0,0 +1,290 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Properties;
+
+import com.horvath.pptdiffer.exception.PpdException;
+import com.horvath.pptdiffer.utility.CancellationToken;
+import com.horvath.pptdiffer.utility.ListenerList;
+import com.horvath.pptdiffer.utility.PpdEvent;
+import com.horvath.pptdiffer.utility.PpdEventType;
+
+/**
+ * Small on-disk cache of file content digests. 
+ * Entries are keyed by the canonical path of a file, and are only used while the 
+ * size and last modified time of the file still match the values recorded with the digest.
+ * @author jhorvath
+ */
+public class FileDigestCache {
+	
+	public static final String ALGORITHM = "SHA-256";
+	
+	/**
+	 * Number of bytes read from a file at a time while computing a digest. 
+	 */
+	public static final int BUFFER_SIZE = 64 * 1024;
+	
+	private static final String SEPARATOR = ":";
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+	
+	private File cacheFile;
+	private Properties entries;
+	private boolean modified;
+	
+	// checked between blocks while a file is read, null when reading is not cancellable
+	private CancellationToken cancellationToken;
+	
+	// told of the bytes read after each block, null when nobody listens
+	private ListenerList listeners;
+	
+	/**
+	 * Constructor. 
+	 * @param cacheFile File where the digests are stored
+	 */
+	public FileDigestCache(File cacheFile) {
+		this.cacheFile = cacheFile;
+	}
+	
+	/**
+	 * Returns the cached digest for the file, or null if there is no entry for 
+	 * the file, or if the file has changed since the digest was recorded. 
+	 * 
+	 * @param file File
+	 * @return String 
+	 * @throws PpdException
+	 */
+	public synchronized String lookup(File file) throws PpdException {
+		load();
+		
+		final String value = entries.getProperty(key(file));
+		if (value == null) {
+			return null;
+		}
+		
+		String[] parts = value.split(SEPARATOR);
+		if (parts.length != 3 
+				|| !parts[0].equals(Long.toString(file.length())) 
+				|| !parts[1].equals(Long.toString(file.lastModified()))) {
+			// stale entry
+			return null;
+		}
+		return parts[2];
+	}
+	
+	/**
+	 * Returns the digest of the file, from the cache when a valid entry exists, 
+	 * otherwise the file is read to compute the digest and the cache is updated. 
+	 * While the file is read, the token is checked and the listeners are told of the bytes read after each block. 
+	 * 
+	 * @param file File 
+	 * @return String
+	 * @throws PpdException when the file cannot be read, or reading it is cancelled or past the deadline
+	 */
+	public String getDigest(File file) throws PpdException {
+		String digest = lookup(file);
+		
+		if (digest == null) {
+			// read the values before reading the contents, so a change while reading makes the entry stale
+			final long size = file.length();
+			final long lastModified = file.lastModified();
+			
+			digest = computeDigest(file, this.cancellationToken, this.listeners);
+			
+			synchronized (this) {
+				entries.setProperty(key(file), size + SEPARATOR + lastModified + SEPARATOR + digest);
+				modified = true;
+			}
+		}
+		return digest;
+	}
+	
+	/**
+	 * Writes the cache to disk, if any entries have been added since it was loaded. 
+	 * 
+	 * @throws PpdException
+	 */
+	public synchronized void save() throws PpdException {
+		if (!modified) {
+			return;
+		}
+		
+		try {
+			Path target = cacheFile.getAbsoluteFile().toPath();
+			if (target.getParent() != null) {
+				Files.createDirectories(target.getParent());
+			}
+			
+			// write to a temporary file first, so readers never see a partial cache
+			Path temp = Files.createTempFile(target.getParent(), cacheFile.getName(), ".tmp");
+			try (OutputStream out = Files.newOutputStream(temp)) {
+				entries.store(out, "PowerPoint Differ file digests");
+			}
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+			modified = false;
+			
+		} catch (IOException ex) {
+			throw new PpdException("Unable to write digest cache file.", ex);
+		}
+	}
+	
+	/**
+	 * Reads the entries from disk on first use. 
+	 * 
+	 * @throws PpdException
+	 */
+	private void load() throws PpdException {
+		if (entries != null) {
+			return;
+		}
+		
+		entries = new Properties();
+		if (cacheFile.exists()) {
+			try (InputStream in = Files.newInputStream(cacheFile.toPath())) {
+				entries.load(in);
+				
+			} catch (IOException ex) {
+				throw new PpdException("Unable to read digest cache file.", ex);
+			}
+		}
+	}
+	
+	/**
+	 * Computes the digest of the contents of a file, reading the file in fixed size blocks. 
+	 * 
+	 * @param file File
+	 * @return String hex encoded digest
+	 * @throws PpdException
+	 */
+	public static String computeDigest(File file) throws PpdException {
+		return computeDigest(file, null, null);
+	}
+	
+	/**
+	 * Computes the digest of the contents of a file, reading the file in fixed size blocks. 
+	 * The token is checked before each block, and the listeners are told of the bytes read after it. 
+	 * 
+	 * @param file File
+	 * @param cancellationToken CancellationToken, may be null
+	 * @param listeners ListenerList, may be null
+	 * @return String hex encoded digest
+	 * @throws PpdException when the file cannot be read, or reading it is cancelled or past the deadline
+	 */
+	private static String computeDigest(File file, CancellationToken cancellationToken, ListenerList listeners) 
+			throws PpdException {
+		try (InputStream in = Files.newInputStream(file.toPath())) {
+			MessageDigest md = MessageDigest.getInstance(ALGORITHM);
+			final long size = file.length();
+			
+			byte[] buffer = new byte[BUFFER_SIZE];
+			long position = 0;
+			int read;
+			while (true) {
+				if (cancellationToken != null) {
+					cancellationToken.check();
+				}
+				if ((read = in.read(buffer)) == -1) {
+					break;
+				}
+				md.update(buffer, 0, read);
+				
+				position += read;
+				if (listeners != null) {
+					listeners.fire(new PpdEvent(PpdEventType.BYTES_READ, PpdEvent.STAGE_LOAD, 
+							position, Math.max(size, position), file.getName()));
+				}
+			}
+			return toHex(md.digest());
+			
+		} catch (IOException | NoSuchAlgorithmException ex) {
+			throw new PpdException(ex.getMessage(), ex);
+		}
+	}
+	
+	/**
+	 * Hex encodes the given bytes. 
+	 * 
+	 * @param bytes byte[]
+	 * @return String
+	 */
+	public static String toHex(byte[] bytes) {
+		char[] chars = new char[bytes.length * 2];
+		for (int i = 0; i < bytes.length; i++) {
+			chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+			chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+		}
+		return new String(chars);
+	}
+	
+	/**
+	 * Returns the cache key for a file. 
+	 * 
+	 * @param file File
+	 * @return String
+	 * @throws PpdException
+	 */
+	private static String key(File file) throws PpdException {
+		try {
+			return file.getCanonicalPath();
+			
+		} catch (IOException ex) {
+			throw new PpdException(ex.getMessage(), ex);
+		}
+	}
+
+	/**
+	 * Sets a token that stops reading a file between blocks, once the token is cancelled 
+	 * or its deadline has passed. 
+	 * 
+	 * @param cancellationToken CancellationToken, may be null
+	 */
+	public void setCancellationToken(CancellationToken cancellationToken) {
+		this.cancellationToken = cancellationToken;
+	}
+
+	/**
+	 * Sets the listeners told of the bytes read from a file after each block. 
+	 * Digests answered from the cache read nothing, so the listeners are not told of them.
+	 * 
+	 * @param listeners ListenerList, may be null
+	 */
+	public void setListeners(ListenerList listeners) {
+		this.listeners = listeners;
+	}
+
+	public File getCacheFile() {
+		return cacheFile;
+	}
+	
+}
@@ -0,0 +1,102 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.utility;
+
+import java.util.concurrent.TimeUnit;
+
+import com.horvath.pptdiffer.exception.PpdException;
+import com.horvath.pptdiffer.exception.PpdTimeoutException;
+
+/**
+ * Tells long running work that it should stop, either because it was cancelled or because 
+ * its deadline has passed. Work checks the token between slides and between parts, 
+ * including the parts POI reads while it loads a file, so it stops at the next check rather than at once. Safe to share between threads.
+ * @author jhorvath
+ */
+public final class CancellationToken {
+	
+	public static final String ERROR_CANCELLED = "The comparison was cancelled.";
+	public static final String ERROR_DEADLINE = "The comparison did not finish before its deadline.";
+	
+	private volatile boolean cancelled;
+	
+	// System.nanoTime() of the deadline, only used when there is one
+	private final long deadline;
+	private final boolean hasDeadline;
+	
+	/**
+	 * Constructor for a token without a deadline.
+	 */
+	public CancellationToken() {
+		this.deadline = 0;
+		this.hasDeadline = false;
+	}
+	
+	/**
+	 * Constructor for a token whose deadline is the given time from now. 
+	 * @param timeout long
+	 * @param unit TimeUnit
+	 */
+	public CancellationToken(long timeout, TimeUnit unit) {
+		this.deadline = System.nanoTime() + unit.toNanos(timeout);
+		this.hasDeadline = true;
+	}
+	
+	/**
+	 * Cancels the work checking this token. 
+	 */
+	public void cancel() {
+		this.cancelled = true;
+	}
+	
+	public boolean isCancelled() {
+		return cancelled;
+	}
+	
+	/**
+	 * Returns true once the deadline has passed. Always false without a deadline.
+	 * 
+	 * @return boolean
+	 */
+	public boolean isExpired() {
+		return hasDeadline && System.nanoTime() - deadline >= 0;
+	}
+	
+	/**
+	 * Stops the work when the token was cancelled, or when its deadline has passed. 
+	 * 
+	 * @throws PpdException when cancelled
+	 * @throws PpdTimeoutException when the deadline has passed
+	 */
+	public void check() throws PpdException {
+		if (cancelled) {
+			throw new PpdException(ERROR_CANCELLED);
+		}
+		if (isExpired()) {
+			throw new PpdTimeoutException(ERROR_DEADLINE);
+		}
+	}
+
+}
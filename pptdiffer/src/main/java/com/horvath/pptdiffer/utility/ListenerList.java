@@ -0,0 +1,101 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.utility;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+
+import com.horvath.pptdiffer.application.Debugger;
+
+/**
+ * The listeners of a comparison, shared by the commands that tell them events. 
+ * Listeners can be added and removed while events are being told. A listener that 
+ * throws is logged and does not stop the comparison or the other listeners.
+ * @author jhorvath
+ */
+public final class ListenerList {
+	
+	private final List<PpdListener> listeners = new CopyOnWriteArrayList<>();
+	
+	/**
+	 * Constructor for an empty list.
+	 */
+	public ListenerList() {
+		// no listeners yet
+	}
+	
+	/**
+	 * Constructor for a list holding the listeners of another list, 
+	 * which later changes to either list do not affect.
+	 * 
+	 * @param other ListenerList
+	 */
+	public ListenerList(ListenerList other) {
+		this.listeners.addAll(other.listeners);
+	}
+	
+	/**
+	 * Adds a listener, which is told every event from now on. 
+	 * 
+	 * @param listener PpdListener
+	 */
+	public void add(PpdListener listener) {
+		if (listener != null) {
+			listeners.add(listener);
+		}
+	}
+	
+	/**
+	 * Removes a listener. 
+	 * 
+	 * @param listener PpdListener
+	 */
+	public void remove(PpdListener listener) {
+		listeners.remove(listener);
+	}
+	
+	public boolean isEmpty() {
+		return listeners.isEmpty();
+	}
+	
+	/**
+	 * Tells the event to every listener, in the order they were added. 
+	 * 
+	 * @param event PpdEvent
+	 */
+	public void fire(PpdEvent event) {
+		for (PpdListener listener : listeners) {
+			try {
+				listener.eventOccurred(event);
+				
+			} catch (RuntimeException ex) {
+				Debugger.printLog("Listener failed on " + event + ": " + ex.getMessage(), 
+						this.getClass().getName(), Level.WARNING);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,131 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.utility;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+import com.horvath.pptdiffer.exception.PpdException;
+
+/**
+ * Runs the File A and File B halves of an operation, either one after the other,
+ * or at the same time when an executor is provided. The calling thread runs File A 
+ * itself when no executor thread has picked it up yet, so the pair finishes even when 
+ * every executor thread is busy with the caller's own parent task.
+ * @author jhorvath
+ */
+public final class ParallelPair {
+	
+	/**
+	 * One half of an operation.
+	 */
+	public interface Task {
+		void run() throws PpdException;
+	}
+	
+	private ParallelPair() { }
+	
+	/**
+	 * Runs both tasks. Without an executor the tasks are run in order on the calling thread. 
+	 * With an executor, task A is handed to the executor while task B runs on the 
+	 * calling thread, and the method returns once both have finished. When task B is done 
+	 * before the executor has started task A, task A is run on the calling thread instead. 
+	 * If either task fails, the failure is thrown after both tasks have finished, 
+	 * with task A's failure taking precedence. 
+	 * 
+	 * @param executor Executor, may be null
+	 * @param taskA Task
+	 * @param taskB Task
+	 * @throws PpdException
+	 */
+	public static void run(Executor executor, Task taskA, Task taskB) throws PpdException {
+		if (executor == null) {
+			taskA.run();
+			taskB.run();
+			return;
+		}
+		
+		FutureTask<Void> futureA = new FutureTask<>(() -> {
+			taskA.run();
+			return null;
+		});
+		executor.execute(futureA);
+		
+		Throwable failureB = null;
+		try {
+			taskB.run();
+			
+		} catch (PpdException | RuntimeException | Error ex) {
+			failureB = ex;
+		}
+		
+		// does nothing when an executor thread has already started task A
+		futureA.run();
+		
+		Throwable failureA = null;
+		try {
+			futureA.get();
+			
+		} catch (ExecutionException ex) {
+			failureA = ex.getCause();
+			
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			futureA.cancel(true);
+			failureA = new PpdException("Interrupted while waiting for File A.", ex);
+		}
+		
+		if (failureA != null) {
+			if (failureB != null) {
+				failureA.addSuppressed(failureB);
+			}
+			rethrow(failureA);
+		}
+		if (failureB != null) {
+			rethrow(failureB);
+		}
+	}
+	
+	/**
+	 * Throws the given failure as the type it was raised as. 
+	 * 
+	 * @param failure Throwable
+	 * @throws PpdException
+	 */
+	private static void rethrow(Throwable failure) throws PpdException {
+		if (failure instanceof PpdException) {
+			throw (PpdException) failure;
+		}
+		if (failure instanceof RuntimeException) {
+			throw (RuntimeException) failure;
+		}
+		if (failure instanceof Error) {
+			throw (Error) failure;
+		}
+		throw new PpdException(failure.getMessage(), new Exception(failure));
+	}
+
+}
@@ -0,0 +1,120 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.utility;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.horvath.pptdiffer.exception.PpdException;
+
+/**
+ * Runs a task for every index in a range, sharing the work between the calling thread and 
+ * an executor. Workers claim the next index from a shared counter, and the calling thread 
+ * claims indexes too, so the work finishes even when every executor thread is busy with 
+ * the caller's own parent task.
+ * @author jhorvath
+ */
+public final class ParallelTasks {
+	
+	/**
+	 * The work for one index.
+	 */
+	public interface IndexTask {
+		void run(int index) throws PpdException;
+	}
+	
+	private ParallelTasks() { }
+	
+	/**
+	 * Runs the task for each index from 0 to count - 1. Without an executor, or with a 
+	 * single worker, the indexes are run in order on the calling thread. Otherwise up to 
+	 * workers - 1 helpers are handed to the executor, and the method returns once every 
+	 * index has finished. The first failure is thrown after all started indexes have finished, 
+	 * and indexes that were not started yet are skipped. 
+	 * 
+	 * @param executor Executor, may be null
+	 * @param workers int number of threads to use, including the calling thread
+	 * @param count int
+	 * @param task IndexTask
+	 * @throws PpdException
+	 */
+	public static void forEach(Executor executor, int workers, int count, IndexTask task) throws PpdException {
+		if (executor == null || workers <= 1 || count <= 1) {
+			for (int i = 0; i < count; i++) {
+				task.run(i);
+			}
+			return;
+		}
+		
+		final AtomicInteger next = new AtomicInteger();
+		final CountDownLatch finished = new CountDownLatch(count);
+		final AtomicReference<Throwable> failure = new AtomicReference<>();
+		
+		final Runnable worker = () -> {
+			int index;
+			while ((index = next.getAndIncrement()) < count) {
+				try {
+					if (failure.get() == null) {
+						task.run(index);
+					}
+				} catch (PpdException | RuntimeException | Error ex) {
+					failure.compareAndSet(null, ex);
+					
+				} finally {
+					finished.countDown();
+				}
+			}
+		};
+		
+		final int helpers = Math.min(workers, count) - 1;
+		for (int i = 0; i < helpers; i++) {
+			executor.execute(worker);
+		}
+		worker.run();
+		
+		try {
+			// only indexes already claimed by a running helper can be left
+			finished.await();
+			
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new PpdException("Interrupted while waiting for parallel tasks.", ex);
+		}
+		
+		final Throwable thrown = failure.get();
+		if (thrown instanceof PpdException) {
+			throw (PpdException) thrown;
+		}
+		if (thrown instanceof RuntimeException) {
+			throw (RuntimeException) thrown;
+		}
+		if (thrown instanceof Error) {
+			throw (Error) thrown;
+		}
+	}
+
+}
@@ -0,0 +1,99 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.utility;
+
+/**
+ * Something that happened during a comparison, told to every PpdListener. 
+ * Events are immutable, so they can be handed between threads as they are.
+ * @author jhorvath
+ */
+public final class PpdEvent {
+	
+	public static final String STAGE_PACKAGES = "Checking packages";
+	public static final String STAGE_LOAD = "Loading files";
+	public static final String STAGE_PARSE = "Parsing slides";
+	public static final String STAGE_TEXT = "Extracting text";
+	public static final String STAGE_MEDIA = "Hashing media";
+	public static final String STAGE_TEMPLATES = "Reading layouts";
+	public static final String STAGE_ALIGN = "Aligning slides";
+	public static final String STAGE_REPORT = "Comparing slides";
+	
+	private final PpdEventType type;
+	private final String stage;
+	private final long done;
+	private final long total;
+	private final String detail;
+	
+	/**
+	 * Constructor for the start or finish of a stage. 
+	 * @param type PpdEventType
+	 * @param stage String
+	 */
+	public PpdEvent(PpdEventType type, String stage) {
+		this(type, stage, 0, 0, null);
+	}
+	
+	/**
+	 * Constructor. 
+	 * @param type PpdEventType
+	 * @param stage String, one of the stage names
+	 * @param done long, slides, checks or bytes done in the stage so far
+	 * @param total long, slides, checks or bytes in the stage, 0 when not known
+	 * @param detail String, what the event is about, may be null
+	 */
+	public PpdEvent(PpdEventType type, String stage, long done, long total, String detail) {
+		this.type = type;
+		this.stage = stage;
+		this.done = done;
+		this.total = total;
+		this.detail = detail;
+	}
+
+	public PpdEventType getType() {
+		return type;
+	}
+
+	public String getStage() {
+		return stage;
+	}
+
+	public long getDone() {
+		return done;
+	}
+
+	public long getTotal() {
+		return total;
+	}
+
+	public String getDetail() {
+		return detail;
+	}
+	
+	@Override
+	public String toString() {
+		return type + " " + stage + " " + done + "/" + total + (detail == null ? "" : " " + detail);
+	}
+
+}
@@ -0,0 +1,63 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.utility;
+
+/**
+ * The kinds of events told to a PpdListener.
+ * @author jhorvath
+ */
+public enum PpdEventType {
+	
+	/**
+	 * A stage of the comparison has started.
+	 */
+	STAGE_STARTED, 
+	
+	/**
+	 * A stage of the comparison has finished without error.
+	 */
+	STAGE_FINISHED, 
+	
+	/**
+	 * A slide was parsed. Counts slides of both files.
+	 */
+	SLIDE_PARSED, 
+	
+	/**
+	 * A pair of matched slides was compared for the report.
+	 */
+	SLIDE_COMPARED, 
+	
+	/**
+	 * Bytes were read from a file or from a part of a file. Counts bytes rather than items.
+	 */
+	BYTES_READ, 
+	
+	/**
+	 * A whole file check of the report was completed. The detail names the check.
+	 */
+	CHECK_COMPLETED
+
+}
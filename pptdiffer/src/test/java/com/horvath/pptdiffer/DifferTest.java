@@ -25,14 +25,40 @@
 package com.horvath.pptdiffer;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.Assert;
 import org.junit.Test;
 
 import com.horvath.pptdiffer.command.compare.GenerateReportTextCmd;
 import com.horvath.pptdiffer.engine.AbstractTestHelper;
+import com.horvath.pptdiffer.engine.LazySlideList;
+import com.horvath.pptdiffer.engine.PackageHandlePool;
+import com.horvath.pptdiffer.engine.diff.DiffHunk;
+import com.horvath.pptdiffer.engine.diff.HunkType;
+import com.horvath.pptdiffer.engine.diff.ShapeChange;
+import com.horvath.pptdiffer.engine.diff.ShapeChangeType;
+import com.horvath.pptdiffer.engine.diff.SlideMatch;
+import com.horvath.pptdiffer.engine.diff.SlideMatchType;
+import com.horvath.pptdiffer.engine.diff.TableDiff;
+import com.horvath.pptdiffer.engine.diff.TemplateDiff;
+import com.horvath.pptdiffer.engine.model.MediaPart;
 import com.horvath.pptdiffer.exception.PpdException;
+import com.horvath.pptdiffer.exception.PpdTimeoutException;
+import com.horvath.pptdiffer.utility.CancellationToken;
+import com.horvath.pptdiffer.utility.ParseMode;
+import com.horvath.pptdiffer.utility.PpdEvent;
+import com.horvath.pptdiffer.utility.PpdEventType;
 
 /**
  * Performs tests on main differ class.
@@ -322,6 +348,24 @@ public class DifferTest extends AbstractTestHelper {
 		}
 	}
 	
+	@Test
+	public void mediaParts_fileHasImages_sizesAndDigestsReturned() {
+		File fileA = new File(IMAGE_FILE_A);
+		File fileB = new File(IMAGE_FILE_C);
+		
+		try {
+			Differ diff = new Differ(fileA, fileB);
+			
+			Assert.assertEquals(diff.imageCount_fileA(), diff.mediaParts_fileA().size());
+			Assert.assertEquals(diff.imageInfo_fileA()[0], diff.mediaParts_fileA().get(0).getInfo());
+			Assert.assertTrue(diff.mediaParts_fileA().get(0).getSize() > 0);
+			Assert.assertNotNull(diff.mediaParts_fileB().get(0).getDigest());
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
 	@Test
 	public void shapeNames_slidesHaveShapes_listDataReturned() {
 		File fileA = new File(BASIC_FILE_A);
@@ -407,6 +451,626 @@ public class DifferTest extends AbstractTestHelper {
 		}
 	}
 	
+	@Test
+	public void constructor_goodFiles_eachPackageOpenedOnce() {
+		File fileA = new File(BASIC_FILE_A);
+		File fileB = new File(BASIC_FILE_B);
+
+		try {
+			Differ diff = new Differ(fileA, fileB);
+			
+			// loading, parsing, text and metadata extraction all share one parse per file
+			Assert.assertEquals(1, diff.getSessionA().getOpenCount());
+			Assert.assertEquals(1, diff.getSessionB().getOpenCount());
+
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void constructor_parallelOption_sameResultsAsSerial() {
+		File fileA = new File(BASIC_FILE_E);
+		File fileB = new File(BASIC_FILE_D);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+
+		try {
+			DifferOptions options = new DifferOptions();
+			options.setParallel(true);
+			options.setExecutor(executor);
+			
+			Differ serial = new Differ(fileA, fileB);
+			Differ parallel = new Differ(fileA, fileB, options);
+			
+			Assert.assertEquals(serial.generateReport(), parallel.generateReport());
+			Assert.assertEquals(serial.wholeFileText_FileA(), parallel.wholeFileText_FileA());
+			Assert.assertEquals(serial.metadata_FileB(), parallel.metadata_FileB());
+
+		} catch (PpdException ex) {
+			Assert.fail();
+			
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	@Test
+	public void constructor_streamingOption_sameReportAsDom() {
+		File fileA = new File(EXTRA_TEXT);
+		File fileB = new File(EXTRA_TEXT_MISSING);
+
+		try {
+			DifferOptions options = new DifferOptions();
+			options.setParseMode(ParseMode.STREAMING);
+			
+			Differ dom = new Differ(fileA, fileB);
+			Differ streaming = new Differ(fileA, fileB, options);
+			
+			Assert.assertEquals(dom.generateReport(), streaming.generateReport());
+
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void constructor_lazySlidesOption_sameReport() {
+		File fileA = new File(BASIC_FILE_C);
+		File fileB = new File(BASIC_FILE_A);
+
+		DifferOptions options = new DifferOptions();
+		options.setLazySlides(true);
+		options.setSlideCacheSize(1);
+		
+		try (Differ lazy = new Differ(fileA, fileB, options)) {
+			Differ eager = new Differ(fileA, fileB);
+			
+			Assert.assertEquals(eager.slideText_fileB(1), lazy.slideText_fileB(1));
+			Assert.assertEquals(eager.generateReport(), lazy.generateReport());
+
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void constructor_lazySlidesOption_nothingReadUntilUsed() {
+		File fileA = new File(BASIC_FILE_C);
+		File fileB = new File(BASIC_FILE_A);
+
+		DifferOptions options = new DifferOptions();
+		options.setLazySlides(true);
+		
+		try (Differ lazy = new Differ(fileA, fileB, options)) {
+			Differ eager = new Differ(fileA, fileB);
+			
+			// only the packages are open, no slide has been read
+			Assert.assertFalse(lazy.getSessionA().hasSlideShow());
+			Assert.assertFalse(lazy.getSessionB().hasSlideShow());
+			
+			LazySlideList slidesA = (LazySlideList) lazy.getPpdFileA().getSlideList();
+			Assert.assertEquals(eager.getPpdFileA().getSlideList().size(), slidesA.size());
+			Assert.assertEquals(0, slidesA.getReadCount());
+			
+			Assert.assertEquals(eager.slideText_fileA(1), lazy.slideText_fileA(1));
+			Assert.assertEquals(eager.slideText_fileA(1), lazy.slideText_fileA(1));
+			Assert.assertEquals(1, slidesA.getReadCount());
+			
+			// media parts are hashed straight from the packages
+			Assert.assertEquals(eager.imageCount_fileA(), lazy.imageCount_fileA());
+			Assert.assertFalse(lazy.getSessionA().hasSlideShow());
+			
+			Assert.assertEquals(eager.wholeFileText_FileA(), lazy.wholeFileText_FileA());
+			Assert.assertTrue(lazy.getSessionA().hasSlideShow());
+			Assert.assertEquals(1, slidesA.getReadCount());
+
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void close_lazySlidesOption_textNoLongerRead() {
+		boolean caughtException = false;
+		
+		DifferOptions options = new DifferOptions();
+		options.setLazySlides(true);
+		
+		try {
+			Differ lazy = new Differ(new File(BASIC_FILE_C), new File(BASIC_FILE_A), options);
+			lazy.close();
+			
+			lazy.wholeFileText_FileA();
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+			
+		} catch (IllegalStateException ex) {
+			caughtException = true;
+			Assert.assertEquals(Differ.ERROR_CLOSED, ex.getMessage());
+		}
+		
+		Assert.assertTrue(caughtException);
+	}
+	
+	@Test
+	public void slideAlignment_fewerSlidesInB_extraSlideDeleted() {
+		try {
+			Differ diff = new Differ(new File(BASIC_FILE_C), new File(BASIC_FILE_A));
+			
+			List<SlideMatch> matches = diff.slideAlignment();
+			Assert.assertEquals(3, matches.size());
+			Assert.assertEquals(SlideMatchType.CHANGED, matches.get(0).getType());
+			Assert.assertEquals(SlideMatchType.DELETED, matches.get(2).getType());
+			Assert.assertSame(matches, diff.slideAlignment());
+			
+			Differ same = new Differ(new File(BASIC_FILE_A), new File(BASIC_FILE_A));
+			for (SlideMatch match : same.slideAlignment()) {
+				Assert.assertEquals(SlideMatchType.SAME, match.getType());
+			}
+
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void slideTextDiff_differentText_hunksReturned() {
+		try {
+			Differ diff = new Differ(new File(BASIC_FILE_A), new File(BASIC_FILE_B));
+			
+			List<DiffHunk> hunks = diff.slideTextDiff(1);
+			Assert.assertEquals(2, hunks.size());
+			Assert.assertEquals(HunkType.REPLACE, hunks.get(0).getType());
+			Assert.assertEquals(HunkType.INSERT, hunks.get(1).getType());
+			
+			Differ same = new Differ(new File(BASIC_FILE_A), new File(BASIC_FILE_A));
+			Assert.assertTrue(same.slideTextDiff(0).isEmpty());
+
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void shapeDiff_resizedShape_changeReported() {
+		try {
+			Differ diff = new Differ(new File(EXACT_FILE_1), new File(EXACT_FILE_5));
+			
+			List<ShapeChange> changes = diff.shapeDiff(1, 1);
+			ShapeChange changed = null;
+			for (ShapeChange change : changes) {
+				if (change.isChanged()) {
+					Assert.assertNull(changed);
+					changed = change;
+				}
+			}
+			Assert.assertNotNull(changed);
+			Assert.assertEquals("Content Placeholder 3", changed.getShapeA().getName());
+			Assert.assertTrue(changed.hasChange(ShapeChangeType.RESIZED));
+			Assert.assertTrue(changed.hasChange(ShapeChangeType.RETEXTED));
+			Assert.assertFalse(changed.hasChange(ShapeChangeType.MOVED));
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void tableDiff_insertedRow_rowReported() {
+		try {
+			Differ diff = new Differ(new File(EXACT_FILE_1), new File(EXACT_FILE_5));
+			
+			List<TableDiff> tableDiffs = diff.tableDiff(1, 1);
+			Assert.assertEquals(1, tableDiffs.size());
+			Assert.assertEquals(Arrays.asList(2), tableDiffs.get(0).getInsertedRows());
+			Assert.assertTrue(tableDiffs.get(0).getChangedCells().isEmpty());
+			
+			// slides without tables
+			Assert.assertTrue(diff.tableDiff(0, 0).isEmpty());
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void slideNotesDiff_changedNotes_hunksReported() {
+		try {
+			Differ diff = new Differ(new File(WHOLE_TEXT), new File(EXACT_FILE_1));
+			
+			Assert.assertEquals("Note for title slide.", diff.slideNotes_fileA(0));
+			Assert.assertEquals("This is a notes field for exact file checking.", diff.slideNotes_fileB(0));
+			
+			List<DiffHunk> hunks = diff.slideNotesDiff(1, 1);
+			Assert.assertEquals(1, hunks.size());
+			Assert.assertEquals(HunkType.DELETE, hunks.get(0).getType());
+			Assert.assertEquals(4, hunks.get(0).getLengthA());
+			
+			// same notes
+			Assert.assertTrue(new Differ(new File(EXACT_FILE_1), new File(EXACT_FILE_5)).slideNotesDiff(0, 0).isEmpty());
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void listeners_comparison_stagesSlidesAndChecksReported() {
+		final List<String> events = new ArrayList<>();
+		DifferOptions options = new DifferOptions();
+		options.addListener(event -> events.add(event.toString()));
+		
+		try {
+			Differ diff = new Differ(new File(BASIC_FILE_A), new File(BASIC_FILE_B), options);
+			diff.generateReport();
+			
+			Assert.assertEquals(PpdEventType.STAGE_STARTED + " " + PpdEvent.STAGE_PACKAGES + " 0/0", events.get(0));
+			Assert.assertEquals(PpdEventType.STAGE_FINISHED + " " + PpdEvent.STAGE_PACKAGES + " 0/0", events.get(1));
+			// two slides in each file, then each aligned pair compared
+			Assert.assertTrue(events.stream().anyMatch(
+					event -> event.startsWith(PpdEventType.SLIDE_PARSED + " " + PpdEvent.STAGE_PARSE + " 4/4 Slide")));
+			Assert.assertTrue(events.contains(PpdEventType.STAGE_FINISHED + " " + PpdEvent.STAGE_TEMPLATES + " 0/0"));
+			Assert.assertTrue(events.contains(PpdEventType.STAGE_STARTED + " " + PpdEvent.STAGE_ALIGN + " 0/0"));
+			Assert.assertTrue(events.contains(PpdEventType.SLIDE_COMPARED + " " + PpdEvent.STAGE_REPORT + " 2/2 CHANGED"));
+			Assert.assertEquals(PpdEventType.CHECK_COMPLETED + " " + PpdEvent.STAGE_REPORT + " " 
+					+ GenerateReportTextCmd.CHECK_COUNT + "/" + GenerateReportTextCmd.CHECK_COUNT + " " 
+					+ GenerateReportTextCmd.CHECK_NOTES, events.get(events.size() - 2));
+			Assert.assertEquals(PpdEventType.STAGE_FINISHED + " " + PpdEvent.STAGE_REPORT + " 0/0", events.get(events.size() - 1));
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void listeners_mediaHashed_bytesReadAddUpToPartSizes() {
+		final AtomicLong bytesRead = new AtomicLong();
+		DifferOptions options = new DifferOptions();
+		options.addListener(event -> {
+			if (event.getType() == PpdEventType.BYTES_READ && PpdEvent.STAGE_MEDIA.equals(event.getStage())) {
+				bytesRead.accumulateAndGet(event.getDone(), Math::max);
+			}
+		});
+		
+		try {
+			Differ diff = new Differ(new File(IMAGE_FILE_A), new File(IMAGE_FILE_B), options);
+			
+			long size = 0;
+			for (MediaPart part : diff.mediaParts_fileA()) {
+				size += part.getSize();
+			}
+			for (MediaPart part : diff.mediaParts_fileB()) {
+				size += part.getSize();
+			}
+			Assert.assertTrue(size > 0);
+			Assert.assertEquals(size, bytesRead.get());
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void addListener_afterComparison_toldOfReport() {
+		final List<PpdEventType> types = new ArrayList<>();
+		
+		try {
+			Differ diff = new Differ(new File(BASIC_FILE_A), new File(BASIC_FILE_B));
+			diff.addListener(event -> types.add(event.getType()));
+			diff.generateReport();
+			
+			Assert.assertEquals(PpdEventType.STAGE_STARTED, types.get(0));
+			Assert.assertTrue(types.contains(PpdEventType.CHECK_COMPLETED));
+			Assert.assertFalse(types.contains(PpdEventType.SLIDE_PARSED));
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void addListener_sharedOptions_otherDifferNotTold() {
+		final List<PpdEventType> types = new ArrayList<>();
+		DifferOptions options = new DifferOptions();
+		
+		try {
+			Differ first = new Differ(new File(BASIC_FILE_A), new File(BASIC_FILE_B), options);
+			Differ second = new Differ(new File(BASIC_FILE_A), new File(BASIC_FILE_B), options);
+			first.addListener(event -> types.add(event.getType()));
+			
+			Assert.assertTrue(options.getListeners().isEmpty());
+			second.generateReport();
+			Assert.assertTrue(types.isEmpty());
+			
+			first.generateReport();
+			Assert.assertFalse(types.isEmpty());
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void listeners_listenerThrows_comparisonFinishes() {
+		DifferOptions options = new DifferOptions();
+		options.addListener(event -> {
+			throw new IllegalStateException("listener failed");
+		});
+		
+		try {
+			Differ diff = new Differ(new File(BASIC_FILE_A), new File(BASIC_FILE_B), options);
+			Assert.assertFalse(diff.generateReport().isEmpty());
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void cancellationToken_cancelledWhileParsing_exception() {
+		final AtomicInteger slides = new AtomicInteger();
+		final CancellationToken token = new CancellationToken();
+		DifferOptions options = new DifferOptions();
+		options.setCancellationToken(token);
+		options.addListener(event -> {
+			if (event.getType() == PpdEventType.SLIDE_PARSED) {
+				slides.set((int) event.getDone());
+				// cancel once the first slide has been parsed
+				token.cancel();
+			}
+		});
+		boolean caughtException = false;
+		
+		try {
+			new Differ(new File(BASIC_FILE_A), new File(BASIC_FILE_B), options);
+			
+		} catch (PpdException ex) {
+			caughtException = true;
+			Assert.assertFalse(ex instanceof PpdTimeoutException);
+			Assert.assertEquals(CancellationToken.ERROR_CANCELLED, ex.getMessage());
+		}
+		Assert.assertTrue(caughtException);
+		// no further slides were parsed
+		Assert.assertEquals(1, slides.get());
+	}
+	
+	@Test
+	public void cancellationToken_deadlinePassedAfterParsing_parsedSlidesReturned() {
+		final DifferOptions options = new DifferOptions();
+		options.addListener(event -> {
+			if (event.getType() == PpdEventType.STAGE_STARTED && PpdEvent.STAGE_TEXT.equals(event.getStage())) {
+				// the deadline passes once every slide has been parsed
+				options.setCancellationToken(new CancellationToken(0, TimeUnit.MILLISECONDS));
+			}
+		});
+		boolean caughtException = false;
+		
+		try {
+			new Differ(new File(BASIC_FILE_A), new File(BASIC_FILE_B), options);
+			
+		} catch (PpdTimeoutException ex) {
+			caughtException = true;
+			Assert.assertEquals(CancellationToken.ERROR_DEADLINE, ex.getMessage());
+			Assert.assertEquals(2, ex.getPartialFileA().getSlideList().size());
+			Assert.assertEquals(2, ex.getPartialFileB().getSlideList().size());
+			// text extraction and the report did not start
+			Assert.assertNull(ex.getPartialTextA());
+			Assert.assertNull(ex.getPartialReport());
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+		Assert.assertTrue(caughtException);
+	}
+	
+	@Test
+	public void compareAsync_executor_sameResultsAsConstructor() {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		
+		try {
+			Differ serial = new Differ(new File(IMAGE_FILE_A), new File(IMAGE_FILE_B));
+			final String report = serial.generateReport();
+			
+			// stages overlap differently from run to run, the results must not
+			for (int i = 0; i < 10; i++) {
+				Differ async = Differ.compareAsync(new File(IMAGE_FILE_A), new File(IMAGE_FILE_B), null, executor).get();
+				
+				Assert.assertEquals(serial.wholeFileText_FileA(), async.wholeFileText_FileA());
+				Assert.assertEquals(serial.mediaParts_fileB().size(), async.mediaParts_fileB().size());
+				Assert.assertEquals(report, async.generateReportAsync(executor).get());
+			}
+			
+		} catch (PpdException | InterruptedException | ExecutionException ex) {
+			Assert.fail();
+			
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	@Test
+	public void compareAsync_eachFileStages_toldOncePerFile() {
+		final List<String> events = Collections.synchronizedList(new ArrayList<>());
+		DifferOptions options = new DifferOptions();
+		options.addListener(event -> events.add(event.toString()));
+		
+		try {
+			Differ async = Differ.compareAsync(new File(BASIC_FILE_A), new File(BASIC_FILE_B), options, null).get();
+			Differ serial = new Differ(new File(BASIC_FILE_A), new File(BASIC_FILE_B));
+			
+			for (String stage : new String[] {PpdEvent.STAGE_PARSE, PpdEvent.STAGE_TEXT, PpdEvent.STAGE_TEMPLATES}) {
+				for (String name : new String[] {async.getPpdFileA().getFileName(), async.getPpdFileB().getFileName()}) {
+					Assert.assertEquals(1, events.stream().filter(
+							event -> event.equals(PpdEventType.STAGE_FINISHED + " " + stage + " 0/0 " + name)).count());
+				}
+			}
+			Assert.assertEquals(serial.isSameFile(), async.isSameFile());
+			Assert.assertEquals(serial.fileSize_fileB(), async.fileSize_fileB());
+			Assert.assertEquals(serial.wholeFileText_FileB(), async.wholeFileText_FileB());
+			Assert.assertEquals(serial.generateReport(), async.generateReport());
+			
+		} catch (PpdException | InterruptedException | ExecutionException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void compareAsync_lazySlides_sameResultsAsConstructor() {
+		DifferOptions options = new DifferOptions();
+		options.setLazySlides(true);
+		
+		try (Differ async = Differ.compareAsync(new File(IMAGE_FILE_A), new File(IMAGE_FILE_B), options, null).get(); 
+				Differ serial = new Differ(new File(IMAGE_FILE_A), new File(IMAGE_FILE_B), options)) {
+			
+			Assert.assertEquals(serial.wholeFileText_FileA(), async.wholeFileText_FileA());
+			Assert.assertEquals(serial.mediaParts_fileB().size(), async.mediaParts_fileB().size());
+			Assert.assertEquals(serial.generateReport(), async.generateReport());
+			
+		} catch (PpdException | InterruptedException | ExecutionException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void compareAsync_smallPoolSharedWithParallelWork_finishes() {
+		for (int threads = 1; threads <= 2; threads++) {
+			ExecutorService executor = Executors.newFixedThreadPool(threads);
+			DifferOptions options = new DifferOptions();
+			options.setParallel(true);
+			options.setExecutor(executor);
+			
+			try {
+				// the stages and the parallel work inside them wait on the same few threads
+				Differ async = Differ.compareAsync(new File(IMAGE_FILE_A), new File(IMAGE_FILE_B), options, executor)
+						.get(60, TimeUnit.SECONDS);
+				Assert.assertFalse(async.generateReportAsync(executor).get(60, TimeUnit.SECONDS).isEmpty());
+				
+			} catch (InterruptedException | ExecutionException | TimeoutException ex) {
+				Assert.fail();
+				
+			} finally {
+				executor.shutdownNow();
+			}
+		}
+	}
+	
+	@Test
+	public void constructor_comparisonDone_sharedPoolHoldsNoPackages() {
+		final int openBefore = PackageHandlePool.getInstance().getOpenCount();
+		
+		try {
+			new Differ(new File(BASIC_FILE_A), new File(BASIC_FILE_A));
+			
+			// the same file compared with itself is opened twice, and both are closed afterwards
+			Assert.assertEquals(openBefore, PackageHandlePool.getInstance().getOpenCount());
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void packagePool_keepingIdle_packagesKeptUntilPoolClosesThem() {
+		PackageHandlePool pool = new PackageHandlePool(4, true);
+		DifferOptions options = new DifferOptions();
+		options.setPackagePool(pool);
+		
+		try {
+			Differ first = new Differ(new File(BASIC_FILE_A), new File(BASIC_FILE_B), options);
+			first.close();
+			Assert.assertEquals(2, pool.getOpenCount());
+			Assert.assertEquals(0, pool.getInUseCount());
+			
+			Differ second = new Differ(new File(BASIC_FILE_A), new File(BASIC_FILE_B), options);
+			second.close();
+			Assert.assertEquals(2, pool.getOpenCount());
+			Assert.assertEquals(first.generateReport().length(), second.generateReport().length());
+			
+			pool.closeIdle();
+			Assert.assertEquals(0, pool.getOpenCount());
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void compareAsync_notPptx_futureFailsWithPpdException() {
+		boolean caughtException = false;
+		
+		try {
+			Differ.compareAsync(new File(NOT_PPTX_A), new File(BASIC_FILE_B), null, null).get();
+			
+		} catch (ExecutionException ex) {
+			caughtException = true;
+			Assert.assertTrue(ex.getCause() instanceof PpdException);
+			
+		} catch (InterruptedException ex) {
+			Assert.fail();
+		}
+		Assert.assertTrue(caughtException);
+	}
+	
+	@Test
+	public void slideSimilarity_editedSlide_higherThanOtherSlides() {
+		try {
+			Differ diff = new Differ(new File(BASIC_FILE_A), new File(BASIC_FILE_B));
+			
+			// the to do list gained an item, but is still closer to its own slide than to the title slide
+			final double similarity = diff.slideSimilarity(1, 1);
+			Assert.assertTrue(similarity > 0.5 && similarity < 1.0);
+			Assert.assertTrue(diff.slideSimilarity(1, 0) < 0.2);
+			
+			Differ same = new Differ(new File(BASIC_FILE_A), new File(BASIC_FILE_A));
+			Assert.assertEquals(1.0, same.slideSimilarity(0, 0), 0.0);
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void layoutDiff_slidesShareLayout_comparedOnce() {
+		try {
+			Differ diff = new Differ(new File(SHAPE_TEST_FILE), new File(SHAPE_TEST_FILE));
+			
+			TemplateDiff layoutDiff = diff.layoutDiff(1, 1);
+			Assert.assertTrue(layoutDiff.isSame());
+			Assert.assertEquals("Title and Content", layoutDiff.getTemplateA().getName());
+			
+			// every slide using the same pair of layouts gets the same result
+			for (int i = 2; i < diff.slideCount_fileA(); i++) {
+				Assert.assertSame(layoutDiff, diff.layoutDiff(i, i));
+			}
+			Assert.assertNotSame(layoutDiff, diff.layoutDiff(0, 0));
+			Assert.assertSame(diff.masterDiff(0, 0), diff.masterDiff(1, 1));
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void masterDiff_placeholderTextChanged_changeReported() {
+		try {
+			Differ diff = new Differ(new File(IMAGE_FILE_A), new File(IMAGE_FILE_B));
+			
+			TemplateDiff masterDiff = diff.masterDiff(1, 0);
+			Assert.assertTrue(masterDiff.getTemplateA().isMaster());
+			Assert.assertFalse(masterDiff.isSame());
+			Assert.assertFalse(masterDiff.isBackgroundChanged());
+			Assert.assertEquals(1, masterDiff.getShapeChanges().size());
+			
+			ShapeChange change = masterDiff.getShapeChanges().get(0);
+			Assert.assertEquals("dt", change.getShapeA().getPlaceholderType());
+			Assert.assertTrue(change.hasChange(ShapeChangeType.RETEXTED));
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
 	/**
 	 * Test method serves as an example of usage of the PPD as a test helper library. 
 	 */
@@ -31,11 +31,32 @@ import com.horvath.pptdiffer.command.compare.GenerateReportTextCmdTest;
 import com.horvath.pptdiffer.command.compare.GetSlideNameForCompareCmdTest;
 import com.horvath.pptdiffer.command.compare.GetSlideTextForCompareCmdTest;
 import com.horvath.pptdiffer.command.io.LoadPptxCmdTest;
+import com.horvath.pptdiffer.command.io.PreDiffPackagesCmdTest;
+import com.horvath.pptdiffer.command.io.ReadMetadataCmdTest;
 import com.horvath.pptdiffer.command.io.WriteReportCmdTest;
 import com.horvath.pptdiffer.command.loadfile.LoadFileCmdTest;
 import com.horvath.pptdiffer.command.parse.ExtractWholeFileTextCmdTest;
+import com.horvath.pptdiffer.command.parse.HashMediaPartsCmdTest;
 import com.horvath.pptdiffer.command.parse.ParsePptxCmdTest;
+import com.horvath.pptdiffer.command.parse.ReadTemplatesCmdTest;
+import com.horvath.pptdiffer.engine.PackageHandlePoolTest;
+import com.horvath.pptdiffer.engine.PptxSessionTest;
+import com.horvath.pptdiffer.engine.diff.ImageDiffTest;
+import com.horvath.pptdiffer.engine.diff.MetadataDiffTest;
+import com.horvath.pptdiffer.engine.diff.MyersDiffTest;
+import com.horvath.pptdiffer.engine.diff.ShapeDiffTest;
+import com.horvath.pptdiffer.engine.diff.SlideAlignerTest;
+import com.horvath.pptdiffer.engine.diff.SlideSketchTest;
+import com.horvath.pptdiffer.engine.diff.TableDiffTest;
+import com.horvath.pptdiffer.engine.diff.TemplateDiffTest;
+import com.horvath.pptdiffer.engine.diff.UnifiedDiffTest;
+import com.horvath.pptdiffer.io.ExactFileComparerTest;
+import com.horvath.pptdiffer.io.FileDigestCacheTest;
 import com.horvath.pptdiffer.gui.PpdWindowTest;
+import com.horvath.pptdiffer.utility.CancellationTokenTest;
+import com.horvath.pptdiffer.utility.ListenerListTest;
+import com.horvath.pptdiffer.utility.ParallelPairTest;
+import com.horvath.pptdiffer.utility.ParallelTasksTest;
 
 @RunWith(Suite.class)
 
@@ -49,7 +70,28 @@ import com.horvath.pptdiffer.gui.PpdWindowTest;
 	GenerateReportTextCmdTest.class,
 	ExtractWholeFileTextCmdTest.class,
 	GetSlideNameForCompareCmdTest.class,
-	GetSlideTextForCompareCmdTest.class
+	GetSlideTextForCompareCmdTest.class,
+	PptxSessionTest.class,
+	ExactFileComparerTest.class,
+	FileDigestCacheTest.class,
+	PreDiffPackagesCmdTest.class,
+	PackageHandlePoolTest.class,
+	HashMediaPartsCmdTest.class,
+	MyersDiffTest.class,
+	SlideAlignerTest.class,
+	SlideSketchTest.class,
+	UnifiedDiffTest.class,
+	ImageDiffTest.class,
+	ParallelPairTest.class,
+	ParallelTasksTest.class,
+	CancellationTokenTest.class,
+	ListenerListTest.class,
+	ShapeDiffTest.class,
+	TableDiffTest.class,
+	ReadMetadataCmdTest.class,
+	MetadataDiffTest.class,
+	ReadTemplatesCmdTest.class,
+	TemplateDiffTest.class
 })
 
 public class PpdTestSuite { }
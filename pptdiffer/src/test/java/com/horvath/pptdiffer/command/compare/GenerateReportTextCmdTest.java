@@ -27,9 +27,14 @@ package com.horvath.pptdiffer.command.compare;
 import com.horvath.pptdiffer.Differ;
 import com.horvath.pptdiffer.engine.AbstractTestHelper;
 import com.horvath.pptdiffer.exception.PpdException;
+import com.horvath.pptdiffer.exception.PpdTimeoutException;
+import com.horvath.pptdiffer.utility.CancellationToken;
 
 import java.io.File;
 import java.time.LocalDate;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -99,6 +104,50 @@ public class GenerateReportTextCmdTest extends AbstractTestHelper {
 		}
 	}
 	
+	@Test
+	public void perform_differentFileSizes_reportShowsByteLengths() {
+		File fileA = new File(EXACT_FILE_1);
+		File fileB = new File(EXACT_FILE_4);
+		
+		try {
+			Differ diff = new Differ(fileA, fileB);
+			
+			GenerateReportTextCmd cmd = new GenerateReportTextCmd(diff);
+			cmd.perform();
+			
+			Assert.assertTrue(cmd.isSuccess());
+
+			final String report = cmd.getReportText();
+
+			Assert.assertTrue(report.contains(GenerateReportTextCmd.EXACT_CHECK_SIZES));
+			Assert.assertTrue(report.contains("has a byte length of " + fileA.length()));
+			Assert.assertTrue(report.contains("has a byte length of " + fileB.length()));
+			Assert.assertFalse(report.contains(GenerateReportTextCmd.EXACT_CHECK_OFFSET));
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void perform_differentContent_reportListsChangedParts() {
+		try {
+			Differ diff = new Differ(new File(EXACT_FILE_1), new File(EXACT_FILE_5));
+			
+			GenerateReportTextCmd cmd = new GenerateReportTextCmd(diff);
+			cmd.perform();
+			
+			final String report = cmd.getReportText();
+			
+			Assert.assertTrue(report.contains(GenerateReportTextCmd.PART_CHECK_DESCRIPTION));
+			Assert.assertTrue(report.contains(GenerateReportTextCmd.PART_CHECK_CHANGED + "ppt/slides/slide1.xml"));
+			Assert.assertTrue(report.contains(GenerateReportTextCmd.PART_CHECK_CHANGED + "docProps/core.xml"));
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
 	@Test
 	public void perform_sameMetadata_reportUpdated() {
 		File fileA = new File(EXACT_FILE_1);
@@ -137,6 +186,10 @@ public class GenerateReportTextCmdTest extends AbstractTestHelper {
 			final String report = cmd.getReportText();
 
 			Assert.assertTrue(report.contains(GenerateReportTextCmd.METADATA_DIFFERENT));
+			Assert.assertTrue(report.contains("\t" + GenerateReportTextCmd.METADATA_CORE + "\"creator\": \"Josh Horvath\"" 
+					+ GenerateReportTextCmd.METADATA_FILE_A + "\"JHORVATH\"" + GenerateReportTextCmd.METADATA_FILE_B));
+			Assert.assertTrue(report.contains("\t" + GenerateReportTextCmd.METADATA_CORE + "\"subject\"" 
+					+ GenerateReportTextCmd.METADATA_ONLY_FILE_B + "\"Test file\"."));
 			
 		} catch (PpdException ex) {
 			Assert.fail();
@@ -249,6 +302,9 @@ public class GenerateReportTextCmdTest extends AbstractTestHelper {
 			final String report = cmd.getReportText();
 
 			Assert.assertTrue(report.contains(GenerateReportTextCmd.WHOLE_TEXT_DIFFERENT));
+			Assert.assertTrue(report.contains("--- File A"));
+			Assert.assertTrue(report.contains("+++ File B"));
+			Assert.assertTrue(report.contains("@@ -"));
 			
 		} catch (PpdException ex) {
 			Assert.fail();
@@ -278,6 +334,32 @@ public class GenerateReportTextCmdTest extends AbstractTestHelper {
 		}
 	}	
 
+	@Test
+	public void perform_insertedWords_reportListsEveryWordChange() {
+		File fileA = new File(BASIC_FILE_A);
+		File fileB = new File(BASIC_FILE_B);
+
+		try {
+			Differ diff = new Differ(fileA, fileB);
+
+			GenerateReportTextCmd cmd = new GenerateReportTextCmd(diff);
+			cmd.perform();
+
+			final String report = cmd.getReportText();
+
+			Assert.assertTrue(report.contains(GenerateReportTextCmd.SLIDE_TEXT_CHANGES + 1));
+			Assert.assertTrue(report.contains(GenerateReportTextCmd.HUNK_REPLACED + "Order" 
+					+ GenerateReportTextCmd.HUNK_WITH + "Go get" + GenerateReportTextCmd.SLIDE_TEXT_CLOSE));
+			// words after the change are aligned again, so only the new trailing words are reported
+			Assert.assertTrue(report.contains(GenerateReportTextCmd.HUNK_INSERTED 
+					+ "Rake the leaves Bullet Slide" + GenerateReportTextCmd.SLIDE_TEXT_CLOSE));
+			Assert.assertFalse(report.contains("\"groceries\""));
+
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+
 	@Test
 	public void perform_extraTextFileA_reportShowsExtraTextFinding() {
 		File fileA = new File(EXTRA_TEXT);
@@ -348,6 +430,142 @@ public class GenerateReportTextCmdTest extends AbstractTestHelper {
 		}
 	}
 	
+	@Test
+	public void perform_shapeChanges_reportListsChangedShapes() {
+		File fileA = new File(EXACT_FILE_1);
+		File fileB = new File(EXACT_FILE_5);
+		
+		try {
+			Differ diff = new Differ(fileA, fileB);
+
+			GenerateReportTextCmd cmd = new GenerateReportTextCmd(diff);
+			cmd.perform();
+
+			Assert.assertTrue(cmd.isSuccess());
+
+			final String report = cmd.getReportText();
+
+			Assert.assertTrue(report.contains(GenerateReportTextCmd.SLIDE_SHAPE_CHANGES + "1:"));
+			Assert.assertTrue(report.contains("\t" + GenerateReportTextCmd.SHAPE_LABEL + "Content Placeholder 3" 
+					+ GenerateReportTextCmd.SHAPE_ID + "4): " + GenerateReportTextCmd.SHAPE_RESIZED 
+					+ "648.0 x 58.4 to 648.0 x 87.6 pt; " + GenerateReportTextCmd.SHAPE_RETEXTED + "."));
+			// the table in the placeholder gained a row, its other cells are unchanged
+			Assert.assertTrue(report.contains("\t\t" + GenerateReportTextCmd.TABLE_ROW_ONLY_FILE_B + 2));
+			Assert.assertFalse(report.contains(GenerateReportTextCmd.TABLE_CELL));
+
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void perform_addedShape_reportListsShapeOnlyInFileB() {
+		try {
+			Differ diff = new Differ(new File(BASIC_FILE_A), new File(BASIC_FILE_B));
+
+			GenerateReportTextCmd cmd = new GenerateReportTextCmd(diff);
+			cmd.perform();
+
+			Assert.assertTrue(cmd.getReportText().contains(GenerateReportTextCmd.SHAPE_LABEL + "Footer Placeholder 3" 
+					+ GenerateReportTextCmd.SHAPE_ID + "4" + GenerateReportTextCmd.SHAPE_ONLY_FILE_B));
+
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void perform_notesChanged_reportHasNotesSection() {
+		try {
+			Differ diff = new Differ(new File(WHOLE_TEXT), new File(EXACT_FILE_1));
+
+			GenerateReportTextCmd cmd = new GenerateReportTextCmd(diff);
+			cmd.perform();
+			
+			final String report = cmd.getReportText();
+			Assert.assertTrue(report.contains(GenerateReportTextCmd.NOTES_LABEL));
+			Assert.assertTrue(report.contains(GenerateReportTextCmd.NOTES_CHANGES + "1:" + GenerateReportTextCmd.EOL 
+					+ "\t" + GenerateReportTextCmd.HUNK_AT_WORD + "1" + GenerateReportTextCmd.HUNK_OF_FILE_A + "1" 
+					+ GenerateReportTextCmd.HUNK_OF_FILE_B + GenerateReportTextCmd.HUNK_DELETED + "Note for bullet slide.\""));
+			
+			// files with the same notes have no notes section
+			cmd = new GenerateReportTextCmd(new Differ(new File(EXACT_FILE_1), new File(EXACT_FILE_5)));
+			cmd.perform();
+			Assert.assertFalse(cmd.getReportText().contains(GenerateReportTextCmd.NOTES_LABEL));
+
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void perform_executor_sameReportAsSerial() {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		
+		try {
+			Differ diff = new Differ(new File(SHAPE_TEST_FILE), new File(BASIC_FILE_F));
+			Assert.assertTrue(diff.slideAlignment().size() >= GenerateReportTextCmd.PARALLEL_MIN_SLIDES);
+			
+			GenerateReportTextCmd serial = new GenerateReportTextCmd(diff);
+			serial.perform();
+			
+			// fragments written on several threads are stitched back in slide order
+			for (int i = 0; i < 5; i++) {
+				GenerateReportTextCmd parallel = new GenerateReportTextCmd(diff);
+				parallel.setExecutor(executor);
+				parallel.perform();
+				Assert.assertEquals(serial.getReportText(), parallel.getReportText());
+			}
+
+		} catch (PpdException ex) {
+			Assert.fail();
+			
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	@Test
+	public void perform_deadlinePassed_partialReportReturned() {
+		boolean caughtException = false;
+		
+		try {
+			GenerateReportTextCmd cmd = new GenerateReportTextCmd(new Differ(new File(BASIC_FILE_A), new File(BASIC_FILE_B)));
+			cmd.setCancellationToken(new CancellationToken(0, TimeUnit.MILLISECONDS));
+			cmd.perform();
+			
+		} catch (PpdTimeoutException ex) {
+			caughtException = true;
+			// the file checks were written, the slides were not
+			Assert.assertTrue(ex.getPartialReport().startsWith("PowerPoint File Comparison Report"));
+			Assert.assertFalse(ex.getPartialReport().contains("SLIDE: "));
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+		Assert.assertTrue(caughtException);
+	}
+	
+	@Test
+	public void perform_masterContentChanged_reportListsMasterOnce() {
+		try {
+			Differ diff = new Differ(new File(IMAGE_FILE_A), new File(IMAGE_FILE_B));
+
+			GenerateReportTextCmd cmd = new GenerateReportTextCmd(diff);
+			cmd.perform();
+			
+			final String report = cmd.getReportText();
+			final String master = GenerateReportTextCmd.TEMPLATE_MASTER + "\" (/ppt/slideMasters/slideMaster1.xml)";
+			Assert.assertTrue(report.contains(master + GenerateReportTextCmd.TEMPLATE_FILE_A));
+			Assert.assertEquals(report.indexOf(master), report.lastIndexOf(master));
+			Assert.assertTrue(report.contains(GenerateReportTextCmd.SLIDE_MASTER_CONTENT_DIFFERENT 
+					+ "/ppt/slideMasters/slideMaster1.xml"));
+
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
 	@Test
 	public void perform_tableCounts_reportProperlyContainsTableCounts() {
 		File fileA = new File(BASIC_FILE_E);
@@ -386,7 +604,8 @@ public class GenerateReportTextCmdTest extends AbstractTestHelper {
 
 			final String report = cmd.getReportText();
 
-			Assert.assertTrue(report.contains(GenerateReportTextCmd.SLIDE_COMP_ENDED));
+			// the last slide in File A has no slide to compare with
+			Assert.assertTrue(report.contains(GenerateReportTextCmd.SLIDE_ONLY_FILE_A + 2));
 
 		} catch (PpdException ex) {
 			Assert.fail();
@@ -455,6 +674,11 @@ public class GenerateReportTextCmdTest extends AbstractTestHelper {
 			final String report = cmd.getReportText();
 
 			Assert.assertTrue(report.contains(GenerateReportTextCmd.IMAGE_INFO_TEXT));
+			// the image shared by both files is matched by content, despite its new name
+			Assert.assertTrue(report.contains(GenerateReportTextCmd.IMAGE_RENAMED));
+			Assert.assertTrue(report.contains(GenerateReportTextCmd.IMAGE_ONLY_FILE_A));
+			Assert.assertTrue(report.contains(GenerateReportTextCmd.IMAGE_ONLY_FILE_B));
+			Assert.assertFalse(report.contains(GenerateReportTextCmd.IMAGE_REPLACED));
 
 		} catch (PpdException ex) {
 			Assert.fail();
@@ -25,19 +25,36 @@
 package com.horvath.pptdiffer.command.io;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.apache.poi.xslf.usermodel.XMLSlideShow;
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import com.horvath.pptdiffer.engine.AbstractTestHelper;
 import com.horvath.pptdiffer.exception.PpdException;
+import com.horvath.pptdiffer.io.FileDigestCache;
+import com.horvath.pptdiffer.utility.CancellationToken;
+import com.horvath.pptdiffer.utility.ListenerList;
+import com.horvath.pptdiffer.utility.PpdEvent;
+import com.horvath.pptdiffer.utility.PpdEventType;
 
 /**
  * Tests operations of LoadPptxCmd. 
  * @author jhorvath
  */
 public class LoadPptxCmdTest extends AbstractTestHelper {
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
 
 	@Test
 	public void perform_fileANull_exception() {
@@ -46,6 +63,7 @@ public class LoadPptxCmdTest extends AbstractTestHelper {
 			// file A is null
 			LoadPptxCmd cmd = new LoadPptxCmd(null, new File(""));
 			cmd.perform();
+			closeAfterTest(cmd);
 			
 		} catch (PpdException ex) {
 			caughtException = true;
@@ -54,6 +72,41 @@ public class LoadPptxCmdTest extends AbstractTestHelper {
 		Assert.assertTrue(caughtException);
 	}
 
+	@Test
+	public void perform_singleFile_onlyFileALoaded() {
+		try {
+			LoadPptxCmd cmd = new LoadPptxCmd(new File(BASIC_FILE_A));
+			cmd.perform();
+			closeAfterTest(cmd);
+			
+			Assert.assertTrue(cmd.isSuccess());
+			Assert.assertNotNull(cmd.getPoiFileA());
+			Assert.assertEquals(2, cmd.getPoiFileA().getSlides().size());
+			Assert.assertNull(cmd.getSessionB());
+			Assert.assertEquals(new File(BASIC_FILE_A).length(), cmd.getFileSizeA());
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void perform_filesNotOpened_onlyCompared() {
+		try {
+			LoadPptxCmd cmd = new LoadPptxCmd(new File(BASIC_FILE_A), new File(BASIC_FILE_B));
+			cmd.setOpenFiles(false);
+			cmd.perform();
+			
+			Assert.assertTrue(cmd.isSuccess());
+			Assert.assertFalse(cmd.isExactlySameFile());
+			Assert.assertNull(cmd.getSessionA());
+			Assert.assertNull(cmd.getSessionB());
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
 	@Test
 	public void perform_fileBNull_exception() {
 		boolean caughtException = false;
@@ -61,6 +114,7 @@ public class LoadPptxCmdTest extends AbstractTestHelper {
 			// file B is null
 			LoadPptxCmd cmd = new LoadPptxCmd(new File(""), null);
 			cmd.perform();
+			closeAfterTest(cmd);
 			
 		} catch (PpdException ex) {
 			caughtException = true;
@@ -76,6 +130,7 @@ public class LoadPptxCmdTest extends AbstractTestHelper {
 			// both files are null
 			LoadPptxCmd cmd = new LoadPptxCmd(null, null);
 			cmd.perform();
+			closeAfterTest(cmd);
 			
 		} catch (PpdException ex) {
 			caughtException = true;
@@ -92,6 +147,7 @@ public class LoadPptxCmdTest extends AbstractTestHelper {
 			// file A does not exist
 			LoadPptxCmd cmd = new LoadPptxCmd(new File(fakeName), new File(BASIC_FILE_B));
 			cmd.perform();
+			closeAfterTest(cmd);
 			
 		} catch (PpdException ex) {
 			caughtException = true;
@@ -108,6 +164,7 @@ public class LoadPptxCmdTest extends AbstractTestHelper {
 			// file B does not exist
 			LoadPptxCmd cmd = new LoadPptxCmd(new File(BASIC_FILE_A), new File(fakeName));
 			cmd.perform();
+			closeAfterTest(cmd);
 			
 		} catch (PpdException ex) {
 			caughtException = true;
@@ -126,6 +183,7 @@ public class LoadPptxCmdTest extends AbstractTestHelper {
 			// neither file exists
 			LoadPptxCmd cmd = new LoadPptxCmd(new File(fakeNameA), new File(fakeNameB));
 			cmd.perform();
+			closeAfterTest(cmd);
 			
 		} catch (PpdException ex) {
 			caughtException = true;
@@ -144,6 +202,7 @@ public class LoadPptxCmdTest extends AbstractTestHelper {
 			// file A not a PPTX
 			LoadPptxCmd cmd = new LoadPptxCmd(fileA, new File(BASIC_FILE_B));
 			cmd.perform();
+			closeAfterTest(cmd);
 			
 		} catch (PpdException ex) {
 			caughtException = true;
@@ -161,6 +220,7 @@ public class LoadPptxCmdTest extends AbstractTestHelper {
 			// file B not a PPTX
 			LoadPptxCmd cmd = new LoadPptxCmd(new File(BASIC_FILE_A), fileb);
 			cmd.perform();
+			closeAfterTest(cmd);
 			
 		} catch (PpdException ex) {
 			caughtException = true;
@@ -180,6 +240,7 @@ public class LoadPptxCmdTest extends AbstractTestHelper {
 			// neither file is a PPTX
 			LoadPptxCmd cmd = new LoadPptxCmd(fileA, fileB);
 			cmd.perform();
+			closeAfterTest(cmd);
 			
 		} catch (PpdException ex) {
 			caughtException = true;
@@ -198,6 +259,7 @@ public class LoadPptxCmdTest extends AbstractTestHelper {
 		try {
 			LoadPptxCmd cmd = new LoadPptxCmd(fileA, fileB);
 			cmd.perform();
+			closeAfterTest(cmd);
 
 			Assert.assertTrue(cmd.isSuccess());
 
@@ -220,6 +282,7 @@ public class LoadPptxCmdTest extends AbstractTestHelper {
 		try {
 			LoadPptxCmd cmd = new LoadPptxCmd(fileA, fileB);
 			cmd.perform();
+			closeAfterTest(cmd);
 			
 			Assert.assertTrue(cmd.isExactlySameFile());			
 			
@@ -236,6 +299,7 @@ public class LoadPptxCmdTest extends AbstractTestHelper {
 		try {
 			LoadPptxCmd cmd = new LoadPptxCmd(fileA, fileB);
 			cmd.perform();
+			closeAfterTest(cmd);
 			
 			Assert.assertFalse(cmd.isExactlySameFile());		
 			
@@ -243,4 +307,177 @@ public class LoadPptxCmdTest extends AbstractTestHelper {
 			Assert.fail();
 		}
 	}
+	
+	@Test
+	public void perform_digestCache_sameFilesDetected() {
+		File fileA = new File(EXACT_FILE_1);
+		File fileB = new File(EXACT_FILE_3);
+		File cacheFile = new File(folder.getRoot(), "digests.properties");
+		
+		try {
+			LoadPptxCmd cmd = new LoadPptxCmd(fileA, fileB, new FileDigestCache(cacheFile));
+			cmd.perform();
+			closeAfterTest(cmd);
+			
+			Assert.assertTrue(cmd.isExactlySameFile());
+			Assert.assertTrue(cacheFile.exists());
+			
+			// second run is answered from the cached digests
+			FileDigestCache cache = new FileDigestCache(cacheFile);
+			Assert.assertNotNull(cache.lookup(fileA));
+			Assert.assertNotNull(cache.lookup(fileB));
+			
+			cmd = new LoadPptxCmd(fileA, fileB, cache);
+			cmd.perform();
+			closeAfterTest(cmd);
+			
+			Assert.assertTrue(cmd.isExactlySameFile());
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void perform_digestCache_differentFilesDetected() {
+		File cacheFile = new File(folder.getRoot(), "digests.properties");
+		
+		try {
+			LoadPptxCmd cmd = new LoadPptxCmd(new File(EXACT_FILE_1), new File(EXACT_FILE_5), 
+					new FileDigestCache(cacheFile));
+			cmd.perform();
+			closeAfterTest(cmd);
+			
+			Assert.assertFalse(cmd.isExactlySameFile());
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void perform_digestCacheSameSizeDifferentByte_offsetFoundWhenAsked() {
+		File cacheFile = new File(folder.getRoot(), "digests.properties");
+		
+		try {
+			// the modified time in the first local file header, which the zip reader does not use
+			final int offset = 10;
+			
+			File fileA = folder.newFile("A.pptx");
+			File fileB = folder.newFile("B.pptx");
+			byte[] data = Files.readAllBytes(new File(EXACT_FILE_1).toPath());
+			Files.write(fileA.toPath(), data);
+			data[offset]++;
+			Files.write(fileB.toPath(), data);
+			
+			LoadPptxCmd cmd = new LoadPptxCmd(fileA, fileB, new FileDigestCache(cacheFile));
+			cmd.perform();
+			closeAfterTest(cmd);
+			
+			Assert.assertTrue(cmd.isSuccess());
+			Assert.assertFalse(cmd.isExactlySameFile());
+			Assert.assertFalse(cmd.isMismatchOffsetKnown());
+			Assert.assertEquals(offset, cmd.getMismatchOffset());
+			Assert.assertTrue(cmd.isMismatchOffsetKnown());
+			
+			// with both digests cached, the files are not read at all
+			final List<PpdEvent> events = new ArrayList<>();
+			ListenerList listeners = new ListenerList();
+			listeners.add(events::add);
+			
+			cmd = new LoadPptxCmd(fileA, fileB, new FileDigestCache(cacheFile));
+			cmd.setListeners(listeners);
+			cmd.perform();
+			closeAfterTest(cmd);
+			
+			Assert.assertFalse(cmd.isExactlySameFile());
+			for (PpdEvent event : events) {
+				Assert.assertNotEquals(PpdEventType.BYTES_READ, event.getType());
+			}
+			
+		} catch (PpdException | IOException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void perform_parallel_bothFilesLoaded() {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		
+		try {
+			LoadPptxCmd cmd = new LoadPptxCmd(new File(BASIC_FILE_A), new File(BASIC_FILE_B));
+			cmd.setExecutor(executor);
+			cmd.perform();
+			closeAfterTest(cmd);
+			
+			Assert.assertTrue(cmd.isSuccess());
+			Assert.assertNotNull(cmd.getPoiFileA());
+			Assert.assertNotNull(cmd.getPoiFileB());
+			Assert.assertEquals(1, cmd.getSessionA().getOpenCount());
+			Assert.assertEquals(1, cmd.getSessionB().getOpenCount());
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+			
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	@Test
+	public void perform_parallelOneFileUnreadable_exceptionAndOtherFileClosed() {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		LoadPptxCmd cmd = null;
+		boolean caughtException = false;
+		
+		try {
+			// named like a PPTX, but not a zip package
+			File broken = folder.newFile("broken.pptx");
+			Files.write(broken.toPath(), "not a presentation".getBytes(StandardCharsets.US_ASCII));
+			
+			cmd = new LoadPptxCmd(new File(BASIC_FILE_A), broken);
+			cmd.setExecutor(executor);
+			cmd.perform();
+			closeAfterTest(cmd);
+			
+		} catch (PpdException ex) {
+			caughtException = true;
+			
+		} catch (IOException ex) {
+			Assert.fail();
+			
+		} finally {
+			executor.shutdown();
+		}
+		
+		Assert.assertTrue(caughtException);
+		Assert.assertFalse(cmd.isSuccess());
+		Assert.assertNull(cmd.getPoiFileA());
+		Assert.assertFalse(cmd.getSessionA().isOpen());
+		Assert.assertFalse(cmd.getSessionB().isOpen());
+	}
+	
+	@Test
+	public void perform_cancelled_nothingLoaded() {
+		CancellationToken token = new CancellationToken();
+		token.cancel();
+		LoadPptxCmd cmd = new LoadPptxCmd(new File(BASIC_FILE_A), new File(BASIC_FILE_B));
+		boolean caughtException = false;
+		
+		try {
+			cmd.setCancellationToken(token);
+			cmd.perform();
+			closeAfterTest(cmd);
+			
+		} catch (PpdException ex) {
+			caughtException = true;
+			Assert.assertEquals(CancellationToken.ERROR_CANCELLED, ex.getMessage());
+		}
+		
+		Assert.assertTrue(caughtException);
+		Assert.assertFalse(cmd.isSuccess());
+		Assert.assertNull(cmd.getPoiFileA());
+		Assert.assertNull(cmd.getPoiFileB());
+	}
+	
 }
@@ -0,0 +1,339 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.command.io;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.horvath.pptdiffer.engine.AbstractTestHelper;
+import com.horvath.pptdiffer.engine.model.PackagePartDiff;
+import com.horvath.pptdiffer.exception.PpdException;
+
+/**
+ * Tests operations of the PreDiffPackagesCmd class.
+ * @author jhorvath
+ */
+public class PreDiffPackagesCmdTest extends AbstractTestHelper {
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	@Test
+	public void perform_nullFile_exception() {
+		boolean exceptionCaught = false;
+		
+		try {
+			PreDiffPackagesCmd cmd = new PreDiffPackagesCmd(null, new File(BASIC_FILE_A));
+			cmd.perform();
+			
+		} catch (PpdException ex) {
+			exceptionCaught = true;
+			Assert.assertTrue(ex.getMessage().startsWith(AbstractFileLoader.ERROR_FILE_NULL));
+		}
+		
+		Assert.assertTrue(exceptionCaught);
+	}
+	
+	@Test
+	public void perform_notPptxFiles_exception() {
+		boolean exceptionCaught = false;
+		
+		try {
+			PreDiffPackagesCmd cmd = new PreDiffPackagesCmd(new File(NOT_PPTX_A), new File(NOT_PPTX_B));
+			cmd.perform();
+			
+		} catch (PpdException ex) {
+			exceptionCaught = true;
+			Assert.assertTrue(ex.getMessage().startsWith(AbstractFileLoader.ERROR_FILE_NOT_PPTX));
+		}
+		
+		Assert.assertTrue(exceptionCaught);
+	}
+	
+	@Test
+	public void perform_sameFiles_identical() {
+		try {
+			PreDiffPackagesCmd cmd = new PreDiffPackagesCmd(new File(EXACT_FILE_1), new File(EXACT_FILE_2));
+			cmd.perform();
+			
+			Assert.assertTrue(cmd.isSuccess());
+			
+			PackagePartDiff diff = cmd.getPartDiff();
+			Assert.assertTrue(diff.isIdentical());
+			Assert.assertTrue(diff.getUnchangedPartCount() > 0);
+			Assert.assertTrue(diff.isSlideUnchanged("ppt/slides/slide1.xml"));
+			Assert.assertTrue(diff.isSlideUnchanged("ppt/slides/slide2.xml"));
+			Assert.assertTrue(diff.isSlideUnchanged("ppt/slides/slide3.xml"));
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void perform_differentContent_slidesChanged() {
+		try {
+			PreDiffPackagesCmd cmd = new PreDiffPackagesCmd(new File(EXACT_FILE_1), new File(EXACT_FILE_5));
+			cmd.perform();
+			
+			PackagePartDiff diff = cmd.getPartDiff();
+			Assert.assertFalse(diff.isIdentical());
+			Assert.assertTrue(diff.getChangedParts().contains("ppt/slides/slide1.xml"));
+			Assert.assertTrue(diff.getChangedParts().contains("docProps/core.xml"));
+			Assert.assertFalse(diff.isSlideUnchanged("ppt/slides/slide1.xml"));
+			Assert.assertTrue(diff.getRemovedParts().isEmpty());
+			Assert.assertTrue(diff.getAddedParts().isEmpty());
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void perform_onlyCorePropertiesChanged_slidesUnchanged() {
+		try {
+			File resaved = folder.newFile("resaved.pptx");
+			copyWithNewCoreProperties(new File(EXACT_FILE_1), resaved);
+			
+			PreDiffPackagesCmd cmd = new PreDiffPackagesCmd(new File(EXACT_FILE_1), resaved);
+			cmd.perform();
+			
+			PackagePartDiff diff = cmd.getPartDiff();
+			Assert.assertEquals(1, diff.getDifferentParts().size());
+			Assert.assertTrue(diff.getChangedParts().contains("docProps/core.xml"));
+			Assert.assertTrue(diff.isSlideUnchanged("ppt/slides/slide1.xml"));
+			Assert.assertTrue(diff.isSlideUnchanged("ppt/slides/slide3.xml"));
+			
+		} catch (PpdException | IOException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void perform_removedMaster_slidesUsingMasterChanged() {
+		try {
+			File changed = folder.newFile("master.pptx");
+			copyWithReplacedPart(new File(EXACT_FILE_1), changed, "ppt/slideMasters/slideMaster1.xml", null);
+			
+			PreDiffPackagesCmd cmd = new PreDiffPackagesCmd(new File(EXACT_FILE_1), changed);
+			cmd.perform();
+			
+			PackagePartDiff diff = cmd.getPartDiff();
+			Assert.assertTrue(diff.getRemovedParts().contains("ppt/slideMasters/slideMaster1.xml"));
+			Assert.assertFalse(diff.isSlideUnchanged("ppt/slides/slide1.xml"));
+			
+		} catch (PpdException | IOException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void perform_lastOfThreeLayoutsChanged_onlyItsSlideChanged() {
+		try {
+			File fileA = folder.newFile("layoutsA.pptx");
+			File fileB = folder.newFile("layoutsB.pptx");
+			writePackage(fileA, threeLayoutPackage("<layout3/>", "<master/>"));
+			writePackage(fileB, threeLayoutPackage("<layout3 changed=\"true\"/>", "<master/>"));
+			
+			PreDiffPackagesCmd cmd = new PreDiffPackagesCmd(fileA, fileB);
+			cmd.perform();
+			
+			PackagePartDiff diff = cmd.getPartDiff();
+			Assert.assertTrue(diff.getChangedParts().contains("ppt/slideLayouts/slideLayout3.xml"));
+			// the master lists all three layouts, but only the slide on the changed one depends on it
+			Assert.assertTrue(diff.isSlideUnchanged("ppt/slides/slide1.xml"));
+			Assert.assertTrue(diff.isSlideUnchanged("ppt/slides/slide2.xml"));
+			Assert.assertFalse(diff.isSlideUnchanged("ppt/slides/slide3.xml"));
+			
+		} catch (PpdException | IOException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void perform_masterOfThreeLayoutsChanged_everySlideChanged() {
+		try {
+			File fileA = folder.newFile("masterA.pptx");
+			File fileB = folder.newFile("masterB.pptx");
+			writePackage(fileA, threeLayoutPackage("<layout3/>", "<master/>"));
+			writePackage(fileB, threeLayoutPackage("<layout3/>", "<master changed=\"true\"/>"));
+			
+			PreDiffPackagesCmd cmd = new PreDiffPackagesCmd(fileA, fileB);
+			cmd.perform();
+			
+			PackagePartDiff diff = cmd.getPartDiff();
+			Assert.assertFalse(diff.isSlideUnchanged("ppt/slides/slide1.xml"));
+			Assert.assertFalse(diff.isSlideUnchanged("ppt/slides/slide2.xml"));
+			Assert.assertFalse(diff.isSlideUnchanged("ppt/slides/slide3.xml"));
+			
+		} catch (PpdException | IOException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void resolveTarget_relativeTargets_resolved() {
+		Assert.assertEquals("ppt/slideLayouts/slideLayout1.xml", 
+				PreDiffPackagesCmd.resolveTarget("ppt/slides/slide1.xml", "../slideLayouts/slideLayout1.xml"));
+		Assert.assertEquals("ppt/media/image1.png", 
+				PreDiffPackagesCmd.resolveTarget("ppt/slides/slide1.xml", "/ppt/media/image1.png"));
+		Assert.assertEquals("ppt/slides/slide2.xml", 
+				PreDiffPackagesCmd.resolveTarget("ppt/slides/slide1.xml", "slide2.xml"));
+		Assert.assertEquals("ppt/slides/_rels/slide1.xml.rels", 
+				PreDiffPackagesCmd.relationshipsPartName("ppt/slides/slide1.xml"));
+	}
+	
+	/**
+	 * Returns the parts of a package with one master of three layouts, and three slides, 
+	 * each on its own layout. 
+	 * 
+	 * @param layout3 String contents of the third layout
+	 * @param master String contents of the master
+	 * @return Map<String, String>
+	 */
+	private static Map<String, String> threeLayoutPackage(String layout3, String master) {
+		final String layoutType = "http://schemas.openxmlformats.org/officeDocument/2006/relationships/slideLayout";
+		final String masterType = "http://schemas.openxmlformats.org/officeDocument/2006/relationships/slideMaster";
+		
+		Map<String, String> parts = new LinkedHashMap<>();
+		parts.put("ppt/slideMasters/slideMaster1.xml", master);
+		parts.put("ppt/slideMasters/_rels/slideMaster1.xml.rels", relationships(layoutType, 
+				"../slideLayouts/slideLayout1.xml", "../slideLayouts/slideLayout2.xml", "../slideLayouts/slideLayout3.xml"));
+		
+		for (int i = 1; i <= 3; i++) {
+			parts.put("ppt/slideLayouts/slideLayout" + i + ".xml", i == 3 ? layout3 : "<layout" + i + "/>");
+			parts.put("ppt/slideLayouts/_rels/slideLayout" + i + ".xml.rels", 
+					relationships(masterType, "../slideMasters/slideMaster1.xml"));
+			parts.put("ppt/slides/slide" + i + ".xml", "<slide" + i + "/>");
+			parts.put("ppt/slides/_rels/slide" + i + ".xml.rels", 
+					relationships(layoutType, "../slideLayouts/slideLayout" + i + ".xml"));
+		}
+		return parts;
+	}
+	
+	/**
+	 * Returns a relationships part with a relationship of the given type to each target. 
+	 * 
+	 * @param type String
+	 * @param targets String...
+	 * @return String
+	 */
+	private static String relationships(String type, String... targets) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">");
+		for (int i = 0; i < targets.length; i++) {
+			sb.append("<Relationship Id=\"rId").append(i + 1).append("\" Type=\"").append(type)
+					.append("\" Target=\"").append(targets[i]).append("\"/>");
+		}
+		sb.append("</Relationships>");
+		return sb.toString();
+	}
+	
+	/**
+	 * Writes a package with the given parts. 
+	 * 
+	 * @param target File
+	 * @param parts Map<String, String> part name to contents
+	 * @throws IOException
+	 */
+	private static void writePackage(File target, Map<String, String> parts) throws IOException {
+		try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(target))) {
+			for (Map.Entry<String, String> part : parts.entrySet()) {
+				out.putNextEntry(new ZipEntry(part.getKey()));
+				out.write(part.getValue().getBytes(StandardCharsets.UTF_8));
+				out.closeEntry();
+			}
+		}
+	}
+	
+	/**
+	 * Copies a package, replacing the core properties part with different contents. 
+	 * 
+	 * @param source File
+	 * @param target File
+	 * @throws IOException
+	 */
+	private static void copyWithNewCoreProperties(File source, File target) throws IOException {
+		final String core = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+				+ "<cp:coreProperties xmlns:cp=\"http://schemas.openxmlformats.org/package/2006/metadata/core-properties\" "
+				+ "xmlns:dc=\"http://purl.org/dc/elements/1.1/\"><dc:title>Re-saved</dc:title></cp:coreProperties>";
+		
+		copyWithReplacedPart(source, target, "docProps/core.xml", core.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	/**
+	 * Copies a package, replacing the contents of one part. When contents is null the part is left out. 
+	 * 
+	 * @param source File
+	 * @param target File
+	 * @param partName String
+	 * @param contents byte[]
+	 * @throws IOException
+	 */
+	private static void copyWithReplacedPart(File source, File target, String partName, byte[] contents) throws IOException {
+		try (ZipFile zip = new ZipFile(source); 
+				ZipOutputStream out = new ZipOutputStream(new FileOutputStream(target))) {
+			
+			Enumeration<? extends ZipEntry> entries = zip.entries();
+			while (entries.hasMoreElements()) {
+				ZipEntry entry = entries.nextElement();
+				
+				if (entry.getName().equals(partName)) {
+					if (contents != null) {
+						out.putNextEntry(new ZipEntry(partName));
+						out.write(contents);
+						out.closeEntry();
+					}
+					continue;
+				}
+				
+				out.putNextEntry(new ZipEntry(entry.getName()));
+				try (InputStream in = zip.getInputStream(entry)) {
+					byte[] buffer = new byte[8192];
+					int read;
+					while ((read = in.read(buffer)) != -1) {
+						out.write(buffer, 0, read);
+					}
+				}
+				out.closeEntry();
+			}
+		}
+	}
+
+}
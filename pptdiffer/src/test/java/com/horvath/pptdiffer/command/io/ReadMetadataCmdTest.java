@@ -0,0 +1,170 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.command.io;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.horvath.pptdiffer.engine.AbstractTestHelper;
+import com.horvath.pptdiffer.engine.model.PptxMetadata;
+import com.horvath.pptdiffer.exception.PpdException;
+
+/**
+ * Tests operations of the ReadMetadataCmd class.
+ * @author jhorvath
+ */
+public class ReadMetadataCmdTest extends AbstractTestHelper {
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	@Test
+	public void perform_nullFile_exception() {
+		boolean exceptionCaught = false;
+		
+		try {
+			ReadMetadataCmd cmd = new ReadMetadataCmd(new File(BASIC_FILE_A), null);
+			cmd.perform();
+			
+		} catch (PpdException ex) {
+			exceptionCaught = true;
+			Assert.assertTrue(ex.getMessage().startsWith(AbstractFileLoader.ERROR_FILE_NULL));
+		}
+		
+		Assert.assertTrue(exceptionCaught);
+	}
+	
+	@Test
+	public void perform_coreAndExtendedProperties_typedValuesRead() {
+		try {
+			ReadMetadataCmd cmd = new ReadMetadataCmd(new File(EXACT_FILE_4), new File(BASIC_FILE_D));
+			cmd.perform();
+			
+			Assert.assertTrue(cmd.isSuccess());
+			
+			PptxMetadata metadata = cmd.getMetadataA();
+			Assert.assertEquals("Exact File Check", metadata.getCoreProperties().get("title"));
+			Assert.assertEquals("Josh Steven Horvath", metadata.getCoreProperties().get("creator"));
+			Assert.assertEquals(Instant.parse("2021-11-28T02:21:22Z"), metadata.getCoreProperties().get("modified"));
+			
+			Assert.assertEquals(3L, metadata.getExtendedProperties().get("Slides"));
+			Assert.assertEquals(Boolean.FALSE, metadata.getExtendedProperties().get("ScaleCrop"));
+			Assert.assertEquals("21.0500", metadata.getExtendedProperties().get("AppVersion"));
+			Assert.assertEquals(Arrays.asList("Fonts used", 2L, "Theme", 1L, "Slide Titles", 3L), 
+					metadata.getExtendedProperties().get("HeadingPairs"));
+			
+			// empty elements hold no value
+			Assert.assertFalse(metadata.getExtendedProperties().containsKey("Company"));
+			Assert.assertTrue(metadata.getCustomProperties().isEmpty());
+			
+			Assert.assertEquals("Test file", cmd.getMetadataB().getCoreProperties().get("subject"));
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void perform_customProperties_typedValuesRead() {
+		try {
+			final String custom = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+					+ "<Properties xmlns=\"http://schemas.openxmlformats.org/officeDocument/2006/custom-properties\" "
+					+ "xmlns:vt=\"http://schemas.openxmlformats.org/officeDocument/2006/docPropsVTypes\">"
+					+ "<property fmtid=\"{D5CDD505-2E9C-101B-9397-08002B2CF9AE}\" pid=\"2\" name=\"Client\"><vt:lpwstr>Acme</vt:lpwstr></property>"
+					+ "<property fmtid=\"{D5CDD505-2E9C-101B-9397-08002B2CF9AE}\" pid=\"3\" name=\"Quarter\"><vt:i4>3</vt:i4></property>"
+					+ "<property fmtid=\"{D5CDD505-2E9C-101B-9397-08002B2CF9AE}\" pid=\"4\" name=\"Final\"><vt:bool>true</vt:bool></property>"
+					+ "<property fmtid=\"{D5CDD505-2E9C-101B-9397-08002B2CF9AE}\" pid=\"5\" name=\"Rate\"><vt:r8>1.5</vt:r8></property>"
+					+ "<property fmtid=\"{D5CDD505-2E9C-101B-9397-08002B2CF9AE}\" pid=\"6\" name=\"Due\"><vt:filetime>2024-03-01T12:00:00Z</vt:filetime></property>"
+					+ "</Properties>";
+			File withCustom = folder.newFile("custom.pptx");
+			copyWithAddedPart(new File(BASIC_FILE_A), withCustom, "docProps/custom.xml", custom.getBytes(StandardCharsets.UTF_8));
+			
+			ReadMetadataCmd cmd = new ReadMetadataCmd(withCustom, new File(BASIC_FILE_A));
+			cmd.perform();
+			
+			PptxMetadata metadata = cmd.getMetadataA();
+			Assert.assertEquals("Acme", metadata.getCustomProperties().get("Client"));
+			Assert.assertEquals(3L, metadata.getCustomProperties().get("Quarter"));
+			Assert.assertEquals(Boolean.TRUE, metadata.getCustomProperties().get("Final"));
+			Assert.assertEquals(1.5, metadata.getCustomProperties().get("Rate"));
+			Assert.assertEquals(Instant.parse("2024-03-01T12:00:00Z"), metadata.getCustomProperties().get("Due"));
+			
+			Assert.assertEquals(metadata.getCoreProperties(), cmd.getMetadataB().getCoreProperties());
+			Assert.assertTrue(cmd.getMetadataB().getCustomProperties().isEmpty());
+			
+		} catch (PpdException | IOException ex) {
+			Assert.fail();
+		}
+	}
+	
+	/**
+	 * Copies a package and adds one part to it. 
+	 * 
+	 * @param source File
+	 * @param target File
+	 * @param partName String
+	 * @param contents byte[]
+	 * @throws IOException
+	 */
+	private static void copyWithAddedPart(File source, File target, String partName, byte[] contents) throws IOException {
+		try (ZipFile zip = new ZipFile(source); 
+				ZipOutputStream out = new ZipOutputStream(new FileOutputStream(target))) {
+			
+			Enumeration<? extends ZipEntry> entries = zip.entries();
+			while (entries.hasMoreElements()) {
+				ZipEntry entry = entries.nextElement();
+				
+				out.putNextEntry(new ZipEntry(entry.getName()));
+				try (InputStream in = zip.getInputStream(entry)) {
+					byte[] buffer = new byte[8192];
+					int read;
+					while ((read = in.read(buffer)) != -1) {
+						out.write(buffer, 0, read);
+					}
+				}
+				out.closeEntry();
+			}
+			
+			out.putNextEntry(new ZipEntry(partName));
+			out.write(contents);
+			out.closeEntry();
+		}
+	}
+
+}
@@ -25,12 +25,15 @@
 package com.horvath.pptdiffer.command.parse;
 
 import java.io.File;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Assert;
 import org.junit.Test;
 
 import com.horvath.pptdiffer.engine.AbstractTestHelper;
 import com.horvath.pptdiffer.exception.PpdException;
+import com.horvath.pptdiffer.exception.PpdTimeoutException;
+import com.horvath.pptdiffer.utility.CancellationToken;
 
 /**
  * Tests operations of ExtractWholeFilerTextCmd.
@@ -193,4 +196,26 @@ public final class ExtractWholeFileTextCmdTest extends AbstractTestHelper {
 		}
 		Assert.assertTrue(caughtException);
 	}
+	
+	@Test
+	public void perform_deadlinePassed_partialTextReturned() {
+		boolean caughtException = false;
+		
+		try {
+			ExtractWholeFileTextCmd cmd = new ExtractWholeFileTextCmd(new File(BASIC_FILE_A), new File(BASIC_FILE_B));
+			cmd.setCancellationToken(new CancellationToken(0, TimeUnit.MILLISECONDS));
+			cmd.perform();
+			
+		} catch (PpdTimeoutException ex) {
+			caughtException = true;
+			// stopped before the first slide
+			Assert.assertEquals("", ex.getPartialTextA());
+			Assert.assertEquals("", ex.getPartialTextB());
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+		Assert.assertTrue(caughtException);
+	}
+	
 }
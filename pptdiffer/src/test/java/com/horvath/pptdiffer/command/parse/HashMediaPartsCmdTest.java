@@ -0,0 +1,174 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.command.parse;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.horvath.pptdiffer.engine.AbstractTestHelper;
+import com.horvath.pptdiffer.engine.PptxSession;
+import com.horvath.pptdiffer.engine.model.MediaPart;
+import com.horvath.pptdiffer.exception.PpdException;
+import com.horvath.pptdiffer.io.FileDigestCache;
+
+/**
+ * Tests operations of HashMediaPartsCmd.
+ * @author jhorvath
+ */
+public class HashMediaPartsCmdTest extends AbstractTestHelper {
+	
+	@Test
+	public void perform_nullSession_exception() {
+		boolean caughtException = false;
+		
+		try {
+			HashMediaPartsCmd cmd = new HashMediaPartsCmd(null, new PptxSession(new File(BASIC_FILE_A)));
+			cmd.perform();
+			
+		} catch (PpdException ex) {
+			caughtException = true;
+			Assert.assertTrue(ex.getMessage().contains(HashMediaPartsCmd.ERROR_NULL_SESSION));
+		}
+		Assert.assertTrue(caughtException);
+	}
+	
+	@Test
+	public void perform_filesWithImages_sizeAndDigestMatchPartContents() {
+		PptxSession sessionA = new PptxSession(new File(IMAGE_FILE_A));
+		PptxSession sessionB = new PptxSession(new File(BASIC_FILE_A));
+		
+		try {
+			HashMediaPartsCmd cmd = new HashMediaPartsCmd(sessionA, sessionB);
+			cmd.perform();
+			
+			Assert.assertTrue(cmd.isSuccess());
+			Assert.assertTrue(cmd.getMediaPartsB().isEmpty());
+			
+			List<MediaPart> mediaParts = cmd.getMediaPartsA();
+			Assert.assertEquals(2, mediaParts.size());
+			
+			MediaPart first = mediaParts.get(0);
+			Assert.assertEquals("/ppt/media/image1.png", first.getPartName());
+			Assert.assertEquals("image/png", first.getContentType());
+			Assert.assertEquals("Name: /ppt/media/image1.png - Content Type: image/png", first.getInfo());
+			
+			try (ZipFile zip = new ZipFile(IMAGE_FILE_A)) {
+				for (MediaPart mediaPart : mediaParts) {
+					ZipEntry entry = zip.getEntry(mediaPart.getPartName().substring(1));
+					Assert.assertEquals(entry.getSize(), mediaPart.getSize());
+					Assert.assertEquals(digestOf(zip, entry), mediaPart.getDigest());
+				}
+			}
+			
+			sessionA.close();
+			sessionB.close();
+			
+		} catch (PpdException | IOException | NoSuchAlgorithmException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void perform_sameFile_sameContent() {
+		PptxSession sessionA = new PptxSession(new File(IMAGE_FILE_A));
+		PptxSession sessionB = new PptxSession(new File(IMAGE_FILE_A));
+		
+		try {
+			HashMediaPartsCmd cmd = new HashMediaPartsCmd(sessionA, sessionB);
+			cmd.setExecutor(Runnable::run);
+			cmd.perform();
+			
+			for (int i = 0; i < cmd.getMediaPartsA().size(); i++) {
+				Assert.assertTrue(cmd.getMediaPartsA().get(i).hasSameContent(cmd.getMediaPartsB().get(i)));
+			}
+			// two different images do not have the same content
+			Assert.assertFalse(cmd.getMediaPartsA().get(0).hasSameContent(cmd.getMediaPartsA().get(1)));
+			
+			sessionA.close();
+			sessionB.close();
+			
+		} catch (PpdException | IOException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void perform_imageFile_referencingSlidesRecorded() {
+		PptxSession sessionA = new PptxSession(new File(IMAGE_FILE_A));
+		PptxSession sessionB = new PptxSession(new File(IMAGE_FILE_C));
+		
+		try {
+			HashMediaPartsCmd cmd = new HashMediaPartsCmd(sessionA, sessionB);
+			cmd.perform();
+			
+			// each image is shown on its own slide
+			for (MediaPart mediaPart : cmd.getMediaPartsA()) {
+				final int slide = mediaPart.getPartName().equals("/ppt/media/image1.png") ? 0 : 1;
+				Assert.assertEquals(Arrays.asList(slide), mediaPart.getSlideIndexes());
+			}
+			for (MediaPart mediaPart : cmd.getMediaPartsB()) {
+				final int slide = mediaPart.getPartName().equals("/ppt/media/image1.png") ? 0 : 1;
+				Assert.assertEquals(Arrays.asList(slide), mediaPart.getSlideIndexes());
+			}
+			
+			sessionA.close();
+			sessionB.close();
+			
+		} catch (PpdException | IOException ex) {
+			Assert.fail();
+		}
+	}
+	
+	/**
+	 * Computes the digest of a zip entry. 
+	 * @param zip ZipFile
+	 * @param entry ZipEntry
+	 * @return String
+	 * @throws IOException
+	 * @throws NoSuchAlgorithmException
+	 */
+	private static String digestOf(ZipFile zip, ZipEntry entry) throws IOException, NoSuchAlgorithmException {
+		MessageDigest md = MessageDigest.getInstance(FileDigestCache.ALGORITHM);
+		try (InputStream in = zip.getInputStream(entry)) {
+			byte[] buffer = new byte[4096];
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				md.update(buffer, 0, read);
+			}
+		}
+		return FileDigestCache.toHex(md.digest());
+	}
+
+}
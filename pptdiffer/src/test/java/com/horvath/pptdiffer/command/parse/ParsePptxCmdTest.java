@@ -24,6 +24,9 @@
 
 package com.horvath.pptdiffer.command.parse;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 import org.apache.poi.xslf.usermodel.XMLSlideShow;
 import org.apache.poi.xslf.usermodel.XSLFSlide;
 import org.apache.poi.xslf.usermodel.XSLFTextBox;
@@ -34,9 +37,16 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import com.horvath.pptdiffer.engine.AbstractTestHelper;
+import com.horvath.pptdiffer.engine.LazySlideList;
+import com.horvath.pptdiffer.engine.model.PptxShape;
+import com.horvath.pptdiffer.engine.model.PptxShapeType;
 import com.horvath.pptdiffer.engine.model.PptxSlide;
 import com.horvath.pptdiffer.engine.model.PptxSlideShow;
+import com.horvath.pptdiffer.engine.model.PptxTable;
 import com.horvath.pptdiffer.exception.PpdException;
+import com.horvath.pptdiffer.exception.PpdTimeoutException;
+import com.horvath.pptdiffer.utility.CancellationToken;
+import com.horvath.pptdiffer.utility.ParseMode;
 
 /**
  *  Tests operations of ParsePptxCmd.
@@ -364,4 +374,297 @@ public class ParsePptxCmdTest extends AbstractTestHelper {
 		}		
 	}
 	
+	@Test
+	public void perform_slidesHaveShapes_shapeModelsRead() {
+		try {
+			XMLSlideShow[] array = loadPptxFilesHelper(SHAPE_TEST_FILE, BASIC_FILE_B);
+
+			ParsePptxCmd cmd = new ParsePptxCmd(array[0], array[1]);
+			cmd.perform();
+
+			Assert.assertTrue(cmd.isSuccess());
+
+			List<PptxShape> shapes = cmd.getPpdFileA().getSlideList().get(6).getShapes();
+			Assert.assertEquals(6, shapes.size());
+
+			PptxShape title = shapes.get(0);
+			Assert.assertEquals(2, title.getId());
+			Assert.assertEquals("Title 1", title.getName());
+			Assert.assertEquals(PptxShapeType.TEXT, title.getType());
+			Assert.assertEquals("6 Shapes", title.getText());
+
+			PptxShape rectangle = shapes.get(2);
+			Assert.assertEquals(9434945, rectangle.getX());
+			Assert.assertEquals(4752109, rectangle.getY());
+			Assert.assertEquals(2202873, rectangle.getWidth());
+			Assert.assertEquals(1745673, rectangle.getHeight());
+
+			Assert.assertEquals(PptxShapeType.CONNECTOR, shapes.get(4).getType());
+			Assert.assertEquals(PptxShapeType.PICTURE, shapes.get(5).getType());
+			Assert.assertEquals("Picture 7", shapes.get(5).getName());
+			
+			// the title is a placeholder, the rectangle is not
+			Assert.assertEquals("title", title.getPlaceholderType());
+			Assert.assertFalse(rectangle.isPlaceholder());
+			Assert.assertEquals("/ppt/slideLayouts/slideLayout2.xml", cmd.getPpdFileA().getSlideList().get(6).getLayoutPart());
+
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+
+	@Test
+	public void perform_slideHasTable_tableGridRead() {
+		try {
+			XMLSlideShow[] array = loadPptxFilesHelper(BASIC_FILE_E, BASIC_FILE_B);
+
+			ParsePptxCmd cmd = new ParsePptxCmd(array[0], array[1]);
+			cmd.perform();
+
+			Assert.assertTrue(cmd.isSuccess());
+
+			PptxShape shape = cmd.getPpdFileA().getSlideList().get(1).getShapes().get(1);
+			Assert.assertEquals(PptxShapeType.TABLE, shape.getType());
+			
+			PptxTable table = shape.getTable();
+			Assert.assertNotNull(table);
+			Assert.assertEquals(3, table.getRowCount());
+			Assert.assertEquals(4, table.getColumnCount());
+			Assert.assertEquals("Start Date", table.getCell(0, 3));
+			Assert.assertEquals("987654321", table.getCell(2, 2));
+			
+			// shapes that are not tables have no grid
+			Assert.assertNull(cmd.getPpdFileA().getSlideList().get(1).getShapes().get(0).getTable());
+
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+
+	@Test
+	public void perform_streamingMode_shapeCountsMatchExpected() {
+		try {
+			XMLSlideShow[] array = loadPptxFilesHelper(SHAPE_TEST_FILE, BASIC_FILE_B);
+			
+			ParsePptxCmd cmd = new ParsePptxCmd(array[0], array[1]);
+			cmd.setParseMode(ParseMode.STREAMING);
+			cmd.perform();
+			
+			Assert.assertTrue(cmd.isSuccess());
+
+			int count = 0;
+			for (PptxSlide slide : cmd.getPpdFileA().getSlideList()) {
+				Assert.assertEquals(count, slide.getShapeCount());
+				count++;
+			}
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void perform_slidesHaveNotes_notesReadPerSlide() {
+		try {
+			XMLSlideShow[] array = loadPptxFilesHelper(WHOLE_TEXT, EXACT_FILE_1);
+
+			ParsePptxCmd cmd = new ParsePptxCmd(array[0], array[1]);
+			cmd.perform();
+
+			Assert.assertTrue(cmd.isSuccess());
+			
+			List<PptxSlide> slides = cmd.getPpdFileA().getSlideList();
+			Assert.assertEquals("Note for title slide.", slides.get(0).getNotes());
+			Assert.assertEquals("Note for bullet slide.", slides.get(1).getNotes());
+			Assert.assertEquals("Note for table slide.", slides.get(2).getNotes());
+			
+			// notes are kept out of the slide text
+			Assert.assertFalse(slides.get(0).getText().contains("Note"));
+			
+			// slides without notes
+			Assert.assertEquals("", cmd.getPpdFileB().getSlideList().get(1).getNotes());
+
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void perform_streamingMode_sameAsDom() {
+		final String[] paths = {BASIC_FILE_A, BASIC_FILE_B, BASIC_FILE_C, BASIC_FILE_D, BASIC_FILE_E, 
+				BASIC_FILE_F, EXACT_FILE_1, EXACT_FILE_5, SLIDE_COUNT_3_4SLIDES, TABLE_TEXT, WHOLE_TEXT, 
+				EXTRA_TEXT, EXTRA_TEXT_MISSING, SHAPE_TEST_FILE, IMAGE_FILE_A, IMAGE_FILE_C};
+		
+		try {
+			for (int i = 0; i < paths.length; i += 2) {
+				XMLSlideShow[] array = loadPptxFilesHelper(paths[i], paths[i + 1]);
+				
+				ParsePptxCmd domCmd = new ParsePptxCmd(array[0], array[1]);
+				domCmd.perform();
+				
+				ParsePptxCmd streamCmd = new ParsePptxCmd(array[0], array[1]);
+				streamCmd.setParseMode(ParseMode.STREAMING);
+				streamCmd.perform();
+				
+				Assert.assertTrue(streamCmd.isSuccess());
+				
+				assertSameSlideShow(domCmd.getPpdFileA(), streamCmd.getPpdFileA());
+				assertSameSlideShow(domCmd.getPpdFileB(), streamCmd.getPpdFileB());
+				// close each pair before opening the next
+				closeSessions();
+			}
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void perform_lazySlides_slidesParsedOnAccess() {
+		XMLSlideShow[] array = loadPptxFilesHelper(SLIDE_COUNT_3_4SLIDES, BASIC_FILE_E);
+		
+		try {
+			ParsePptxCmd domCmd = new ParsePptxCmd(array[0], array[1]);
+			domCmd.perform();
+			
+			ParsePptxCmd lazyCmd = new ParsePptxCmd(array[0], array[1]);
+			lazyCmd.setLazySlides(true);
+			lazyCmd.setSlideCacheSize(2);
+			lazyCmd.perform();
+			
+			Assert.assertTrue(lazyCmd.isSuccess());
+			
+			Assert.assertTrue(lazyCmd.getPpdFileA().getSlideList() instanceof LazySlideList);
+			LazySlideList lazyList = (LazySlideList) lazyCmd.getPpdFileA().getSlideList();
+			
+			// slide count is known before any slide is parsed
+			Assert.assertEquals(4, lazyList.size());
+			Assert.assertEquals(0, lazyList.getCachedCount());
+			
+			Assert.assertEquals(domCmd.getPpdFileA().getSlideList().get(2).getText(), lazyList.get(2).getText());
+			Assert.assertEquals(1, lazyList.getCachedCount());
+			
+			// the cache never grows past its size
+			assertSameSlideShow(domCmd.getPpdFileA(), lazyCmd.getPpdFileA());
+			assertSameSlideShow(domCmd.getPpdFileB(), lazyCmd.getPpdFileB());
+			Assert.assertEquals(2, lazyList.getCachedCount());
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void perform_packagesOnly_sameAsDom() {
+		XMLSlideShow[] array = loadPptxFilesHelper(SLIDE_COUNT_3_4SLIDES, BASIC_FILE_E);
+		
+		try {
+			ParsePptxCmd domCmd = new ParsePptxCmd(array[0], array[1]);
+			domCmd.perform();
+			
+			ParsePptxCmd packageCmd = ParsePptxCmd.fromPackages(array[0].getPackage(), array[1].getPackage());
+			packageCmd.perform();
+			
+			Assert.assertTrue(packageCmd.isSuccess());
+			assertSameSlideShow(domCmd.getPpdFileA(), packageCmd.getPpdFileA());
+			assertSameSlideShow(domCmd.getPpdFileB(), packageCmd.getPpdFileB());
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void perform_singleFile_sameAsPair() {
+		XMLSlideShow[] array = loadPptxFilesHelper(SLIDE_COUNT_3_4SLIDES, BASIC_FILE_E);
+		
+		try {
+			ParsePptxCmd pairCmd = new ParsePptxCmd(array[0], array[1]);
+			pairCmd.perform();
+			
+			ParsePptxCmd domCmd = new ParsePptxCmd(array[1]);
+			domCmd.perform();
+			
+			ParsePptxCmd packageCmd = ParsePptxCmd.fromPackage(array[1].getPackage());
+			packageCmd.perform();
+			
+			Assert.assertTrue(domCmd.isSuccess());
+			Assert.assertTrue(packageCmd.isSuccess());
+			// the one file is parsed as File A
+			assertSameSlideShow(pairCmd.getPpdFileB(), domCmd.getPpdFileA());
+			assertSameSlideShow(pairCmd.getPpdFileB(), packageCmd.getPpdFileA());
+			Assert.assertTrue(domCmd.getPpdFileB().getSlideList().isEmpty());
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	/**
+	 * Asserts that two parsed slide-shows hold the same information.
+	 * @param expected PptxSlideShow
+	 * @param actual PptxSlideShow
+	 */
+	private static void assertSameSlideShow(PptxSlideShow expected, PptxSlideShow actual) {
+		Assert.assertEquals(expected.getMasterSlideCount(), actual.getMasterSlideCount());
+		Assert.assertEquals(expected.getSlideList().size(), actual.getSlideList().size());
+		
+		for (int i = 0; i < expected.getSlideList().size(); i++) {
+			PptxSlide slideA = expected.getSlideList().get(i);
+			PptxSlide slideB = actual.getSlideList().get(i);
+			
+			Assert.assertEquals(slideA.getSlideName(), slideB.getSlideName());
+			Assert.assertEquals(slideA.getSlideNumber(), slideB.getSlideNumber());
+			Assert.assertEquals(slideA.getLayout(), slideB.getLayout());
+			Assert.assertEquals(slideA.getLayoutPart(), slideB.getLayoutPart());
+			Assert.assertEquals(slideA.getShapeCount(), slideB.getShapeCount());
+			Assert.assertEquals(slideA.getShapeNames(), slideB.getShapeNames());
+			Assert.assertEquals(slideA.getTableCount(), slideB.getTableCount());
+			Assert.assertEquals(slideA.getText(), slideB.getText());
+			Assert.assertEquals(slideA.getNotes(), slideB.getNotes());
+			
+			Assert.assertEquals(slideA.getShapes().size(), slideB.getShapes().size());
+			for (int j = 0; j < slideA.getShapes().size(); j++) {
+				PptxShape shapeA = slideA.getShapes().get(j);
+				PptxShape shapeB = slideB.getShapes().get(j);
+				
+				Assert.assertEquals(shapeA.getId(), shapeB.getId());
+				Assert.assertEquals(shapeA.getName(), shapeB.getName());
+				Assert.assertEquals(shapeA.getType(), shapeB.getType());
+				Assert.assertTrue(shapeA.hasSamePosition(shapeB));
+				Assert.assertTrue(shapeA.hasSameSize(shapeB));
+				Assert.assertEquals(shapeA.getRotation(), shapeB.getRotation(), 0.0);
+				Assert.assertEquals(shapeA.getText(), shapeB.getText());
+				Assert.assertEquals(shapeA.getPlaceholderType(), shapeB.getPlaceholderType());
+				Assert.assertEquals(shapeA.getPlaceholderIndex(), shapeB.getPlaceholderIndex());
+				Assert.assertEquals(shapeA.getTable() == null, shapeB.getTable() == null);
+				if (shapeA.getTable() != null) {
+					Assert.assertEquals(shapeA.getTable().getRows(), shapeB.getTable().getRows());
+				}
+			}
+		}
+	}
+	
+	@Test
+	public void perform_deadlinePassed_partialSlidesReturned() {
+		XMLSlideShow[] array = loadPptxFilesHelper(BASIC_FILE_A, BASIC_FILE_B);
+		boolean caughtException = false;
+		
+		try {
+			ParsePptxCmd cmd = new ParsePptxCmd(array[0], array[1]);
+			cmd.setCancellationToken(new CancellationToken(0, TimeUnit.MILLISECONDS));
+			cmd.perform();
+			
+		} catch (PpdTimeoutException ex) {
+			caughtException = true;
+			// the token is checked after each slide, so File A stops after its first slide
+			Assert.assertEquals(1, ex.getPartialFileA().getSlideList().size());
+			Assert.assertTrue(ex.getPartialFileB().getSlideList().isEmpty());
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+		Assert.assertTrue(caughtException);
+	}
+	
 }
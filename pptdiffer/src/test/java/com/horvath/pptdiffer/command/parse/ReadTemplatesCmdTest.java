@@ -0,0 +1,106 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.command.parse;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.horvath.pptdiffer.engine.AbstractTestHelper;
+import com.horvath.pptdiffer.engine.PptxSession;
+import com.horvath.pptdiffer.engine.model.PptxShape;
+import com.horvath.pptdiffer.engine.model.PptxTemplate;
+import com.horvath.pptdiffer.exception.PpdException;
+
+/**
+ * Tests operations of ReadTemplatesCmd.
+ * @author jhorvath
+ */
+public class ReadTemplatesCmdTest extends AbstractTestHelper {
+	
+	@Test
+	public void perform_nullSession_exception() {
+		boolean caughtException = false;
+		
+		try {
+			ReadTemplatesCmd cmd = new ReadTemplatesCmd(new PptxSession(new File(BASIC_FILE_A)), null);
+			cmd.perform();
+			
+		} catch (PpdException ex) {
+			caughtException = true;
+			Assert.assertTrue(ex.getMessage().contains(ReadTemplatesCmd.ERROR_NULL_SESSION));
+		}
+		Assert.assertTrue(caughtException);
+	}
+	
+	@Test
+	public void perform_basicFile_masterThenLayoutsRead() {
+		PptxSession sessionA = new PptxSession(new File(BASIC_FILE_A));
+		PptxSession sessionB = new PptxSession(new File(BASIC_FILE_B));
+		
+		try {
+			ReadTemplatesCmd cmd = new ReadTemplatesCmd(sessionA, sessionB);
+			cmd.perform();
+			
+			Assert.assertTrue(cmd.isSuccess());
+			
+			Map<String, PptxTemplate> templates = cmd.getTemplatesA();
+			Assert.assertEquals(12, templates.size());
+			
+			List<PptxTemplate> list = new ArrayList<>(templates.values());
+			PptxTemplate master = list.get(0);
+			Assert.assertTrue(master.isMaster());
+			Assert.assertEquals("/ppt/slideMasters/slideMaster1.xml", master.getPartName());
+			Assert.assertEquals("bgRef[idx=1001]{schemeClr[val=bg1]}", master.getBackground());
+			
+			PptxTemplate titleSlide = templates.get("/ppt/slideLayouts/slideLayout1.xml");
+			Assert.assertFalse(titleSlide.isMaster());
+			Assert.assertEquals("Title Slide", titleSlide.getName());
+			Assert.assertEquals(master.getPartName(), titleSlide.getMasterPartName());
+			// the layout takes its background from the master
+			Assert.assertNull(titleSlide.getBackground());
+			
+			List<PptxShape> placeholders = titleSlide.getPlaceholders();
+			Assert.assertEquals(5, placeholders.size());
+			Assert.assertEquals("ctrTitle", placeholders.get(0).getPlaceholderType());
+			Assert.assertEquals("subTitle", placeholders.get(1).getPlaceholderType());
+			Assert.assertEquals(1, placeholders.get(1).getPlaceholderIndex());
+			Assert.assertTrue(placeholders.get(0).getWidth() > 0);
+			Assert.assertFalse(placeholders.get(0).getText().isEmpty());
+			
+			sessionA.close();
+			sessionB.close();
+			
+		} catch (PpdException | IOException ex) {
+			Assert.fail();
+		}
+	}
+
+}
@@ -25,8 +25,12 @@
 package com.horvath.pptdiffer.engine;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.poi.xslf.usermodel.XMLSlideShow;
+import org.junit.After;
 import org.junit.Assert;
 
 import com.horvath.pptdiffer.command.io.LoadPptxCmd;
@@ -36,6 +40,9 @@ import com.horvath.pptdiffer.exception.PpdException;
 
 public class AbstractTestHelper {
 	
+	// sessions opened by a test, returned to the shared pool after it
+	private final List<PptxSession> openSessions = new ArrayList<>();
+	
 	public static final String RESOURCES_DIRECTORY = "src" + File.separator + "test" 
 			+ File.separator + "resources";
 	
@@ -141,6 +148,7 @@ public class AbstractTestHelper {
 		LoadPptxCmd cmd = new LoadPptxCmd(fileA, fileB);
 		try {
 			cmd.perform();
+			closeAfterTest(cmd);
 
 		} catch (PpdException ex) {
 			Assert.fail();
@@ -168,4 +176,34 @@ public class AbstractTestHelper {
 		
 		return new PptxSlideShow[] {cmd.getPpdFileA(), cmd.getPpdFileB()};
 	}
+	
+	/**
+	 * Closes the sessions of a load command once the test has finished. 
+	 * 
+	 * @param cmd LoadPptxCmd
+	 */
+	protected void closeAfterTest(LoadPptxCmd cmd) {
+		if (cmd.getSessionA() != null) {
+			openSessions.add(cmd.getSessionA());
+		}
+		if (cmd.getSessionB() != null) {
+			openSessions.add(cmd.getSessionB());
+		}
+	}
+	
+	/**
+	 * Closes the sessions opened by the test, so their packages are not held open.
+	 */
+	@After
+	public void closeSessions() {
+		for (PptxSession session : openSessions) {
+			try {
+				session.close();
+				
+			} catch (IOException ex) {
+				Assert.fail();
+			}
+		}
+		openSessions.clear();
+	}
 }
@@ -0,0 +1,340 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.horvath.pptdiffer.exception.PpdException;
+import com.horvath.pptdiffer.exception.PpdTimeoutException;
+import com.horvath.pptdiffer.utility.CancellationToken;
+
+/**
+ * Tests operations of PackageHandlePool.
+ * @author jhorvath
+ */
+public class PackageHandlePoolTest extends AbstractTestHelper {
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	@Test
+	public void acquire_sameFileTwice_packageNotShared() {
+		PackageHandlePool pool = new PackageHandlePool(4, true);
+		
+		try {
+			PackageHandle first = pool.acquire(new File(BASIC_FILE_A));
+			PackageHandle second = pool.acquire(new File(BASIC_FILE_A));
+			
+			// a slide-show is never used by two holders at once
+			Assert.assertNotSame(first.getSlideShow(), second.getSlideShow());
+			Assert.assertEquals(2, pool.getOpenCount());
+			Assert.assertEquals(2, pool.getInUseCount());
+			
+			first.close();
+			Assert.assertEquals(1, pool.getInUseCount());
+			
+			second.close();
+			// released packages stay open for the next comparison, but only the newest copy is reused
+			Assert.assertEquals(0, pool.getInUseCount());
+			Assert.assertEquals(2, pool.getOpenCount());
+			
+			PackageHandle again = pool.acquire(new File(BASIC_FILE_A));
+			Assert.assertSame(second.getPackage(), again.getPackage());
+			Assert.assertEquals(1, pool.getOpenCount());
+			again.close();
+			
+			pool.closeIdle();
+			Assert.assertEquals(0, pool.getOpenCount());
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void acquire_fileOpened_slideShowCreatedOnFirstUse() {
+		PackageHandlePool pool = new PackageHandlePool(4);
+		
+		try (PackageHandle handle = pool.acquire(new File(BASIC_FILE_A))) {
+			Assert.assertNotNull(handle.getPackage());
+			Assert.assertFalse(handle.hasSlideShow());
+			
+			Assert.assertSame(handle.getPackage(), handle.getSlideShow().getPackage());
+			Assert.assertTrue(handle.hasSlideShow());
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+		
+		Assert.assertEquals(0, pool.getOpenCount());
+	}
+	
+	@Test
+	public void release_poolNotKeepingIdle_packageClosed() {
+		PackageHandlePool pool = new PackageHandlePool(4);
+		
+		try {
+			PackageHandle first = pool.acquire(new File(BASIC_FILE_A));
+			Assert.assertEquals(1, pool.getOpenCount());
+			
+			first.close();
+			Assert.assertEquals(0, pool.getOpenCount());
+			
+			PackageHandle second = pool.acquire(new File(BASIC_FILE_A));
+			Assert.assertNotSame(first.getPackage(), second.getPackage());
+			second.close();
+			Assert.assertEquals(0, pool.getOpenCount());
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void close_calledTwice_releasedOnce() {
+		PackageHandlePool pool = new PackageHandlePool(4);
+		
+		try {
+			PackageHandle first = pool.acquire(new File(BASIC_FILE_A));
+			PackageHandle second = pool.acquire(new File(BASIC_FILE_A));
+			
+			first.close();
+			first.close();
+			
+			Assert.assertTrue(first.isClosed());
+			Assert.assertEquals(1, pool.getInUseCount());
+			
+			second.close();
+			pool.closeIdle();
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void acquire_overLimit_leastRecentlyUsedIdleClosed() {
+		PackageHandlePool pool = new PackageHandlePool(2, true);
+		
+		try {
+			PackageHandle handleA = pool.acquire(new File(BASIC_FILE_A));
+			handleA.close();
+			PackageHandle handleB = pool.acquire(new File(BASIC_FILE_B));
+			handleB.close();
+			PackageHandle handleC = pool.acquire(new File(BASIC_FILE_C));
+			handleC.close();
+			
+			Assert.assertEquals(2, pool.getOpenCount());
+			
+			// B and C are still open, A was closed and is opened again
+			PackageHandle againC = pool.acquire(new File(BASIC_FILE_C));
+			Assert.assertSame(handleC.getPackage(), againC.getPackage());
+			againC.close();
+			
+			PackageHandle againA = pool.acquire(new File(BASIC_FILE_A));
+			Assert.assertNotSame(handleA.getPackage(), againA.getPackage());
+			againA.close();
+			
+			Assert.assertEquals(2, pool.getOpenCount());
+			pool.closeIdle();
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void acquire_allInUse_exceptionUntilReleased() {
+		PackageHandlePool pool = new PackageHandlePool(1, true);
+		boolean caughtException = false;
+		
+		try {
+			PackageHandle handleA = pool.acquire(new File(BASIC_FILE_A));
+			
+			try {
+				pool.acquire(new File(BASIC_FILE_B));
+				
+			} catch (PpdException ex) {
+				caughtException = true;
+				Assert.assertEquals(PackageHandlePool.ERROR_LIMIT + 1, ex.getMessage());
+			}
+			Assert.assertTrue(caughtException);
+			// packages in use are never closed by the pool
+			Assert.assertEquals(1, pool.getOpenCount());
+			Assert.assertEquals(1, pool.getInUseCount());
+			
+			handleA.close();
+			// the idle package makes way for the next one
+			PackageHandle handleB = pool.acquire(new File(BASIC_FILE_B));
+			Assert.assertEquals(1, pool.getOpenCount());
+			
+			handleB.close();
+			pool.closeIdle();
+			Assert.assertEquals(0, pool.getOpenCount());
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void acquire_sharedPool_noLimit() {
+		PackageHandlePool pool = PackageHandlePool.getInstance();
+		final int openBefore = pool.getOpenCount();
+		List<PackageHandle> handles = new ArrayList<>();
+		
+		Assert.assertEquals(PackageHandlePool.UNLIMITED, pool.getMaxOpen());
+		
+		try {
+			// more than any small limit, as when several comparisons run together
+			for (int i = 0; i < 12; i++) {
+				handles.add(pool.acquire(new File(BASIC_FILE_A)));
+			}
+			Assert.assertEquals(openBefore + 12, pool.getOpenCount());
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+			
+		} finally {
+			for (PackageHandle handle : handles) {
+				handle.close();
+			}
+		}
+		Assert.assertEquals(openBefore, pool.getOpenCount());
+	}
+	
+	@Test
+	public void acquire_fileChangedOnDisk_openedAgain() {
+		PackageHandlePool pool = new PackageHandlePool(4, true);
+		
+		try {
+			File copy = folder.newFile("copy.pptx");
+			Files.copy(new File(BASIC_FILE_A).toPath(), copy.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			
+			PackageHandle before = pool.acquire(copy);
+			
+			Files.copy(new File(BASIC_FILE_B).toPath(), copy.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			Assert.assertTrue(copy.setLastModified(copy.lastModified() - 10000));
+			
+			// the old copy is out of date, so it is not kept once released
+			before.close();
+			Assert.assertEquals(0, pool.getOpenCount());
+			
+			PackageHandle after = pool.acquire(copy);
+			Assert.assertNotSame(before.getPackage(), after.getPackage());
+			Assert.assertEquals(1, pool.getOpenCount());
+			
+			after.close();
+			pool.closeIdle();
+			Assert.assertEquals(0, pool.getOpenCount());
+			
+		} catch (PpdException | IOException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void acquire_fileNotExist_exception() {
+		PackageHandlePool pool = new PackageHandlePool(4);
+		boolean caughtException = false;
+		
+		try {
+			pool.acquire(new File("fake.pptx"));
+			
+		} catch (PpdException ex) {
+			caughtException = true;
+		}
+		
+		Assert.assertTrue(caughtException);
+		Assert.assertEquals(0, pool.getOpenCount());
+	}
+	
+	@Test
+	public void session_closed_handleReturnedToPool() {
+		PackageHandlePool pool = new PackageHandlePool(4);
+		PptxSession sessionA = new PptxSession(new File(BASIC_FILE_D), pool);
+		PptxSession sessionB = new PptxSession(new File(BASIC_FILE_D), pool);
+		
+		try {
+			// two live sessions on one file each have a slide-show of their own
+			Assert.assertNotSame(sessionA.getSlideShow(), sessionB.getSlideShow());
+			Assert.assertTrue(sessionA.isSameFile(sessionB));
+			Assert.assertEquals(2, pool.getOpenCount());
+			Assert.assertEquals(2, pool.getInUseCount());
+			
+			sessionA.close();
+			sessionB.close();
+			Assert.assertEquals(0, pool.getInUseCount());
+			Assert.assertEquals(0, pool.getOpenCount());
+			
+		} catch (PpdException | IOException ex) {
+			Assert.fail();
+		}
+	}
+
+	@Test
+	public void session_deadlinePassedDuringLoad_loadStopped() {
+		PackageHandlePool pool = new PackageHandlePool(4);
+		boolean caughtException = false;
+		
+		try (PptxSession session = new PptxSession(new File(SLIDE_COUNT_3_4SLIDES), pool)) {
+			// the package is open, and no slide part has been read yet
+			session.getPackage();
+			
+			try {
+				session.getSlideShow(new CancellationToken(0, TimeUnit.NANOSECONDS));
+				
+			} catch (PpdTimeoutException ex) {
+				caughtException = true;
+				Assert.assertEquals(CancellationToken.ERROR_DEADLINE, ex.getMessage());
+			}
+			
+			Assert.assertTrue(caughtException);
+			Assert.assertFalse(session.hasSlideShow());
+			
+			// the stopped package is given back, and the next load opens the file again
+			Assert.assertFalse(session.isOpen());
+			Assert.assertEquals(4, session.getSlideShow().getSlides().size());
+			Assert.assertEquals(2, session.getOpenCount());
+			
+		} catch (PpdException | IOException ex) {
+			Assert.fail();
+		}
+		
+		Assert.assertEquals(0, pool.getOpenCount());
+	}
+
+}
@@ -0,0 +1,147 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Random;
+
+import org.apache.poi.sl.usermodel.PictureData.PictureType;
+import org.apache.poi.xslf.usermodel.XMLSlideShow;
+import org.apache.poi.xslf.usermodel.XSLFPictureData;
+import org.apache.poi.xslf.usermodel.XSLFSlide;
+
+import com.horvath.pptdiffer.exception.PpdException;
+
+/**
+ * Measures peak heap use when opening a large deck from a stream, as the loader used to, 
+ * and through a PptxSession, which opens the package from the file. 
+ * Not part of the test suite, run by hand: 
+ * 
+ * java -cp ... com.horvath.pptdiffer.engine.PackageLoadBenchmark [deck.pptx | sizeInMB] [stream|file]
+ * 
+ * Without a deck, a deck of the given size (default 500 MB) filled with media is generated first. 
+ * Each mode should be run in its own JVM, so that one run does not warm the heap for the other.
+ * @author jhorvath
+ */
+public class PackageLoadBenchmark {
+	
+	private static final int MEDIA_PART_SIZE = 20 * 1024 * 1024;
+
+	public static void main(String[] args) throws IOException, PpdException {
+		File deck;
+		if (args.length > 0 && args[0].toLowerCase().endsWith(".pptx")) {
+			deck = new File(args[0]);
+			
+		} else {
+			final int sizeInMB = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+			deck = File.createTempFile("ppd-benchmark", ".pptx");
+			deck.deleteOnExit();
+			generateDeck(deck, sizeInMB);
+		}
+		final String mode = args.length > 1 ? args[1] : "file";
+		
+		System.out.println("Deck: " + deck.getAbsolutePath() + " (" + deck.length() / (1024 * 1024) + " MB)");
+		
+		resetPeaks();
+		final long start = System.nanoTime();
+		int slides;
+		
+		if ("stream".equals(mode)) {
+			try (InputStream in = new FileInputStream(deck); XMLSlideShow show = new XMLSlideShow(in)) {
+				slides = show.getSlides().size();
+			}
+			
+		} else {
+			try (PptxSession session = new PptxSession(deck)) {
+				slides = session.getSlideShow().getSlides().size();
+			}
+		}
+		
+		final long millis = (System.nanoTime() - start) / 1000000;
+		System.out.println("Mode: " + mode + ", slides: " + slides + ", time: " + millis 
+				+ " ms, peak heap: " + peakHeap() / (1024 * 1024) + " MB");
+	}
+	
+	/**
+	 * Writes a deck with one slide per media part, sized to roughly the requested number of megabytes. 
+	 * The media is random data, so that the zip cannot compress it.
+	 * 
+	 * @param deck File 
+	 * @param sizeInMB int
+	 * @throws IOException
+	 */
+	private static void generateDeck(File deck, int sizeInMB) throws IOException {
+		final int parts = Math.max(1, (sizeInMB * 1024 * 1024) / MEDIA_PART_SIZE);
+		Random random = new Random(42);
+		
+		try (XMLSlideShow show = new XMLSlideShow(); OutputStream out = new FileOutputStream(deck)) {
+			for (int i = 0; i < parts; i++) {
+				byte[] data = new byte[MEDIA_PART_SIZE];
+				random.nextBytes(data);
+				
+				XSLFPictureData picture = show.addPicture(data, PictureType.PNG);
+				XSLFSlide slide = show.createSlide();
+				slide.createPicture(picture);
+			}
+			show.write(out);
+		}
+	}
+	
+	/**
+	 * Clears garbage and resets the peak usage of the heap memory pools.
+	 */
+	private static void resetPeaks() {
+		System.gc();
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				pool.resetPeakUsage();
+			}
+		}
+	}
+	
+	/**
+	 * Returns the sum of the peak usage of the heap memory pools. 
+	 * 
+	 * @return long bytes
+	 */
+	private static long peakHeap() {
+		long peak = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				peak += pool.getPeakUsage().getUsed();
+			}
+		}
+		return peak;
+	}
+
+}
@@ -0,0 +1,154 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.poi.xslf.usermodel.XMLSlideShow;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.horvath.pptdiffer.command.parse.ExtractWholeFileTextCmd;
+import com.horvath.pptdiffer.command.parse.ParsePptxCmd;
+import com.horvath.pptdiffer.exception.PpdException;
+import com.horvath.pptdiffer.io.FileDigestCache;
+
+/**
+ * Tests operations of PptxSession.
+ * @author jhorvath
+ */
+public class PptxSessionTest extends AbstractTestHelper {
+
+	@Test
+	public void getSlideShow_calledTwice_openedOnce() {
+		PptxSession session = new PptxSession(new File(BASIC_FILE_A));
+		
+		try {
+			Assert.assertEquals(0, session.getOpenCount());
+			Assert.assertFalse(session.isOpen());
+			
+			XMLSlideShow first = session.getSlideShow();
+			XMLSlideShow second = session.getSlideShow();
+			
+			Assert.assertSame(first, second);
+			Assert.assertEquals(1, session.getOpenCount());
+			Assert.assertTrue(session.isOpen());
+			
+			session.close();
+			
+		} catch (PpdException | IOException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void getSlideShow_afterClose_openedAgain() {
+		PptxSession session = new PptxSession(new File(BASIC_FILE_A));
+		
+		try {
+			session.getSlideShow();
+			session.close();
+			Assert.assertFalse(session.isOpen());
+			
+			session.getSlideShow();
+			Assert.assertEquals(2, session.getOpenCount());
+			
+			session.close();
+			
+		} catch (PpdException | IOException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void close_afterOpen_fileNotModified() {
+		File file = new File(BASIC_FILE_C);
+		PptxSession session = new PptxSession(file);
+		
+		try {
+			final long lastModified = file.lastModified();
+			final String digest = FileDigestCache.computeDigest(file);
+			
+			session.getSlideShow();
+			session.close();
+			
+			// the package is opened read-only, and closing it must not save anything
+			Assert.assertEquals(lastModified, file.lastModified());
+			Assert.assertEquals(digest, FileDigestCache.computeDigest(file));
+			
+		} catch (PpdException | IOException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void getSlideShow_fileNotExist_exception() {
+		boolean caughtException = false;
+		PptxSession session = new PptxSession(new File("fake.pptx"));
+		
+		try {
+			session.getSlideShow();
+			
+		} catch (PpdException ex) {
+			caughtException = true;
+		}
+		Assert.assertTrue(caughtException);
+		Assert.assertEquals(0, session.getOpenCount());
+	}
+	
+	@Test
+	public void sharedSession_parseAndExtract_eachPackageOpenedOnce() {
+		PptxSession sessionA = new PptxSession(new File(WHOLE_TEXT));
+		PptxSession sessionB = new PptxSession(new File(BASIC_FILE_B));
+		
+		try {
+			ParsePptxCmd parseCmd = new ParsePptxCmd(sessionA.getSlideShow(), sessionB.getSlideShow());
+			parseCmd.perform();
+			
+			ExtractWholeFileTextCmd extractCmd = new ExtractWholeFileTextCmd(sessionA, sessionB);
+			extractCmd.perform();
+			
+			Assert.assertTrue(parseCmd.isSuccess());
+			Assert.assertTrue(extractCmd.isSuccess());
+			Assert.assertTrue(extractCmd.getFileA_Text().contains("Whole Text File"));
+			Assert.assertTrue(extractCmd.getFileA_metadata().contains("Creator = Josh Horvath"));
+			
+			// the shared slide-shows must still be usable after extraction
+			Assert.assertTrue(sessionA.isOpen());
+			Assert.assertTrue(sessionB.isOpen());
+			
+			Assert.assertEquals(1, sessionA.getOpenCount());
+			Assert.assertEquals(1, sessionB.getOpenCount());
+			
+			sessionA.close();
+			sessionB.close();
+			
+		} catch (PpdException | IOException ex) {
+			Assert.fail();
+		}
+	}
+	
+}
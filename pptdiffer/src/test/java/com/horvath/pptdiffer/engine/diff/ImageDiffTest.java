@@ -0,0 +1,131 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine.diff;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.horvath.pptdiffer.engine.model.MediaPart;
+
+/**
+ * Tests operations of ImageDiff.
+ * @author jhorvath
+ */
+public class ImageDiffTest {
+	
+	@Test
+	public void diff_sameImages_allUnchanged() {
+		List<ImageChange> changes = ImageDiff.diff(
+				Arrays.asList(image("image1.png", "aa", 0), image("image2.png", "bb", 1)), 
+				Arrays.asList(image("image1.png", "aa", 0), image("image2.png", "bb", 1)));
+		
+		Assert.assertEquals(2, changes.size());
+		for (ImageChange change : changes) {
+			Assert.assertEquals(ImageChangeType.UNCHANGED, change.getType());
+			Assert.assertFalse(change.isRenamed());
+		}
+	}
+	
+	@Test
+	public void diff_reorderedImages_matchedByDigest() {
+		List<ImageChange> changes = ImageDiff.diff(
+				Arrays.asList(image("image1.png", "aa", 0), image("image2.png", "bb", 1)), 
+				Arrays.asList(image("image1.png", "bb", 0), image("image2.png", "aa", 1)));
+		
+		Assert.assertEquals(2, changes.size());
+		Assert.assertEquals(ImageChangeType.UNCHANGED, changes.get(0).getType());
+		Assert.assertTrue(changes.get(0).isRenamed());
+		Assert.assertEquals("/ppt/media/image2.png", changes.get(0).getImageB().getPartName());
+		Assert.assertEquals(ImageChangeType.UNCHANGED, changes.get(1).getType());
+	}
+	
+	@Test
+	public void diff_reencodedImage_replacedBySameName() {
+		List<ImageChange> changes = ImageDiff.diff(
+				Arrays.asList(image("image1.png", "aa", 0)), 
+				Arrays.asList(image("image1.png", "cc", 0)));
+		
+		Assert.assertEquals(1, changes.size());
+		Assert.assertEquals(ImageChangeType.REPLACED, changes.get(0).getType());
+	}
+	
+	@Test
+	public void diff_newImageOnSameSlide_replacedBySlides() {
+		List<ImageChange> changes = ImageDiff.diff(
+				Arrays.asList(image("image1.png", "aa", 2)), 
+				Arrays.asList(image("image5.jpeg", "cc", 2)));
+		
+		Assert.assertEquals(1, changes.size());
+		Assert.assertEquals(ImageChangeType.REPLACED, changes.get(0).getType());
+		Assert.assertEquals("/ppt/media/image5.jpeg", changes.get(0).getImageB().getPartName());
+	}
+	
+	@Test
+	public void diff_unrelatedImages_removedAndAdded() {
+		List<ImageChange> changes = ImageDiff.diff(
+				Arrays.asList(image("image1.png", "aa", 0)), 
+				Arrays.asList(image("image2.png", "cc", 1)));
+		
+		Assert.assertEquals(2, changes.size());
+		Assert.assertEquals(ImageChangeType.REMOVED, changes.get(0).getType());
+		Assert.assertNull(changes.get(0).getImageB());
+		Assert.assertEquals(ImageChangeType.ADDED, changes.get(1).getType());
+		Assert.assertNull(changes.get(1).getImageA());
+	}
+	
+	@Test
+	public void diff_duplicateContent_eachPairedOnce() {
+		List<ImageChange> changes = ImageDiff.diff(
+				Arrays.asList(image("image1.png", "aa", 0), image("image2.png", "aa", 1)), 
+				Arrays.asList(image("image3.png", "aa", 0)));
+		
+		Assert.assertEquals(2, changes.size());
+		Assert.assertEquals(ImageChangeType.UNCHANGED, changes.get(0).getType());
+		Assert.assertEquals(ImageChangeType.REMOVED, changes.get(1).getType());
+	}
+	
+	/**
+	 * Helper method to describe an image shown on one slide.
+	 * 
+	 * @param name String
+	 * @param digest String
+	 * @param slide int
+	 * @return MediaPart
+	 */
+	private MediaPart image(String name, String digest, int slide) {
+		MediaPart image = new MediaPart();
+		image.setPartName("/ppt/media/" + name);
+		image.setContentType("image/png");
+		image.setSize(digest.length());
+		image.setDigest(digest);
+		image.setSlideIndexes(Collections.singletonList(slide));
+		return image;
+	}
+
+}
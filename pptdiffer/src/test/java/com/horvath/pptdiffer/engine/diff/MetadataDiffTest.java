@@ -0,0 +1,90 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine.diff;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.horvath.pptdiffer.engine.model.PptxMetadata;
+
+/**
+ * Tests operations of MetadataDiff.
+ * @author jhorvath
+ */
+public class MetadataDiffTest {
+	
+	@Test
+	public void diff_sameProperties_noChanges() {
+		PptxMetadata metadataA = new PptxMetadata();
+		metadataA.getCoreProperties().put("title", "Deck");
+		metadataA.getExtendedProperties().put("Slides", 3L);
+		PptxMetadata metadataB = new PptxMetadata();
+		metadataB.getCoreProperties().put("title", "Deck");
+		metadataB.getExtendedProperties().put("Slides", 3L);
+		
+		Assert.assertTrue(MetadataDiff.diff(metadataA, metadataB).isEmpty());
+	}
+	
+	@Test
+	public void diff_changedAddedAndRemoved_listedByGroup() {
+		PptxMetadata metadataA = new PptxMetadata();
+		metadataA.getCoreProperties().put("title", "Deck");
+		metadataA.getCustomProperties().put("Client", "Acme");
+		PptxMetadata metadataB = new PptxMetadata();
+		metadataB.getCoreProperties().put("title", "Deck v2");
+		metadataB.getCoreProperties().put("subject", "Budget");
+		metadataB.getExtendedProperties().put("Slides", 4L);
+		
+		List<MetadataChange> changes = MetadataDiff.diff(metadataA, metadataB);
+		Assert.assertEquals(4, changes.size());
+		
+		Assert.assertEquals(MetadataGroup.CORE, changes.get(0).getGroup());
+		Assert.assertEquals("title", changes.get(0).getName());
+		Assert.assertEquals("Deck", changes.get(0).getValueA());
+		Assert.assertEquals("Deck v2", changes.get(0).getValueB());
+		
+		Assert.assertEquals("subject", changes.get(1).getName());
+		Assert.assertNull(changes.get(1).getValueA());
+		
+		Assert.assertEquals(MetadataGroup.EXTENDED, changes.get(2).getGroup());
+		Assert.assertEquals(4L, changes.get(2).getValueB());
+		
+		Assert.assertEquals(MetadataGroup.CUSTOM, changes.get(3).getGroup());
+		Assert.assertNull(changes.get(3).getValueB());
+	}
+	
+	@Test
+	public void diff_sameValueDifferentType_changed() {
+		PptxMetadata metadataA = new PptxMetadata();
+		metadataA.getCustomProperties().put("Quarter", 3L);
+		PptxMetadata metadataB = new PptxMetadata();
+		metadataB.getCustomProperties().put("Quarter", "3");
+		
+		Assert.assertEquals(1, MetadataDiff.diff(metadataA, metadataB).size());
+	}
+
+}
@@ -0,0 +1,201 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine.diff;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests operations of MyersDiff.
+ * @author jhorvath
+ */
+public class MyersDiffTest {
+	
+	@Test
+	public void diff_sameWords_noHunks() {
+		List<String> words = MyersDiff.words("The quick brown fox");
+		Assert.assertTrue(MyersDiff.diff(words, new ArrayList<>(words)).isEmpty());
+	}
+	
+	@Test
+	public void diff_insertedWord_singleInsertHunk() {
+		List<DiffHunk> hunks = MyersDiff.diff(MyersDiff.words("The quick fox jumps"), 
+				MyersDiff.words("The quick brown fox jumps"));
+		
+		Assert.assertEquals(1, hunks.size());
+		Assert.assertEquals(HunkType.INSERT, hunks.get(0).getType());
+		Assert.assertEquals(2, hunks.get(0).getStartA());
+		Assert.assertEquals(2, hunks.get(0).getStartB());
+		Assert.assertEquals(3, hunks.get(0).getEndB());
+	}
+	
+	@Test
+	public void diff_deletedWords_singleDeleteHunk() {
+		List<DiffHunk> hunks = MyersDiff.diff(MyersDiff.words("Extra words at the end of the slide"), 
+				MyersDiff.words("Extra words"));
+		
+		Assert.assertEquals(1, hunks.size());
+		Assert.assertEquals(HunkType.DELETE, hunks.get(0).getType());
+		Assert.assertEquals(2, hunks.get(0).getStartA());
+		Assert.assertEquals(8, hunks.get(0).getEndA());
+	}
+	
+	@Test
+	public void diff_changedWord_replaceHunkAndRestAligned() {
+		List<DiffHunk> hunks = MyersDiff.diff(MyersDiff.words("Vacuum the floor Order groceries Make appointment"), 
+				MyersDiff.words("Vacuum the floor Go get groceries Make appointment Rake the leaves"));
+		
+		Assert.assertEquals(2, hunks.size());
+		
+		Assert.assertEquals(HunkType.REPLACE, hunks.get(0).getType());
+		Assert.assertEquals(3, hunks.get(0).getStartA());
+		Assert.assertEquals(1, hunks.get(0).getLengthA());
+		Assert.assertEquals(2, hunks.get(0).getLengthB());
+		
+		Assert.assertEquals(HunkType.INSERT, hunks.get(1).getType());
+		Assert.assertEquals(7, hunks.get(1).getStartA());
+		Assert.assertEquals(3, hunks.get(1).getLengthB());
+	}
+	
+	@Test
+	public void diff_noCommonWords_singleReplaceHunk() {
+		List<DiffHunk> hunks = MyersDiff.diff(MyersDiff.words("one two three"), MyersDiff.words("four five"));
+		
+		Assert.assertEquals(1, hunks.size());
+		Assert.assertEquals(HunkType.REPLACE, hunks.get(0).getType());
+		Assert.assertEquals(3, hunks.get(0).getLengthA());
+		Assert.assertEquals(2, hunks.get(0).getLengthB());
+	}
+	
+	@Test
+	public void diff_emptySide_insertOrDelete() {
+		List<String> words = MyersDiff.words("only words");
+		List<String> none = Collections.emptyList();
+		
+		Assert.assertEquals(HunkType.INSERT, MyersDiff.diff(none, words).get(0).getType());
+		Assert.assertEquals(HunkType.DELETE, MyersDiff.diff(words, none).get(0).getType());
+		Assert.assertTrue(MyersDiff.diff(none, none).isEmpty());
+	}
+	
+	@Test
+	public void words_extraSpaces_emptyWordsIgnored() {
+		Assert.assertEquals(Arrays.asList("a", "b"), MyersDiff.words(" a  b "));
+	}
+	
+	@Test
+	public void diff_randomSequences_minimalAndConsistent() {
+		Random random = new Random(42);
+		
+		for (int run = 0; run < 500; run++) {
+			int[] a = randomSequence(random);
+			int[] b = randomSequence(random);
+			
+			List<DiffHunk> hunks = MyersDiff.diff(a, b);
+			
+			// the unchanged tokens between hunks must line up, and be a longest common subsequence
+			int i = 0;
+			int j = 0;
+			int common = 0;
+			for (DiffHunk hunk : hunks) {
+				Assert.assertEquals(hunk.getStartA() - i, hunk.getStartB() - j);
+				for (; i < hunk.getStartA(); i++, j++) {
+					Assert.assertEquals(a[i], b[j]);
+					common++;
+				}
+				i = hunk.getEndA();
+				j = hunk.getEndB();
+			}
+			Assert.assertEquals(a.length - i, b.length - j);
+			for (; i < a.length; i++, j++) {
+				Assert.assertEquals(a[i], b[j]);
+				common++;
+			}
+			Assert.assertEquals(longestCommonSubsequence(a, b), common);
+		}
+	}
+	
+	@Test
+	public void diff_largeSequences_completesQuickly() {
+		Random random = new Random(7);
+		int[] a = new int[50000];
+		for (int i = 0; i < a.length; i++) {
+			a[i] = random.nextInt(5000);
+		}
+		int[] b = a.clone();
+		for (int edit = 0; edit < 200; edit++) {
+			b[random.nextInt(b.length)] = 5000 + edit;
+		}
+		
+		final long start = System.nanoTime();
+		List<DiffHunk> hunks = MyersDiff.diff(a, b);
+		final long millis = (System.nanoTime() - start) / 1_000_000L;
+		
+		Assert.assertFalse(hunks.isEmpty());
+		Assert.assertTrue(hunks.size() <= 200);
+		Assert.assertTrue("took " + millis + " ms", millis < 5000);
+	}
+	
+	/**
+	 * Helper method to build a short sequence from a small alphabet, so matches are common.
+	 * 
+	 * @param random Random
+	 * @return int[]
+	 */
+	private int[] randomSequence(Random random) {
+		int[] sequence = new int[random.nextInt(30)];
+		for (int i = 0; i < sequence.length; i++) {
+			sequence[i] = random.nextInt(4);
+		}
+		return sequence;
+	}
+	
+	/**
+	 * Helper method returning the longest common subsequence length by dynamic programming.
+	 * 
+	 * @param a int[]
+	 * @param b int[]
+	 * @return int
+	 */
+	private int longestCommonSubsequence(int[] a, int[] b) {
+		int[][] lengths = new int[a.length + 1][b.length + 1];
+		for (int i = 1; i <= a.length; i++) {
+			for (int j = 1; j <= b.length; j++) {
+				if (a[i - 1] == b[j - 1]) {
+					lengths[i][j] = lengths[i - 1][j - 1] + 1;
+				} else {
+					lengths[i][j] = Math.max(lengths[i - 1][j], lengths[i][j - 1]);
+				}
+			}
+		}
+		return lengths[a.length][b.length];
+	}
+
+}
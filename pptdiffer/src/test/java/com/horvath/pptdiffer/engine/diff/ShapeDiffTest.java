@@ -0,0 +1,191 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine.diff;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.horvath.pptdiffer.engine.model.PptxShape;
+import com.horvath.pptdiffer.engine.model.PptxShapeType;
+
+/**
+ * Tests operations of ShapeDiff.
+ * @author jhorvath
+ */
+public class ShapeDiffTest {
+	
+	@Test
+	public void diff_sameShapes_noChanges() {
+		List<ShapeChange> changes = ShapeDiff.diff(
+				Arrays.asList(shape(2, "Title 1", 0, 0, "Hello"), shape(3, "Oval 2", 100, 200, "")), 
+				Arrays.asList(shape(2, "Title 1", 0, 0, "Hello"), shape(3, "Oval 2", 100, 200, "")));
+		
+		Assert.assertEquals(2, changes.size());
+		for (ShapeChange change : changes) {
+			Assert.assertFalse(change.isChanged());
+			Assert.assertNotNull(change.getShapeB());
+		}
+	}
+	
+	@Test
+	public void diff_movedAndRetextedShape_matchedById() {
+		PptxShape shapeB = shape(3, "Oval 2", 500, 200, "World");
+		shapeB.setWidth(90);
+		shapeB.setRotation(45.0);
+		
+		List<ShapeChange> changes = ShapeDiff.diff(
+				Arrays.asList(shape(3, "Oval 2", 100, 200, "Hello")), 
+				Arrays.asList(shapeB));
+		
+		Assert.assertEquals(1, changes.size());
+		ShapeChange change = changes.get(0);
+		Assert.assertSame(shapeB, change.getShapeB());
+		Assert.assertTrue(change.hasChange(ShapeChangeType.MOVED));
+		Assert.assertTrue(change.hasChange(ShapeChangeType.RESIZED));
+		Assert.assertTrue(change.hasChange(ShapeChangeType.ROTATED));
+		Assert.assertTrue(change.hasChange(ShapeChangeType.RETEXTED));
+		Assert.assertFalse(change.hasChange(ShapeChangeType.RENAMED));
+		Assert.assertFalse(change.hasChange(ShapeChangeType.RETYPED));
+	}
+	
+	@Test
+	public void diff_newIds_matchedByName() {
+		PptxShape shapeB = shape(9, "Oval 2", 100, 200, "");
+		shapeB.setType(PptxShapeType.PICTURE);
+		
+		List<ShapeChange> changes = ShapeDiff.diff(
+				Arrays.asList(shape(3, "Oval 2", 100, 200, "")), 
+				Arrays.asList(shapeB));
+		
+		Assert.assertEquals(1, changes.size());
+		Assert.assertSame(shapeB, changes.get(0).getShapeB());
+		Assert.assertEquals(Collections.singleton(ShapeChangeType.RETYPED), changes.get(0).getChanges());
+	}
+	
+	@Test
+	public void diff_recreatedPlaceholder_matchedByPlaceholder() {
+		PptxShape shapeA = shape(2, "Title 1", 0, 0, "Hello");
+		shapeA.setPlaceholderType("title");
+		PptxShape shapeB = shape(7, "Title 6", 0, 0, "Hello");
+		shapeB.setPlaceholderType("title");
+		
+		List<ShapeChange> changes = ShapeDiff.diff(Arrays.asList(shapeA), Arrays.asList(shapeB));
+		
+		Assert.assertEquals(1, changes.size());
+		Assert.assertSame(shapeB, changes.get(0).getShapeB());
+		Assert.assertTrue(changes.get(0).hasChange(ShapeChangeType.RENAMED));
+	}
+	
+	@Test
+	public void diff_newIdAndName_matchedByPosition() {
+		List<ShapeChange> changes = ShapeDiff.diff(
+				Arrays.asList(shape(3, "Oval 2", 100, 200, "")), 
+				Arrays.asList(shape(9, "Circle", 100, 200, "")));
+		
+		Assert.assertEquals(1, changes.size());
+		Assert.assertEquals(Collections.singleton(ShapeChangeType.RENAMED), changes.get(0).getChanges());
+	}
+	
+	@Test
+	public void diff_noAnchor_notMatchedByPosition() {
+		// placeholders without their own anchor are not paired just for sharing the empty one
+		List<ShapeChange> changes = ShapeDiff.diff(
+				Arrays.asList(shape(3, "Title 1", 0, 0, "")), 
+				Arrays.asList(shape(9, "Subtitle 2", 0, 0, "")));
+		
+		Assert.assertEquals(2, changes.size());
+		Assert.assertTrue(changes.get(0).hasChange(ShapeChangeType.REMOVED));
+		Assert.assertNull(changes.get(0).getShapeB());
+		Assert.assertTrue(changes.get(1).hasChange(ShapeChangeType.ADDED));
+		Assert.assertNull(changes.get(1).getShapeA());
+	}
+	
+	@Test
+	public void diff_unrelatedShapes_removedThenAdded() {
+		List<ShapeChange> changes = ShapeDiff.diff(
+				Arrays.asList(shape(2, "Title 1", 0, 0, ""), shape(3, "Oval 2", 100, 200, "")), 
+				Arrays.asList(shape(2, "Title 1", 0, 0, ""), shape(4, "Table 3", 300, 400, "")));
+		
+		Assert.assertEquals(3, changes.size());
+		Assert.assertFalse(changes.get(0).isChanged());
+		Assert.assertEquals("Oval 2", changes.get(1).getShapeA().getName());
+		Assert.assertTrue(changes.get(1).hasChange(ShapeChangeType.REMOVED));
+		Assert.assertEquals("Table 3", changes.get(2).getShapeB().getName());
+		Assert.assertTrue(changes.get(2).hasChange(ShapeChangeType.ADDED));
+	}
+	
+	@Test
+	public void diff_manyShapes_finishesQuickly() {
+		final int count = 20000;
+		List<PptxShape> shapesA = new ArrayList<>();
+		List<PptxShape> shapesB = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			shapesA.add(shape(i, "Shape " + i, i + 1, i + 1, ""));
+			// new ids and names on every shape, so each is matched by position
+			shapesB.add(shape(count + i, "Other " + (count - i), i + 1, i + 1, ""));
+		}
+		Collections.reverse(shapesB);
+		
+		final long start = System.nanoTime();
+		List<ShapeChange> changes = ShapeDiff.diff(shapesA, shapesB);
+		final long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+		
+		Assert.assertEquals(count, changes.size());
+		for (int i = 0; i < count; i++) {
+			Assert.assertEquals(shapesA.get(i).getX(), changes.get(i).getShapeB().getX());
+		}
+		Assert.assertTrue("took " + elapsedMillis + " ms", elapsedMillis < 5000);
+	}
+	
+	/**
+	 * Creates a text shape with a fixed size at the given position.
+	 * @param id int
+	 * @param name String
+	 * @param x long
+	 * @param y long
+	 * @param text String
+	 * @return PptxShape
+	 */
+	private static PptxShape shape(int id, String name, long x, long y, String text) {
+		PptxShape shape = new PptxShape();
+		shape.setId(id);
+		shape.setName(name);
+		shape.setType(PptxShapeType.TEXT);
+		shape.setX(x);
+		shape.setY(y);
+		if (x != 0 || y != 0) {
+			shape.setWidth(80);
+			shape.setHeight(60);
+		}
+		shape.setText(text);
+		return shape;
+	}
+
+}
@@ -0,0 +1,218 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine.diff;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.horvath.pptdiffer.engine.model.PptxSlide;
+
+/**
+ * Tests operations of SlideAligner.
+ * @author jhorvath
+ */
+public class SlideAlignerTest {
+	
+	@Test
+	public void align_sameSlides_allSame() {
+		List<PptxSlide> slides = deck("one", "two", "three");
+		
+		List<SlideMatch> matches = SlideAligner.align(slides, deck("one", "two", "three"));
+		
+		Assert.assertEquals(3, matches.size());
+		for (int i = 0; i < matches.size(); i++) {
+			Assert.assertEquals(SlideMatchType.SAME, matches.get(i).getType());
+			Assert.assertEquals(i, matches.get(i).getIndexA());
+			Assert.assertEquals(i, matches.get(i).getIndexB());
+		}
+	}
+	
+	@Test
+	public void align_insertedSlide_laterSlidesStillSame() {
+		List<SlideMatch> matches = SlideAligner.align(deck("one", "two", "three", "four"), 
+				deck("one", "two", "new", "three", "four"));
+		
+		Assert.assertEquals(5, matches.size());
+		Assert.assertEquals(SlideMatchType.INSERTED, matches.get(2).getType());
+		Assert.assertEquals(SlideMatch.NO_SLIDE, matches.get(2).getIndexA());
+		Assert.assertEquals(2, matches.get(2).getIndexB());
+		
+		Assert.assertEquals(SlideMatchType.SAME, matches.get(3).getType());
+		Assert.assertEquals(2, matches.get(3).getIndexA());
+		Assert.assertEquals(3, matches.get(3).getIndexB());
+		Assert.assertEquals(SlideMatchType.SAME, matches.get(4).getType());
+	}
+	
+	@Test
+	public void align_deletedSlide_reportedOnlyInA() {
+		List<SlideMatch> matches = SlideAligner.align(deck("one", "two", "three"), deck("one", "three"));
+		
+		Assert.assertEquals(3, matches.size());
+		Assert.assertEquals(SlideMatchType.DELETED, matches.get(1).getType());
+		Assert.assertEquals(1, matches.get(1).getIndexA());
+		Assert.assertFalse(matches.get(1).isPaired());
+		Assert.assertEquals(2, matches.get(2).getIndexB() + 1);
+	}
+	
+	@Test
+	public void align_movedSlide_detectedAsMoved() {
+		List<SlideMatch> matches = SlideAligner.align(deck("one", "two", "three", "four"), 
+				deck("two", "three", "four", "one"));
+		
+		Assert.assertEquals(4, matches.size());
+		Assert.assertEquals(SlideMatchType.MOVED, matches.get(0).getType());
+		Assert.assertEquals(0, matches.get(0).getIndexA());
+		Assert.assertEquals(3, matches.get(0).getIndexB());
+		for (int i = 1; i < 4; i++) {
+			Assert.assertEquals(SlideMatchType.SAME, matches.get(i).getType());
+		}
+	}
+	
+	@Test
+	public void align_editedSlide_pairedAsChanged() {
+		List<PptxSlide> slidesA = deck("one", "two", "three");
+		List<PptxSlide> slidesB = deck("one", "two edited", "three");
+		
+		List<SlideMatch> matches = SlideAligner.align(slidesA, slidesB);
+		
+		Assert.assertEquals(3, matches.size());
+		Assert.assertEquals(SlideMatchType.CHANGED, matches.get(1).getType());
+		Assert.assertEquals(1, matches.get(1).getIndexA());
+		Assert.assertEquals(1, matches.get(1).getIndexB());
+	}
+	
+	@Test
+	public void align_insertedSlideWithDifferentLayout_editedSlideStillPaired() {
+		List<PptxSlide> slidesA = deck("one", "two", "three");
+		List<PptxSlide> slidesB = deck("one", "chart", "two edited", "three");
+		slidesB.get(1).setLayout("Chart");
+		
+		List<SlideMatch> matches = SlideAligner.align(slidesA, slidesB);
+		
+		Assert.assertEquals(4, matches.size());
+		Assert.assertEquals(SlideMatchType.INSERTED, matches.get(1).getType());
+		Assert.assertEquals(1, matches.get(1).getIndexB());
+		Assert.assertEquals(SlideMatchType.CHANGED, matches.get(2).getType());
+		Assert.assertEquals(2, matches.get(2).getIndexB());
+	}
+	
+	@Test
+	public void align_largeDeck_everySlideAccountedFor() {
+		final int count = 20000;
+		List<String> texts = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			texts.add("slide " + i);
+		}
+		List<String> textsB = new ArrayList<>(texts);
+		textsB.add(3, "inserted");
+		textsB.remove(1000);
+		textsB.add(textsB.remove(50));
+		
+		final long start = System.nanoTime();
+		List<SlideMatch> matches = SlideAligner.align(deck(texts.toArray(new String[0])), 
+				deck(textsB.toArray(new String[0])));
+		final long millis = (System.nanoTime() - start) / 1_000_000L;
+		
+		int[] counts = new int[SlideMatchType.values().length];
+		for (SlideMatch match : matches) {
+			counts[match.getType().ordinal()]++;
+		}
+		Assert.assertEquals(1, counts[SlideMatchType.INSERTED.ordinal()]);
+		Assert.assertEquals(1, counts[SlideMatchType.DELETED.ordinal()]);
+		Assert.assertEquals(1, counts[SlideMatchType.MOVED.ordinal()]);
+		Assert.assertEquals(count - 2, counts[SlideMatchType.SAME.ordinal()]);
+		Assert.assertTrue("took " + millis + " ms", millis < 5000);
+	}
+	
+	@Test
+	public void align_movedAndEditedSlide_detectedAsMoved() {
+		List<PptxSlide> slidesA = deck("one", "two", "three", "agenda for the quarterly planning meeting with every team");
+		List<PptxSlide> slidesB = deck("agenda for the quarterly planning meeting with each team", "one", "two", "three");
+		
+		List<SlideMatch> matches = SlideAligner.align(slidesA, slidesB);
+		
+		Assert.assertEquals(4, matches.size());
+		Assert.assertEquals(SlideMatchType.MOVED, matches.get(3).getType());
+		Assert.assertEquals(3, matches.get(3).getIndexA());
+		Assert.assertEquals(0, matches.get(3).getIndexB());
+		for (int i = 0; i < 3; i++) {
+			Assert.assertEquals(SlideMatchType.SAME, matches.get(i).getType());
+		}
+	}
+	
+	@Test
+	public void align_everySlideLightlyEdited_pairedBySimilarity() {
+		final int count = 1000;
+		List<String> texts = new ArrayList<>();
+		List<String> textsB = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			final String text = "slide " + i + " covers topic " + (i * 7919 % 10007) + " in section " + (i / 10) 
+					+ " of chapter " + (i / 100) + " with notes";
+			texts.add(text);
+			textsB.add(text + " edited");
+		}
+		// the last slide moved to the front
+		textsB.add(0, textsB.remove(count - 1));
+		
+		final long start = System.nanoTime();
+		List<SlideMatch> matches = SlideAligner.align(deck(texts.toArray(new String[0])), 
+				deck(textsB.toArray(new String[0])));
+		final long millis = (System.nanoTime() - start) / 1_000_000L;
+		
+		Assert.assertEquals(count, matches.size());
+		for (int i = 0; i < count - 1; i++) {
+			Assert.assertEquals(SlideMatchType.CHANGED, matches.get(i).getType());
+			Assert.assertEquals(i, matches.get(i).getIndexA());
+			Assert.assertEquals(i + 1, matches.get(i).getIndexB());
+		}
+		Assert.assertEquals(SlideMatchType.MOVED, matches.get(count - 1).getType());
+		Assert.assertEquals(0, matches.get(count - 1).getIndexB());
+		Assert.assertTrue("took " + millis + " ms", millis < 5000);
+	}
+	
+	/**
+	 * Helper method to build slides that share a layout and shape names, differing only by text.
+	 * 
+	 * @param texts String...
+	 * @return List<PptxSlide>
+	 */
+	private List<PptxSlide> deck(String... texts) {
+		List<PptxSlide> slides = new ArrayList<>();
+		for (int i = 0; i < texts.length; i++) {
+			PptxSlide slide = new PptxSlide();
+			slide.setSlideNumber(i + 1);
+			slide.setText(texts[i]);
+			slide.setLayout("Title and Content");
+			slide.setShapeNames(Arrays.asList("Title 1", "Content Placeholder 2"));
+			slides.add(slide);
+		}
+		return slides;
+	}
+
+}
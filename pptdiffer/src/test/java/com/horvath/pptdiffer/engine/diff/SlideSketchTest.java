@@ -0,0 +1,101 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine.diff;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.horvath.pptdiffer.engine.model.PptxSlide;
+
+/**
+ * Tests operations of SlideSketch.
+ * @author jhorvath
+ */
+public class SlideSketchTest {
+	
+	private static final List<String> SHAPE_NAMES = Arrays.asList("Title 1", "Content Placeholder 2");
+	
+	private static final String TEXT = "Quarterly results show revenue growth in every region "
+			+ "with the strongest gains in the northern markets and steady margins overall";
+	
+	@Test
+	public void similarity_sameText_one() {
+		int[] sketch = SlideSketch.sketch(TEXT, SHAPE_NAMES);
+		
+		Assert.assertEquals(SlideSketch.SIZE, sketch.length);
+		Assert.assertEquals(1.0, SlideSketch.similarity(sketch, SlideSketch.sketch(TEXT, SHAPE_NAMES)), 0.0);
+	}
+	
+	@Test
+	public void similarity_lightlyEditedText_high() {
+		int[] sketchA = SlideSketch.sketch(TEXT, SHAPE_NAMES);
+		int[] sketchB = SlideSketch.sketch(TEXT.replace("steady", "stable"), SHAPE_NAMES);
+		
+		Assert.assertTrue(SlideSketch.similarity(sketchA, sketchB) >= SlideAligner.SIMILARITY_THRESHOLD);
+	}
+	
+	@Test
+	public void similarity_unrelatedText_low() {
+		int[] sketchA = SlideSketch.sketch(TEXT, SHAPE_NAMES);
+		int[] sketchB = SlideSketch.sketch("Agenda introductions project timeline open questions", 
+				Arrays.asList("Chart 3"));
+		
+		Assert.assertTrue(SlideSketch.similarity(sketchA, sketchB) < 0.2);
+	}
+	
+	@Test
+	public void of_slideWithoutSketch_sketchComputed() {
+		PptxSlide slide = new PptxSlide();
+		slide.setText(TEXT);
+		slide.setShapeNames(SHAPE_NAMES);
+		
+		Assert.assertArrayEquals(SlideSketch.sketch(TEXT, SHAPE_NAMES), SlideSketch.of(slide));
+		
+		// a parsed slide already carries its sketch
+		int[] sketch = new int[SlideSketch.SIZE];
+		slide.setSketch(sketch);
+		Assert.assertSame(sketch, SlideSketch.of(slide));
+	}
+	
+	@Test
+	public void similarPairs_editedSlide_pairFound() {
+		int[][] sketchesA = {
+				SlideSketch.sketch("Agenda introductions project timeline open questions", SHAPE_NAMES), 
+				SlideSketch.sketch(TEXT, SHAPE_NAMES) };
+		int[][] sketchesB = {
+				SlideSketch.sketch(TEXT.replace("every", "each"), SHAPE_NAMES), 
+				null };
+		
+		List<int[]> pairs = SlideSketch.similarPairs(sketchesA, sketchesB, SlideAligner.SIMILARITY_THRESHOLD);
+		
+		Assert.assertEquals(1, pairs.size());
+		Assert.assertEquals(1, pairs.get(0)[0]);
+		Assert.assertEquals(0, pairs.get(0)[1]);
+	}
+
+}
@@ -0,0 +1,194 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine.diff;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.horvath.pptdiffer.engine.model.PptxTable;
+
+/**
+ * Tests operations of TableDiff.
+ * @author jhorvath
+ */
+public class TableDiffTest {
+	
+	@Test
+	public void diff_sameTables_same() {
+		TableDiff diff = new TableDiff(grid(3, 4), grid(3, 4));
+		
+		Assert.assertTrue(diff.isSame());
+		Assert.assertEquals(2, diff.pairedRow(2));
+		Assert.assertEquals(3, diff.pairedColumn(3));
+	}
+	
+	@Test
+	public void diff_oneCellChanged_cellReported() {
+		PptxTable tableB = edit(grid(3, 4), 1, 2, "changed");
+		
+		TableDiff diff = new TableDiff(grid(3, 4), tableB);
+		
+		Assert.assertFalse(diff.isSame());
+		Assert.assertTrue(diff.getInsertedRows().isEmpty());
+		Assert.assertTrue(diff.getInsertedColumns().isEmpty());
+		Assert.assertEquals(1, diff.getChangedCells().size());
+		
+		CellChange cell = diff.getChangedCells().get(0);
+		Assert.assertEquals(1, cell.getRowA());
+		Assert.assertEquals(2, cell.getColumnA());
+		Assert.assertFalse(cell.isShifted());
+		Assert.assertEquals("r1c2", cell.getTextA());
+		Assert.assertEquals("changed", cell.getTextB());
+	}
+	
+	@Test
+	public void diff_rowInserted_rowReportedWithoutCellChanges() {
+		List<List<String>> rowsB = new ArrayList<>(grid(4, 3).getRows());
+		rowsB.add(1, Arrays.asList("new", "new", "new"));
+		
+		TableDiff diff = new TableDiff(grid(4, 3), new PptxTable(rowsB));
+		
+		Assert.assertEquals(Arrays.asList(1), diff.getInsertedRows());
+		Assert.assertTrue(diff.getDeletedRows().isEmpty());
+		Assert.assertTrue(diff.getChangedCells().isEmpty());
+		Assert.assertEquals(3, diff.pairedRow(2));
+	}
+	
+	@Test
+	public void diff_columnDeleted_columnReportedWithoutCellChanges() {
+		List<List<String>> rowsB = new ArrayList<>();
+		for (List<String> row : grid(4, 3).getRows()) {
+			rowsB.add(Arrays.asList(row.get(0), row.get(2)));
+		}
+		
+		TableDiff diff = new TableDiff(grid(4, 3), new PptxTable(rowsB));
+		
+		Assert.assertEquals(Arrays.asList(1), diff.getDeletedColumns());
+		Assert.assertTrue(diff.getInsertedColumns().isEmpty());
+		Assert.assertTrue(diff.getChangedCells().isEmpty());
+		Assert.assertEquals(1, diff.pairedColumn(2));
+	}
+	
+	@Test
+	public void diff_rowAndColumnInsertedWithCellChange_allFound() {
+		List<List<String>> rowsB = new ArrayList<>();
+		for (List<String> row : grid(5, 4).getRows()) {
+			List<String> rowB = new ArrayList<>(row);
+			rowB.add(2, "extra");
+			rowsB.add(rowB);
+		}
+		rowsB.add(3, Arrays.asList("x", "x", "x", "x", "x"));
+		PptxTable tableB = edit(new PptxTable(rowsB), 4, 4, "changed");
+		
+		TableDiff diff = new TableDiff(grid(5, 4), tableB);
+		
+		Assert.assertEquals(Arrays.asList(3), diff.getInsertedRows());
+		Assert.assertEquals(Arrays.asList(2), diff.getInsertedColumns());
+		Assert.assertTrue(diff.getDeletedRows().isEmpty());
+		Assert.assertTrue(diff.getDeletedColumns().isEmpty());
+		Assert.assertEquals(1, diff.getChangedCells().size());
+		
+		CellChange cell = diff.getChangedCells().get(0);
+		Assert.assertEquals(3, cell.getRowA());
+		Assert.assertEquals(3, cell.getColumnA());
+		Assert.assertEquals(4, cell.getRowB());
+		Assert.assertEquals(4, cell.getColumnB());
+		Assert.assertTrue(cell.isShifted());
+	}
+	
+	@Test
+	public void diff_raggedRows_paddedWithEmptyCells() {
+		PptxTable table = new PptxTable(Arrays.asList(Arrays.asList("a", "b"), Arrays.asList("c")));
+		
+		Assert.assertEquals(2, table.getColumnCount());
+		Assert.assertEquals("", table.getCell(1, 1));
+	}
+	
+	@Test
+	public void diff_largeTables_finishesQuickly() {
+		final int size = 100;
+		PptxTable tableA = grid(size, size);
+		
+		List<List<String>> rowsB = new ArrayList<>();
+		for (List<String> row : tableA.getRows()) {
+			List<String> rowB = new ArrayList<>(row);
+			rowB.add(50, "extra");
+			rowsB.add(rowB);
+		}
+		rowsB.remove(10);
+		rowsB.add(70, new ArrayList<>(rowsB.get(0)));
+		PptxTable tableB = new PptxTable(rowsB);
+		
+		final long start = System.nanoTime();
+		TableDiff diff = new TableDiff(tableA, tableB);
+		final long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+		
+		Assert.assertEquals(Arrays.asList(10), diff.getDeletedRows());
+		Assert.assertEquals(Arrays.asList(70), diff.getInsertedRows());
+		Assert.assertEquals(Arrays.asList(50), diff.getInsertedColumns());
+		Assert.assertTrue(diff.getChangedCells().isEmpty());
+		Assert.assertTrue("took " + elapsedMillis + " ms", elapsedMillis < 2000);
+	}
+	
+	/**
+	 * Creates a table whose cells hold their own coordinates, such as r1c2.
+	 * @param rows int
+	 * @param columns int
+	 * @return PptxTable
+	 */
+	private static PptxTable grid(int rows, int columns) {
+		List<List<String>> cells = new ArrayList<>();
+		for (int row = 0; row < rows; row++) {
+			List<String> cellRow = new ArrayList<>();
+			for (int column = 0; column < columns; column++) {
+				cellRow.add("r" + row + "c" + column);
+			}
+			cells.add(cellRow);
+		}
+		return new PptxTable(cells);
+	}
+	
+	/**
+	 * Returns a copy of a table with the text of one cell replaced.
+	 * @param table PptxTable
+	 * @param row int
+	 * @param column int
+	 * @param text String
+	 * @return PptxTable
+	 */
+	private static PptxTable edit(PptxTable table, int row, int column, String text) {
+		List<List<String>> cells = new ArrayList<>();
+		for (List<String> cellRow : table.getRows()) {
+			cells.add(new ArrayList<>(cellRow));
+		}
+		cells.get(row).set(column, text);
+		return new PptxTable(cells);
+	}
+
+}
@@ -0,0 +1,108 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine.diff;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.horvath.pptdiffer.engine.model.PptxShape;
+import com.horvath.pptdiffer.engine.model.PptxShapeType;
+import com.horvath.pptdiffer.engine.model.PptxTemplate;
+
+/**
+ * Tests operations of TemplateDiff.
+ * @author jhorvath
+ */
+public class TemplateDiffTest {
+	
+	@Test
+	public void templateDiff_sameTemplates_same() {
+		TemplateDiff diff = new TemplateDiff(
+				template("Title Slide", "solidFill{srgbClr[val=FFFFFF]}", placeholder(2, "title", 0, 100)), 
+				template("Title Slide", "solidFill{srgbClr[val=FFFFFF]}", placeholder(2, "title", 0, 100)));
+		
+		Assert.assertTrue(diff.isSame());
+		Assert.assertFalse(diff.isRenamed());
+		Assert.assertFalse(diff.isBackgroundChanged());
+		Assert.assertTrue(diff.getShapeChanges().isEmpty());
+	}
+	
+	@Test
+	public void templateDiff_backgroundChanged_changeReported() {
+		TemplateDiff diff = new TemplateDiff(
+				template("Title Slide", "solidFill{srgbClr[val=FFFFFF]}"), 
+				template("Title Slide", "solidFill{srgbClr[val=000000]}"));
+		
+		Assert.assertFalse(diff.isSame());
+		Assert.assertTrue(diff.isBackgroundChanged());
+		
+		// a background of its own compared with the master's
+		Assert.assertTrue(new TemplateDiff(template("Title Slide", null), 
+				template("Title Slide", "solidFill{srgbClr[val=000000]}")).isBackgroundChanged());
+	}
+	
+	@Test
+	public void templateDiff_placeholderMovedAndRenamed_changesReported() {
+		TemplateDiff diff = new TemplateDiff(
+				template("Title Slide", null, placeholder(2, "title", 0, 100), placeholder(3, "body", 1, 200)), 
+				template("Title Only", null, placeholder(2, "title", 0, 300), placeholder(3, "body", 1, 200)));
+		
+		Assert.assertFalse(diff.isSame());
+		Assert.assertTrue(diff.isRenamed());
+		
+		// the unchanged body placeholder is left out
+		Assert.assertEquals(1, diff.getShapeChanges().size());
+		ShapeChange change = diff.getShapeChanges().get(0);
+		Assert.assertEquals("title", change.getShapeA().getPlaceholderType());
+		Assert.assertTrue(change.hasChange(ShapeChangeType.MOVED));
+	}
+	
+	private static PptxTemplate template(String name, String background, PptxShape... shapes) {
+		PptxTemplate template = new PptxTemplate();
+		template.setPartName("/ppt/slideLayouts/slideLayout1.xml");
+		template.setMasterPartName("/ppt/slideMasters/slideMaster1.xml");
+		template.setName(name);
+		template.setBackground(background);
+		template.setShapes(new ArrayList<>(Arrays.asList(shapes)));
+		return template;
+	}
+	
+	private static PptxShape placeholder(int id, String type, long index, long y) {
+		PptxShape shape = new PptxShape();
+		shape.setId(id);
+		shape.setName(type + " " + id);
+		shape.setType(PptxShapeType.TEXT);
+		shape.setPlaceholderType(type);
+		shape.setPlaceholderIndex(index);
+		shape.setY(y);
+		shape.setWidth(500);
+		shape.setHeight(80);
+		return shape;
+	}
+
+}
@@ -0,0 +1,111 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.engine.diff;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests operations of UnifiedDiff.
+ * @author jhorvath
+ */
+public class UnifiedDiffTest {
+	
+	private static final String EOL = "\n";
+	
+	@Test
+	public void lines_mixedTerminators_splitOnEach() {
+		Assert.assertEquals(Arrays.asList("a", "b", "", "c"), UnifiedDiff.lines("a\r\nb\n\rc\n"));
+		Assert.assertTrue(UnifiedDiff.lines("").isEmpty());
+	}
+	
+	@Test
+	public void format_sameText_empty() {
+		UnifiedDiff diff = new UnifiedDiff("a\nb\n", "a\r\nb");
+		
+		Assert.assertTrue(diff.isSame());
+		Assert.assertEquals("", diff.format("A", "B", 3, EOL));
+	}
+	
+	@Test
+	public void format_changedLine_hunkWithContext() {
+		UnifiedDiff diff = new UnifiedDiff("1\n2\n3\n4\n5\n6\n7\n8\n", "1\n2\n3\n4\nfive\n6\n7\n8\n");
+		
+		final String expected = "--- A" + EOL 
+				+ "+++ B" + EOL
+				+ "@@ -3,5 +3,5 @@" + EOL
+				+ " 3" + EOL
+				+ " 4" + EOL
+				+ "-5" + EOL
+				+ "+five" + EOL
+				+ " 6" + EOL
+				+ " 7" + EOL;
+		Assert.assertEquals(expected, diff.format("A", "B", 2, EOL));
+	}
+	
+	@Test
+	public void format_distantChanges_separateHunks() {
+		StringBuilder a = new StringBuilder();
+		StringBuilder b = new StringBuilder();
+		for (int i = 1; i <= 20; i++) {
+			a.append(i).append(EOL);
+			b.append(i == 2 || i == 18 ? "x" : String.valueOf(i)).append(EOL);
+		}
+		
+		final String unified = new UnifiedDiff(a.toString(), b.toString()).format("A", "B", 3, EOL);
+		
+		Assert.assertTrue(unified.contains("@@ -1,5 +1,5 @@"));
+		Assert.assertTrue(unified.contains("@@ -15,6 +15,6 @@"));
+	}
+	
+	@Test
+	public void format_insertAtStart_emptyRangeNamesLineBefore() {
+		final String unified = new UnifiedDiff("a\n", "new\na\n").format("A", "B", 0, EOL);
+		
+		Assert.assertTrue(unified.contains("@@ -0,0 +1 @@" + EOL + "+new" + EOL));
+	}
+	
+	@Test
+	public void diff_manyLines_scales() {
+		StringBuilder a = new StringBuilder();
+		StringBuilder b = new StringBuilder();
+		for (int i = 0; i < 200000; i++) {
+			a.append("line ").append(i).append(EOL);
+			if (i % 10000 != 0) {
+				b.append("line ").append(i).append(EOL);
+			}
+		}
+		
+		final long start = System.nanoTime();
+		UnifiedDiff diff = new UnifiedDiff(a.toString(), b.toString());
+		final long millis = (System.nanoTime() - start) / 1_000_000L;
+		
+		Assert.assertEquals(20, diff.getHunks().size());
+		Assert.assertTrue("took " + millis + " ms", millis < 5000);
+	}
+
+}
@@ -97,6 +97,20 @@ public class PpdWindowTest extends AbstractTestHelper {
 		
 		// compare button should now be enabled as two files are selected
 		Assert.assertTrue(window.getMainPanel().getCompareBtn().isEnabled());
+		
+		// while a comparison runs, only the cancel button can be used
+		Assert.assertFalse(window.getMainPanel().getCancelBtn().isEnabled());
+		window.getMainPanel().compareStarted();
+		Assert.assertFalse(window.getMainPanel().getCompareBtn().isEnabled());
+		Assert.assertFalse(window.getMainPanel().getFileA_SelectBtn().isEnabled());
+		Assert.assertTrue(window.getMainPanel().getCancelBtn().isEnabled());
+		
+		window.getMainPanel().showProgress("Parsing slides", 2, 4);
+		Assert.assertEquals(2, window.getMainPanel().getProgressBar().getValue());
+		
+		window.getMainPanel().compareFinished();
+		Assert.assertTrue(window.getMainPanel().getCompareBtn().isEnabled());
+		Assert.assertFalse(window.getMainPanel().getCancelBtn().isEnabled());
 
 		// the text fields are never hand editable
 		Assert.assertFalse(window.getMainPanel().getFileA_TextField().isEditable());
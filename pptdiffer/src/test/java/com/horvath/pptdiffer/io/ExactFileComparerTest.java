@@ -0,0 +1,219 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.horvath.pptdiffer.engine.AbstractTestHelper;
+import com.horvath.pptdiffer.exception.PpdException;
+import com.horvath.pptdiffer.utility.ListenerList;
+import com.horvath.pptdiffer.utility.PpdEvent;
+import com.horvath.pptdiffer.utility.PpdEventType;
+
+/**
+ * Tests operations of ExactFileComparer.
+ * @author jhorvath
+ */
+public class ExactFileComparerTest extends AbstractTestHelper {
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void compare_sameContents_same() {
+		ExactFileComparer comparer = new ExactFileComparer(new File(EXACT_FILE_1), new File(EXACT_FILE_2));
+		
+		try {
+			comparer.compare();
+			
+			Assert.assertTrue(comparer.isSameFile());
+			Assert.assertEquals(ExactFileComparer.NO_MISMATCH, comparer.getMismatchOffset());
+			Assert.assertEquals(comparer.getSizeA(), comparer.getSizeB());
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void compare_listeners_bytesReadOfBothFilesReported() {
+		final List<PpdEvent> events = new ArrayList<>();
+		ListenerList listeners = new ListenerList();
+		listeners.add(events::add);
+		
+		ExactFileComparer comparer = new ExactFileComparer(new File(EXACT_FILE_1), new File(EXACT_FILE_2));
+		comparer.setListeners(listeners);
+		
+		try {
+			comparer.compare();
+			
+			Assert.assertFalse(events.isEmpty());
+			PpdEvent last = events.get(events.size() - 1);
+			Assert.assertEquals(PpdEventType.BYTES_READ, last.getType());
+			Assert.assertEquals(2 * comparer.getSizeA(), last.getDone());
+			Assert.assertEquals(last.getTotal(), last.getDone());
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void compare_samePath_same() {
+		ExactFileComparer comparer = new ExactFileComparer(new File(BASIC_FILE_A), new File(BASIC_FILE_A));
+		
+		try {
+			comparer.compare();
+			
+			Assert.assertTrue(comparer.isSameFile());
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void compare_differentSizes_rejectedWithoutOffset() {
+		File fileA = new File(EXACT_FILE_1);
+		File fileB = new File(EXACT_FILE_4);
+		ExactFileComparer comparer = new ExactFileComparer(fileA, fileB);
+		
+		try {
+			comparer.compare();
+			
+			Assert.assertFalse(comparer.isSameFile());
+			Assert.assertEquals(ExactFileComparer.NO_MISMATCH, comparer.getMismatchOffset());
+			Assert.assertEquals(fileA.length(), comparer.getSizeA());
+			Assert.assertEquals(fileB.length(), comparer.getSizeB());
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void compare_sameSizeDifferentByte_offsetReported() {
+		try {
+			// make the difference land past the first buffer
+			final int length = ExactFileComparer.BUFFER_SIZE + 1000;
+			final int offset = ExactFileComparer.BUFFER_SIZE + 17;
+			
+			byte[] dataA = new byte[length];
+			byte[] dataB = new byte[length];
+			dataB[offset] = 1;
+			
+			File fileA = folder.newFile("A.pptx");
+			File fileB = folder.newFile("B.pptx");
+			Files.write(fileA.toPath(), dataA);
+			Files.write(fileB.toPath(), dataB);
+			
+			ExactFileComparer comparer = new ExactFileComparer(fileA, fileB);
+			comparer.compare();
+			
+			Assert.assertFalse(comparer.isSameFile());
+			Assert.assertEquals(offset, comparer.getMismatchOffset());
+			
+		} catch (PpdException | IOException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void compare_emptyFiles_same() {
+		try {
+			ExactFileComparer comparer = new ExactFileComparer(folder.newFile("A.pptx"), folder.newFile("B.pptx"));
+			comparer.compare();
+			
+			Assert.assertTrue(comparer.isSameFile());
+			
+		} catch (PpdException | IOException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void compare_fileNotExist_exception() {
+		boolean caughtException = false;
+		try {
+			ExactFileComparer comparer = new ExactFileComparer(new File(BASIC_FILE_A), new File("fake.pptx"));
+			comparer.compare();
+			
+		} catch (PpdException ex) {
+			caughtException = true;
+		}
+		Assert.assertTrue(caughtException);
+	}
+	
+	@Test
+	public void compare_bothFilesShrinkWhileReading_exceptionThrown() {
+		boolean caughtException = false;
+		
+		try {
+			final int length = ExactFileComparer.BUFFER_SIZE + 1000;
+			
+			final File fileA = folder.newFile("A.pptx");
+			final File fileB = folder.newFile("B.pptx");
+			Files.write(fileA.toPath(), new byte[length]);
+			Files.write(fileB.toPath(), new byte[length]);
+			
+			// cut both files short once the first block has been read
+			ListenerList listeners = new ListenerList();
+			listeners.add(event -> {
+				try (RandomAccessFile rafA = new RandomAccessFile(fileA, "rw"); 
+						RandomAccessFile rafB = new RandomAccessFile(fileB, "rw")) {
+					rafA.setLength(ExactFileComparer.BUFFER_SIZE);
+					rafB.setLength(ExactFileComparer.BUFFER_SIZE);
+					
+				} catch (IOException ex) {
+					Assert.fail();
+				}
+			});
+			
+			ExactFileComparer comparer = new ExactFileComparer(fileA, fileB);
+			comparer.setListeners(listeners);
+			comparer.compare();
+			
+		} catch (PpdException ex) {
+			caughtException = true;
+			Assert.assertTrue(ex.getMessage().startsWith(ExactFileComparer.ERROR_FILE_SHRANK));
+			
+		} catch (IOException ex) {
+			Assert.fail();
+		}
+		
+		Assert.assertTrue(caughtException);
+	}
+
+}
@@ -0,0 +1,183 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.horvath.pptdiffer.engine.AbstractTestHelper;
+import com.horvath.pptdiffer.exception.PpdException;
+import com.horvath.pptdiffer.utility.CancellationToken;
+import com.horvath.pptdiffer.utility.ListenerList;
+import com.horvath.pptdiffer.utility.PpdEvent;
+import com.horvath.pptdiffer.utility.PpdEventType;
+
+/**
+ * Tests operations of FileDigestCache.
+ * @author jhorvath
+ */
+public class FileDigestCacheTest extends AbstractTestHelper {
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	@Test
+	public void computeDigest_knownContents_expectedDigest() {
+		try {
+			File file = folder.newFile("abc.txt");
+			Files.write(file.toPath(), "abc".getBytes(StandardCharsets.US_ASCII));
+			
+			Assert.assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", 
+					FileDigestCache.computeDigest(file));
+			
+		} catch (PpdException | IOException ex) {
+			Assert.fail();
+		}
+	}
+
+	@Test
+	public void getDigest_saved_availableToNewCache() {
+		try {
+			File cacheFile = new File(folder.getRoot(), "digests.properties");
+			File file = new File(EXACT_FILE_1);
+			
+			FileDigestCache cache = new FileDigestCache(cacheFile);
+			Assert.assertNull(cache.lookup(file));
+			
+			final String digest = cache.getDigest(file);
+			cache.save();
+			
+			Assert.assertTrue(cacheFile.exists());
+			
+			FileDigestCache reloaded = new FileDigestCache(cacheFile);
+			Assert.assertEquals(digest, reloaded.lookup(file));
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void getDigest_sameContents_sameDigest() {
+		try {
+			FileDigestCache cache = new FileDigestCache(new File(folder.getRoot(), "digests.properties"));
+			
+			Assert.assertEquals(cache.getDigest(new File(EXACT_FILE_1)), cache.getDigest(new File(EXACT_FILE_3)));
+			Assert.assertNotEquals(cache.getDigest(new File(EXACT_FILE_1)), cache.getDigest(new File(EXACT_FILE_5)));
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void lookup_fileChanged_staleEntryIgnored() {
+		try {
+			File cacheFile = new File(folder.getRoot(), "digests.properties");
+			File file = folder.newFile("deck.pptx");
+			Files.write(file.toPath(), "first".getBytes(StandardCharsets.US_ASCII));
+			
+			FileDigestCache cache = new FileDigestCache(cacheFile);
+			final String first = cache.getDigest(file);
+			cache.save();
+			
+			Files.write(file.toPath(), "second version".getBytes(StandardCharsets.US_ASCII));
+			
+			FileDigestCache reloaded = new FileDigestCache(cacheFile);
+			Assert.assertNull(reloaded.lookup(file));
+			Assert.assertNotEquals(first, reloaded.getDigest(file));
+			
+		} catch (PpdException | IOException ex) {
+			Assert.fail();
+		}
+	}
+
+	@Test
+	public void getDigest_cancelled_fileNotCached() {
+		CancellationToken token = new CancellationToken();
+		token.cancel();
+		
+		File file = new File(EXACT_FILE_1);
+		FileDigestCache cache = new FileDigestCache(new File(folder.getRoot(), "digests.properties"));
+		cache.setCancellationToken(token);
+		boolean caughtException = false;
+		
+		try {
+			cache.getDigest(file);
+			
+		} catch (PpdException ex) {
+			caughtException = true;
+			Assert.assertEquals(CancellationToken.ERROR_CANCELLED, ex.getMessage());
+		}
+		
+		Assert.assertTrue(caughtException);
+		
+		try {
+			Assert.assertNull(cache.lookup(file));
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void getDigest_listeners_bytesReadReported() {
+		final List<PpdEvent> events = new ArrayList<>();
+		ListenerList listeners = new ListenerList();
+		listeners.add(events::add);
+		
+		File file = new File(EXACT_FILE_1);
+		FileDigestCache cache = new FileDigestCache(new File(folder.getRoot(), "digests.properties"));
+		cache.setListeners(listeners);
+		
+		try {
+			cache.getDigest(file);
+			
+			Assert.assertFalse(events.isEmpty());
+			PpdEvent last = events.get(events.size() - 1);
+			Assert.assertEquals(PpdEventType.BYTES_READ, last.getType());
+			Assert.assertEquals(file.length(), last.getDone());
+			Assert.assertEquals(file.length(), last.getTotal());
+			
+			// a digest answered from the cache reads nothing
+			events.clear();
+			cache.getDigest(file);
+			Assert.assertTrue(events.isEmpty());
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+
+}
@@ -0,0 +1,107 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.utility;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.horvath.pptdiffer.exception.PpdException;
+import com.horvath.pptdiffer.exception.PpdTimeoutException;
+
+/**
+ * Tests operations of CancellationToken.
+ * @author jhorvath
+ */
+public class CancellationTokenTest {
+	
+	@Test
+	public void check_noDeadline_neverStops() {
+		CancellationToken token = new CancellationToken();
+		
+		try {
+			token.check();
+			Assert.assertFalse(token.isCancelled());
+			Assert.assertFalse(token.isExpired());
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void check_cancelled_exception() {
+		CancellationToken token = new CancellationToken(1, TimeUnit.HOURS);
+		token.cancel();
+		boolean caughtException = false;
+		
+		try {
+			token.check();
+			
+		} catch (PpdException ex) {
+			caughtException = true;
+			// a cancelled token is not a timeout
+			Assert.assertFalse(ex instanceof PpdTimeoutException);
+			Assert.assertEquals(CancellationToken.ERROR_CANCELLED, ex.getMessage());
+		}
+		Assert.assertTrue(caughtException);
+	}
+	
+	@Test
+	public void check_deadlinePassed_timeoutException() {
+		CancellationToken token = new CancellationToken(0, TimeUnit.MILLISECONDS);
+		boolean caughtException = false;
+		
+		try {
+			token.check();
+			
+		} catch (PpdTimeoutException ex) {
+			caughtException = true;
+			Assert.assertEquals(CancellationToken.ERROR_DEADLINE, ex.getMessage());
+			Assert.assertNull(ex.getPartialReport());
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+		Assert.assertTrue(caughtException);
+		Assert.assertTrue(token.isExpired());
+		Assert.assertFalse(token.isCancelled());
+	}
+	
+	@Test
+	public void check_deadlineAhead_notExpired() {
+		CancellationToken token = new CancellationToken(1, TimeUnit.HOURS);
+		
+		try {
+			token.check();
+			Assert.assertFalse(token.isExpired());
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+
+}
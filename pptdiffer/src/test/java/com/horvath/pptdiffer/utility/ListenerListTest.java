@@ -0,0 +1,91 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.utility;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests operations of ListenerList.
+ * @author jhorvath
+ */
+public class ListenerListTest {
+	
+	@Test
+	public void fire_twoListeners_toldInOrder() {
+		final List<String> told = new ArrayList<>();
+		ListenerList listeners = new ListenerList();
+		listeners.add(event -> told.add("first " + event.getStage()));
+		listeners.add(event -> told.add("second " + event.getStage()));
+		
+		listeners.fire(new PpdEvent(PpdEventType.STAGE_STARTED, PpdEvent.STAGE_LOAD));
+		
+		Assert.assertEquals(2, told.size());
+		Assert.assertEquals("first " + PpdEvent.STAGE_LOAD, told.get(0));
+		Assert.assertEquals("second " + PpdEvent.STAGE_LOAD, told.get(1));
+	}
+	
+	@Test
+	public void fire_removedListener_notTold() {
+		final List<PpdEvent> told = new ArrayList<>();
+		PpdListener listener = told::add;
+		ListenerList listeners = new ListenerList();
+		listeners.add(listener);
+		listeners.remove(listener);
+		
+		listeners.fire(new PpdEvent(PpdEventType.STAGE_FINISHED, PpdEvent.STAGE_LOAD));
+		
+		Assert.assertTrue(listeners.isEmpty());
+		Assert.assertTrue(told.isEmpty());
+	}
+	
+	@Test
+	public void fire_listenerThrows_othersStillTold() {
+		final List<PpdEvent> told = new ArrayList<>();
+		ListenerList listeners = new ListenerList();
+		listeners.add(event -> {
+			throw new IllegalStateException("listener failed");
+		});
+		listeners.add(told::add);
+		
+		PpdEvent event = new PpdEvent(PpdEventType.SLIDE_PARSED, PpdEvent.STAGE_PARSE, 1, 4, "Slide 1");
+		listeners.fire(event);
+		
+		Assert.assertEquals(1, told.size());
+		Assert.assertSame(event, told.get(0));
+	}
+	
+	@Test
+	public void add_null_ignored() {
+		ListenerList listeners = new ListenerList();
+		listeners.add(null);
+		
+		Assert.assertTrue(listeners.isEmpty());
+	}
+
+}
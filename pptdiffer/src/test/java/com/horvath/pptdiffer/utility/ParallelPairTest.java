@@ -0,0 +1,120 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.utility;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.horvath.pptdiffer.exception.PpdException;
+
+/**
+ * Tests operations of ParallelPair.
+ * @author jhorvath
+ */
+public class ParallelPairTest {
+	
+	@Test
+	public void run_executor_bothTasksRunOnce() {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		AtomicInteger runsA = new AtomicInteger();
+		AtomicInteger runsB = new AtomicInteger();
+		
+		try {
+			for (int i = 0; i < 100; i++) {
+				ParallelPair.run(executor, runsA::incrementAndGet, runsB::incrementAndGet);
+			}
+			
+			Assert.assertEquals(100, runsA.get());
+			Assert.assertEquals(100, runsB.get());
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+			
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	@Test
+	public void run_executorNeverRunsTask_taskARunByCaller() {
+		// an executor whose threads are all busy never gets to task A
+		AtomicInteger runsA = new AtomicInteger();
+		
+		try {
+			ParallelPair.run(task -> { }, runsA::incrementAndGet, () -> { });
+			
+			Assert.assertEquals(1, runsA.get());
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+		}
+	}
+	
+	@Test
+	public void run_nestedOnSingleThreadPool_finishes() {
+		ExecutorService executor = Executors.newFixedThreadPool(1);
+		AtomicInteger runs = new AtomicInteger();
+		
+		try {
+			// the only pool thread runs the outer pair and waits on the inner one
+			ParallelPair.run(executor, 
+					() -> ParallelPair.run(executor, runs::incrementAndGet, runs::incrementAndGet), 
+					() -> ParallelPair.run(executor, runs::incrementAndGet, runs::incrementAndGet));
+			
+			Assert.assertEquals(4, runs.get());
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+			
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	@Test
+	public void run_taskAFails_failureThrown() {
+		ExecutorService executor = Executors.newFixedThreadPool(1);
+		boolean caughtException = false;
+		
+		try {
+			ParallelPair.run(executor, () -> {
+				throw new PpdException("File A failed");
+			}, () -> { });
+			
+		} catch (PpdException ex) {
+			caughtException = true;
+			Assert.assertEquals("File A failed", ex.getMessage());
+			
+		} finally {
+			executor.shutdown();
+		}
+		Assert.assertTrue(caughtException);
+	}
+
+}
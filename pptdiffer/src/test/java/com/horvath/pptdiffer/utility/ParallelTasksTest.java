@@ -0,0 +1,107 @@
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2024 Joshua Horvath
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.horvath.pptdiffer.utility;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.horvath.pptdiffer.exception.PpdException;
+
+/**
+ * Tests operations of ParallelTasks.
+ * @author jhorvath
+ */
+public class ParallelTasksTest {
+	
+	@Test
+	public void forEach_executor_everyIndexRunOnce() {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		AtomicIntegerArray runs = new AtomicIntegerArray(1000);
+		
+		try {
+			ParallelTasks.forEach(executor, 4, runs.length(), index -> runs.incrementAndGet(index));
+			
+			for (int i = 0; i < runs.length(); i++) {
+				Assert.assertEquals(1, runs.get(i));
+			}
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+			
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	@Test
+	public void forEach_nestedInBusyPool_completes() {
+		// the only pool thread is running the outer task, so the caller must do the work
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		AtomicIntegerArray runs = new AtomicIntegerArray(50);
+		
+		try {
+			ParallelPair.run(executor, 
+					() -> ParallelTasks.forEach(executor, 4, runs.length(), index -> runs.incrementAndGet(index)), 
+					() -> { });
+			
+			for (int i = 0; i < runs.length(); i++) {
+				Assert.assertEquals(1, runs.get(i));
+			}
+			
+		} catch (PpdException ex) {
+			Assert.fail();
+			
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	@Test
+	public void forEach_failingTask_failureThrown() {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		boolean caughtException = false;
+		
+		try {
+			ParallelTasks.forEach(executor, 2, 10, index -> {
+				if (index == 5) {
+					throw new PpdException("failed " + index);
+				}
+			});
+			
+		} catch (PpdException ex) {
+			caughtException = true;
+			Assert.assertEquals("failed 5", ex.getMessage());
+			
+		} finally {
+			executor.shutdown();
+		}
+		Assert.assertTrue(caughtException);
+	}
+
+}